@@ -0,0 +1,133 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils;
+
+import java.util.Arrays;
+
+/**
+ * Case-insensitive word dictionary (prefix tree).
+ * Lookup works on char arrays and char sequences directly, so it doesn't allocate strings.
+ * Null values are not supported.
+ */
+public class CharTrie<VALUE> {
+
+    private final Node<VALUE> root = new Node<>();
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void put(CharSequence word, VALUE value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        Node<VALUE> node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.addChild(toLowerCase(word.charAt(i)));
+        }
+        if (node.value == null) {
+            size++;
+        }
+        node.value = value;
+    }
+
+    public VALUE get(CharSequence word) {
+        Node<VALUE> node = root;
+        for (int i = 0; i < word.length() && node != null; i++) {
+            node = node.getChild(toLowerCase(word.charAt(i)));
+        }
+        return node == null ? null : node.value;
+    }
+
+    public VALUE get(char[] chars, int offset, int length) {
+        Node<VALUE> node = root;
+        for (int i = offset; i < offset + length && node != null; i++) {
+            node = node.getChild(toLowerCase(chars[i]));
+        }
+        return node == null ? null : node.value;
+    }
+
+    public boolean containsKey(CharSequence word) {
+        return get(word) != null;
+    }
+
+    public void clear() {
+        root.clear();
+        size = 0;
+    }
+
+    private static char toLowerCase(char c) {
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    private static class Node<VALUE> {
+        private static final char[] NO_CHARS = new char[0];
+
+        // Sorted child chars
+        private char[] chars = NO_CHARS;
+        // Child nodes (in the same order as chars). Generic arrays can't be created so Object[] is used
+        private Object[] children;
+        private VALUE value;
+
+        Node<VALUE> getChild(char c) {
+            int index = Arrays.binarySearch(chars, c);
+            return index < 0 ? null : childAt(index);
+        }
+
+        Node<VALUE> addChild(char c) {
+            int index = Arrays.binarySearch(chars, c);
+            if (index >= 0) {
+                return childAt(index);
+            }
+            index = -index - 1;
+            Node<VALUE> child = new Node<>();
+            char[] newChars = new char[chars.length + 1];
+            Object[] newChildren = new Object[chars.length + 1];
+            System.arraycopy(chars, 0, newChars, 0, index);
+            System.arraycopy(chars, index, newChars, index + 1, chars.length - index);
+            if (children != null) {
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(children, index, newChildren, index + 1, chars.length - index);
+            }
+            newChars[index] = c;
+            newChildren[index] = child;
+            chars = newChars;
+            children = newChildren;
+            return child;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Node<VALUE> childAt(int index) {
+            return (Node<VALUE>) children[index];
+        }
+
+        void clear() {
+            chars = NO_CHARS;
+            children = null;
+            value = null;
+        }
+    }
+
+}
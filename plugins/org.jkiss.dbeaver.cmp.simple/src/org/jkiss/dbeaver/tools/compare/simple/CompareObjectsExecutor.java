@@ -162,6 +162,22 @@ public class CompareObjectsExecutor {
         reportLines.clear();
         lastLine = null;
 
+        // All children of compared containers (e.g. schemas) are compared, so read their structure at once.
+        // Other objects (e.g. tables) are cached with their parent if there are many of them
+        List<DBSObject> objects = new ArrayList<>(nodes.size());
+        for (DBNDatabaseNode node : nodes) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            DBSObject object = node.getObject();
+            if (object instanceof DBSObjectContainer) {
+                ((DBSObjectContainer) object).cacheStructure(monitor, DBSObjectContainer.STRUCT_ALL);
+            } else {
+                objects.add(object);
+            }
+        }
+        DBUtils.cacheParentStructure(monitor, objects, DBSObjectContainer.STRUCT_ALL);
+
         compareNodes(monitor, nodes);
         return new CompareReport(rootNodes, reportLines);
     }
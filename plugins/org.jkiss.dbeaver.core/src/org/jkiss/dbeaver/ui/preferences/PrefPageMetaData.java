@@ -22,6 +22,7 @@ import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Group;
+import org.eclipse.swt.widgets.Spinner;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.core.CoreMessages;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
@@ -40,6 +41,8 @@ public class PrefPageMetaData extends TargetPrefPage
     private Button separateMetaConnectionCheck;
     private Button caseSensitiveNamesCheck;
     private Button serverSideFiltersCheck;
+    private Button metadataSnapshotCheck;
+    private Spinner childrenPrefetchThresholdSpinner;
 
     public PrefPageMetaData()
     {
@@ -54,7 +57,9 @@ public class PrefPageMetaData extends TargetPrefPage
             store.contains(ModelPreferences.READ_EXPENSIVE_PROPERTIES) ||
             store.contains(ModelPreferences.META_SEPARATE_CONNECTION) ||
             store.contains(ModelPreferences.META_CASE_SENSITIVE) ||
-            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS)
+            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS) ||
+            store.contains(ModelPreferences.META_SNAPSHOT_ENABLED) ||
+            store.contains(ModelPreferences.META_CHILDREN_PREFETCH_THRESHOLD)
             ;
     }
 
@@ -75,6 +80,10 @@ public class PrefPageMetaData extends TargetPrefPage
             caseSensitiveNamesCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_case_sensitive_names, CoreMessages.pref_page_database_general_checkbox_case_sensitive_names_tip, false, 1);
             readExpensiveCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_show_row_count, CoreMessages.pref_page_database_general_checkbox_show_row_count_tip, false, 1);
             serverSideFiltersCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_server_side_object_filters, CoreMessages.pref_page_database_general_server_side_object_filters_tip, false, 1);
+            metadataSnapshotCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_metadata_snapshot, CoreMessages.pref_page_database_general_metadata_snapshot_tip, false, 1);
+
+            Composite prefetchComposite = UIUtils.createComposite(metadataGroup, 2);
+            childrenPrefetchThresholdSpinner = UIUtils.createLabelSpinner(prefetchComposite, CoreMessages.pref_page_database_general_children_prefetch_threshold, CoreMessages.pref_page_database_general_children_prefetch_threshold_tip, 0, 0, 10000);
         }
 
         return composite;
@@ -88,6 +97,8 @@ public class PrefPageMetaData extends TargetPrefPage
             separateMetaConnectionCheck.setSelection(store.getBoolean(ModelPreferences.META_SEPARATE_CONNECTION));
             caseSensitiveNamesCheck.setSelection(store.getBoolean(ModelPreferences.META_CASE_SENSITIVE));
             serverSideFiltersCheck.setSelection(store.getBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS));
+            metadataSnapshotCheck.setSelection(store.getBoolean(ModelPreferences.META_SNAPSHOT_ENABLED));
+            childrenPrefetchThresholdSpinner.setSelection(store.getInt(ModelPreferences.META_CHILDREN_PREFETCH_THRESHOLD));
 
         } catch (Exception e) {
             log.warn(e);
@@ -102,6 +113,8 @@ public class PrefPageMetaData extends TargetPrefPage
             store.setValue(ModelPreferences.META_SEPARATE_CONNECTION, separateMetaConnectionCheck.getSelection());
             store.setValue(ModelPreferences.META_CASE_SENSITIVE, caseSensitiveNamesCheck.getSelection());
             store.setValue(ModelPreferences.META_USE_SERVER_SIDE_FILTERS, serverSideFiltersCheck.getSelection());
+            store.setValue(ModelPreferences.META_SNAPSHOT_ENABLED, metadataSnapshotCheck.getSelection());
+            store.setValue(ModelPreferences.META_CHILDREN_PREFETCH_THRESHOLD, childrenPrefetchThresholdSpinner.getSelection());
 
         } catch (Exception e) {
             log.warn(e);
@@ -116,6 +129,8 @@ public class PrefPageMetaData extends TargetPrefPage
         store.setToDefault(ModelPreferences.META_SEPARATE_CONNECTION);
         store.setToDefault(ModelPreferences.META_CASE_SENSITIVE);
         store.setToDefault(ModelPreferences.META_USE_SERVER_SIDE_FILTERS);
+        store.setToDefault(ModelPreferences.META_SNAPSHOT_ENABLED);
+        store.setToDefault(ModelPreferences.META_CHILDREN_PREFETCH_THRESHOLD);
 
     }
 
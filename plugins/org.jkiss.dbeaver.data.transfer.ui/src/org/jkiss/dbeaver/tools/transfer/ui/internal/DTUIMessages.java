@@ -55,6 +55,10 @@ public class DTUIMessages extends NLS {
 	public static String database_consumer_wizard_truncate_checkbox_question;
 	public static String database_consumer_wizard_disable_import_batches_label;
 	public static String database_consumer_wizard_disable_import_batches_description;
+	public static String database_consumer_wizard_use_bulk_load_label;
+	public static String database_consumer_wizard_use_bulk_load_description;
+	public static String database_consumer_wizard_multi_row_insert_label;
+	public static String database_consumer_wizard_multi_row_insert_description;
 	public static String database_consumer_wizard_on_duplicate_key_insert_method_text;
 	public static String database_consumer_wizard_link_label_replace_method_wiki;
 	
@@ -90,6 +94,10 @@ public class DTUIMessages extends NLS {
 	public static String database_producer_page_extract_settings_row_count_checkbox_tooltip;
 	public static String database_producer_page_extract_settings_text_fetch_size_label;
 	public static String database_producer_page_extract_settings_text_fetch_size_tooltip;
+	public static String database_producer_page_extract_settings_pipelined_transfer_checkbox_label;
+	public static String database_producer_page_extract_settings_pipelined_transfer_checkbox_tooltip;
+	public static String database_producer_page_extract_settings_pipeline_buffer_size_label;
+	public static String database_producer_page_extract_settings_pipeline_buffer_size_tooltip;
 
 	public static String database_producer_page_input_objects_name;
 	public static String database_producer_page_input_objects_title;
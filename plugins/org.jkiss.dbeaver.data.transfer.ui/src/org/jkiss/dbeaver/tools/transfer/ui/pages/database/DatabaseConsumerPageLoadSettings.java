@@ -170,6 +170,23 @@ public class DatabaseConsumerPageLoadSettings extends ActiveWizardPage<DataTrans
                     settings.setDisableUsingBatches(useBatchCheck.getSelection());
                 }
             });
+
+            final Button useBulkLoadCheck = UIUtils.createCheckbox(performanceSettings, DTUIMessages.database_consumer_wizard_use_bulk_load_label, DTUIMessages.database_consumer_wizard_use_bulk_load_description, settings.isUseBulkLoad(), 4);
+            useBulkLoadCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setUseBulkLoad(useBulkLoadCheck.getSelection());
+                }
+            });
+
+            final Spinner multiRowInsertEdit = UIUtils.createLabelSpinner(performanceSettings, DTUIMessages.database_consumer_wizard_multi_row_insert_label, DTUIMessages.database_consumer_wizard_multi_row_insert_description, settings.getMultiRowInsertBatch(), 1, 10000);
+            multiRowInsertEdit.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setMultiRowInsertBatch(multiRowInsertEdit.getSelection());
+                }
+            });
+            multiRowInsertEdit.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
         }
 
         {
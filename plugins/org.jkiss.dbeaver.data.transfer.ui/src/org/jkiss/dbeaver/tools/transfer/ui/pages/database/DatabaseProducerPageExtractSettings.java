@@ -36,16 +36,22 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
 
     private static final int EXTRACT_TYPE_SINGLE_QUERY = 0;
     private static final int EXTRACT_TYPE_SEGMENTS = 1;
+    private static final int EXTRACT_TYPE_PARALLEL_RANGES = 2;
 
+    private Label threadsNumLabel;
     private Text threadsNumText;
     private Combo rowsExtractType;
     private Label segmentSizeLabel;
     private Text segmentSizeText;
+    private Label rangeCountLabel;
+    private Text rangeCountText;
     private Button newConnectionCheckbox;
     private Button rowCountCheckbox;
     private Button selectedColumnsOnlyCheckbox;
     private Button selectedRowsOnlyCheckbox;
     private Text fetchSizeText;
+    private Button pipelinedTransferCheckbox;
+    private Text pipelineBufferSizeText;
 
     public DatabaseProducerPageExtractSettings() {
         super(DTUIMessages.database_producer_page_extract_settings_name_and_title);
@@ -65,21 +71,18 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
         {
             Group generalSettings = UIUtils.createControlGroup(composite, DTMessages.data_transfer_wizard_output_group_progress, 4, GridData.FILL_HORIZONTAL, 0);
 
-            Label threadsNumLabel = UIUtils.createControlLabel(generalSettings, DTMessages.data_transfer_wizard_output_label_max_threads);
+            threadsNumLabel = UIUtils.createControlLabel(generalSettings, DTMessages.data_transfer_wizard_output_label_max_threads);
             threadsNumText = new Text(generalSettings, SWT.BORDER);
             threadsNumText.setToolTipText(DTUIMessages.database_producer_page_extract_settings_threads_num_text_tooltip);
             threadsNumText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
             threadsNumText.addModifyListener(e -> {
                 try {
                     getWizard().getSettings().setMaxJobCount(Integer.parseInt(threadsNumText.getText()));
+                    settings.setMaxJobCount(Integer.parseInt(threadsNumText.getText()));
                 } catch (NumberFormatException e1) {
                     // do nothing
                 }
             });
-            if (getWizard().getSettings().getDataPipes().size() < 2) {
-                threadsNumLabel.setEnabled(false);
-                threadsNumText.setEnabled(false);
-            }
             threadsNumText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
 
             {
@@ -89,13 +92,15 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                 rowsExtractType.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
                 rowsExtractType.setItems(
                     DTMessages.data_transfer_wizard_output_combo_extract_type_item_single_query,
-                    DTMessages.data_transfer_wizard_output_combo_extract_type_item_by_segments);
+                    DTMessages.data_transfer_wizard_output_combo_extract_type_item_by_segments,
+                    DTMessages.data_transfer_wizard_output_combo_extract_type_item_parallel_ranges);
                 rowsExtractType.addSelectionListener(new SelectionAdapter() {
                     @Override
                     public void widgetSelected(SelectionEvent e) {
                         switch (rowsExtractType.getSelectionIndex()) {
                             case EXTRACT_TYPE_SEGMENTS: settings.setExtractType(DatabaseProducerSettings.ExtractType.SEGMENTS); break;
                             case EXTRACT_TYPE_SINGLE_QUERY: settings.setExtractType(DatabaseProducerSettings.ExtractType.SINGLE_QUERY); break;
+                            case EXTRACT_TYPE_PARALLEL_RANGES: settings.setExtractType(DatabaseProducerSettings.ExtractType.PARALLEL_RANGES); break;
                         }
                         updatePageCompletion();
                     }
@@ -112,6 +117,18 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                     }
                 });
                 segmentSizeText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
+
+                rangeCountLabel = UIUtils.createControlLabel(generalSettings, DTMessages.data_transfer_wizard_output_label_range_count);
+                rangeCountText = new Text(generalSettings, SWT.BORDER);
+                rangeCountText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
+                rangeCountText.addModifyListener(e -> {
+                    try {
+                        settings.setRangeCount(Integer.parseInt(rangeCountText.getText()));
+                    } catch (NumberFormatException e1) {
+                        // just skip it
+                    }
+                });
+                rangeCountText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
             }
 
             newConnectionCheckbox = UIUtils.createCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_new_connection, DTUIMessages.database_producer_page_extract_settings_new_connection_checkbox_tooltip, true, 4);
@@ -137,6 +154,30 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                 settings.setFetchSize(Integer.parseInt(fetchSizeText.getText()));
             });
 
+            pipelinedTransferCheckbox = UIUtils.createCheckbox(
+                generalSettings,
+                DTUIMessages.database_producer_page_extract_settings_pipelined_transfer_checkbox_label,
+                DTUIMessages.database_producer_page_extract_settings_pipelined_transfer_checkbox_tooltip,
+                false,
+                2);
+            pipelinedTransferCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    getWizard().getSettings().setPipelinedTransfer(pipelinedTransferCheckbox.getSelection());
+                    updatePageCompletion();
+                }
+            });
+            pipelineBufferSizeText = UIUtils.createLabelText(generalSettings, DTUIMessages.database_producer_page_extract_settings_pipeline_buffer_size_label, "", SWT.BORDER);
+            pipelineBufferSizeText.setToolTipText(DTUIMessages.database_producer_page_extract_settings_pipeline_buffer_size_tooltip);
+            pipelineBufferSizeText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
+            pipelineBufferSizeText.addModifyListener(e -> {
+                try {
+                    getWizard().getSettings().setPipelineBufferSize(Integer.parseInt(pipelineBufferSizeText.getText()));
+                } catch (NumberFormatException e1) {
+                    // just skip it
+                }
+            });
+
             IStructuredSelection curSelection = getWizard().getCurrentSelection();
             boolean hasSelection = curSelection != null && !curSelection.isEmpty() && curSelection.getFirstElement() instanceof DBDCellValue;
 
@@ -184,12 +225,16 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
 
         if (segmentSizeText != null) {
             segmentSizeText.setText(String.valueOf(settings.getSegmentSize()));
+            rangeCountText.setText(String.valueOf(settings.getRangeCount()));
             switch (settings.getExtractType()) {
                 case SINGLE_QUERY: rowsExtractType.select(EXTRACT_TYPE_SINGLE_QUERY); break;
                 case SEGMENTS: rowsExtractType.select(EXTRACT_TYPE_SEGMENTS); break;
+                case PARALLEL_RANGES: rowsExtractType.select(EXTRACT_TYPE_PARALLEL_RANGES); break;
             }
         }
         fetchSizeText.setText(String.valueOf(settings.getFetchSize()));
+        pipelinedTransferCheckbox.setSelection(getWizard().getSettings().isPipelinedTransfer());
+        pipelineBufferSizeText.setText(String.valueOf(getWizard().getSettings().getPipelineBufferSize()));
         if (selectedColumnsOnlyCheckbox != null) {
             selectedColumnsOnlyCheckbox.setSelection(settings.isSelectedColumnsOnly());
         }
@@ -205,13 +250,20 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
     {
         if (rowsExtractType != null) {
             int selectionIndex = rowsExtractType.getSelectionIndex();
-            if (selectionIndex == EXTRACT_TYPE_SEGMENTS) {
-                segmentSizeLabel.setEnabled(true);
-                segmentSizeText.setEnabled(true);
-            } else {
-                segmentSizeLabel.setEnabled(false);
-                segmentSizeText.setEnabled(false);
-            }
+            segmentSizeLabel.setEnabled(selectionIndex == EXTRACT_TYPE_SEGMENTS);
+            segmentSizeText.setEnabled(selectionIndex == EXTRACT_TYPE_SEGMENTS);
+            rangeCountLabel.setEnabled(selectionIndex == EXTRACT_TYPE_PARALLEL_RANGES);
+            rangeCountText.setEnabled(selectionIndex == EXTRACT_TYPE_PARALLEL_RANGES);
+        }
+        if (threadsNumText != null) {
+            // Threads read either several tables or key ranges of one table
+            boolean multiThreaded = getWizard().getSettings().getDataPipes().size() > 1 ||
+                (rowsExtractType != null && rowsExtractType.getSelectionIndex() == EXTRACT_TYPE_PARALLEL_RANGES);
+            threadsNumLabel.setEnabled(multiThreaded);
+            threadsNumText.setEnabled(multiThreaded);
+        }
+        if (pipelinedTransferCheckbox != null) {
+            pipelineBufferSizeText.setEnabled(pipelinedTransferCheckbox.getSelection());
         }
         return true;
     }
@@ -45,6 +45,8 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
     private Text directoryText;
     private Text fileNameText;
     private Button compressCheckbox;
+    private Combo compressionFormatCombo;
+    private Spinner compressionThreadsSpinner;
     private Button showFolderCheckbox;
     private Button execProcessCheckbox;
     private Text execProcessText;
@@ -164,6 +166,20 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
                     updateControlsEnablement();
                 }
             });
+            compressionFormatCombo = UIUtils.createLabelCombo(generalSettings, DTMessages.data_transfer_wizard_output_label_compression_format, DTMessages.data_transfer_wizard_output_label_compression_format_tip, SWT.DROP_DOWN | SWT.READ_ONLY);
+            compressionFormatCombo.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            for (StreamConsumerSettings.CompressionFormat format : StreamConsumerSettings.CompressionFormat.values()) {
+                compressionFormatCombo.add(format.name());
+            }
+            compressionFormatCombo.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setCompressionFormat(StreamConsumerSettings.CompressionFormat.values()[compressionFormatCombo.getSelectionIndex()]);
+                    updateControlsEnablement();
+                }
+            });
+            compressionThreadsSpinner = UIUtils.createLabelSpinner(generalSettings, DTMessages.data_transfer_wizard_output_label_compression_threads, DTMessages.data_transfer_wizard_output_label_compression_threads_tip, 1, 1, 64);
+            compressionThreadsSpinner.addModifyListener(e -> settings.setCompressionThreads(compressionThreadsSpinner.getSelection()));
 
             {
                 Composite outFilesSettings = UIUtils.createComposite(generalSettings, 3);
@@ -257,6 +273,9 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
         directoryText.setEnabled(!clipboard);
         fileNameText.setEnabled(!clipboard);
         compressCheckbox.setEnabled(!clipboard);
+        compressionFormatCombo.setEnabled(!clipboard && compressCheckbox.getSelection());
+        compressionThreadsSpinner.setEnabled(!clipboard && compressCheckbox.getSelection() &&
+            compressionFormatCombo.getSelectionIndex() == StreamConsumerSettings.CompressionFormat.GZIP.ordinal());
         splitFilesCheckbox.setEnabled(!clipboard);
         maximumFileSizeLabel.setEnabled(!clipboard && splitFilesCheckbox.getSelection());
         maximumFileSizeText.setEnabled(!clipboard && splitFilesCheckbox.getSelection());
@@ -280,6 +299,8 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
         directoryText.setText(CommonUtils.toString(settings.getOutputFolder()));
         fileNameText.setText(CommonUtils.toString(settings.getOutputFilePattern()));
         compressCheckbox.setSelection(settings.isCompressResults());
+        compressionFormatCombo.select(settings.getCompressionFormat().ordinal());
+        compressionThreadsSpinner.setSelection(settings.getCompressionThreads());
         splitFilesCheckbox.setSelection(settings.isSplitOutFiles());
         maximumFileSizeText.setText(String.valueOf(settings.getMaxOutFileSize()));
         encodingCombo.setText(CommonUtils.toString(settings.getOutputEncoding()));
@@ -426,6 +426,8 @@ public class DataTransferWizard extends TaskConfigurationWizard<DataTransferSett
     private Map<String, Object> saveConfiguration(Map<String, Object> config) {
         config.put("maxJobCount", settings.getMaxJobCount());
         config.put("showFinalMessage", settings.isShowFinalMessage());
+        config.put("pipelinedTransfer", settings.isPipelinedTransfer());
+        config.put("pipelineBufferSize", settings.getPipelineBufferSize());
 
         // Save nodes' settings
         boolean isTask = getCurrentTask() != null;
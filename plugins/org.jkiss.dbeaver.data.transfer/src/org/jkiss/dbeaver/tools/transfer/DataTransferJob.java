@@ -17,12 +17,15 @@
 package org.jkiss.dbeaver.tools.transfer;
 
 import org.eclipse.osgi.util.NLS;
+import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTTaskExecutionListener;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferProducer;
 import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferProducer;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
@@ -72,7 +75,13 @@ public class DataTransferJob implements DBRRunnableWithProgress {
             if (monitor.isCanceled()) {
                 break;
             }
-            DataTransferPipe transferPipe = settings.acquireDataPipe(monitor);
+            DataTransferPipe transferPipe;
+            try {
+                transferPipe = settings.acquireDataPipe(monitor);
+            } catch (DBException e) {
+                listener.subTaskFinished(e);
+                throw new InvocationTargetException(e);
+            }
             if (transferPipe == null) {
                 break;
             }
@@ -105,15 +114,38 @@ public class DataTransferJob implements DBRRunnableWithProgress {
             //consumer.initTransfer(producer.getDatabaseObject(), consumerSettings, );
 
             IDataTransferProcessor processor = settings.getProcessor() == null ? null : settings.getProcessor().getInstance();
+            IDataTransferConsumer transferConsumer = consumer;
+            if (settings.isPipelinedTransfer() && producer instanceof DatabaseTransferProducer && producer.getDatabaseObject() != null) {
+                // Read and write in separate threads
+                transferConsumer = new DataTransferPipelineConsumer(
+                    consumer,
+                    ((DatabaseTransferProducer) producer).getDatabaseObject(),
+                    settings.getPipelineBufferSize());
+            }
             try {
                 producer.transferData(
                     monitor,
-                    consumer,
+                    transferConsumer,
                     processor,
                     nodeSettings,
                     task);
-            } finally {
-                consumer.finishTransfer(monitor, false);
+            } catch (Exception e) {
+                // Report the transfer error, not the error of finishing incomplete data
+                try {
+                    consumer.finishTransfer(monitor, false);
+                } catch (Exception e1) {
+                    log.debug("Error finishing failed transfer", e1);
+                }
+                throw e;
+            }
+            // Output errors (e.g. of compression) are reported on finish
+            consumer.finishTransfer(monitor, false);
+            if (transferConsumer instanceof DataTransferPipelineConsumer) {
+                log.debug("Pipelined transfer of " + producer.getObjectName() + ": max buffered rows " +
+                    ((DataTransferPipelineConsumer) transferConsumer).getMaxQueueDepth() + "/" + settings.getPipelineBufferSize());
+            }
+            if (producer instanceof StreamTransferProducer && ((StreamTransferProducer) producer).getImportStatistics() != null) {
+                log.info("Parallel import of " + producer.getObjectName() + ": " + ((StreamTransferProducer) producer).getImportStatistics());
             }
             return true;
         } catch (Exception e) {
@@ -0,0 +1,359 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPImage;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractResultSet;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipelined consumer.
+ * Decouples data producer and consumer: producer thread reads rows into a bounded buffer
+ * while a separate consumer thread drains it into the real consumer.
+ * So source fetch latency overlaps with target write latency.
+ *
+ * Rows with LOB locators or complex values are bound to the source cursor and can't be buffered.
+ * For such result sets transfer falls back to the direct (single thread) mode.
+ */
+public class DataTransferPipelineConsumer implements IDataTransferConsumer<IDataTransferSettings, IDataTransferProcessor> {
+
+    private static final Log log = Log.getLog(DataTransferPipelineConsumer.class);
+
+    private static final Object[] END_OF_DATA = new Object[0];
+    private static final long POLL_TIMEOUT = 100;
+    private static final int PROGRESS_UPDATE_PERIOD = 1000;
+
+    private final IDataTransferConsumer<?, ?> consumer;
+    private final DBSDataContainer dataContainer;
+    private final int bufferSize;
+
+    private BlockingQueue<Object[]> rowBuffer;
+    private DBDAttributeBinding[] bindings;
+    private PipelineResultSet pipelineResultSet;
+    private Thread consumerThread;
+    private volatile Throwable consumerError;
+    private boolean directMode;
+    private long rowsRead;
+    private int maxQueueDepth;
+
+    public DataTransferPipelineConsumer(@NotNull IDataTransferConsumer<?, ?> consumer, @NotNull DBSDataContainer dataContainer, int bufferSize) {
+        this.consumer = consumer;
+        this.dataContainer = dataContainer;
+        this.bufferSize = Math.max(bufferSize, 1);
+    }
+
+    @NotNull
+    public IDataTransferConsumer<?, ?> getConsumer() {
+        return consumer;
+    }
+
+    /**
+     * Maximum number of rows which were waiting in the buffer (for the last fetch)
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    @Override
+    public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+        // Consumer initialization runs in producer thread. Some producers (e.g. importers) rely on consumer state
+        consumer.fetchStart(session, resultSet, offset, maxRows);
+
+        List<DBCAttributeMetaData> metaAttributes = resultSet.getMeta().getAttributes();
+        directMode = false;
+        for (DBCAttributeMetaData attr : metaAttributes) {
+            DBPDataKind dataKind = attr.getDataKind();
+            if (dataKind == DBPDataKind.CONTENT || dataKind.isComplex()) {
+                log.debug("Attribute '" + attr.getName() + "' has data kind " + dataKind + ". Pipelined transfer disabled.");
+                directMode = true;
+                break;
+            }
+        }
+        if (directMode) {
+            return;
+        }
+
+        bindings = DBUtils.getAttributeBindings(session, dataContainer, resultSet.getMeta());
+        rowBuffer = new ArrayBlockingQueue<>(bufferSize);
+        pipelineResultSet = new PipelineResultSet(session, resultSet);
+        consumerError = null;
+        rowsRead = 0;
+        maxQueueDepth = 0;
+
+        final BlockingQueue<Object[]> queue = rowBuffer;
+        final PipelineResultSet queueResultSet = pipelineResultSet;
+        consumerThread = new Thread(() -> consumeRows(session, queue, queueResultSet), "Data transfer consumer (" + consumer.getObjectName() + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+        consumerThread.setDaemon(true);
+        consumerThread.start();
+    }
+
+    @Override
+    public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        if (directMode) {
+            consumer.fetchRow(session, resultSet);
+            return;
+        }
+        checkConsumerError();
+
+        int columnCount = pipelineResultSet.columnCount;
+        Object[] row = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            DBDAttributeBinding binding = bindings[i];
+            DBCAttributeMetaData metaAttr = binding.getMetaAttribute();
+            if (metaAttr == null) {
+                continue;
+            }
+            row[i] = binding.getValueHandler().fetchValueObject(session, resultSet, metaAttr, i);
+        }
+        putRow(session.getProgressMonitor(), row);
+
+        rowsRead++;
+        int queueDepth = rowBuffer.size();
+        if (queueDepth > maxQueueDepth) {
+            maxQueueDepth = queueDepth;
+        }
+        if (rowsRead % PROGRESS_UPDATE_PERIOD == 0) {
+            session.getProgressMonitor().subTask("Read data (" + rowsRead + " rows, " + queueDepth + "/" + bufferSize + " buffered)");
+        }
+    }
+
+    @Override
+    public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        if (directMode) {
+            consumer.fetchEnd(session, resultSet);
+            return;
+        }
+        try {
+            putRow(session.getProgressMonitor(), END_OF_DATA);
+        } finally {
+            waitForConsumer(session.getProgressMonitor());
+        }
+        checkConsumerError();
+    }
+
+    @Override
+    public void close() {
+        if (consumerThread != null && consumerThread.isAlive()) {
+            // Abnormal termination (e.g. producer error). Stop consumer thread
+            consumerThread.interrupt();
+            try {
+                consumerThread.join();
+            } catch (InterruptedException e) {
+                // ignore
+            }
+        }
+        consumerThread = null;
+        rowBuffer = null;
+        pipelineResultSet = null;
+        consumer.close();
+    }
+
+    private void consumeRows(DBCSession session, BlockingQueue<Object[]> queue, PipelineResultSet resultSet) {
+        try {
+            for (; ; ) {
+                Object[] row = queue.take();
+                if (row == END_OF_DATA) {
+                    break;
+                }
+                resultSet.currentRow = row;
+                consumer.fetchRow(session, resultSet);
+            }
+            consumer.fetchEnd(session, resultSet);
+        } catch (InterruptedException e) {
+            consumerError = e;
+        } catch (Throwable e) {
+            consumerError = e;
+            // Unblock producer
+            queue.clear();
+        }
+    }
+
+    private void putRow(DBRProgressMonitor monitor, Object[] row) throws DBCException {
+        try {
+            // Wait for free space in buffer (backpressure)
+            while (!rowBuffer.offer(row, POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                checkConsumerError();
+                if (monitor.isCanceled()) {
+                    throw new DBCException("Data transfer canceled");
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new DBCException("Data transfer interrupted", e);
+        }
+    }
+
+    private void waitForConsumer(DBRProgressMonitor monitor) throws DBCException {
+        try {
+            while (consumerThread.isAlive()) {
+                if (monitor.isCanceled()) {
+                    consumerThread.interrupt();
+                }
+                consumerThread.join(POLL_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            throw new DBCException("Data transfer interrupted", e);
+        }
+    }
+
+    private void checkConsumerError() throws DBCException {
+        Throwable error = consumerError;
+        if (error != null) {
+            if (error instanceof DBCException) {
+                throw (DBCException) error;
+            }
+            throw new DBCException("Error in data consumer", error);
+        }
+    }
+
+    ////////////////////////////////////////////////
+    // Delegated methods
+
+    @Override
+    public void initTransfer(DBSObject sourceObject, IDataTransferSettings settings, TransferParameters parameters, IDataTransferProcessor processor, Map<String, Object> processorProperties) {
+        ((IDataTransferConsumer) consumer).initTransfer(sourceObject, settings, parameters, processor, processorProperties);
+    }
+
+    @Override
+    public void startTransfer(DBRProgressMonitor monitor) throws DBException {
+        consumer.startTransfer(monitor);
+    }
+
+    @Override
+    public void finishTransfer(DBRProgressMonitor monitor, boolean last) throws DBException {
+        consumer.finishTransfer(monitor, last);
+    }
+
+    @Nullable
+    @Override
+    public Object getTargetObject() {
+        return consumer.getTargetObject();
+    }
+
+    @Nullable
+    @Override
+    public Object getTargetObjectContainer() {
+        return consumer.getTargetObjectContainer();
+    }
+
+    @Override
+    public DBSObject getDatabaseObject() {
+        return consumer.getDatabaseObject();
+    }
+
+    @Override
+    public String getObjectName() {
+        return consumer.getObjectName();
+    }
+
+    @Override
+    public DBPImage getObjectIcon() {
+        return consumer.getObjectIcon();
+    }
+
+    @Override
+    public String getObjectContainerName() {
+        return consumer.getObjectContainerName();
+    }
+
+    @Override
+    public DBPImage getObjectContainerIcon() {
+        return consumer.getObjectContainerIcon();
+    }
+
+    /**
+     * Result set which exposes buffered row to the consumer.
+     * Values are already fetched by value handlers so consumer gets them as is.
+     */
+    private static class PipelineResultSet extends AbstractResultSet<DBCSession, DBCStatement> {
+
+        private final DBCResultSetMetaData meta;
+        private final int columnCount;
+        private volatile Object[] currentRow;
+
+        PipelineResultSet(DBCSession session, DBCResultSet sourceResultSet) throws DBCException {
+            super(session, sourceResultSet.getSourceStatement());
+            this.meta = sourceResultSet.getMeta();
+            this.columnCount = meta.getAttributes().size();
+        }
+
+        @Override
+        public Object getAttributeValue(int index) throws DBCException {
+            Object[] row = currentRow;
+            if (row == null || index < 0 || index >= row.length) {
+                throw new DBCException("Attribute index out of range (" + index + ")");
+            }
+            return row[index];
+        }
+
+        @Override
+        public Object getAttributeValue(String name) throws DBCException {
+            List<DBCAttributeMetaData> attributes = meta.getAttributes();
+            for (int i = 0; i < attributes.size(); i++) {
+                if (attributes.get(i).getName().equals(name)) {
+                    return getAttributeValue(i);
+                }
+            }
+            throw new DBCException("Bad attribute name: " + name);
+        }
+
+        @Override
+        public boolean nextRow() {
+            return false;
+        }
+
+        @Override
+        public boolean moveTo(int position) {
+            return false;
+        }
+
+        @NotNull
+        @Override
+        public DBCResultSetMetaData getMeta() {
+            return meta;
+        }
+
+        @Override
+        public Object getFeature(String name) {
+            if (FEATURE_NAME_LOCAL.equals(name)) {
+                return true;
+            }
+            return super.getFeature(name);
+        }
+
+        @Override
+        public void close() {
+            currentRow = null;
+        }
+    }
+
+}
@@ -49,6 +49,7 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
     private static final Log log = Log.getLog(DataTransferSettings.class);
 
     public static final int DEFAULT_THREADS_NUM = 1;
+    public static final int DEFAULT_PIPELINE_BUFFER_SIZE = 10000;
 
     private final DataTransferState state;
     private List<DataTransferPipe> dataPipes;
@@ -69,6 +70,10 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
     private boolean consumerOptional;
     private boolean producerOptional;
     private int maxJobCount = DEFAULT_THREADS_NUM;
+    // Read and write data in separate threads
+    private boolean pipelinedTransfer;
+    // Maximum number of rows buffered between producer and consumer threads
+    private int pipelineBufferSize = DEFAULT_PIPELINE_BUFFER_SIZE;
 
     private transient int curPipeNum = 0;
 
@@ -235,6 +240,8 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
     public void loadSettings(DBRProgressMonitor monitor, Map<String, Object> config) {
         this.setMaxJobCount(CommonUtils.toInt(config.get("maxJobCount"), DataTransferSettings.DEFAULT_THREADS_NUM));
         this.setShowFinalMessage(CommonUtils.getBoolean(config.get("showFinalMessage"), this.isShowFinalMessage()));
+        this.setPipelinedTransfer(CommonUtils.getBoolean(config.get("pipelinedTransfer"), this.isPipelinedTransfer()));
+        this.setPipelineBufferSize(CommonUtils.toInt(config.get("pipelineBufferSize"), DEFAULT_PIPELINE_BUFFER_SIZE));
 
         DataTransferNodeDescriptor savedConsumer = null, savedProducer = null, processorNode = null;
         {
@@ -497,7 +504,7 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
         CommonUtils.shiftRight(dataPipes, pipe);
     }
 
-    public synchronized DataTransferPipe acquireDataPipe(DBRProgressMonitor monitor) {
+    public synchronized DataTransferPipe acquireDataPipe(DBRProgressMonitor monitor) throws DBException {
         if (curPipeNum >= dataPipes.size()) {
             // End of transfer
             // Signal last pipe about it
@@ -605,6 +612,24 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
         }
     }
 
+    public boolean isPipelinedTransfer() {
+        return pipelinedTransfer;
+    }
+
+    public void setPipelinedTransfer(boolean pipelinedTransfer) {
+        this.pipelinedTransfer = pipelinedTransfer;
+    }
+
+    public int getPipelineBufferSize() {
+        return pipelineBufferSize;
+    }
+
+    public void setPipelineBufferSize(int pipelineBufferSize) {
+        if (pipelineBufferSize > 0) {
+            this.pipelineBufferSize = pipelineBufferSize;
+        }
+    }
+
     public boolean isShowFinalMessage() {
         return showFinalMessage;
     }
@@ -55,8 +55,9 @@ public interface IDataTransferConsumer<SETTINGS extends IDataTransferSettings, P
      * Finishes this transfer
      * @param monitor monitor
      * @param last called in the very end of all transfers
+     * @throws DBException if transferred data can't be completed (e.g. output file can't be written)
      */
-    void finishTransfer(DBRProgressMonitor monitor, boolean last);
+    void finishTransfer(DBRProgressMonitor monitor, boolean last) throws DBException;
 
     // Target object. May be null or target database object (table)
     @Nullable
@@ -58,6 +58,8 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
     private boolean truncateBeforeLoad = false;
     private boolean openTableOnFinish = true;
     private boolean disableUsingBatches = false;
+    private boolean useBulkLoad = false;
+    private int multiRowInsertBatch = 1;
     private String onDuplicateKeyInsertMethodId;
     private boolean disableReferentialIntegrity;
 
@@ -153,6 +155,25 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         this.disableUsingBatches = disableUsingBatches;
     }
 
+    public boolean isUseBulkLoad() {
+        return useBulkLoad;
+    }
+
+    public void setUseBulkLoad(boolean useBulkLoad) {
+        this.useBulkLoad = useBulkLoad;
+    }
+
+    /**
+     * Number of rows inserted by a single INSERT statement. 1 means that multi-row insert is disabled.
+     */
+    public int getMultiRowInsertBatch() {
+        return multiRowInsertBatch;
+    }
+
+    public void setMultiRowInsertBatch(int multiRowInsertBatch) {
+        this.multiRowInsertBatch = multiRowInsertBatch;
+    }
+
     public String getOnDuplicateKeyInsertMethodId() {
         return onDuplicateKeyInsertMethodId;
     }
@@ -191,6 +212,8 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         onDuplicateKeyInsertMethodId = CommonUtils.toString(settings.get("onDuplicateKeyMethod"), onDuplicateKeyInsertMethodId);
         commitAfterRows = CommonUtils.toInt(settings.get("commitAfterRows"), commitAfterRows);
         disableUsingBatches = CommonUtils.getBoolean(settings.get("disableUsingBatches"), disableUsingBatches);
+        useBulkLoad = CommonUtils.getBoolean(settings.get("useBulkLoad"), useBulkLoad);
+        multiRowInsertBatch = CommonUtils.toInt(settings.get("multiRowInsertBatch"), multiRowInsertBatch);
         transferAutoGeneratedColumns = CommonUtils.getBoolean(settings.get("transferAutoGeneratedColumns"), transferAutoGeneratedColumns);
         disableReferentialIntegrity = CommonUtils.getBoolean(settings.get("disableReferentialIntegrity"), disableReferentialIntegrity);
         truncateBeforeLoad = CommonUtils.getBoolean(settings.get("truncateBeforeLoad"), truncateBeforeLoad);
@@ -256,6 +279,8 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         settings.put("useTransactions", useTransactions);
         settings.put("commitAfterRows", commitAfterRows);
         settings.put("disableUsingBatches", disableUsingBatches);
+        settings.put("useBulkLoad", useBulkLoad);
+        settings.put("multiRowInsertBatch", multiRowInsertBatch);
         settings.put("onDuplicateKeyMethod", onDuplicateKeyInsertMethodId);
         settings.put("transferAutoGeneratedColumns", transferAutoGeneratedColumns);
         settings.put("disableReferentialIntegrity", disableReferentialIntegrity);
@@ -286,6 +311,10 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
             DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_commit_after, commitAfterRows);
         }
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_disable_batches, disableUsingBatches);
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_bulk_load, useBulkLoad);
+        if (multiRowInsertBatch > 1) {
+            DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_multi_row_insert_batch, multiRowInsertBatch);
+        }
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_on_duplicate_key_method_label, onDuplicateKeyInsertMethodId);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_transfer_auto_generated_columns, transferAutoGeneratedColumns);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_disable_referential_integrity, disableReferentialIntegrity);
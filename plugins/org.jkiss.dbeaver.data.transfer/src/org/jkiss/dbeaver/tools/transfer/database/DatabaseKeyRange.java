@@ -0,0 +1,119 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Range of numeric key values.
+ * Lower bound is inclusive, upper bound is exclusive. Null bound means unbounded.
+ * First range also includes NULL keys, so the ranges cover the whole table even if
+ * new rows were inserted after min/max were sampled.
+ */
+public class DatabaseKeyRange {
+
+    @Nullable
+    private final BigDecimal lowerBound;
+    @Nullable
+    private final BigDecimal upperBound;
+
+    public DatabaseKeyRange(@Nullable BigDecimal lowerBound, @Nullable BigDecimal upperBound) {
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+    }
+
+    @Nullable
+    public BigDecimal getLowerBound() {
+        return lowerBound;
+    }
+
+    @Nullable
+    public BigDecimal getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * Makes SQL condition for the specified key column
+     * @param keyName quoted key column name
+     */
+    @NotNull
+    public String makeCondition(@NotNull String keyName) {
+        StringBuilder condition = new StringBuilder();
+        if (lowerBound == null && upperBound == null) {
+            condition.append("1=1");
+        } else if (lowerBound == null) {
+            condition.append(keyName).append(" < ").append(upperBound.toPlainString())
+                .append(" OR ").append(keyName).append(" IS NULL");
+        } else if (upperBound == null) {
+            condition.append(keyName).append(" >= ").append(lowerBound.toPlainString());
+        } else {
+            condition.append(keyName).append(" >= ").append(lowerBound.toPlainString())
+                .append(" AND ").append(keyName).append(" < ").append(upperBound.toPlainString());
+        }
+        return condition.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "[" + (lowerBound == null ? "" : lowerBound.toPlainString()) + ", " + (upperBound == null ? "" : upperBound.toPlainString()) + ")";
+    }
+
+    /**
+     * Splits [minValue, maxValue] interval into (at most) rangeCount adjacent ranges.
+     * First range is unbounded below and the last one is unbounded above.
+     * @param integral if true then bounds are rounded to integers (and duplicate bounds are removed)
+     */
+    @NotNull
+    public static List<DatabaseKeyRange> splitRange(@NotNull BigDecimal minValue, @NotNull BigDecimal maxValue, int rangeCount, boolean integral) {
+        List<DatabaseKeyRange> result = new ArrayList<>();
+        if (rangeCount <= 1 || maxValue.compareTo(minValue) <= 0) {
+            result.add(new DatabaseKeyRange(null, null));
+            return result;
+        }
+        BigDecimal step = maxValue.subtract(minValue).divide(BigDecimal.valueOf(rangeCount), 10, RoundingMode.DOWN);
+        List<BigDecimal> bounds = new ArrayList<>();
+        for (int i = 1; i < rangeCount; i++) {
+            BigDecimal bound = minValue.add(step.multiply(BigDecimal.valueOf(i)));
+            if (integral) {
+                bound = bound.setScale(0, RoundingMode.CEILING);
+            } else {
+                bound = bound.stripTrailingZeros();
+            }
+            if (bound.compareTo(minValue) <= 0 || bound.compareTo(maxValue) > 0) {
+                continue;
+            }
+            if (!bounds.isEmpty() && bounds.get(bounds.size() - 1).compareTo(bound) >= 0) {
+                continue;
+            }
+            bounds.add(bound);
+        }
+        BigDecimal prevBound = null;
+        for (BigDecimal bound : bounds) {
+            result.add(new DatabaseKeyRange(prevBound, bound));
+            prevBound = bound;
+        }
+        result.add(new DatabaseKeyRange(prevBound, null));
+        return result;
+    }
+
+}
@@ -32,11 +32,13 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
 
     public enum ExtractType {
         SINGLE_QUERY,
-        SEGMENTS
+        SEGMENTS,
+        PARALLEL_RANGES
     }
 
     private static final int DEFAULT_SEGMENT_SIZE = 100000;
     private static final int DEFAULT_FETCH_SIZE = 10000;
+    private static final int DEFAULT_RANGE_COUNT = 4;
 
     private int segmentSize = DEFAULT_SEGMENT_SIZE;
 
@@ -46,6 +48,10 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     private boolean selectedColumnsOnly = false;
     private ExtractType extractType = ExtractType.SINGLE_QUERY;
     private int fetchSize = DEFAULT_FETCH_SIZE;
+    // Number of key ranges for parallel extraction
+    private int rangeCount = DEFAULT_RANGE_COUNT;
+    // Max number of parallel data transfer jobs (set on load)
+    private int maxJobCount = DataTransferSettings.DEFAULT_THREADS_NUM;
 
     public DatabaseProducerSettings() {
     }
@@ -60,6 +66,30 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         }
     }
 
+    public int getRangeCount() {
+        return rangeCount;
+    }
+
+    public void setRangeCount(int rangeCount) {
+        if (rangeCount > 0) {
+            this.rangeCount = rangeCount;
+        }
+    }
+
+    /**
+     * Number of key ranges which are read at the same time (each in its own connection).
+     * Limited by the max number of data transfer jobs.
+     */
+    public int getRangeThreadCount() {
+        return Math.max(1, Math.min(rangeCount, maxJobCount));
+    }
+
+    public void setMaxJobCount(int maxJobCount) {
+        if (maxJobCount > 0) {
+            this.maxJobCount = maxJobCount;
+        }
+    }
+
     public boolean isQueryRowCount() {
         return queryRowCount;
     }
@@ -113,6 +143,8 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         extractType = CommonUtils.valueOf(ExtractType.class, (String) settings.get("extractType"), extractType);
         segmentSize = CommonUtils.toInt(settings.get("segmentSize"), DEFAULT_SEGMENT_SIZE);
         fetchSize = CommonUtils.toInt(settings.get("fetchSize"), fetchSize);
+        rangeCount = CommonUtils.toInt(settings.get("rangeCount"), DEFAULT_RANGE_COUNT);
+        setMaxJobCount(dataTransferSettings.getMaxJobCount());
         openNewConnections = CommonUtils.toBoolean(settings.get("openNewConnections"));
         queryRowCount = CommonUtils.toBoolean(settings.get("queryRowCount"));
         selectedColumnsOnly = CommonUtils.toBoolean(settings.get("selectedColumnsOnly"));
@@ -124,6 +156,7 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         settings.put("extractType", extractType.name());
         settings.put("segmentSize", segmentSize);
         settings.put("fetchSize", fetchSize);
+        settings.put("rangeCount", rangeCount);
         settings.put("openNewConnections", openNewConnections);
         settings.put("queryRowCount", queryRowCount);
         settings.put("selectedColumnsOnly", selectedColumnsOnly);
@@ -306,6 +306,8 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         boolean disableUsingBatches = settings.isDisableUsingBatches();
         boolean onDuplicateKeyCaseOn = settings.getOnDuplicateKeyInsertMethodId() != null && !settings.getOnDuplicateKeyInsertMethodId().equals(DBSDataManipulator.INSERT_NONE_METHOD);
         options.put(DBSDataManipulator.OPTION_DISABLE_BATCHES, disableUsingBatches);
+        options.put(DBSDataManipulator.OPTION_USE_BULK_LOAD, settings.isUseBulkLoad());
+        options.put(DBSDataManipulator.OPTION_MULTI_ROW_INSERT, settings.getMultiRowInsertBatch());
         if (onDuplicateKeyCaseOn) {
             String insertMethodId = settings.getOnDuplicateKeyInsertMethodId();
             SQLInsertReplaceMethodDescriptor insertReplaceMethod = SQLInsertReplaceMethodRegistry.getInstance().getInsertMethod(insertMethodId);
@@ -25,6 +25,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.impl.DataSourceContextProvider;
@@ -35,9 +36,11 @@ import org.jkiss.dbeaver.model.sql.SQLQuery;
 import org.jkiss.dbeaver.model.sql.SQLQueryContainer;
 import org.jkiss.dbeaver.model.sql.SQLScriptContext;
 import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTaskUtils;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
@@ -51,8 +54,17 @@ import org.jkiss.utils.CommonUtils;
 
 import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Data container transfer producer
@@ -238,18 +250,28 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                             if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
                                 // Just do it in single query
                                 dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize());
+                            } else if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.PARALLEL_RANGES) {
+                                if (!transferKeyRanges(monitor, context, session, consumer, settings, readFlags)) {
+                                    // No suitable key. Read all in single query
+                                    dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize());
+                                }
                             } else {
                                 // Read all data by segments
-                                long offset = 0;
-                                int segmentSize = settings.getSegmentSize();
-                                for (; ; ) {
-                                    DBCStatistics statistics = dataContainer.readData(
-                                        transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
-                                    if (statistics == null || statistics.getRowsFetched() < segmentSize) {
-                                        // Done
-                                        break;
+                                List<DBSEntityAttribute> keyAttributes = getKeysetAttributes(monitor);
+                                if (!keyAttributes.isEmpty()) {
+                                    transferKeysetSegments(transferSource, session, consumer, settings, readFlags, keyAttributes);
+                                } else {
+                                    long offset = 0;
+                                    int segmentSize = settings.getSegmentSize();
+                                    for (; ; ) {
+                                        DBCStatistics statistics = dataContainer.readData(
+                                            transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+                                        if (statistics == null || statistics.getRowsFetched() < segmentSize) {
+                                            // Done
+                                            break;
+                                        }
+                                        offset += statistics.getRowsFetched();
                                     }
-                                    offset += statistics.getRowsFetched();
                                 }
                             }
                         } finally {
@@ -278,6 +300,431 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         });
     }
 
+    /**
+     * Returns key attributes for keyset pagination.
+     * Empty list means that segments must be read with OFFSET.
+     */
+    @NotNull
+    private List<DBSEntityAttribute> getKeysetAttributes(@NotNull DBRProgressMonitor monitor) {
+        String reason = null;
+        List<DBSEntityAttribute> keyAttributes = Collections.emptyList();
+        if (dataFilter != null && dataFilter.hasOrdering()) {
+            reason = "custom ordering is specified";
+        } else if (dataFilter != null && dataFilter.isAnyConstraint() && dataFilter.hasConditions()) {
+            reason = "OR filter is specified";
+        } else {
+            try {
+                keyAttributes = DatabaseTransferUtils.getUniqueKeyAttributes(monitor, dataContainer);
+            } catch (DBException e) {
+                log.debug("Error reading unique key of '" + dataContainer.getName() + "'", e);
+            }
+            if (keyAttributes.isEmpty()) {
+                reason = "no unique key found";
+            } else {
+                for (DBSEntityAttribute attr : keyAttributes) {
+                    if (!attr.isRequired()) {
+                        reason = "key column '" + attr.getName() + "' is nullable";
+                        keyAttributes = Collections.emptyList();
+                        break;
+                    }
+                }
+            }
+        }
+        if (reason != null) {
+            log.info("Read '" + getObjectName() + "' by segments using OFFSET pagination: " + reason);
+        } else {
+            StringBuilder keyNames = new StringBuilder();
+            for (DBSEntityAttribute attr : keyAttributes) {
+                if (keyNames.length() > 0) keyNames.append(",");
+                keyNames.append(attr.getName());
+            }
+            log.info("Read '" + getObjectName() + "' by segments using keyset pagination on (" + keyNames + ")");
+        }
+        return keyAttributes;
+    }
+
+    /**
+     * Reads segments with keyset (seek) pagination.
+     * Each next segment starts after the last key of the previous one, so database doesn't need
+     * to rescan all previous rows as it does with OFFSET.
+     * If key columns are not in the result set (e.g. only selected columns are exported) then
+     * the rest of segments is read with OFFSET (still ordered by key).
+     */
+    private void transferKeysetSegments(
+        @NotNull DBCExecutionSource transferSource,
+        @NotNull DBCSession session,
+        @NotNull IDataTransferConsumer consumer,
+        @NotNull DatabaseProducerSettings settings,
+        long readFlags,
+        @NotNull List<DBSEntityAttribute> keyAttributes) throws DBException
+    {
+        DBPDataSource dataSource = session.getDataSource();
+        String[] keyNames = new String[keyAttributes.size()];
+        for (int i = 0; i < keyNames.length; i++) {
+            keyNames[i] = DBUtils.getQuotedIdentifier(keyAttributes.get(i));
+        }
+        String keyOrder = String.join(",", keyNames);
+        String baseWhere = dataFilter == null ? null : dataFilter.getWhere();
+
+        KeysetDataReceiver keysetReceiver = new KeysetDataReceiver(consumer, keyAttributes);
+        int segmentSize = settings.getSegmentSize();
+        for (; ; ) {
+            DBDDataFilter segmentFilter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+            segmentFilter.setOrder(keyOrder);
+            Object[] lastKey = keysetReceiver.getLastKey();
+            if (lastKey != null) {
+                String[] keyValues = new String[lastKey.length];
+                for (int i = 0; i < lastKey.length; i++) {
+                    keyValues[i] = SQLUtils.convertValueToSQL(dataSource, keyAttributes.get(i), lastKey[i]);
+                }
+                String keyCondition = "(" + DatabaseTransferUtils.makeKeysetCondition(keyNames, keyValues) + ")";
+                segmentFilter.setWhere(CommonUtils.isEmpty(baseWhere) ? keyCondition : "(" + baseWhere + ") AND " + keyCondition);
+            }
+            long offset = keysetReceiver.isKeyMissing() ? keysetReceiver.getRowsRead() : 0;
+            DBCStatistics statistics = dataContainer.readData(
+                transferSource, session, keysetReceiver, segmentFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+            if (statistics == null || statistics.getRowsFetched() < segmentSize ||
+                (!keysetReceiver.isKeyMissing() && keysetReceiver.getLastKey() == lastKey))
+            {
+                // Done
+                break;
+            }
+        }
+    }
+
+    /**
+     * Splits table into key ranges and reads each range in its own connection.
+     * All ranges feed the same consumer (access to consumer is serialized).
+     * @return false if table can't be split (no numeric unique key, etc)
+     */
+    private boolean transferKeyRanges(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCExecutionContext context,
+        @NotNull DBCSession session,
+        @NotNull IDataTransferConsumer consumer,
+        @NotNull DatabaseProducerSettings settings,
+        long readFlags) throws DBException
+    {
+        if (!(dataContainer instanceof DBSEntity)) {
+            log.debug("Parallel ranges extraction is supported only for tables. Use single query for '" + dataContainer.getName() + "'");
+            return false;
+        }
+        if (dataFilter != null && dataFilter.isAnyConstraint() && dataFilter.hasConditions()) {
+            log.debug("Parallel ranges extraction can't be used with OR filter. Use single query for '" + dataContainer.getName() + "'");
+            return false;
+        }
+        DBSEntity entity = (DBSEntity) dataContainer;
+        DBSEntityAttribute keyAttribute = null;
+        List<DBSEntityAttribute> identifier = DatabaseTransferUtils.getUniqueKeyAttributes(monitor, dataContainer);
+        if (identifier.size() == 1 && identifier.get(0).getDataKind() == DBPDataKind.NUMERIC) {
+            keyAttribute = identifier.get(0);
+        }
+        if (keyAttribute == null) {
+            log.debug("Table '" + entity.getName() + "' doesn't have single-column numeric unique key. Use single query.");
+            return false;
+        }
+        DBPDataSource dataSource = dataContainer.getDataSource();
+        String keyName = DBUtils.getQuotedIdentifier(keyAttribute);
+
+        // Sample key bounds
+        monitor.subTask("Read key range of " + entity.getName());
+        Object[] bounds = new Object[2];
+        {
+            StringBuilder query = new StringBuilder();
+            query.append("SELECT MIN(").append(keyName).append("),MAX(").append(keyName).append(") FROM ") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                .append(DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML));
+            SQLUtils.appendQueryConditions(dataSource, query, null, dataFilter);
+            try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query.toString(), false, false, false)) {
+                dbStat.setStatementSource(new AbstractExecutionSource(dataContainer, context, this));
+                if (dbStat.executeStatement()) {
+                    try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                        if (dbResult != null && dbResult.nextRow()) {
+                            bounds[0] = dbResult.getAttributeValue(0);
+                            bounds[1] = dbResult.getAttributeValue(1);
+                        }
+                    }
+                }
+            }
+        }
+        BigDecimal minValue = toBigDecimal(bounds[0]);
+        BigDecimal maxValue = toBigDecimal(bounds[1]);
+        if (minValue == null || maxValue == null) {
+            // Empty table
+            return false;
+        }
+        boolean integral = isIntegralValue(minValue) && isIntegralValue(maxValue);
+        List<DatabaseKeyRange> ranges = DatabaseKeyRange.splitRange(minValue, maxValue, settings.getRangeCount(), integral);
+        if (ranges.size() < 2) {
+            return false;
+        }
+        int threadCount = Math.min(ranges.size(), settings.getRangeThreadCount());
+        log.debug("Read table '" + entity.getName() + "' in " + ranges.size() + " key ranges " + ranges + " using " + threadCount + " thread(s)");
+
+        RangeDataReceiver rangeReceiver = new RangeDataReceiver(consumer, ranges.size());
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (DatabaseKeyRange range : ranges) {
+                DBDDataFilter rangeFilter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+                String rangeCondition = "(" + range.makeCondition(keyName) + ")";
+                if (CommonUtils.isEmpty(rangeFilter.getWhere())) {
+                    rangeFilter.setWhere(rangeCondition);
+                } else {
+                    rangeFilter.setWhere("(" + rangeFilter.getWhere() + ") AND " + rangeCondition);
+                }
+                results.add(executor.submit(() -> {
+                    readKeyRange(monitor, context, rangeReceiver, rangeFilter, settings, readFlags);
+                    return null;
+                }));
+            }
+            Throwable error = null;
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    if (error == null) {
+                        error = e.getCause();
+                    }
+                } catch (InterruptedException e) {
+                    rangeReceiver.cancel();
+                    throw new DBCException("Data read interrupted", e);
+                }
+            }
+            if (error instanceof DBException) {
+                throw (DBException) error;
+            } else if (error != null) {
+                throw new DBCException("Error reading key range", error);
+            }
+        } finally {
+            executor.shutdownNow();
+            consumer.close();
+        }
+        return true;
+    }
+
+    private void readKeyRange(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCExecutionContext initContext,
+        @NotNull RangeDataReceiver rangeReceiver,
+        @NotNull DBDDataFilter rangeFilter,
+        @NotNull DatabaseProducerSettings settings,
+        long readFlags) throws DBException
+    {
+        DBPDataSource dataSource = dataContainer.getDataSource();
+        DBCExecutionContext context = DBUtils.getObjectOwnerInstance(dataContainer).openIsolatedContext(monitor, "Data transfer range reader", initContext);
+        try {
+            DBExecUtils.setExecutionContextDefaults(monitor, dataSource, context, defaultCatalog, null, defaultSchema);
+            try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, DTMessages.data_transfer_wizard_job_task_export)) {
+                session.enableLogging(false);
+                if (Boolean.TRUE.equals(dataSource.getDataSourceFeature(DBPDataSource.FEATURE_LOB_REQUIRE_TRANSACTIONS))) {
+                    DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+                    if (txnManager != null && txnManager.isSupportsTransactions()) {
+                        txnManager.setAutoCommit(monitor, false);
+                    }
+                }
+                RangeDataReceiver.RangeReceiver receiver = rangeReceiver.createRangeReceiver();
+                try {
+                    dataContainer.readData(
+                        new AbstractExecutionSource(dataContainer, context, rangeReceiver.consumer),
+                        session, receiver, rangeFilter, -1, -1, readFlags, settings.getFetchSize());
+                } catch (DBException e) {
+                    rangeReceiver.cancel();
+                    throw e;
+                } finally {
+                    receiver.finishRange(session);
+                }
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    @Nullable
+    private static BigDecimal toBigDecimal(@Nullable Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            double doubleValue = ((Number) value).doubleValue();
+            return Double.isNaN(doubleValue) || Double.isInfinite(doubleValue) ? null : BigDecimal.valueOf(doubleValue);
+        } else if (value != null) {
+            try {
+                return new BigDecimal(value.toString().trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isIntegralValue(BigDecimal value) {
+        return value.signum() == 0 || value.scale() <= 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+
+    /**
+     * Passes rows to consumer and remembers key values of the last row.
+     * Reports the total number of read rows as offset, so consumer sees the segments as one stream.
+     */
+    private static class KeysetDataReceiver implements DBDDataReceiver {
+        private final IDataTransferConsumer consumer;
+        private final List<DBSEntityAttribute> keyAttributes;
+        private int[] keyIndexes;
+        private boolean keyMissing;
+        private Object[] lastKey;
+        private long rowsRead;
+
+        KeysetDataReceiver(IDataTransferConsumer consumer, List<DBSEntityAttribute> keyAttributes) {
+            this.consumer = consumer;
+            this.keyAttributes = keyAttributes;
+        }
+
+        @Nullable
+        Object[] getLastKey() {
+            return lastKey;
+        }
+
+        /**
+         * Key columns are not in the result set. Segments must be read with OFFSET then.
+         */
+        boolean isKeyMissing() {
+            return keyMissing;
+        }
+
+        long getRowsRead() {
+            return rowsRead;
+        }
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            if (!keyMissing) {
+                List<DBCAttributeMetaData> metaAttributes = resultSet.getMeta().getAttributes();
+                keyIndexes = new int[keyAttributes.size()];
+                for (int i = 0; i < keyIndexes.length; i++) {
+                    keyIndexes[i] = -1;
+                    String keyName = keyAttributes.get(i).getName();
+                    for (int k = 0; k < metaAttributes.size(); k++) {
+                        if (keyName.equalsIgnoreCase(metaAttributes.get(k).getName())) {
+                            keyIndexes[i] = k;
+                            break;
+                        }
+                    }
+                    if (keyIndexes[i] < 0) {
+                        log.info("Key column '" + keyName + "' not found in result set. Read segments using OFFSET pagination");
+                        keyMissing = true;
+                        keyIndexes = null;
+                        break;
+                    }
+                }
+            }
+            consumer.fetchStart(session, resultSet, rowsRead, maxRows);
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            consumer.fetchRow(session, resultSet);
+            if (keyIndexes != null) {
+                Object[] rowKey = new Object[keyIndexes.length];
+                for (int i = 0; i < keyIndexes.length; i++) {
+                    rowKey[i] = resultSet.getAttributeValue(keyIndexes[i]);
+                }
+                lastKey = rowKey;
+            }
+            rowsRead++;
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            consumer.fetchEnd(session, resultSet);
+        }
+
+        @Override
+        public void close() {
+            consumer.close();
+        }
+    }
+
+    /**
+     * Receives rows from all key ranges and passes them to the single consumer.
+     * Consumer is started by the first range and finished by the last one, while its session and result set are still open.
+     */
+    private static class RangeDataReceiver {
+        private final IDataTransferConsumer consumer;
+        private int activeRanges;
+        private boolean started;
+        private volatile boolean canceled;
+
+        RangeDataReceiver(IDataTransferConsumer consumer, int rangeCount) {
+            this.consumer = consumer;
+            this.activeRanges = rangeCount;
+        }
+
+        void cancel() {
+            canceled = true;
+        }
+
+        RangeReceiver createRangeReceiver() {
+            return new RangeReceiver();
+        }
+
+        private synchronized void endRange(@NotNull DBCSession session, @Nullable DBCResultSet resultSet) throws DBCException {
+            activeRanges--;
+            if (activeRanges == 0 && started && !canceled) {
+                consumer.fetchEnd(session, resultSet);
+            }
+        }
+
+        /**
+         * Receiver of a single key range
+         */
+        class RangeReceiver implements DBDDataReceiver {
+            private boolean finished;
+
+            @Override
+            public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+                synchronized (RangeDataReceiver.this) {
+                    if (!started) {
+                        consumer.fetchStart(session, resultSet, offset, maxRows);
+                        started = true;
+                    }
+                }
+            }
+
+            @Override
+            public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+                if (canceled) {
+                    throw new DBCException("Data read canceled due to error in another key range");
+                }
+                synchronized (RangeDataReceiver.this) {
+                    consumer.fetchRow(session, resultSet);
+                }
+            }
+
+            @Override
+            public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+                finished = true;
+                endRange(session, resultSet);
+            }
+
+            /**
+             * Called after range read. Range may end without fetchEnd (error or no result set)
+             */
+            void finishRange(@NotNull DBCSession session) throws DBCException {
+                if (!finished) {
+                    finished = true;
+                    endRange(session, null);
+                }
+            }
+
+            @Override
+            public void close() {
+                // Consumer is closed by producer after all ranges
+            }
+        }
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof DatabaseTransferProducer &&
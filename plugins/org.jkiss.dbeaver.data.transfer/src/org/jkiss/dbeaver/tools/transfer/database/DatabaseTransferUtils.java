@@ -31,6 +31,9 @@ import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
 import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
+import org.jkiss.dbeaver.model.virtual.DBVEntity;
+import org.jkiss.dbeaver.model.virtual.DBVEntityConstraint;
+import org.jkiss.dbeaver.model.virtual.DBVUtils;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.Pair;
 
@@ -340,6 +343,59 @@ public class DatabaseTransferUtils {
         commandContext.saveChanges(monitor, options);
     }
 
+    /**
+     * Returns unique key attributes of the data container.
+     * Uses real table identifier or, if there is no one, virtual unique key.
+     * Returns empty list if data container is not an entity or it has no unique keys.
+     */
+    @NotNull
+    public static List<DBSEntityAttribute> getUniqueKeyAttributes(@NotNull DBRProgressMonitor monitor, @NotNull DBSDataContainer dataContainer) throws DBException {
+        if (!(dataContainer instanceof DBSEntity)) {
+            return Collections.emptyList();
+        }
+        List<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, (DBSEntity) dataContainer);
+        if (!CommonUtils.isEmpty(identifier)) {
+            return new ArrayList<>(identifier);
+        }
+        DBVEntity vEntity = DBVUtils.getVirtualEntity(dataContainer, false);
+        if (vEntity != null) {
+            for (DBVEntityConstraint constraint : CommonUtils.safeCollection(vEntity.getConstraints())) {
+                if (constraint.getConstraintType().isUnique()) {
+                    List<DBSEntityAttribute> attributes = DBUtils.getEntityAttributes(monitor, constraint);
+                    if (!attributes.isEmpty()) {
+                        return attributes;
+                    }
+                }
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Makes keyset (seek) pagination condition: (k1,k2,...) > (v1,v2,...).
+     * Row value comparison isn't supported by all databases, so it is expanded to
+     * k1 > v1 OR (k1 = v1 AND k2 > v2) OR ...
+     * @param keyNames  quoted key column names
+     * @param keyValues key values as SQL literals
+     */
+    @NotNull
+    public static String makeKeysetCondition(@NotNull String[] keyNames, @NotNull String[] keyValues) {
+        StringBuilder condition = new StringBuilder();
+        for (int i = 0; i < keyNames.length; i++) {
+            if (i > 0) {
+                condition.append(" OR (");
+            }
+            for (int k = 0; k < i; k++) {
+                condition.append(keyNames[k]).append("=").append(keyValues[k]).append(" AND ");
+            }
+            condition.append(keyNames[i]).append(">").append(keyValues[i]);
+            if (i > 0) {
+                condition.append(")");
+            }
+        }
+        return condition.toString();
+    }
+
     public static Pair<DBPDataKind, String> getDataType(String value) {
         if (CommonUtils.isEmpty(value)) {
             return DATA_TYPE_UNKNOWN;
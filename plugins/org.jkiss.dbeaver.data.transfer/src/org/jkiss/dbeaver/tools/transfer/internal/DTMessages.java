@@ -33,6 +33,10 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_job_task_export_table_data;
 	public static String data_transfer_wizard_job_task_retrieve;
 	public static String data_transfer_wizard_output_checkbox_compress;
+	public static String data_transfer_wizard_output_label_compression_format;
+	public static String data_transfer_wizard_output_label_compression_format_tip;
+	public static String data_transfer_wizard_output_label_compression_threads;
+	public static String data_transfer_wizard_output_label_compression_threads_tip;
 	public static String data_transfer_wizard_output_checkbox_split_files;
 	public static String data_transfer_wizard_output_checkbox_split_files_tip;
 	public static String data_transfer_wizard_output_checkbox_new_connection;
@@ -42,6 +46,7 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_output_checkbox_selected_rows_only;
 	public static String data_transfer_wizard_output_combo_extract_type_item_by_segments;
 	public static String data_transfer_wizard_output_combo_extract_type_item_single_query;
+	public static String data_transfer_wizard_output_combo_extract_type_item_parallel_ranges;
 	public static String data_transfer_wizard_output_description;
 	public static String data_transfer_wizard_output_dialog_directory_message;
 	public static String data_transfer_wizard_output_dialog_directory_text;
@@ -59,6 +64,7 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_output_label_insert_bom_tooltip;
 	public static String data_transfer_wizard_output_label_max_threads;
 	public static String data_transfer_wizard_output_label_segment_size;
+	public static String data_transfer_wizard_output_label_range_count;
 	public static String data_transfer_wizard_output_name;
 	public static String data_transfer_wizard_output_title;
 	public static String data_transfer_wizard_settings_binaries_item_inline;
@@ -122,6 +128,8 @@ public class DTMessages extends NLS {
 	public static String database_consumer_settings_option_use_transactions;
 	public static String database_consumer_settings_option_commit_after;
 	public static String database_consumer_settings_option_disable_batches;
+	public static String database_consumer_settings_option_use_bulk_load;
+	public static String database_consumer_settings_option_multi_row_insert_batch;
 	public static String database_consumer_settings_option_on_duplicate_key_method_label;
 	public static String database_consumer_settings_option_transfer_auto_generated_columns;
 	public static String database_consumer_settings_option_disable_referential_integrity;
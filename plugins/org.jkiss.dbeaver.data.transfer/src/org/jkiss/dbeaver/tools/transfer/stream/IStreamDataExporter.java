@@ -42,6 +42,17 @@ public interface IStreamDataExporter extends IDataTransferProcessor {
     void exportFooter(DBRProgressMonitor monitor)
         throws DBException, IOException;
 
+    /**
+     * Size (in bytes) of exported rows kept in exporter buffer and not written to the site output yet
+     */
+    long getBufferedSize();
+
+    /**
+     * Writes buffered rows to the site output
+     */
+    void flushBuffer()
+        throws IOException;
+
     void dispose();
 
 }
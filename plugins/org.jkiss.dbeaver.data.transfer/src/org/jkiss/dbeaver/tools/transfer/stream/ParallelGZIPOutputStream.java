@@ -0,0 +1,235 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Block-parallel GZIP output stream.
+ * Data is split into fixed size blocks. Each block is compressed into a separate GZIP member
+ * by a worker thread and members are written in the original order.
+ * Concatenated members form a standard GZIP file (RFC 1952) which is readable by gunzip and GZIPInputStream.
+ *
+ * flush() writes compressed blocks but doesn't end the current block (like GZIPOutputStream),
+ * so frequent flushes don't degrade compression.
+ */
+public class ParallelGZIPOutputStream extends OutputStream {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private static final byte[] GZIP_HEADER = {
+        0x1f, (byte) 0x8b,  // Magic
+        Deflater.DEFLATED,  // Compression method
+        0,                  // Flags
+        0, 0, 0, 0,         // Modification time
+        0,                  // Extra flags
+        (byte) 0xff         // OS (unknown)
+    };
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    private final OutputStream out;
+    private final int threadCount;
+    private final ExecutorService executor;
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+
+    private byte[] buffer;
+    private int bufferSize;
+    private boolean hasMembers;
+    private boolean finished;
+
+    /**
+     * @param threadCount number of compression threads. 1 means that blocks are compressed in the caller thread
+     */
+    public ParallelGZIPOutputStream(@NotNull OutputStream out, int threadCount, int blockSize) {
+        this.out = out;
+        this.threadCount = Math.max(threadCount, 1);
+        this.buffer = new byte[Math.max(blockSize, 1024)];
+        if (this.threadCount > 1) {
+            this.executor = Executors.newFixedThreadPool(this.threadCount, r -> {
+                Thread thread = new Thread(r, "GZIP compressor " + threadCounter.incrementAndGet()); //$NON-NLS-1$
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    public ParallelGZIPOutputStream(@NotNull OutputStream out, int threadCount) {
+        this(out, threadCount, DEFAULT_BLOCK_SIZE);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        buffer[bufferSize++] = (byte) b;
+        if (bufferSize == buffer.length) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(@NotNull byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int count = Math.min(len, buffer.length - bufferSize);
+            System.arraycopy(b, off, buffer, bufferSize, count);
+            bufferSize += count;
+            off += count;
+            len -= count;
+            if (bufferSize == buffer.length) {
+                submitBlock();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        // Write blocks which are already compressed. Don't wait for the rest
+        while (!pendingBlocks.isEmpty() && pendingBlocks.peekFirst().isDone()) {
+            writeBlock(pendingBlocks.pollFirst());
+        }
+        out.flush();
+    }
+
+    /**
+     * Compresses remaining data and writes all members. Doesn't close the underlying stream.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        try {
+            if (bufferSize > 0 || !hasMembers) {
+                // Empty input still produces a valid (empty) member
+                submitBlock();
+            }
+            while (!pendingBlocks.isEmpty()) {
+                writeBlock(pendingBlocks.pollFirst());
+            }
+            out.flush();
+        } finally {
+            finished = true;
+            buffer = null;
+            shutdown();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        final byte[] block = buffer;
+        final int length = bufferSize;
+        hasMembers = true;
+        if (executor == null) {
+            out.write(compressBlock(block, length));
+            bufferSize = 0;
+            return;
+        }
+        pendingBlocks.addLast(executor.submit(() -> compressBlock(block, length)));
+        // Each pending block holds its own buffer
+        buffer = new byte[block.length];
+        bufferSize = 0;
+        // Limit memory usage: keep at most two blocks per thread in flight
+        while (pendingBlocks.size() > threadCount * 2) {
+            writeBlock(pendingBlocks.pollFirst());
+        }
+    }
+
+    private void writeBlock(@NotNull Future<byte[]> block) throws IOException {
+        try {
+            out.write(block.get());
+        } catch (InterruptedException e) {
+            shutdown();
+            throw new IOException("Compression interrupted", e);
+        } catch (ExecutionException e) {
+            shutdown();
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Error compressing data block", cause);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (finished) {
+            throw new IOException("Stream is finished");
+        }
+    }
+
+    private void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        pendingBlocks.clear();
+    }
+
+    /**
+     * Makes complete GZIP member (header, deflate data, trailer) for the specified data
+     */
+    @NotNull
+    static byte[] compressBlock(@NotNull byte[] data, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+
+        ByteArrayOutputStream member = new ByteArrayOutputStream(length / 2 + 64);
+        member.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            byte[] chunk = new byte[Math.min(Math.max(length, 1024), 65536)];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(chunk);
+                member.write(chunk, 0, count);
+            }
+        } finally {
+            deflater.end();
+        }
+        writeIntLE(member, (int) crc.getValue());
+        writeIntLE(member, length);
+        return member.toByteArray();
+    }
+
+    private static void writeIntLE(@NotNull ByteArrayOutputStream out, int value) {
+        out.write(value & 0xff);
+        out.write((value >> 8) & 0xff);
+        out.write((value >> 16) & 0xff);
+        out.write((value >> 24) & 0xff);
+    }
+
+}
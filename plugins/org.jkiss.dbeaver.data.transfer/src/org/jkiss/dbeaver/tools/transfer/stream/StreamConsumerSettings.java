@@ -58,6 +58,12 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         NATIVE
     }
 
+    public enum CompressionFormat {
+        ZIP,
+        // Concatenated GZIP members compressed in parallel
+        GZIP
+    }
+
     public static final String PROP_EXTRACT_IMAGES = "extractImages";
     public static final String PROP_FILE_EXTENSION = "extension";
 
@@ -79,6 +85,8 @@ public class StreamConsumerSettings implements IDataTransferSettings {
     private boolean outputClipboard = false;
     private boolean useSingleFile = false;
     private boolean compressResults = false;
+    private CompressionFormat compressionFormat = CompressionFormat.ZIP;
+    private int compressionThreads = Math.min(Runtime.getRuntime().availableProcessors(), 8);
     private boolean splitOutFiles = false;
     private long maxOutFileSize = 10 * 1000 * 1000;
     private boolean openFolderOnFinish = true;
@@ -166,6 +174,25 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         this.compressResults = compressResults;
     }
 
+    public CompressionFormat getCompressionFormat() {
+        return compressionFormat;
+    }
+
+    public void setCompressionFormat(CompressionFormat compressionFormat) {
+        this.compressionFormat = compressionFormat;
+    }
+
+    /**
+     * Number of threads which compress output blocks. Used by GZIP format only
+     */
+    public int getCompressionThreads() {
+        return compressionThreads;
+    }
+
+    public void setCompressionThreads(int compressionThreads) {
+        this.compressionThreads = compressionThreads;
+    }
+
     public boolean isSplitOutFiles() {
         return splitOutFiles;
     }
@@ -246,6 +273,8 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         }
 
         compressResults = CommonUtils.getBoolean(settings.get("compressResults"), compressResults);
+        compressionFormat = CommonUtils.valueOf(CompressionFormat.class, (String) settings.get("compressionFormat"), CompressionFormat.ZIP);
+        compressionThreads = Math.max(CommonUtils.toInt(settings.get("compressionThreads"), compressionThreads), 1);
         splitOutFiles = CommonUtils.getBoolean(settings.get("splitOutFiles"), splitOutFiles);
         maxOutFileSize = CommonUtils.toLong(settings.get("maxOutFileSize"), maxOutFileSize);
         openFolderOnFinish = CommonUtils.getBoolean(settings.get("openFolderOnFinish"), openFolderOnFinish);
@@ -305,6 +334,8 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         settings.put("useSingleFile", useSingleFile);
 
         settings.put("compressResults", compressResults);
+        settings.put("compressionFormat", compressionFormat.name());
+        settings.put("compressionThreads", compressionThreads);
         settings.put("splitOutFiles", splitOutFiles);
         settings.put("maxOutFileSize", maxOutFileSize);
 
@@ -346,6 +377,12 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         }
 
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_compress, compressResults);
+        if (compressResults) {
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_compression_format, compressionFormat);
+            if (compressionFormat == CompressionFormat.GZIP) {
+                DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_compression_threads, compressionThreads);
+            }
+        }
         if (executeProcessOnFinish) {
             DTUtils.addSummary(summary, "Execute process on finish", finishProcessCommand);
         }
@@ -0,0 +1,92 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+/**
+ * Parallel stream import statistics.
+ * Per core throughput is computed from time which workers actually spent on parsing.
+ */
+public class StreamImportStatistics {
+
+    private final int threadCount;
+    private long chunkCount;
+    private long bytesRead;
+    private long rowsRead;
+    private long workerNanos;
+    private long elapsedMillis;
+
+    public StreamImportStatistics(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public long getChunkCount() {
+        return chunkCount;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public void addChunk(long bytes, long rows, long parseNanos) {
+        chunkCount++;
+        bytesRead += bytes;
+        rowsRead += rows;
+        workerNanos += parseNanos;
+    }
+
+    /**
+     * Total throughput (bytes per second of elapsed time)
+     */
+    public double getTotalThroughput() {
+        return elapsedMillis <= 0 ? 0 : bytesRead * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * Throughput of a single worker (bytes per second of worker time)
+     */
+    public double getCoreThroughput() {
+        return workerNanos <= 0 ? 0 : bytesRead * 1000000000.0 / workerNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows, %.1f MB in %d chunks, %d threads, %.3f s: %.1f MB/s total, %.1f MB/s per core",
+            rowsRead,
+            bytesRead / 1048576.0,
+            chunkCount,
+            threadCount,
+            elapsedMillis / 1000.0,
+            getTotalThroughput() / 1048576.0,
+            getCoreThroughput() / 1048576.0);
+    }
+}
@@ -90,6 +90,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     private OutputStream outputStream;
     private ZipOutputStream zipStream;
+    private ParallelGZIPOutputStream gzipStream;
     private PrintWriter writer;
     private int multiFileNumber;
     private long bytesWritten = 0;
@@ -192,7 +193,9 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             // Check for file split
             if (settings.isSplitOutFiles() && !parameters.isBinary) {
                 writer.flush();
-                if (bytesWritten >= settings.getMaxOutFileSize()) {
+                // Rows buffered by exporter go to the current file as well
+                if (bytesWritten + processor.getBufferedSize() >= settings.getMaxOutFileSize()) {
+                    processor.flushBuffer();
                     // Make new file
                     createNewOutFile();
                 }
@@ -255,7 +258,11 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
                 openOutputStreams();
             }
         } catch (IOException e) {
-            closeExporter();
+            try {
+                closeExporter();
+            } catch (IOException e1) {
+                log.debug(e1);
+            }
             throw new DBCException("Data transfer IO error", e);
         }
 
@@ -267,7 +274,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
     }
 
-    private void closeExporter() {
+    private void closeExporter() throws IOException {
         if (exportSite != null) {
             try {
                 exportSite.flush();
@@ -293,9 +300,15 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             new FileOutputStream(outputFile, settings.isUseSingleFile()),
             OUT_FILE_BUFFER_SIZE);
         if (settings.isCompressResults()) {
-            this.zipStream = new ZipOutputStream(this.outputStream);
-            this.zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
-            this.outputStream = zipStream;
+            if (settings.getCompressionFormat() == StreamConsumerSettings.CompressionFormat.GZIP) {
+                // GZIP members may be appended to the existing file, so single file mode works too
+                this.gzipStream = new ParallelGZIPOutputStream(this.outputStream, settings.getCompressionThreads());
+                this.outputStream = gzipStream;
+            } else {
+                this.zipStream = new ZipOutputStream(this.outputStream);
+                this.zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
+                this.outputStream = zipStream;
+            }
         }
 
         // If we need to split files - use stream wrapper to calculate fiel size
@@ -319,36 +332,42 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
     }
 
-    private void closeOutputStreams() {
-        if (this.writer != null) {
-            this.writer.flush();
-            ContentUtils.close(this.writer);
-            this.writer = null;
-        }
-
-        // Finish zip stream
-        if (zipStream != null) {
-            try {
-                zipStream.closeEntry();
-            } catch (IOException e) {
-                log.debug(e);
+    /**
+     * Finishes and closes output streams.
+     * Write errors are thrown: the output file is incomplete then. Parallel GZIP reports errors of compression
+     * threads on finish only.
+     */
+    private void closeOutputStreams() throws IOException {
+        try {
+            if (this.writer != null) {
+                // Print writer hides errors. Flush it but don't close: closed streams can't be finished
+                this.writer.flush();
+                if (this.writer.checkError()) {
+                    throw new IOException("Error writing output data");
+                }
             }
-            try {
+            // Finish zip stream
+            if (zipStream != null) {
+                zipStream.closeEntry();
                 zipStream.finish();
-            } catch (IOException e) {
-                log.debug(e);
             }
+            if (gzipStream != null) {
+                gzipStream.finish();
+            }
+            if (outputStream != null) {
+                outputStream.close();
+            }
+        } finally {
             zipStream = null;
-        }
-
-        if (outputStream != null) {
-            try {
-                outputStream.flush();
-            } catch (IOException e) {
-                log.debug(e);
+            gzipStream = null;
+            if (this.writer != null) {
+                ContentUtils.close(this.writer);
+                this.writer = null;
+            }
+            if (outputStream != null) {
+                ContentUtils.close(outputStream);
+                outputStream = null;
             }
-            ContentUtils.close(outputStream);
-            outputStream = null;
         }
     }
 
@@ -377,7 +396,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     }
 
     @Override
-    public void finishTransfer(DBRProgressMonitor monitor, boolean last) {
+    public void finishTransfer(DBRProgressMonitor monitor, boolean last) throws DBException {
         if (!last) {
             if (processor != null) {
                 try {
@@ -387,7 +406,11 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
                 }
             }
 
-            closeExporter();
+            try {
+                closeExporter();
+            } catch (IOException e) {
+                throw new DBException("Error writing output file", e);
+            }
 
             if (!settings.isOutputClipboard() && settings.isExecuteProcessOnFinish()) {
                 executeFinishCommand();
@@ -482,7 +505,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
         String fileName = getOutputFileName();
         if (settings.isCompressResults()) {
-            fileName += ".zip";
+            fileName += settings.getCompressionFormat() == StreamConsumerSettings.CompressionFormat.GZIP ? ".gz" : ".zip";
         }
         return new File(dir, fileName);
     }
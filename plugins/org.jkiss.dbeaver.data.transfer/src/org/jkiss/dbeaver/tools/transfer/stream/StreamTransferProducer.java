@@ -36,6 +36,7 @@ import org.jkiss.dbeaver.tools.transfer.IDataTransferProducer;
 import org.jkiss.dbeaver.tools.transfer.registry.DataTransferNodeDescriptor;
 import org.jkiss.dbeaver.tools.transfer.registry.DataTransferProcessorDescriptor;
 import org.jkiss.dbeaver.tools.transfer.registry.DataTransferRegistry;
+import org.jkiss.dbeaver.tools.transfer.stream.importer.StreamImporterAbstract;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.File;
@@ -56,6 +57,7 @@ public class StreamTransferProducer implements IDataTransferProducer<StreamProdu
 
     private StreamEntityMapping entityMapping;
     private DataTransferProcessorDescriptor defaultProcessor;
+    private StreamImportStatistics importStatistics;
 
     public StreamTransferProducer() {
     }
@@ -107,6 +109,14 @@ public class StreamTransferProducer implements IDataTransferProducer<StreamProdu
         return entityMapping == null ? null : entityMapping.getInputFile();
     }
 
+    /**
+     * Statistics of the last parallel import (if any)
+     */
+    @Nullable
+    public StreamImportStatistics getImportStatistics() {
+        return importStatistics;
+    }
+
     @Override
     public void transferData(
         @NotNull DBRProgressMonitor monitor,
@@ -129,6 +139,7 @@ public class StreamTransferProducer implements IDataTransferProducer<StreamProdu
         StreamDataImporterSite site = new StreamDataImporterSite(settings, entityMapping, processorProperties);
         IStreamDataImporter importer = (IStreamDataImporter) processor;
         importer.init(site);
+        importStatistics = null;
 
         // Perform transfer
         try (InputStream is = new FileInputStream(entityMapping.getInputFile())) {
@@ -136,6 +147,9 @@ public class StreamTransferProducer implements IDataTransferProducer<StreamProdu
         } catch (IOException e) {
             throw new DBException("IO error", e);
         } finally {
+            if (importer instanceof StreamImporterAbstract) {
+                importStatistics = ((StreamImporterAbstract) importer).getImportStatistics();
+            }
             importer.dispose();
         }
     }
@@ -85,9 +85,16 @@ public class StreamTransferResultSet implements DBCResultSet {
 
     @Override
     public Object getAttributeValue(int index) throws DBCException {
+        return convertValue(index, streamRow[index]);
+    }
+
+    /**
+     * Converts raw stream value into attribute value.
+     * This method doesn't depend on the current row so it may be called from multiple threads.
+     */
+    public Object convertValue(int index, Object value) {
         StreamDataImporterColumnInfo attr = this.attributeMappings.get(index);
 
-        Object value = streamRow[index];
         if (value != null && dateTimeFormat != null && attr.getDataKind() == DBPDataKind.DATETIME && !(value instanceof Date)) {
             // Convert string to timestamp
             try {
@@ -0,0 +1,84 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Arrow IPC format constants (see Schema.fbs and Message.fbs of the Apache Arrow format specification).
+ */
+public class ArrowConstants {
+
+    public static final byte[] FILE_MAGIC = "ARROW1".getBytes(StandardCharsets.US_ASCII);
+    public static final int CONTINUATION_MARKER = 0xFFFFFFFF;
+
+    // MessageHeader union
+    public static final int MESSAGE_SCHEMA = 1;
+    public static final int MESSAGE_DICTIONARY_BATCH = 2;
+    public static final int MESSAGE_RECORD_BATCH = 3;
+
+    // Type union
+    public static final int TYPE_NULL = 1;
+    public static final int TYPE_INT = 2;
+    public static final int TYPE_FLOATING_POINT = 3;
+    public static final int TYPE_BINARY = 4;
+    public static final int TYPE_UTF8 = 5;
+    public static final int TYPE_BOOL = 6;
+    public static final int TYPE_DECIMAL = 7;
+    public static final int TYPE_DATE = 8;
+    public static final int TYPE_TIME = 9;
+    public static final int TYPE_TIMESTAMP = 10;
+    public static final int TYPE_INTERVAL = 11;
+    public static final int TYPE_LIST = 12;
+    public static final int TYPE_STRUCT = 13;
+    public static final int TYPE_UNION = 14;
+    public static final int TYPE_FIXED_SIZE_BINARY = 15;
+    public static final int TYPE_FIXED_SIZE_LIST = 16;
+    public static final int TYPE_MAP = 17;
+    public static final int TYPE_DURATION = 18;
+    public static final int TYPE_LARGE_BINARY = 19;
+    public static final int TYPE_LARGE_UTF8 = 20;
+    public static final int TYPE_LARGE_LIST = 21;
+    public static final int TYPE_RUN_END_ENCODED = 22;
+    public static final int TYPE_BINARY_VIEW = 23;
+    public static final int TYPE_UTF8_VIEW = 24;
+    public static final int TYPE_LIST_VIEW = 25;
+    public static final int TYPE_LARGE_LIST_VIEW = 26;
+
+    // FloatingPoint precision
+    public static final int PRECISION_HALF = 0;
+    public static final int PRECISION_SINGLE = 1;
+    public static final int PRECISION_DOUBLE = 2;
+
+    // DateUnit
+    public static final int DATE_UNIT_DAY = 0;
+    public static final int DATE_UNIT_MILLISECOND = 1;
+
+    // TimeUnit
+    public static final int TIME_UNIT_SECOND = 0;
+    public static final int TIME_UNIT_MILLISECOND = 1;
+    public static final int TIME_UNIT_MICROSECOND = 2;
+    public static final int TIME_UNIT_NANOSECOND = 3;
+
+    // UnionMode
+    public static final int UNION_MODE_DENSE = 1;
+
+    // CompressionType
+    public static final int COMPRESSION_LZ4_FRAME = 0;
+    public static final int COMPRESSION_ZSTD = 1;
+
+}
@@ -0,0 +1,297 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Field of Arrow schema
+ */
+public class ArrowField {
+
+    @NotNull
+    private final String name;
+    private final boolean nullable;
+    private final int typeId;
+    private int bitWidth;
+    private boolean signed;
+    private int precision;
+    private int scale;
+    private int unit;
+    @Nullable
+    private String timeZone;
+    private int byteWidth;
+    private int unionMode;
+    private long dictionaryId = -1;
+    private int indexBitWidth;
+    private boolean indexSigned;
+    private final List<ArrowField> children = new ArrayList<>();
+
+    ArrowField(@NotNull FlatBufferTable field) throws IOException {
+        String fieldName = field.getString(0);
+        this.name = fieldName == null ? "" : fieldName;
+        this.nullable = field.getBoolean(1, false);
+        this.typeId = field.getByte(2, 0);
+        FlatBufferTable type = field.getTable(3);
+        if (type != null) {
+            switch (typeId) {
+                case ArrowConstants.TYPE_INT:
+                    bitWidth = type.getInt(0, 0);
+                    signed = type.getBoolean(1, false);
+                    break;
+                case ArrowConstants.TYPE_FLOATING_POINT:
+                    precision = type.getShort(0, ArrowConstants.PRECISION_HALF);
+                    break;
+                case ArrowConstants.TYPE_DECIMAL:
+                    precision = type.getInt(0, 0);
+                    scale = type.getInt(1, 0);
+                    bitWidth = type.getInt(2, 128);
+                    break;
+                case ArrowConstants.TYPE_DATE:
+                    unit = type.getShort(0, ArrowConstants.DATE_UNIT_MILLISECOND);
+                    break;
+                case ArrowConstants.TYPE_TIME:
+                    unit = type.getShort(0, ArrowConstants.TIME_UNIT_MILLISECOND);
+                    bitWidth = type.getInt(1, 32);
+                    break;
+                case ArrowConstants.TYPE_TIMESTAMP:
+                    unit = type.getShort(0, ArrowConstants.TIME_UNIT_SECOND);
+                    timeZone = type.getString(1);
+                    break;
+                case ArrowConstants.TYPE_DURATION:
+                    unit = type.getShort(0, ArrowConstants.TIME_UNIT_MILLISECOND);
+                    break;
+                case ArrowConstants.TYPE_FIXED_SIZE_BINARY:
+                    byteWidth = type.getInt(0, 0);
+                    break;
+                case ArrowConstants.TYPE_UNION:
+                    unionMode = type.getShort(0, 0);
+                    break;
+            }
+        }
+        FlatBufferTable dictionary = field.getTable(4);
+        if (dictionary != null) {
+            dictionaryId = dictionary.getLong(0, 0);
+            FlatBufferTable indexType = dictionary.getTable(1);
+            indexBitWidth = indexType == null ? 32 : indexType.getInt(0, 32);
+            indexSigned = indexType == null || indexType.getBoolean(1, true);
+        }
+        int childCount = field.getVectorLength(5);
+        for (int i = 0; i < childCount; i++) {
+            children.add(new ArrowField(field.getVectorTable(5, i)));
+        }
+    }
+
+    private ArrowField(@NotNull ArrowField source) {
+        this.name = source.name;
+        this.nullable = source.nullable;
+        this.typeId = source.typeId;
+        this.bitWidth = source.bitWidth;
+        this.signed = source.signed;
+        this.precision = source.precision;
+        this.scale = source.scale;
+        this.unit = source.unit;
+        this.timeZone = source.timeZone;
+        this.byteWidth = source.byteWidth;
+        this.unionMode = source.unionMode;
+        this.children.addAll(source.children);
+    }
+
+    /**
+     * Returns field of dictionary values (the same type without dictionary encoding)
+     */
+    @NotNull
+    ArrowField getValueField() {
+        return new ArrowField(this);
+    }
+
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    /**
+     * Type union id (ArrowConstants.TYPE_*). For dictionary encoded fields it is the type of dictionary values
+     */
+    public int getTypeId() {
+        return typeId;
+    }
+
+    /**
+     * Bit width of Int, Decimal and Time types
+     */
+    public int getBitWidth() {
+        return bitWidth;
+    }
+
+    public boolean isSigned() {
+        return signed;
+    }
+
+    /**
+     * Decimal precision or FloatingPoint precision (ArrowConstants.PRECISION_*)
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * DateUnit or TimeUnit
+     */
+    public int getUnit() {
+        return unit;
+    }
+
+    /**
+     * Timestamp time zone. Null means local date/time
+     */
+    @Nullable
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    public int getByteWidth() {
+        return byteWidth;
+    }
+
+    public boolean isDictionaryEncoded() {
+        return dictionaryId >= 0;
+    }
+
+    public long getDictionaryId() {
+        return dictionaryId;
+    }
+
+    public int getIndexBitWidth() {
+        return indexBitWidth;
+    }
+
+    public boolean isIndexSigned() {
+        return indexSigned;
+    }
+
+    @NotNull
+    public List<ArrowField> getChildren() {
+        return children;
+    }
+
+    /**
+     * Checks that values of this field can be read as scalars
+     */
+    public boolean isSupported() {
+        if (isDictionaryEncoded() && indexBitWidth != 8 && indexBitWidth != 16 && indexBitWidth != 32 && indexBitWidth != 64) {
+            return false;
+        }
+        switch (typeId) {
+            case ArrowConstants.TYPE_NULL:
+            case ArrowConstants.TYPE_BOOL:
+            case ArrowConstants.TYPE_FLOATING_POINT:
+            case ArrowConstants.TYPE_DECIMAL:
+            case ArrowConstants.TYPE_DATE:
+            case ArrowConstants.TYPE_TIME:
+            case ArrowConstants.TYPE_TIMESTAMP:
+            case ArrowConstants.TYPE_BINARY:
+            case ArrowConstants.TYPE_UTF8:
+            case ArrowConstants.TYPE_LARGE_BINARY:
+            case ArrowConstants.TYPE_LARGE_UTF8:
+                return true;
+            case ArrowConstants.TYPE_INT:
+                return bitWidth == 8 || bitWidth == 16 || bitWidth == 32 || bitWidth == 64;
+            case ArrowConstants.TYPE_FIXED_SIZE_BINARY:
+                return byteWidth > 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Number of field nodes of this field in a record batch
+     */
+    int getNodeCount() {
+        if (isDictionaryEncoded()) {
+            return 1;
+        }
+        int count = 1;
+        for (ArrowField child : children) {
+            count += child.getNodeCount();
+        }
+        return count;
+    }
+
+    /**
+     * Number of buffers of this field in a record batch.
+     * @param variadicCounts variadic buffer counts of view types (consumed by this method)
+     */
+    int getBufferCount(@NotNull int[] variadicCounts, @NotNull int[] variadicIndex) {
+        if (isDictionaryEncoded()) {
+            return 2;
+        }
+        int count;
+        switch (typeId) {
+            case ArrowConstants.TYPE_NULL:
+            case ArrowConstants.TYPE_RUN_END_ENCODED:
+                count = 0;
+                break;
+            case ArrowConstants.TYPE_STRUCT:
+            case ArrowConstants.TYPE_FIXED_SIZE_LIST:
+                count = 1;
+                break;
+            case ArrowConstants.TYPE_UNION:
+                count = unionMode == ArrowConstants.UNION_MODE_DENSE ? 2 : 1;
+                break;
+            case ArrowConstants.TYPE_BINARY:
+            case ArrowConstants.TYPE_UTF8:
+            case ArrowConstants.TYPE_LARGE_BINARY:
+            case ArrowConstants.TYPE_LARGE_UTF8:
+            case ArrowConstants.TYPE_LIST_VIEW:
+            case ArrowConstants.TYPE_LARGE_LIST_VIEW:
+                count = 3;
+                break;
+            case ArrowConstants.TYPE_BINARY_VIEW:
+            case ArrowConstants.TYPE_UTF8_VIEW:
+                count = 2 + (variadicIndex[0] < variadicCounts.length ? variadicCounts[variadicIndex[0]++] : 0);
+                break;
+            default:
+                // Fixed width types, lists and maps: validity and values/offsets
+                count = 2;
+                break;
+        }
+        for (ArrowField child : children) {
+            count += child.getBufferCount(variadicCounts, variadicIndex);
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (type " + typeId + (isDictionaryEncoded() ? ", dictionary " + dictionaryId : "") + ")";
+    }
+
+}
@@ -0,0 +1,381 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reader of Arrow IPC files (file format and stream format).
+ * Messages are read sequentially. Only buffers of the requested columns are read from disk.
+ *
+ * Nested types (lists, structs, maps, unions) are skipped (see {@link #getSkippedColumns()}).
+ * LZ4 compressed buffers are supported, ZSTD compression is not.
+ */
+public class ArrowFileReader implements AutoCloseable {
+
+    private static final int FILE_TAIL_LENGTH = 10;
+    private static final int FIELD_NODE_SIZE = 16;
+    private static final int BUFFER_SIZE = 16;
+
+    @NotNull
+    private final FileChannel channel;
+    private long position;
+    private final long endPosition;
+
+    private final List<ArrowField> fields = new ArrayList<>();
+    private final List<ArrowField> columns = new ArrayList<>();
+    // Index in fields of each supported column
+    private final List<Integer> columnFieldIndexes = new ArrayList<>();
+    private final List<String> skippedColumns = new ArrayList<>();
+    private final Map<Long, ArrowField> dictionaryFields = new HashMap<>();
+    private final Map<Long, Object[]> dictionaries = new HashMap<>();
+
+    // Current record batch
+    private FlatBufferTable batch;
+    private long bodyPosition;
+    private long bodyLength;
+    private int batchRowCount;
+    private int compressionCodec;
+    private int[] fieldNodeStart;
+    private int[] fieldBufferStart;
+
+    public ArrowFileReader(@NotNull File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            byte[] head = readFully(0, (int) Math.min(8, fileSize));
+            if (head.length >= 6 && Arrays.equals(Arrays.copyOf(head, 6), ArrowConstants.FILE_MAGIC)) {
+                // File format: magic, stream messages, footer, footer length, magic
+                if (fileSize < 8 + FILE_TAIL_LENGTH) {
+                    throw new IOException("Arrow file is truncated");
+                }
+                byte[] tail = readFully(fileSize - FILE_TAIL_LENGTH, FILE_TAIL_LENGTH);
+                int footerLength = readInt(tail, 0);
+                if (footerLength < 0 || footerLength > fileSize - 8 - FILE_TAIL_LENGTH) {
+                    throw new IOException("Bad Arrow footer length " + footerLength);
+                }
+                this.position = 8;
+                this.endPosition = fileSize - FILE_TAIL_LENGTH - footerLength;
+            } else {
+                this.position = 0;
+                this.endPosition = fileSize;
+            }
+            readSchema();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            if (e instanceof RuntimeException) {
+                throw new IOException("Corrupted Arrow file", e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Supported columns of the schema
+     */
+    @NotNull
+    public List<ArrowField> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Names of columns of nested or unsupported types
+     */
+    @NotNull
+    public List<String> getSkippedColumns() {
+        return skippedColumns;
+    }
+
+    /**
+     * Reads next record batch. Dictionary batches are read on the way.
+     * Returns false at the end of file.
+     */
+    public boolean nextBatch() throws IOException {
+        try {
+            for (; ; ) {
+                Message message = readMessage();
+                if (message == null) {
+                    batch = null;
+                    return false;
+                }
+                if (message.type == ArrowConstants.MESSAGE_DICTIONARY_BATCH) {
+                    readDictionary(message);
+                } else if (message.type == ArrowConstants.MESSAGE_RECORD_BATCH) {
+                    setBatch(message.header, message.bodyPosition, message.bodyLength);
+                    return true;
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted Arrow file", e);
+        }
+    }
+
+    public int getBatchRowCount() {
+        return batchRowCount;
+    }
+
+    /**
+     * Reads values of the column in the current record batch
+     * @param columnIndex index in {@link #getColumns()}
+     */
+    @NotNull
+    public Object[] readColumn(int columnIndex) throws IOException {
+        if (batch == null) {
+            throw new IOException("No current record batch");
+        }
+        ArrowField field = columns.get(columnIndex);
+        int fieldIndex = columnFieldIndexes.get(columnIndex);
+        try {
+            return readVector(field, batch, bodyPosition, bodyLength, compressionCodec, fieldNodeStart[fieldIndex], fieldBufferStart[fieldIndex],
+                field.isDictionaryEncoded() ? dictionaries.get(field.getDictionaryId()) : null);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted Arrow file", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void readSchema() throws IOException {
+        Message message = readMessage();
+        if (message == null || message.type != ArrowConstants.MESSAGE_SCHEMA) {
+            throw new IOException("Arrow schema is missing");
+        }
+        FlatBufferTable schema = message.header;
+        if (schema.getShort(0, 0) != 0) {
+            throw new IOException("Big endian Arrow files are not supported");
+        }
+        int fieldCount = schema.getVectorLength(1);
+        for (int i = 0; i < fieldCount; i++) {
+            ArrowField field = new ArrowField(schema.getVectorTable(1, i));
+            fields.add(field);
+            collectDictionaries(field);
+            if (field.isSupported()) {
+                columns.add(field);
+                columnFieldIndexes.add(i);
+            } else {
+                skippedColumns.add(field.getName());
+            }
+        }
+    }
+
+    private void collectDictionaries(@NotNull ArrowField field) {
+        if (field.isDictionaryEncoded()) {
+            dictionaryFields.put(field.getDictionaryId(), field);
+        }
+        for (ArrowField child : field.getChildren()) {
+            collectDictionaries(child);
+        }
+    }
+
+    private void setBatch(@NotNull FlatBufferTable recordBatch, long bodyPosition, long bodyLength) throws IOException {
+        long rowCount = recordBatch.getLong(0, 0);
+        if (rowCount < 0 || rowCount > Integer.MAX_VALUE) {
+            throw new IOException("Bad record batch length " + rowCount);
+        }
+        this.batch = recordBatch;
+        this.bodyPosition = bodyPosition;
+        this.bodyLength = bodyLength;
+        this.batchRowCount = (int) rowCount;
+        this.compressionCodec = getCompressionCodec(recordBatch);
+
+        int[] variadicCounts = getVariadicCounts(recordBatch);
+        int[] variadicIndex = {0};
+        fieldNodeStart = new int[fields.size()];
+        fieldBufferStart = new int[fields.size()];
+        int nodeIndex = 0;
+        int bufferIndex = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            ArrowField field = fields.get(i);
+            fieldNodeStart[i] = nodeIndex;
+            fieldBufferStart[i] = bufferIndex;
+            nodeIndex += field.getNodeCount();
+            bufferIndex += field.getBufferCount(variadicCounts, variadicIndex);
+        }
+        if (nodeIndex > recordBatch.getVectorLength(1) || bufferIndex > recordBatch.getVectorLength(2)) {
+            throw new IOException("Record batch doesn't match the schema");
+        }
+    }
+
+    private void readDictionary(@NotNull Message message) throws IOException {
+        long id = message.header.getLong(0, 0);
+        ArrowField field = dictionaryFields.get(id);
+        FlatBufferTable data = message.header.getTable(1);
+        if (field == null || data == null || !field.isSupported()) {
+            return;
+        }
+        ArrowField valueField = field.getValueField();
+        int[] variadicIndex = {0};
+        if (valueField.getBufferCount(getVariadicCounts(data), variadicIndex) > data.getVectorLength(2)) {
+            throw new IOException("Dictionary batch doesn't match the schema");
+        }
+        Object[] values = readVector(valueField, data, message.bodyPosition, message.bodyLength, getCompressionCodec(data), 0, 0, null);
+        Object[] previous = dictionaries.get(id);
+        if (message.header.getBoolean(2, false) && previous != null) {
+            Object[] merged = Arrays.copyOf(previous, previous.length + values.length);
+            System.arraycopy(values, 0, merged, previous.length, values.length);
+            values = merged;
+        }
+        dictionaries.put(id, values);
+    }
+
+    @NotNull
+    private Object[] readVector(
+        @NotNull ArrowField field,
+        @NotNull FlatBufferTable recordBatch,
+        long bodyPosition,
+        long bodyLength,
+        int codec,
+        int nodeIndex,
+        int bufferIndex,
+        @Nullable Object[] dictionary) throws IOException
+    {
+        long length = recordBatch.getVectorStructLong(1, nodeIndex, FIELD_NODE_SIZE, 0);
+        long nullCount = recordBatch.getVectorStructLong(1, nodeIndex, FIELD_NODE_SIZE, 8);
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("Bad vector length " + length);
+        }
+        int bufferCount = field.getTypeId() == ArrowConstants.TYPE_NULL && !field.isDictionaryEncoded() ? 0 : field.getBufferCount(new int[0], new int[1]);
+        byte[][] buffers = new byte[bufferCount][];
+        for (int i = 0; i < bufferCount; i++) {
+            long offset = recordBatch.getVectorStructLong(2, bufferIndex + i, BUFFER_SIZE, 0);
+            long size = recordBatch.getVectorStructLong(2, bufferIndex + i, BUFFER_SIZE, 8);
+            if (offset < 0 || size < 0 || offset + size > bodyLength || size > Integer.MAX_VALUE) {
+                throw new IOException("Bad buffer location in field '" + field.getName() + "'");
+            }
+            buffers[i] = decompress(readFully(bodyPosition + offset, (int) size), codec);
+        }
+        return ArrowVectorDecoder.decode(field, (int) length, nullCount, buffers, dictionary);
+    }
+
+    @NotNull
+    private static byte[] decompress(@NotNull byte[] buffer, int codec) throws IOException {
+        if (codec < 0 || buffer.length == 0) {
+            return buffer;
+        }
+        // Compressed buffer starts with uncompressed length. -1 means that buffer isn't compressed
+        if (buffer.length < 8) {
+            throw new IOException("Bad compressed buffer");
+        }
+        long uncompressedLength = (readInt(buffer, 0) & 0xFFFFFFFFL) | (long) readInt(buffer, 4) << 32;
+        if (uncompressedLength == -1) {
+            return Arrays.copyOfRange(buffer, 8, buffer.length);
+        }
+        if (uncompressedLength < 0 || uncompressedLength > Integer.MAX_VALUE) {
+            throw new IOException("Bad uncompressed buffer length " + uncompressedLength);
+        }
+        if (codec != ArrowConstants.COMPRESSION_LZ4_FRAME) {
+            throw new IOException("Arrow buffer compression " + (codec == ArrowConstants.COMPRESSION_ZSTD ? "ZSTD" : String.valueOf(codec)) + " is not supported");
+        }
+        byte[] result = new byte[(int) uncompressedLength];
+        LZ4FrameDecoder.decode(buffer, 8, buffer.length - 8, result);
+        return result;
+    }
+
+    private static int getCompressionCodec(@NotNull FlatBufferTable recordBatch) throws IOException {
+        FlatBufferTable compression = recordBatch.getTable(3);
+        return compression == null ? -1 : compression.getByte(0, ArrowConstants.COMPRESSION_LZ4_FRAME);
+    }
+
+    @NotNull
+    private static int[] getVariadicCounts(@NotNull FlatBufferTable recordBatch) throws IOException {
+        int[] counts = new int[recordBatch.getVectorLength(4)];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = (int) recordBatch.getVectorLong(4, i);
+        }
+        return counts;
+    }
+
+    /**
+     * Reads next encapsulated message. Returns null at the end of stream.
+     */
+    @Nullable
+    private Message readMessage() throws IOException {
+        if (position + 4 > endPosition) {
+            return null;
+        }
+        int metadataLength = readInt(readFully(position, 4), 0);
+        position += 4;
+        if (metadataLength == ArrowConstants.CONTINUATION_MARKER) {
+            if (position + 4 > endPosition) {
+                return null;
+            }
+            metadataLength = readInt(readFully(position, 4), 0);
+            position += 4;
+        }
+        if (metadataLength == 0) {
+            // End of stream
+            return null;
+        }
+        if (metadataLength < 0 || position + metadataLength > endPosition) {
+            throw new IOException("Bad Arrow message length " + metadataLength);
+        }
+        FlatBufferTable message = FlatBufferTable.getRoot(readFully(position, metadataLength));
+        position += metadataLength;
+        long length = message.getLong(3, 0);
+        if (length < 0 || position + length > endPosition) {
+            throw new IOException("Bad Arrow message body length " + length);
+        }
+        Message result = new Message();
+        result.type = message.getByte(1, 0);
+        result.header = message.getTable(2);
+        result.bodyPosition = position;
+        result.bodyLength = length;
+        position += length;
+        if (result.header == null) {
+            throw new IOException("Arrow message header is missing");
+        }
+        return result;
+    }
+
+    @NotNull
+    private byte[] readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        return buffer.array();
+    }
+
+    private static int readInt(byte[] data, int pos) {
+        return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8 | (data[pos + 2] & 0xFF) << 16 | (data[pos + 3] & 0xFF) << 24;
+    }
+
+    private static class Message {
+        int type;
+        FlatBufferTable header;
+        long bodyPosition;
+        long bodyLength;
+    }
+
+}
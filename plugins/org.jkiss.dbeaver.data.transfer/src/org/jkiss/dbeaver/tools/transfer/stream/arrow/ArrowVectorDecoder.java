@@ -0,0 +1,271 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+
+/**
+ * Decodes Arrow vectors of scalar types into Java values
+ */
+class ArrowVectorDecoder {
+
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    /**
+     * Decodes vector values
+     * @param buffers field buffers (validity bitmap first)
+     * @param dictionary decoded dictionary values for dictionary encoded fields
+     */
+    @NotNull
+    static Object[] decode(@NotNull ArrowField field, int length, long nullCount, @NotNull byte[][] buffers, @Nullable Object[] dictionary) throws IOException {
+        Object[] values = new Object[length];
+        if (field.getTypeId() == ArrowConstants.TYPE_NULL && !field.isDictionaryEncoded()) {
+            return values;
+        }
+        byte[] validity = nullCount == 0 ? null : buffers[0];
+        if (validity != null) {
+            checkLength(validity, (length + 7) / 8L);
+        }
+        if (field.isDictionaryEncoded()) {
+            if (dictionary == null) {
+                throw new IOException("Dictionary " + field.getDictionaryId() + " of field '" + field.getName() + "' is missing");
+            }
+            byte[] indexes = buffers[1];
+            int width = field.getIndexBitWidth() / 8;
+            checkLength(indexes, (long) length * width);
+            for (int i = 0; i < length; i++) {
+                if (isValid(validity, i)) {
+                    long index = readInteger(indexes, i * width, width, field.isIndexSigned());
+                    if (index < 0 || index >= dictionary.length) {
+                        throw new IOException("Bad dictionary index " + index + " in field '" + field.getName() + "'");
+                    }
+                    values[i] = dictionary[(int) index];
+                }
+            }
+            return values;
+        }
+        byte[] data = buffers[1];
+        switch (field.getTypeId()) {
+            case ArrowConstants.TYPE_BOOL:
+                checkLength(data, (length + 7) / 8L);
+                for (int i = 0; i < length; i++) {
+                    if (isValid(validity, i)) {
+                        values[i] = isValid(data, i);
+                    }
+                }
+                break;
+            case ArrowConstants.TYPE_INT: {
+                int width = field.getBitWidth() / 8;
+                checkLength(data, (long) length * width);
+                for (int i = 0; i < length; i++) {
+                    if (isValid(validity, i)) {
+                        long value = readInteger(data, i * width, width, field.isSigned());
+                        if (width == 8) {
+                            values[i] = field.isSigned() ? (Object) value : new BigDecimal(Long.toUnsignedString(value));
+                        } else if (width == 4 && !field.isSigned()) {
+                            values[i] = value;
+                        } else {
+                            values[i] = (int) value;
+                        }
+                    }
+                }
+                break;
+            }
+            case ArrowConstants.TYPE_FLOATING_POINT: {
+                int width = field.getPrecision() == ArrowConstants.PRECISION_DOUBLE ? 8 : field.getPrecision() == ArrowConstants.PRECISION_SINGLE ? 4 : 2;
+                checkLength(data, (long) length * width);
+                for (int i = 0; i < length; i++) {
+                    if (isValid(validity, i)) {
+                        long bits = readInteger(data, i * width, width, false);
+                        switch (width) {
+                            case 8: values[i] = Double.longBitsToDouble(bits); break;
+                            case 4: values[i] = Float.intBitsToFloat((int) bits); break;
+                            default: values[i] = halfToFloat((int) bits); break;
+                        }
+                    }
+                }
+                break;
+            }
+            case ArrowConstants.TYPE_DECIMAL: {
+                int width = field.getBitWidth() / 8;
+                checkLength(data, (long) length * width);
+                byte[] bigEndian = new byte[width];
+                for (int i = 0; i < length; i++) {
+                    if (isValid(validity, i)) {
+                        for (int k = 0; k < width; k++) {
+                            bigEndian[k] = data[i * width + width - 1 - k];
+                        }
+                        values[i] = new BigDecimal(new BigInteger(bigEndian), field.getScale());
+                    }
+                }
+                break;
+            }
+            case ArrowConstants.TYPE_DATE: {
+                int width = field.getUnit() == ArrowConstants.DATE_UNIT_DAY ? 4 : 8;
+                checkLength(data, (long) length * width);
+                for (int i = 0; i < length; i++) {
+                    if (isValid(validity, i)) {
+                        long value = readInteger(data, i * width, width, true);
+                        long epochDay = width == 4 ? value : Math.floorDiv(value, MILLIS_PER_DAY);
+                        values[i] = java.sql.Date.valueOf(LocalDate.ofEpochDay(epochDay));
+                    }
+                }
+                break;
+            }
+            case ArrowConstants.TYPE_TIME: {
+                int width = field.getBitWidth() == 64 ? 8 : 4;
+                long nanosPerUnit = getNanosPerUnit(field.getUnit());
+                checkLength(data, (long) length * width);
+                for (int i = 0; i < length; i++) {
+                    if (isValid(validity, i)) {
+                        values[i] = makeTime(readInteger(data, i * width, width, true) * nanosPerUnit);
+                    }
+                }
+                break;
+            }
+            case ArrowConstants.TYPE_TIMESTAMP: {
+                long nanosPerUnit = getNanosPerUnit(field.getUnit());
+                long unitsPerSecond = 1_000_000_000L / nanosPerUnit;
+                boolean local = field.getTimeZone() == null || field.getTimeZone().isEmpty();
+                checkLength(data, length * 8L);
+                for (int i = 0; i < length; i++) {
+                    if (isValid(validity, i)) {
+                        long value = readInteger(data, i * 8, 8, true);
+                        long seconds = Math.floorDiv(value, unitsPerSecond);
+                        int nanos = (int) (Math.floorMod(value, unitsPerSecond) * nanosPerUnit);
+                        values[i] = local ?
+                            Timestamp.valueOf(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC)) :
+                            Timestamp.from(Instant.ofEpochSecond(seconds, nanos));
+                    }
+                }
+                break;
+            }
+            case ArrowConstants.TYPE_FIXED_SIZE_BINARY: {
+                int width = field.getByteWidth();
+                checkLength(data, (long) length * width);
+                for (int i = 0; i < length; i++) {
+                    if (isValid(validity, i)) {
+                        byte[] value = new byte[width];
+                        System.arraycopy(data, i * width, value, 0, width);
+                        values[i] = value;
+                    }
+                }
+                break;
+            }
+            case ArrowConstants.TYPE_BINARY:
+            case ArrowConstants.TYPE_UTF8:
+            case ArrowConstants.TYPE_LARGE_BINARY:
+            case ArrowConstants.TYPE_LARGE_UTF8: {
+                boolean large = field.getTypeId() == ArrowConstants.TYPE_LARGE_BINARY || field.getTypeId() == ArrowConstants.TYPE_LARGE_UTF8;
+                boolean string = field.getTypeId() == ArrowConstants.TYPE_UTF8 || field.getTypeId() == ArrowConstants.TYPE_LARGE_UTF8;
+                int offsetWidth = large ? 8 : 4;
+                byte[] bytes = buffers[2];
+                if (length > 0) {
+                    checkLength(data, (length + 1L) * offsetWidth);
+                }
+                for (int i = 0; i < length; i++) {
+                    if (isValid(validity, i)) {
+                        long start = readInteger(data, i * offsetWidth, offsetWidth, true);
+                        long end = readInteger(data, (i + 1) * offsetWidth, offsetWidth, true);
+                        if (start < 0 || end < start || end > bytes.length) {
+                            throw new IOException("Bad value offset in field '" + field.getName() + "'");
+                        }
+                        if (string) {
+                            values[i] = new String(bytes, (int) start, (int) (end - start), StandardCharsets.UTF_8);
+                        } else {
+                            byte[] value = new byte[(int) (end - start)];
+                            System.arraycopy(bytes, (int) start, value, 0, value.length);
+                            values[i] = value;
+                        }
+                    }
+                }
+                break;
+            }
+            default:
+                throw new IOException("Unsupported type " + field.getTypeId() + " of field '" + field.getName() + "'");
+        }
+        return values;
+    }
+
+    private static boolean isValid(@Nullable byte[] bitmap, int index) {
+        return bitmap == null || (bitmap[index >> 3] & (1 << (index & 7))) != 0;
+    }
+
+    private static long readInteger(byte[] data, int pos, int width, boolean signed) {
+        long result = 0;
+        for (int i = width - 1; i >= 0; i--) {
+            result = (result << 8) | (data[pos + i] & 0xFF);
+        }
+        if (signed && width < 8) {
+            int shift = 64 - width * 8;
+            result = (result << shift) >> shift;
+        }
+        return result;
+    }
+
+    private static void checkLength(byte[] buffer, long length) throws IOException {
+        if (buffer.length < length) {
+            throw new IOException("Arrow buffer is too small (" + buffer.length + " bytes, required " + length + ")");
+        }
+    }
+
+    private static long getNanosPerUnit(int unit) {
+        switch (unit) {
+            case ArrowConstants.TIME_UNIT_SECOND: return 1_000_000_000L;
+            case ArrowConstants.TIME_UNIT_MILLISECOND: return 1_000_000L;
+            case ArrowConstants.TIME_UNIT_MICROSECOND: return 1_000L;
+            default: return 1L;
+        }
+    }
+
+    @NotNull
+    private static Time makeTime(long nanosOfDay) {
+        LocalTime localTime = LocalTime.ofNanoOfDay(Math.floorMod(nanosOfDay, NANOS_PER_DAY));
+        // Time.valueOf truncates milliseconds
+        return new Time(Time.valueOf(localTime).getTime() + localTime.getNano() / 1_000_000);
+    }
+
+    private static float halfToFloat(int bits) {
+        int sign = (bits >>> 15) & 1;
+        int exponent = (bits >>> 10) & 0x1F;
+        int mantissa = bits & 0x3FF;
+        float value;
+        if (exponent == 0) {
+            value = mantissa * (float) Math.pow(2, -24);
+        } else if (exponent == 0x1F) {
+            value = mantissa == 0 ? Float.POSITIVE_INFINITY : Float.NaN;
+        } else {
+            value = (1 + mantissa / 1024f) * (float) Math.pow(2, exponent - 15);
+        }
+        return sign == 0 ? value : -value;
+    }
+
+}
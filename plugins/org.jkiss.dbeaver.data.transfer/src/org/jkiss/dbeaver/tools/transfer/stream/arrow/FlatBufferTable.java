@@ -0,0 +1,178 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read-only view of a FlatBuffers table.
+ * Fields are addressed by their index in the schema (union fields take two slots: type and value).
+ */
+public class FlatBufferTable {
+
+    @NotNull
+    private final byte[] data;
+    private final int position;
+    private final int vtable;
+    private final int vtableSize;
+
+    private FlatBufferTable(@NotNull byte[] data, int position) throws IOException {
+        this.data = data;
+        this.position = position;
+        this.vtable = position - readInt(data, position);
+        checkRange(data, vtable, 4);
+        this.vtableSize = readShort(data, vtable);
+        checkRange(data, vtable, vtableSize);
+    }
+
+    /**
+     * Returns root table of the buffer
+     */
+    @NotNull
+    public static FlatBufferTable getRoot(@NotNull byte[] data) throws IOException {
+        checkRange(data, 0, 4);
+        return new FlatBufferTable(data, readInt(data, 0));
+    }
+
+    public boolean hasField(int field) {
+        return getFieldOffset(field) != 0;
+    }
+
+    public int getByte(int field, int defaultValue) {
+        int offset = getFieldOffset(field);
+        return offset == 0 ? defaultValue : data[position + offset];
+    }
+
+    public boolean getBoolean(int field, boolean defaultValue) {
+        int offset = getFieldOffset(field);
+        return offset == 0 ? defaultValue : data[position + offset] != 0;
+    }
+
+    public int getShort(int field, int defaultValue) {
+        int offset = getFieldOffset(field);
+        return offset == 0 ? defaultValue : (short) readShort(data, position + offset);
+    }
+
+    public int getInt(int field, int defaultValue) {
+        int offset = getFieldOffset(field);
+        return offset == 0 ? defaultValue : readInt(data, position + offset);
+    }
+
+    public long getLong(int field, long defaultValue) {
+        int offset = getFieldOffset(field);
+        return offset == 0 ? defaultValue : readLong(data, position + offset);
+    }
+
+    @Nullable
+    public FlatBufferTable getTable(int field) throws IOException {
+        int offset = getFieldOffset(field);
+        if (offset == 0) {
+            return null;
+        }
+        return new FlatBufferTable(data, dereference(position + offset));
+    }
+
+    @Nullable
+    public String getString(int field) throws IOException {
+        int offset = getFieldOffset(field);
+        if (offset == 0) {
+            return null;
+        }
+        int start = dereference(position + offset);
+        int length = readInt(data, start);
+        checkRange(data, start + 4, length);
+        return new String(data, start + 4, length, StandardCharsets.UTF_8);
+    }
+
+    public int getVectorLength(int field) throws IOException {
+        int offset = getFieldOffset(field);
+        if (offset == 0) {
+            return 0;
+        }
+        return readInt(data, dereference(position + offset));
+    }
+
+    @NotNull
+    public FlatBufferTable getVectorTable(int field, int index) throws IOException {
+        int element = getVectorElement(field, index, 4);
+        return new FlatBufferTable(data, dereference(element));
+    }
+
+    /**
+     * Reads long member of a struct element of the vector
+     */
+    public long getVectorStructLong(int field, int index, int structSize, int memberOffset) throws IOException {
+        return readLong(data, getVectorElement(field, index, structSize) + memberOffset);
+    }
+
+    public long getVectorLong(int field, int index) throws IOException {
+        return readLong(data, getVectorElement(field, index, 8));
+    }
+
+    private int getVectorElement(int field, int index, int elementSize) throws IOException {
+        int offset = getFieldOffset(field);
+        if (offset == 0) {
+            throw new IOException("Vector field " + field + " is missing");
+        }
+        int start = dereference(position + offset);
+        int length = readInt(data, start);
+        if (index < 0 || index >= length) {
+            throw new IOException("Vector index " + index + " is out of range");
+        }
+        int element = start + 4 + index * elementSize;
+        checkRange(data, element, elementSize);
+        return element;
+    }
+
+    private int getFieldOffset(int field) {
+        int entry = 4 + field * 2;
+        if (entry + 2 > vtableSize) {
+            return 0;
+        }
+        return readShort(data, vtable + entry);
+    }
+
+    private int dereference(int pos) throws IOException {
+        checkRange(data, pos, 4);
+        int target = pos + readInt(data, pos);
+        checkRange(data, target, 4);
+        return target;
+    }
+
+    private static void checkRange(byte[] data, int pos, int length) throws IOException {
+        if (pos < 0 || length < 0 || pos + length > data.length) {
+            throw new IOException("Corrupted FlatBuffers data");
+        }
+    }
+
+    private static int readShort(byte[] data, int pos) {
+        return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8;
+    }
+
+    private static int readInt(byte[] data, int pos) {
+        return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8 | (data[pos + 2] & 0xFF) << 16 | (data[pos + 3] & 0xFF) << 24;
+    }
+
+    private static long readLong(byte[] data, int pos) {
+        return (readInt(data, pos) & 0xFFFFFFFFL) | (long) readInt(data, pos + 4) << 32;
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+
+/**
+ * LZ4 frame format decoder. Checksums are not verified.
+ */
+public class LZ4FrameDecoder {
+
+    private static final int FRAME_MAGIC = 0x184D2204;
+    private static final int SKIPPABLE_MAGIC_MASK = 0xFFFFFFF0;
+    private static final int SKIPPABLE_MAGIC = 0x184D2A50;
+
+    /**
+     * Decodes frames into output buffer. Output buffer size must be equal to the uncompressed data size.
+     */
+    public static void decode(@NotNull byte[] input, int offset, int length, @NotNull byte[] output) throws IOException {
+        int pos = offset;
+        int end = offset + length;
+        int outPos = 0;
+        while (pos < end) {
+            int magic = readInt(input, pos, end);
+            pos += 4;
+            if ((magic & SKIPPABLE_MAGIC_MASK) == SKIPPABLE_MAGIC) {
+                pos += 4 + readInt(input, pos, end);
+                continue;
+            }
+            if (magic != FRAME_MAGIC) {
+                throw new IOException("Bad LZ4 frame magic");
+            }
+            checkRange(pos, 2, end);
+            int flags = input[pos] & 0xFF;
+            if ((flags >>> 6) != 1) {
+                throw new IOException("Unsupported LZ4 frame version");
+            }
+            boolean blockChecksum = (flags & 0x10) != 0;
+            boolean contentSize = (flags & 0x08) != 0;
+            boolean contentChecksum = (flags & 0x04) != 0;
+            boolean dictionaryId = (flags & 0x01) != 0;
+            // Flags, block descriptor and header checksum
+            pos += 3 + (contentSize ? 8 : 0) + (dictionaryId ? 4 : 0);
+            for (; ; ) {
+                int blockSize = readInt(input, pos, end);
+                pos += 4;
+                if (blockSize == 0) {
+                    break;
+                }
+                int dataSize = blockSize & 0x7FFFFFFF;
+                checkRange(pos, dataSize, end);
+                if ((blockSize & 0x80000000) != 0) {
+                    // Uncompressed block
+                    if (outPos + dataSize > output.length) {
+                        throw new IOException("LZ4 data is larger than expected");
+                    }
+                    System.arraycopy(input, pos, output, outPos, dataSize);
+                    outPos += dataSize;
+                } else {
+                    outPos = decodeBlock(input, pos, pos + dataSize, output, outPos);
+                }
+                pos += dataSize + (blockChecksum ? 4 : 0);
+            }
+            if (contentChecksum) {
+                pos += 4;
+            }
+        }
+        if (outPos != output.length) {
+            throw new IOException("LZ4 data size mismatch: " + outPos + " bytes instead of " + output.length);
+        }
+    }
+
+    /**
+     * Decodes LZ4 block. Matches may refer to the data of previous blocks. Returns new output position
+     */
+    public static int decodeBlock(@NotNull byte[] input, int pos, int end, @NotNull byte[] output, int outPos) throws IOException {
+        while (pos < end) {
+            int token = input[pos++] & 0xFF;
+            int literalLength = token >>> 4;
+            if (literalLength == 15) {
+                int b;
+                do {
+                    checkRange(pos, 1, end);
+                    b = input[pos++] & 0xFF;
+                    literalLength += b;
+                } while (b == 255);
+            }
+            checkRange(pos, literalLength, end);
+            if (outPos + literalLength > output.length) {
+                throw new IOException("LZ4 data is larger than expected");
+            }
+            System.arraycopy(input, pos, output, outPos, literalLength);
+            pos += literalLength;
+            outPos += literalLength;
+            if (pos >= end) {
+                // Last sequence has literals only
+                break;
+            }
+            checkRange(pos, 2, end);
+            int distance = (input[pos] & 0xFF) | (input[pos + 1] & 0xFF) << 8;
+            pos += 2;
+            int matchLength = token & 0x0F;
+            if (matchLength == 15) {
+                int b;
+                do {
+                    checkRange(pos, 1, end);
+                    b = input[pos++] & 0xFF;
+                    matchLength += b;
+                } while (b == 255);
+            }
+            matchLength += 4;
+            if (distance == 0 || distance > outPos || outPos + matchLength > output.length) {
+                throw new IOException("Corrupted LZ4 data");
+            }
+            // Byte by byte copy: match may overlap with its own output
+            for (int i = 0; i < matchLength; i++, outPos++) {
+                output[outPos] = output[outPos - distance];
+            }
+        }
+        return outPos;
+    }
+
+    private static int readInt(byte[] data, int pos, int end) throws IOException {
+        checkRange(pos, 4, end);
+        return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8 | (data[pos + 2] & 0xFF) << 16 | (data[pos + 3] & 0xFF) << 24;
+    }
+
+    private static void checkRange(int pos, int length, int end) throws IOException {
+        if (length < 0 || pos + length > end) {
+            throw new IOException("Unexpected end of LZ4 data");
+        }
+    }
+
+}
@@ -16,6 +16,7 @@
  */
 package org.jkiss.dbeaver.tools.transfer.stream.exporter;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataKind;
@@ -27,6 +28,8 @@ import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCNumberValueHandler;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCStringValueHandler;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferUtils;
@@ -35,13 +38,18 @@ import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.Map;
 
 /**
- * CSV Exporter
+ * CSV Exporter.
+ * Values are encoded into UTF-8 byte buffer (see {@link StreamExportBuffer}) and quoting is detected over encoded bytes.
+ * Numbers and strings of standard JDBC value handlers are encoded directly, without value handler formatting.
  */
 public class DataExporterCSV extends StreamExporterAbstract {
 
@@ -56,6 +64,7 @@ public class DataExporterCSV extends StreamExporterAbstract {
 
     private static final String DEF_QUOTE_CHAR = "\"";
     private boolean formatNumbers;
+    private boolean checkNumberQuotes;
 
     enum HeaderPosition {
         none,
@@ -74,8 +83,19 @@ public class DataExporterCSV extends StreamExporterAbstract {
     private String nullString;
     private HeaderPosition headerPosition;
     private DBDAttributeBinding[] columns;
+    // Columns which values may be encoded without value handler
+    private boolean[] directNumbers;
+    private boolean[] directStrings;
 
-    private final StringBuilder buffer = new StringBuilder();
+    private StreamExportBuffer out;
+    private byte[] delimiterBytes;
+    private byte[] rowDelimiterBytes;
+    private byte[] quoteBytes;
+    private byte[] nullStringBytes;
+    private char[] readBuffer;
+
+    private static final byte[] CR_BYTES = {'\r'};
+    private static final byte[] LF_BYTES = {'\n'};
 
     @Override
     public void init(IStreamDataExporterSite site) throws DBException
@@ -103,11 +123,32 @@ public class DataExporterCSV extends StreamExporterAbstract {
 
         headerPosition = CommonUtils.valueOf(HeaderPosition.class, String.valueOf(properties.get(PROP_HEADER)), HeaderPosition.top);
         formatNumbers = CommonUtils.toBoolean(getSite().getProperties().get(PROP_FORMAT_NUMBERS));
+
+        out = new StreamExportBuffer(site);
+        delimiterBytes = delimiter.getBytes(StandardCharsets.UTF_8);
+        rowDelimiterBytes = rowDelimiter.getBytes(StandardCharsets.UTF_8);
+        quoteBytes = String.valueOf(quoteChar).getBytes(StandardCharsets.UTF_8);
+        nullStringBytes = CommonUtils.isEmpty(nullString) ? null : nullString.getBytes(StandardCharsets.UTF_8);
+        // Native numbers consist of digits, sign and decimal point. They need quotes only if separators have these characters
+        checkNumberQuotes = (useQuotes && quoteStrategy == QuoteStrategy.ALL) ||
+            hasNumberCharacters(delimiter) || hasNumberCharacters(rowDelimiter) || hasNumberCharacters(String.valueOf(quoteChar));
+    }
+
+    private static boolean hasNumberCharacters(@NotNull String str) {
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (Character.isDigit(c) || c == '-' || c == '.') {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public void dispose()
     {
+        out = null;
+        readBuffer = null;
         super.dispose();
     }
 
@@ -123,6 +164,14 @@ public class DataExporterCSV extends StreamExporterAbstract {
     public void exportHeader(DBCSession session) throws DBException, IOException
     {
         columns = getSite().getAttributes();
+        directNumbers = new boolean[columns.length];
+        directStrings = new boolean[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            // Exact classes: subclasses may format values differently
+            Class<?> handlerClass = columns[i].getValueHandler().getClass();
+            directNumbers[i] = !formatNumbers && handlerClass == JDBCNumberValueHandler.class;
+            directStrings[i] = handlerClass == JDBCStringValueHandler.class;
+        }
         if (headerPosition == HeaderPosition.top || headerPosition == HeaderPosition.both) {
             printHeader();
         }
@@ -153,14 +202,15 @@ public class DataExporterCSV extends StreamExporterAbstract {
     {
         for (int i = 0; i < row.length && i < columns.length; i++) {
             DBDAttributeBinding column = columns[i];
-            if (DBUtils.isNullValue(row[i])) {
-                if (!CommonUtils.isEmpty(nullString)) {
-                    getWriter().write(nullString);
+            Object value = row[i];
+            if (DBUtils.isNullValue(value)) {
+                if (nullStringBytes != null) {
+                    out.write(nullStringBytes);
                 }
-            } else if (row[i] instanceof DBDContent) {
+            } else if (value instanceof DBDContent) {
                 // Content
                 // Inline textual content and handle binaries in some special way
-                DBDContent content = (DBDContent)row[i];
+                DBDContent content = (DBDContent)value;
                 try {
                     DBDContentStorage cs = content.getContents(session.getProgressMonitor());
                     if (cs == null) {
@@ -168,120 +218,196 @@ public class DataExporterCSV extends StreamExporterAbstract {
                     } else if (ContentUtils.isTextContent(content)) {
                         writeCellValue(cs.getContentReader());
                     } else {
-//                        out.write(quoteChar);
+                        // Binary data goes to the site writer
+                        out.flush();
                         getSite().writeBinaryData(cs);
-//                        out.write(quoteChar);
+                        getSite().flush();
                     }
                 }
                 finally {
                     content.release();
                 }
             } else {
-                String stringValue = super.getValueDisplayString(column, row[i]);
+                int valueStart = out.size();
                 boolean quote = false;
-
-                if (quoteStrategy == QuoteStrategy.DISABLED) {
-                    if (!stringValue.isEmpty() && !(row[i] instanceof Number) && !(row[i] instanceof Date) && Character.isDigit(stringValue.charAt(0))) {
-                        // Quote string values which starts from number
-                        quote = true;
+                if (value instanceof Number && directNumbers[i] && writeNativeNumber((Number) value)) {
+                    // Numbers are never quoted by quote strategy
+                    if (checkNumberQuotes) {
+                        quoteCellValue(valueStart, false);
                     }
-                } else if (quoteStrategy == QuoteStrategy.STRINGS) {
-                    if (!stringValue.isEmpty() && !(row[i] instanceof Number) && !(row[i] instanceof Date)) {
-                        quote = true;
-                    }
-                } else if (quoteStrategy == QuoteStrategy.ALL_BUT_NUMBERS) {
-                    if (!(row[i] instanceof Number)) {
-                        quote = true;
+                } else {
+                    String stringValue = value instanceof String && directStrings[i] ?
+                        (String) value : super.getValueDisplayString(column, value);
+
+                    if (quoteStrategy == QuoteStrategy.DISABLED) {
+                        if (!stringValue.isEmpty() && !(value instanceof Number) && !(value instanceof Date) && Character.isDigit(stringValue.charAt(0))) {
+                            // Quote string values which starts from number
+                            quote = true;
+                        }
+                    } else if (quoteStrategy == QuoteStrategy.STRINGS) {
+                        if (!stringValue.isEmpty() && !(value instanceof Number) && !(value instanceof Date)) {
+                            quote = true;
+                        }
+                    } else if (quoteStrategy == QuoteStrategy.ALL_BUT_NUMBERS) {
+                        if (!(value instanceof Number)) {
+                            quote = true;
+                        }
                     }
+                    out.writeUTF8(stringValue);
+                    quoteCellValue(valueStart, quote);
                 }
-                writeCellValue(stringValue, quote);
             }
             if (i < row.length - 1) {
                 writeDelimiter();
             }
         }
         writeRowLimit();
+        out.flushIfFull();
+    }
+
+    /**
+     * Writes number in the same format as number value handler does in native format.
+     * Returns false if value handler settings may affect the result (scientific notation).
+     */
+    private boolean writeNativeNumber(@NotNull Number value)
+    {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeLong(value.longValue());
+        } else if (value instanceof BigInteger) {
+            out.writeASCII(value.toString());
+        } else if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            if (decimal.scale() < 0 || decimal.precision() - decimal.scale() - 1 < -6) {
+                // Exponential notation
+                return false;
+            }
+            out.writeASCII(decimal.toString());
+        } else if (value instanceof Double || value instanceof Float) {
+            String strValue = value.toString();
+            if (strValue.indexOf('E') != -1) {
+                return false;
+            }
+            out.writeASCII(strValue);
+        } else {
+            return false;
+        }
+        return true;
     }
 
     @Override
-    public void exportFooter(DBRProgressMonitor monitor) {
+    public void exportFooter(DBRProgressMonitor monitor) throws IOException {
         if (headerPosition == HeaderPosition.bottom || headerPosition == HeaderPosition.both) {
             printHeader();
         }
+        out.flush();
+    }
+
+    @Override
+    public long getBufferedSize() {
+        return out == null ? 0 : out.size();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
     }
 
     private void writeCellValue(String value, boolean quote)
+    {
+        int valueStart = out.size();
+        out.writeUTF8(value);
+        quoteCellValue(valueStart, quote);
+    }
+
+    /**
+     * Quotes value encoded from the specified buffer position (if needed)
+     */
+    private void quoteCellValue(int valueStart, boolean quote)
     {
         if (!useQuotes) {
             quote = false;
         }
         // check for needed quote
-        final boolean hasQuotes = useQuotes && value.indexOf(quoteChar) != -1;
+        final boolean hasQuotes = useQuotes && out.indexOf(quoteBytes, valueStart) != -1;
 
-        if (quoteStrategy == QuoteStrategy.ALL || (useQuotes && value.isEmpty())) {
+        if (quoteStrategy == QuoteStrategy.ALL || (useQuotes && out.size() == valueStart)) {
             quote = true;
         } else if (!quote) {
             if (hasQuotes ||
-                value.contains(delimiter) ||
-                value.indexOf('\r') != -1 ||
-                value.indexOf('\n') != -1 ||
-                value.contains(rowDelimiter))
+                out.indexOf(delimiterBytes, valueStart) != -1 ||
+                out.indexOf(CR_BYTES, valueStart) != -1 ||
+                out.indexOf(LF_BYTES, valueStart) != -1 ||
+                out.indexOf(rowDelimiterBytes, valueStart) != -1)
             {
                 quote = true;
             }
         }
 
-        if (quote && hasQuotes) {
+        if (quote && useQuotes) {
             // escape quotes with double quotes
-            buffer.setLength(0);
-            for (int i = 0; i < value.length(); i++) {
-                char c = value.charAt(i);
-                if (c == quoteChar) {
-                    buffer.append(quoteChar);
-                }
-                buffer.append(c);
-            }
-            value = buffer.toString();
+            out.quote(valueStart, quoteBytes, hasQuotes);
         }
-        PrintWriter out = getWriter();
-        if (quote && useQuotes) out.write(quoteChar);
-        out.write(value);
-        if (quote && useQuotes) out.write(quoteChar);
     }
 
     private void writeCellValue(Reader reader) throws IOException
     {
         try {
-            PrintWriter out = getWriter();
-            if (useQuotes) out.write(quoteChar);
-            // Copy reader
-            char[] buffer = new char[2000];
+            if (useQuotes) out.write(quoteBytes);
+            // Copy reader. High surrogate at the end of chunk is kept for the next chunk
+            if (readBuffer == null) {
+                readBuffer = new char[2000];
+            }
+            char[] buffer = readBuffer;
+            CharBuffer chars = CharBuffer.wrap(buffer);
+            int offset = 0;
             for (;;) {
-                int count = reader.read(buffer);
+                int count = reader.read(buffer, offset, buffer.length - offset);
                 if (count <= 0) {
                     break;
                 }
-                for (int i = 0; i < count; i++) {
-                    if (useQuotes && buffer[i] == quoteChar) {
-                        out.write(quoteChar);
-                    }
-                    out.write(buffer[i]);
+                int end = offset + count;
+                int writeEnd = Character.isHighSurrogate(buffer[end - 1]) ? end - 1 : end;
+                writeContentChars(chars, writeEnd);
+                offset = end - writeEnd;
+                if (offset > 0) {
+                    buffer[0] = buffer[writeEnd];
                 }
+                out.flushIfFull();
+            }
+            if (offset > 0) {
+                writeContentChars(chars, offset);
             }
-            if (useQuotes) out.write(quoteChar);
+            if (useQuotes) out.write(quoteBytes);
         } finally {
             ContentUtils.close(reader);
         }
     }
 
+    private void writeContentChars(CharBuffer chars, int count)
+    {
+        int runStart = 0;
+        if (useQuotes) {
+            for (int i = 0; i < count; i++) {
+                if (chars.charAt(i) == quoteChar) {
+                    // Doubled quote
+                    out.writeUTF8(chars, runStart, i + 1);
+                    runStart = i;
+                }
+            }
+        }
+        out.writeUTF8(chars, runStart, count);
+    }
+
     private void writeDelimiter()
     {
-        getWriter().write(delimiter);
+        out.write(delimiterBytes);
     }
 
     private void writeRowLimit()
     {
-        getWriter().write(rowDelimiter);
+        out.write(rowDelimiterBytes);
     }
 
 }
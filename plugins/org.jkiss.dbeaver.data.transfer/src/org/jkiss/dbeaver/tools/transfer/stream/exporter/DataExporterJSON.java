@@ -17,7 +17,7 @@
  */
 package org.jkiss.dbeaver.tools.transfer.stream.exporter;
 
-import org.jkiss.code.Nullable;
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBPDataKind;
 import org.jkiss.dbeaver.model.DBUtils;
@@ -37,25 +37,47 @@ import org.jkiss.utils.CommonUtils;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.io.Reader;
+import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
 /**
- * JSON Exporter
+ * JSON Exporter.
+ * Values are encoded directly into UTF-8 bytes (see {@link StreamExportBuffer}), attribute names are encoded once per export.
+ * In NDJSON mode each row is written as a single line object without enclosing array.
  */
 public class DataExporterJSON extends StreamExporterAbstract implements IDocumentDataExporter {
 
     public static final String PROP_FORMAT_DATE_ISO = "formatDateISO";
     public static final String PROP_PRINT_TABLE_NAME = "printTableName";
+    public static final String PROP_NDJSON = "ndjson";
+
+    private static final byte[] NULL_VALUE = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE_VALUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE_VALUE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] HEX_DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+    private static final int READ_BUFFER_SIZE = 2000;
+
+    /**
+     * Writes JSON representation of a non-null cell value
+     */
+    @FunctionalInterface
+    protected interface ValueEncoder {
+        void encodeValue(@NotNull StreamExportBuffer out, @NotNull Object value) throws IOException;
+    }
 
     private DBDAttributeBinding[] columns;
+    private byte[][] columnPrefixes;
+    private ValueEncoder[] valueEncoders;
+    private StreamExportBuffer out;
+    private char[] readBuffer;
     private String tableName;
     private int rowNum = 0;
 
     private boolean printTableName = true;
     private boolean formatDateISO = true;
+    private boolean ndjson = false;
 
     @Override
     public void init(IStreamDataExporterSite site) throws DBException
@@ -63,11 +85,15 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
         super.init(site);
         formatDateISO = CommonUtils.getBoolean(site.getProperties().get(PROP_FORMAT_DATE_ISO), true);
         printTableName = CommonUtils.getBoolean(site.getProperties().get(PROP_PRINT_TABLE_NAME), true);
+        ndjson = CommonUtils.getBoolean(site.getProperties().get(PROP_NDJSON), false);
+        out = new StreamExportBuffer(site);
     }
 
     @Override
     public void dispose()
     {
+        out = null;
+        readBuffer = null;
         super.dispose();
     }
 
@@ -76,45 +102,102 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
     {
         columns = getSite().getAttributes();
         tableName = getSite().getSource().getName();
+        columnPrefixes = new byte[columns.length][];
+        valueEncoders = new ValueEncoder[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            DBDAttributeBinding column = columns[i];
+            String columnName = column.getLabel();
+            if (CommonUtils.isEmpty(columnName)) {
+                columnName = column.getName();
+            }
+            columnPrefixes[i] = encodeColumnPrefix(columnName, i == 0);
+            valueEncoders[i] = createValueEncoder(column);
+        }
         printHeader();
     }
 
-    private void printHeader()
+    private void printHeader() throws IOException
     {
-        PrintWriter out = getWriter();
+        if (ndjson) {
+            return;
+        }
         if (printTableName) {
-            out.write("{\n");
-            out.write("\"" + JSONUtils.escapeJsonString(tableName) + "\": ");
+            out.writeASCII("{\n");
+            writeString(out, tableName);
+            out.writeASCII(": ");
+        }
+        out.writeASCII("[\n");
+        out.flush();
+    }
+
+    /**
+     * Encodes separator from the previous attribute, attribute name and name/value separator
+     */
+    private byte[] encodeColumnPrefix(@NotNull String columnName, boolean first) {
+        StringBuilder prefix = new StringBuilder();
+        if (!first) {
+            prefix.append(ndjson ? "," : ",\n");
         }
-        out.write("[\n");
+        if (!ndjson) {
+            prefix.append("\t\t");
+        }
+        prefix.append('"').append(JSONUtils.escapeJsonString(columnName)).append('"');
+        prefix.append(ndjson ? ":" : " : ");
+        return prefix.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates encoder for values of the specified attribute.
+     * Encoder is created once per export. Override to change representation of some data types.
+     */
+    @NotNull
+    protected ValueEncoder createValueEncoder(@NotNull DBDAttributeBinding column) {
+        final boolean stringColumn = column.getDataKind() == DBPDataKind.STRING;
+        return (buffer, value) -> {
+            if (value instanceof Number) {
+                buffer.writeNumber((Number) value);
+            } else if (value instanceof Boolean) {
+                buffer.write((Boolean) value ? TRUE_VALUE : FALSE_VALUE);
+            } else if (value instanceof String && stringColumn) {
+                writeString(buffer, (String) value);
+            } else if (value instanceof Date && formatDateISO) {
+                writeDate(buffer, (Date) value);
+            } else {
+                writeString(buffer, super.getValueDisplayString(column, value));
+            }
+        };
     }
 
     @Override
     public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException
     {
-        PrintWriter out = getWriter();
-        if (rowNum > 0) {
-            out.write(",\n");
+        if (rowNum > 0 && !ndjson) {
+            out.writeASCII(",\n");
         }
         rowNum++;
         if (isJsonDocumentResults(session.getProgressMonitor(), row)) {
             DBDDocument document = (DBDDocument) row[0];
             ByteArrayOutputStream buffer = new ByteArrayOutputStream();
             document.serializeDocument(session.getProgressMonitor(), buffer, StandardCharsets.UTF_8);
-            String jsonText = buffer.toString(StandardCharsets.UTF_8.name());
-            out.write(jsonText);
+            byte[] jsonText = buffer.toByteArray();
+            if (ndjson) {
+                // Line breaks may appear only between tokens (they are escaped in strings) so they can be just removed
+                for (byte b : jsonText) {
+                    if (b != '\n' && b != '\r') {
+                        out.write(b);
+                    }
+                }
+            } else {
+                out.write(jsonText);
+            }
         } else {
-            out.write("\t{\n");
+            out.writeASCII(ndjson ? "{" : "\t{\n");
             for (int i = 0; i < columns.length; i++) {
                 DBDAttributeBinding column = columns[i];
-                String columnName = column.getLabel();
-                if (CommonUtils.isEmpty(columnName)) {
-                    columnName = column.getName();
-                }
-                out.write("\t\t\"" + JSONUtils.escapeJsonString(columnName) + "\" : ");
+                out.write(columnPrefixes[i]);
                 Object cellValue = row[column.getOrdinalPosition()];
                 if (DBUtils.isNullValue(cellValue)) {
-                    writeTextCell(null);
+                    out.write(NULL_VALUE);
                 } else if (cellValue instanceof DBDContent) {
                     // Content
                     // Inline textual content and handle binaries in some special way
@@ -124,33 +207,31 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
                         if (cs != null) {
                             if (ContentUtils.isTextContent(content)) {
                                 try (Reader in = cs.getContentReader()) {
-                                    out.write("\"");
+                                    out.write('"');
                                     writeCellValue(in);
-                                    out.write("\"");
+                                    out.write('"');
                                 }
                             } else {
+                                // Binary data goes to the site writer
+                                out.flush();
                                 getSite().writeBinaryData(cs);
+                                getSite().flush();
                             }
                         }
                     } finally {
                         content.release();
                     }
                 } else {
-                    if (cellValue instanceof Number || cellValue instanceof Boolean) {
-                        out.write(cellValue.toString());
-                    } else if (cellValue instanceof Date && formatDateISO) {
-                        writeTextCell(JSONUtils.formatDate((Date) cellValue));
-                    } else {
-                        writeTextCell(super.getValueDisplayString(column, cellValue));
-                    }
+                    valueEncoders[i].encodeValue(out, cellValue);
                 }
-                if (i < columns.length - 1) {
-                    out.write(",");
-                }
-                out.write("\n");
             }
-            out.write("\t}");
+            out.writeASCII(ndjson ? "}" : "\n\t}");
+        }
+        if (ndjson) {
+            out.write('\n');
         }
+        // Flush each row: output stream may be changed between rows
+        out.flush();
     }
 
     private boolean isJsonDocumentResults(DBRProgressMonitor progressMonitor, Object[] row) {
@@ -168,33 +249,99 @@ public class DataExporterJSON extends StreamExporterAbstract implements IDocumen
     @Override
     public void exportFooter(DBRProgressMonitor monitor) throws IOException
     {
-        PrintWriter out = getWriter();
-        out.write("\n]");
+        if (ndjson) {
+            return;
+        }
+        out.writeASCII("\n]");
         if (printTableName) {
-            out.write("}");
+            out.writeASCII("}");
         }
-        out.write("\n");
+        out.writeASCII("\n");
+        out.flush();
     }
 
-    private void writeTextCell(@Nullable String value)
+    private void writeDate(@NotNull StreamExportBuffer buffer, @NotNull Date value) {
+        buffer.write('"');
+        if (!buffer.writeISOTimestampUTC(value.getTime())) {
+            // Pre-Gregorian and far future dates are formatted by date format
+            buffer.writeUTF8(JSONUtils.formatDate(value));
+        }
+        buffer.write('"');
+    }
+
+    /**
+     * Writes quoted and escaped string
+     */
+    private static void writeString(@NotNull StreamExportBuffer buffer, @NotNull CharSequence value)
     {
-        if (value != null) {
-            getWriter().write("\"" + JSONUtils.escapeJsonString(value) + "\"");
-        } else {
-            getWriter().write("null");
+        buffer.write('"');
+        writeEscaped(buffer, value, 0, value.length());
+        buffer.write('"');
+    }
+
+    /**
+     * Writes escaped characters. Runs of characters which don't need escaping are encoded at once.
+     */
+    private static void writeEscaped(@NotNull StreamExportBuffer buffer, @NotNull CharSequence value, int start, int end)
+    {
+        int runStart = start;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\' && c != '/') {
+                continue;
+            }
+            if (i > runStart) {
+                buffer.writeUTF8(value, runStart, i);
+            }
+            runStart = i + 1;
+            buffer.write('\\');
+            switch (c) {
+                case '"': buffer.write('"'); break;
+                case '\\': buffer.write('\\'); break;
+                case '/': buffer.write('/'); break;
+                case '\n': buffer.write('n'); break;
+                case '\r': buffer.write('r'); break;
+                case '\t': buffer.write('t'); break;
+                case '\f': buffer.write('f'); break;
+                case '\b': buffer.write('b'); break;
+                default:
+                    buffer.write('u');
+                    buffer.write('0');
+                    buffer.write('0');
+                    buffer.write(HEX_DIGITS[c >> 4]);
+                    buffer.write(HEX_DIGITS[c & 0xF]);
+                    break;
+            }
+        }
+        if (end > runStart) {
+            buffer.writeUTF8(value, runStart, end);
         }
     }
 
     private void writeCellValue(Reader reader) throws IOException
     {
-        // Copy reader
-        char buffer[] = new char[2000];
+        // Copy reader. High surrogate at the end of chunk is kept for the next chunk
+        if (readBuffer == null) {
+            readBuffer = new char[READ_BUFFER_SIZE];
+        }
+        char[] buffer = readBuffer;
+        CharBuffer chars = CharBuffer.wrap(buffer);
+        int offset = 0;
         for (;;) {
-            int count = reader.read(buffer);
+            int count = reader.read(buffer, offset, buffer.length - offset);
             if (count <= 0) {
                 break;
             }
-            getWriter().write(JSONUtils.escapeJsonString(new String(buffer, 0, count)));
+            int end = offset + count;
+            int writeEnd = Character.isHighSurrogate(buffer[end - 1]) ? end - 1 : end;
+            writeEscaped(out, chars, 0, writeEnd);
+            offset = end - writeEnd;
+            if (offset > 0) {
+                buffer[0] = buffer[writeEnd];
+            }
+        }
+        if (offset > 0) {
+            writeEscaped(out, chars, 0, offset);
         }
     }
 
@@ -0,0 +1,496 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetColumn;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetColumnWriter;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetConstants;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetFileWriter;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.time.*;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+
+/**
+ * Parquet exporter.
+ * Rows are buffered column by column until the row group size is reached, then written as a row group.
+ * Column types are derived from the result set attributes. Values which don't have
+ * a matching Parquet type (complex, structured, etc) are exported as strings.
+ */
+public class DataExporterParquet extends StreamExporterAbstract {
+
+    private static final Log log = Log.getLog(DataExporterParquet.class);
+
+    private static final String PROP_ROW_GROUP_SIZE = "rowGroupSize";
+    private static final String PROP_PAGE_SIZE = "pageSize";
+    private static final String PROP_COMPRESSION = "compression";
+    private static final String PROP_DICTIONARY = "dictionary";
+
+    private static final String COMPRESSION_NONE = "none";
+    private static final String COMPRESSION_SNAPPY = "snappy";
+    private static final String COMPRESSION_GZIP = "gzip";
+
+    private static final int DEFAULT_ROW_GROUP_SIZE = 64; // Mb
+    private static final int DEFAULT_PAGE_SIZE = 1024; // Kb
+    // DECIMAL types with larger precision are exported as strings
+    private static final int MAX_DECIMAL_PRECISION = 38;
+
+    /**
+     * Converts non-null value and appends it to the column writer
+     */
+    @FunctionalInterface
+    protected interface ValueWriter {
+        void writeValue(@NotNull ParquetColumnWriter writer, @NotNull Object value) throws DBException;
+    }
+
+    private DBDAttributeBinding[] columns;
+    private ValueWriter[] valueWriters;
+    private ParquetFileWriter fileWriter;
+    private long rowGroupSize;
+    private int pageSize;
+    private int codec;
+    private boolean dictionary;
+
+    @Override
+    public void init(IStreamDataExporterSite site) throws DBException {
+        super.init(site);
+        Map<String, Object> properties = site.getProperties();
+        rowGroupSize = Math.max(CommonUtils.toInt(properties.get(PROP_ROW_GROUP_SIZE), DEFAULT_ROW_GROUP_SIZE), 1) * 1024L * 1024L;
+        pageSize = Math.max(CommonUtils.toInt(properties.get(PROP_PAGE_SIZE), DEFAULT_PAGE_SIZE), 1) * 1024;
+        dictionary = CommonUtils.getBoolean(properties.get(PROP_DICTIONARY), true);
+        String compression = CommonUtils.toString(properties.get(PROP_COMPRESSION), COMPRESSION_SNAPPY);
+        if (COMPRESSION_NONE.equalsIgnoreCase(compression)) {
+            codec = ParquetConstants.CODEC_UNCOMPRESSED;
+        } else if (COMPRESSION_GZIP.equalsIgnoreCase(compression)) {
+            codec = ParquetConstants.CODEC_GZIP;
+        } else {
+            if (!COMPRESSION_SNAPPY.equalsIgnoreCase(compression)) {
+                log.warn("Unsupported Parquet compression '" + compression + "'. Snappy will be used.");
+            }
+            codec = ParquetConstants.CODEC_SNAPPY;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        fileWriter = null;
+        super.dispose();
+    }
+
+    @Override
+    public void exportHeader(DBCSession session) throws DBException, IOException {
+        columns = getSite().getAttributes();
+        valueWriters = new ValueWriter[columns.length];
+        List<ParquetColumn> schema = new ArrayList<>(columns.length);
+        Set<String> columnNames = new HashSet<>();
+        for (int i = 0; i < columns.length; i++) {
+            DBDAttributeBinding column = columns[i];
+            String columnName = column.getLabel();
+            if (CommonUtils.isEmpty(columnName)) {
+                columnName = column.getName();
+            }
+            // Result set may have duplicate names (e.g. joins). Parquet column names must be unique
+            String uniqueName = columnName;
+            for (int index = 2; !columnNames.add(uniqueName); index++) {
+                uniqueName = columnName + "_" + index;
+            }
+            schema.add(createColumn(column, uniqueName, i));
+        }
+        fileWriter = new ParquetFileWriter(getOutputStream(), schema, codec, dictionary, pageSize, GeneralUtils.getProductTitle());
+        fileWriter.start();
+    }
+
+    @Override
+    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException {
+        for (int i = 0; i < columns.length; i++) {
+            Object value = row[columns[i].getOrdinalPosition()];
+            if (value instanceof DBDContent) {
+                DBDContent content = (DBDContent) value;
+                try {
+                    if (ContentUtils.isTextContent(content)) {
+                        value = ContentUtils.getContentStringValue(session.getProgressMonitor(), content);
+                    } else {
+                        value = ContentUtils.getContentBinaryValue(session.getProgressMonitor(), content);
+                    }
+                } finally {
+                    content.release();
+                }
+            }
+            ParquetColumnWriter columnWriter = fileWriter.getColumnWriter(i);
+            if (DBUtils.isNullValue(value)) {
+                columnWriter.addNull();
+            } else {
+                valueWriters[i].writeValue(columnWriter, value);
+            }
+        }
+        if (fileWriter.getBufferedSize() >= rowGroupSize) {
+            fileWriter.flushRowGroup();
+        }
+    }
+
+    @Override
+    public void exportFooter(DBRProgressMonitor monitor) throws IOException {
+        if (fileWriter != null) {
+            fileWriter.finish();
+        }
+        getSite().flush();
+    }
+
+    /**
+     * Maps attribute type to Parquet column type and creates value writer for it
+     */
+    @NotNull
+    protected ParquetColumn createColumn(@NotNull DBDAttributeBinding attribute, @NotNull String name, int index) {
+        ParquetColumn column;
+        ValueWriter valueWriter;
+        int typeID = attribute.getTypeID();
+        switch (attribute.getDataKind()) {
+            case BOOLEAN:
+                column = new ParquetColumn(name, ParquetConstants.TYPE_BOOLEAN);
+                valueWriter = (writer, value) -> writer.addBoolean(
+                    value instanceof Number ? ((Number) value).intValue() != 0 : CommonUtils.getBoolean(value, false));
+                break;
+            case NUMERIC:
+                switch (typeID) {
+                    case Types.TINYINT:
+                    case Types.SMALLINT:
+                    case Types.INTEGER:
+                        if (isUnsigned(attribute)) {
+                            column = new ParquetColumn(name, ParquetConstants.TYPE_INT64);
+                            valueWriter = (writer, value) -> writer.addLong(toLong(attribute, value));
+                        } else {
+                            column = new ParquetColumn(name, ParquetConstants.TYPE_INT32);
+                            valueWriter = (writer, value) -> writer.addInt(toInt(attribute, value));
+                        }
+                        break;
+                    case Types.BIGINT:
+                        if (isUnsigned(attribute)) {
+                            return createDecimalColumn(attribute, name, index, 20, 0);
+                        }
+                        column = new ParquetColumn(name, ParquetConstants.TYPE_INT64);
+                        valueWriter = (writer, value) -> writer.addLong(toLong(attribute, value));
+                        break;
+                    case Types.REAL:
+                        column = new ParquetColumn(name, ParquetConstants.TYPE_FLOAT);
+                        valueWriter = (writer, value) -> writer.addFloat(toNumber(attribute, value).floatValue());
+                        break;
+                    case Types.DECIMAL:
+                    case Types.NUMERIC: {
+                        Integer precision = attribute.getPrecision();
+                        Integer scale = attribute.getScale();
+                        if (precision != null && scale != null && precision > 0 && precision <= MAX_DECIMAL_PRECISION && scale >= 0 && scale <= precision) {
+                            return createDecimalColumn(attribute, name, index, precision, scale);
+                        }
+                        // Unconstrained numeric. Keep exact value as string
+                        return createStringColumn(attribute, name, index);
+                    }
+                    default:
+                        column = new ParquetColumn(name, ParquetConstants.TYPE_DOUBLE);
+                        valueWriter = (writer, value) -> writer.addDouble(toNumber(attribute, value).doubleValue());
+                        break;
+                }
+                break;
+            case DATETIME:
+                switch (typeID) {
+                    case Types.DATE:
+                        column = new ParquetColumn(name, ParquetConstants.TYPE_INT32)
+                            .setLogicalType(ParquetConstants.LOGICAL_DATE)
+                            .setConvertedType(ParquetConstants.CONVERTED_DATE);
+                        valueWriter = (writer, value) -> writer.addInt((int) toLocalDateTime(attribute, value).toLocalDate().toEpochDay());
+                        break;
+                    case Types.TIME:
+                        column = new ParquetColumn(name, ParquetConstants.TYPE_INT32)
+                            .setTemporal(ParquetConstants.LOGICAL_TIME, ParquetConstants.TIME_UNIT_MILLIS, true)
+                            .setConvertedType(ParquetConstants.CONVERTED_TIME_MILLIS);
+                        valueWriter = (writer, value) -> writer.addInt((int) (toLocalTime(attribute, value).toNanoOfDay() / 1_000_000));
+                        break;
+                    case Types.TIME_WITH_TIMEZONE:
+                        // Column is adjusted to UTC, so values with different offsets must be normalized
+                        column = new ParquetColumn(name, ParquetConstants.TYPE_INT32)
+                            .setTemporal(ParquetConstants.LOGICAL_TIME, ParquetConstants.TIME_UNIT_MILLIS, true)
+                            .setConvertedType(ParquetConstants.CONVERTED_TIME_MILLIS);
+                        valueWriter = (writer, value) -> writer.addInt((int) (toUTCTime(attribute, value).toNanoOfDay() / 1_000_000));
+                        break;
+                    case Types.TIMESTAMP_WITH_TIMEZONE:
+                        column = new ParquetColumn(name, ParquetConstants.TYPE_INT64)
+                            .setTemporal(ParquetConstants.LOGICAL_TIMESTAMP, ParquetConstants.TIME_UNIT_MICROS, true)
+                            .setConvertedType(ParquetConstants.CONVERTED_TIMESTAMP_MICROS);
+                        valueWriter = (writer, value) -> writer.addLong(toMicros(toInstant(attribute, value)));
+                        break;
+                    default:
+                        // Local date/time without time zone
+                        column = new ParquetColumn(name, ParquetConstants.TYPE_INT64)
+                            .setTemporal(ParquetConstants.LOGICAL_TIMESTAMP, ParquetConstants.TIME_UNIT_MICROS, false);
+                        valueWriter = (writer, value) -> writer.addLong(toMicros(toLocalDateTime(attribute, value).toInstant(ZoneOffset.UTC)));
+                        break;
+                }
+                break;
+            case BINARY:
+            case CONTENT:
+                if (attribute.getDataKind() == DBPDataKind.CONTENT && !isBinaryType(typeID)) {
+                    // CLOB, XML, JSON, etc
+                    return createStringColumn(attribute, name, index);
+                }
+                column = new ParquetColumn(name, ParquetConstants.TYPE_BYTE_ARRAY);
+                valueWriter = (writer, value) -> {
+                    if (value instanceof byte[]) {
+                        writer.addBinary((byte[]) value);
+                    } else {
+                        writer.addBinary(toString(attribute, value).getBytes(StandardCharsets.UTF_8));
+                    }
+                };
+                break;
+            default:
+                return createStringColumn(attribute, name, index);
+        }
+        valueWriters[index] = valueWriter;
+        return column;
+    }
+
+    @NotNull
+    private ParquetColumn createStringColumn(@NotNull DBDAttributeBinding attribute, @NotNull String name, int index) {
+        valueWriters[index] = (writer, value) -> writer.addBinary(toString(attribute, value).getBytes(StandardCharsets.UTF_8));
+        return new ParquetColumn(name, ParquetConstants.TYPE_BYTE_ARRAY)
+            .setLogicalType(ParquetConstants.LOGICAL_STRING)
+            .setConvertedType(ParquetConstants.CONVERTED_UTF8);
+    }
+
+    @NotNull
+    private ParquetColumn createDecimalColumn(@NotNull DBDAttributeBinding attribute, @NotNull String name, int index, int precision, int scale) {
+        BigInteger limit = BigInteger.TEN.pow(precision);
+        if (precision <= 18) {
+            boolean int32 = precision <= 9;
+            valueWriters[index] = (writer, value) -> {
+                long unscaled = toUnscaled(attribute, value, scale, limit).longValue();
+                if (int32) {
+                    writer.addInt((int) unscaled);
+                } else {
+                    writer.addLong(unscaled);
+                }
+            };
+            return new ParquetColumn(name, int32 ? ParquetConstants.TYPE_INT32 : ParquetConstants.TYPE_INT64)
+                .setDecimal(precision, scale);
+        }
+        // Minimal number of bytes which holds signed 10^precision
+        int length = 1;
+        while (BigInteger.ONE.shiftLeft(8 * length - 1).compareTo(limit) < 0) {
+            length++;
+        }
+        int typeLength = length;
+        valueWriters[index] = (writer, value) -> {
+            byte[] bytes = toUnscaled(attribute, value, scale, limit).toByteArray();
+            byte[] fixed = new byte[typeLength];
+            // Big-endian two's complement, sign extended
+            if (bytes[0] < 0) {
+                Arrays.fill(fixed, 0, typeLength - bytes.length, (byte) 0xFF);
+            }
+            System.arraycopy(bytes, 0, fixed, typeLength - bytes.length, bytes.length);
+            writer.addBinary(fixed);
+        };
+        return new ParquetColumn(name, ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY)
+            .setTypeLength(typeLength)
+            .setDecimal(precision, scale);
+    }
+
+    private static boolean isUnsigned(@NotNull DBDAttributeBinding attribute) {
+        String typeName = attribute.getTypeName();
+        return typeName != null && typeName.toUpperCase(Locale.ENGLISH).contains("UNSIGNED");
+    }
+
+    private static boolean isBinaryType(int typeID) {
+        return typeID == Types.BLOB || typeID == Types.BINARY || typeID == Types.VARBINARY || typeID == Types.LONGVARBINARY;
+    }
+
+    @NotNull
+    private String toString(@NotNull DBDAttributeBinding attribute, @NotNull Object value) {
+        if (value instanceof String) {
+            return (String) value;
+        }
+        return getValueDisplayString(attribute, value);
+    }
+
+    @NotNull
+    private static Number toNumber(@NotNull DBDAttributeBinding attribute, @NotNull Object value) throws DBException {
+        if (value instanceof Number) {
+            return (Number) value;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        try {
+            return new BigDecimal(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new DBException("Can't convert value '" + value + "' of column '" + attribute.getName() + "' to number");
+        }
+    }
+
+    private static int toInt(@NotNull DBDAttributeBinding attribute, @NotNull Object value) throws DBException {
+        long result = toLong(attribute, value);
+        if (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+            throw new DBException("Value " + value + " of column '" + attribute.getName() + "' is out of INT32 range");
+        }
+        return (int) result;
+    }
+
+    private static long toLong(@NotNull DBDAttributeBinding attribute, @NotNull Object value) throws DBException {
+        Number number = toNumber(attribute, value);
+        if (number instanceof BigDecimal || number instanceof BigInteger) {
+            try {
+                return new BigDecimal(number.toString()).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            } catch (ArithmeticException e) {
+                throw new DBException("Value " + value + " of column '" + attribute.getName() + "' is out of INT64 range");
+            }
+        }
+        return number.longValue();
+    }
+
+    @NotNull
+    private static BigInteger toUnscaled(@NotNull DBDAttributeBinding attribute, @NotNull Object value, int scale, @NotNull BigInteger limit) throws DBException {
+        Number number = toNumber(attribute, value);
+        BigDecimal decimal;
+        if (number instanceof BigDecimal) {
+            decimal = (BigDecimal) number;
+        } else if (number instanceof BigInteger) {
+            decimal = new BigDecimal((BigInteger) number);
+        } else if (number instanceof Double || number instanceof Float) {
+            decimal = BigDecimal.valueOf(number.doubleValue());
+        } else {
+            decimal = BigDecimal.valueOf(number.longValue());
+        }
+        BigInteger unscaled = decimal.setScale(scale, RoundingMode.HALF_UP).unscaledValue();
+        if (unscaled.abs().compareTo(limit) >= 0) {
+            throw new DBException("Value " + value + " of column '" + attribute.getName() + "' doesn't fit into DECIMAL(" +
+                attribute.getPrecision() + "," + scale + ")");
+        }
+        return unscaled;
+    }
+
+    private static long toMicros(@NotNull Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1000);
+    }
+
+    @NotNull
+    private static LocalDateTime toLocalDateTime(@NotNull DBDAttributeBinding attribute, @NotNull Object value) throws DBException {
+        if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toLocalDateTime();
+        } else if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().atStartOfDay();
+        } else if (value instanceof Date) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(((Date) value).getTime()), ZoneId.systemDefault());
+        } else if (value instanceof LocalDateTime) {
+            return (LocalDateTime) value;
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay();
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toLocalDateTime();
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toLocalDateTime();
+        } else if (value instanceof Instant) {
+            return LocalDateTime.ofInstant((Instant) value, ZoneId.systemDefault());
+        }
+        // Native date/time format: value is a string
+        String text = value.toString().trim();
+        try {
+            if (text.length() <= 10) {
+                return LocalDate.parse(text).atStartOfDay();
+            }
+            return java.sql.Timestamp.valueOf(text).toLocalDateTime();
+        } catch (Exception e) {
+            throw new DBException("Can't convert value '" + value + "' of column '" + attribute.getName() + "' to timestamp");
+        }
+    }
+
+    @NotNull
+    private static Instant toInstant(@NotNull DBDAttributeBinding attribute, @NotNull Object value) throws DBException {
+        if (value instanceof Date && !(value instanceof java.sql.Date)) {
+            return value instanceof java.sql.Timestamp ? ((java.sql.Timestamp) value).toInstant() : ((Date) value).toInstant();
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toInstant();
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toInstant();
+        } else if (value instanceof Instant) {
+            return (Instant) value;
+        } else if (value instanceof String) {
+            try {
+                return OffsetDateTime.parse(((String) value).trim()).toInstant();
+            } catch (Exception e) {
+                // Try local date/time below
+            }
+        }
+        return toLocalDateTime(attribute, value).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    @NotNull
+    private static LocalTime toLocalTime(@NotNull DBDAttributeBinding attribute, @NotNull Object value) throws DBException {
+        if (value instanceof Date) {
+            // java.sql.Time#toLocalTime drops milliseconds
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(((Date) value).getTime()), ZoneId.systemDefault()).toLocalTime();
+        } else if (value instanceof LocalTime) {
+            return (LocalTime) value;
+        } else if (value instanceof OffsetTime) {
+            return ((OffsetTime) value).toLocalTime();
+        } else if (value instanceof TemporalAccessor && !(value instanceof LocalDate)) {
+            return toLocalDateTime(attribute, value).toLocalTime();
+        }
+        try {
+            return LocalTime.parse(value.toString().trim());
+        } catch (Exception e) {
+            throw new DBException("Can't convert value '" + value + "' of column '" + attribute.getName() + "' to time");
+        }
+    }
+
+    /**
+     * Time of day in UTC. Values without offset are considered to be in the local time zone.
+     */
+    @NotNull
+    private static LocalTime toUTCTime(@NotNull DBDAttributeBinding attribute, @NotNull Object value) throws DBException {
+        if (value instanceof OffsetTime) {
+            return ((OffsetTime) value).withOffsetSameInstant(ZoneOffset.UTC).toLocalTime();
+        } else if (value instanceof Date || value instanceof OffsetDateTime || value instanceof ZonedDateTime || value instanceof Instant) {
+            return toInstant(attribute, value).atOffset(ZoneOffset.UTC).toLocalTime();
+        } else if (value instanceof String) {
+            try {
+                return OffsetTime.parse(((String) value).trim()).withOffsetSameInstant(ZoneOffset.UTC).toLocalTime();
+            } catch (Exception e) {
+                // Try local time below
+            }
+        }
+        // Same as java.sql.Time: local time of the epoch day
+        return ZonedDateTime.of(LocalDate.ofEpochDay(0), toLocalTime(attribute, value), ZoneId.systemDefault())
+            .withZoneSameInstant(ZoneOffset.UTC).toLocalTime();
+    }
+
+}
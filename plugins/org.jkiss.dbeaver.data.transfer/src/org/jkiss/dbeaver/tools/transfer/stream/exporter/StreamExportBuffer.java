@@ -0,0 +1,375 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Growable UTF-8 byte buffer for streaming exporters.
+ * Values are encoded straight into bytes (no intermediate strings) and the buffer is written to the site
+ * output stream by {@link #flush()}. If site has no output stream (e.g. clipboard export) or output encoding
+ * isn't UTF-8 then buffer content is decoded and written to the site writer.
+ *
+ * Site output stream may be replaced between rows (output file split) so it is never cached here
+ * and exporter must not keep partial rows in the buffer after the row end flush. Anything written to the site writer directly
+ * (e.g. by {@link IStreamDataExporterSite#writeBinaryData}) must be flushed before the next buffer flush.
+ */
+public class StreamExportBuffer {
+
+    private static final int INITIAL_CAPACITY = 8192;
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+    private static final byte[] DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9'};
+    // Tens and ones digits of numbers 0..99
+    private static final byte[] DIGIT_TENS = new byte[100];
+    private static final byte[] DIGIT_ONES = new byte[100];
+    // Gregorian calendar cutover (1582-10-15). Older dates are formatted in Julian calendar by java.text formats
+    private static final long GREGORIAN_CUTOVER_MILLIS = -12219292800000L;
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_TENS[i] = DIGITS[i / 10];
+            DIGIT_ONES[i] = DIGITS[i % 10];
+        }
+    }
+
+    private final IStreamDataExporterSite site;
+    private final boolean binaryOutput;
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int length;
+
+    public StreamExportBuffer(@NotNull IStreamDataExporterSite site) {
+        this.site = site;
+        this.binaryOutput = isUTF8(site.getOutputEncoding());
+    }
+
+    /**
+     * Number of buffered (not flushed) bytes
+     */
+    public int size() {
+        return length;
+    }
+
+    public void write(int b) {
+        if (length == buffer.length) {
+            ensureCapacity(1);
+        }
+        buffer[length++] = (byte) b;
+    }
+
+    public void write(@NotNull byte[] bytes) {
+        write(bytes, 0, bytes.length);
+    }
+
+    public void write(@NotNull byte[] bytes, int offset, int count) {
+        ensureCapacity(count);
+        System.arraycopy(bytes, offset, buffer, length, count);
+        length += count;
+    }
+
+    /**
+     * Writes ASCII string. Characters outside of ASCII range are not checked.
+     */
+    public void writeASCII(@NotNull String str) {
+        int count = str.length();
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            buffer[length++] = (byte) str.charAt(i);
+        }
+    }
+
+    public void writeUTF8(@NotNull CharSequence str) {
+        writeUTF8(str, 0, str.length());
+    }
+
+    /**
+     * Encodes characters in UTF-8. Unpaired surrogates are replaced with '?'.
+     */
+    public void writeUTF8(@NotNull CharSequence str, int start, int end) {
+        ensureCapacity((end - start) * 3);
+        byte[] buf = buffer;
+        int pos = length;
+        for (int i = start; i < end; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                buf[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                char low;
+                if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(low = str.charAt(i + 1))) {
+                    // 4 bytes sequence takes the place of 6 reserved bytes of two chars
+                    int cp = Character.toCodePoint(c, low);
+                    buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+                    i++;
+                } else {
+                    buf[pos++] = '?';
+                }
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        length = pos;
+    }
+
+    /**
+     * Writes decimal representation of the value (same as Long.toString)
+     */
+    public void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            write(MIN_LONG);
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int pos = length + getDigitCount(value);
+        length = pos;
+        // Two digits at a time. Switch to int arithmetic as soon as the rest fits
+        while (value > Integer.MAX_VALUE) {
+            long quotient = value / 100;
+            int pair = (int) (value - quotient * 100);
+            buffer[--pos] = DIGIT_ONES[pair];
+            buffer[--pos] = DIGIT_TENS[pair];
+            value = quotient;
+        }
+        int intValue = (int) value;
+        while (intValue >= 100) {
+            int quotient = intValue / 100;
+            int pair = intValue - quotient * 100;
+            buffer[--pos] = DIGIT_ONES[pair];
+            buffer[--pos] = DIGIT_TENS[pair];
+            intValue = quotient;
+        }
+        if (intValue >= 10) {
+            buffer[--pos] = DIGIT_ONES[intValue];
+            buffer[--pos] = DIGIT_TENS[intValue];
+        } else {
+            buffer[--pos] = DIGITS[intValue];
+        }
+    }
+
+    private static int getDigitCount(long value) {
+        long limit = 10;
+        for (int count = 1; count < 19; count++) {
+            if (value < limit) {
+                return count;
+            }
+            limit *= 10;
+        }
+        return 19;
+    }
+
+    /**
+     * Writes non-negative value left-padded with zeros
+     */
+    public void writeDigits(int value, int width) {
+        ensureCapacity(width);
+        int pos = length + width;
+        length = pos;
+        for (int i = 0; i < width; i++) {
+            buffer[--pos] = DIGITS[value % 10];
+            value /= 10;
+        }
+    }
+
+    /**
+     * Writes numeric value. Integral primitive wrappers are encoded without allocations.
+     */
+    public void writeNumber(@NotNull Number value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            writeLong(value.longValue());
+        } else {
+            writeASCII(value.toString());
+        }
+    }
+
+    /**
+     * Writes timestamp in ISO 8601 format in UTC (yyyy-MM-dd'T'HH:mm:ss.SSS'Z').
+     * Returns false for dates before Gregorian calendar cutover or after year 9999 (nothing is written then).
+     */
+    public boolean writeISOTimestampUTC(long millis) {
+        if (millis < GREGORIAN_CUTOVER_MILLIS) {
+            return false;
+        }
+        long days = Math.floorDiv(millis, 86400000L);
+        int msOfDay = (int) Math.floorMod(millis, 86400000L);
+        // Civil date from days since epoch (proleptic Gregorian calendar)
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year > 9999) {
+            return false;
+        }
+        writeDigits((int) year, 4);
+        write('-');
+        writeDigits(month, 2);
+        write('-');
+        writeDigits(day, 2);
+        write('T');
+        writeDigits(msOfDay / 3600000, 2);
+        write(':');
+        writeDigits((msOfDay / 60000) % 60, 2);
+        write(':');
+        writeDigits((msOfDay / 1000) % 60, 2);
+        write('.');
+        writeDigits(msOfDay % 1000, 3);
+        write('Z');
+        return true;
+    }
+
+    /**
+     * Finds byte sequence in buffered bytes starting from the specified position.
+     * For UTF-8 encoded text it gives the same result as search of the encoded string.
+     * Returns -1 if sequence isn't found. Empty sequence is found at the start position.
+     */
+    public int indexOf(@NotNull byte[] sequence, int fromIndex) {
+        if (sequence.length == 0) {
+            return fromIndex;
+        }
+        byte first = sequence[0];
+        int maxStart = length - sequence.length;
+        outer:
+        for (int i = fromIndex; i <= maxStart; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            for (int k = 1; k < sequence.length; k++) {
+                if (buffer[i + k] != sequence[k]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Encloses bytes from the specified position to the end of buffer in quotes.
+     * @param escape if true then quotes inside value are doubled
+     */
+    public void quote(int fromIndex, @NotNull byte[] quote, boolean escape) {
+        int quoteCount = 0;
+        if (escape) {
+            for (int i = indexOf(quote, fromIndex); i >= 0; i = indexOf(quote, i + quote.length)) {
+                quoteCount++;
+            }
+        }
+        int valueLength = length - fromIndex;
+        int newLength = length + quote.length * (quoteCount + 2);
+        ensureCapacity(newLength - length);
+        if (quoteCount == 0) {
+            System.arraycopy(buffer, fromIndex, buffer, fromIndex + quote.length, valueLength);
+        } else {
+            // Move value tail to head so quotes are doubled in place
+            int src = length;
+            int dst = newLength - quote.length;
+            while (src > fromIndex) {
+                int pos = lastIndexOf(quote, fromIndex, src);
+                int tailStart = pos < 0 ? fromIndex : pos + quote.length;
+                int tailLength = src - tailStart;
+                dst -= tailLength;
+                System.arraycopy(buffer, tailStart, buffer, dst, tailLength);
+                if (pos < 0) {
+                    break;
+                }
+                // Quote and its escape
+                dst -= quote.length * 2;
+                System.arraycopy(quote, 0, buffer, dst, quote.length);
+                System.arraycopy(quote, 0, buffer, dst + quote.length, quote.length);
+                src = pos;
+            }
+        }
+        System.arraycopy(quote, 0, buffer, fromIndex, quote.length);
+        System.arraycopy(quote, 0, buffer, newLength - quote.length, quote.length);
+        length = newLength;
+    }
+
+    private int lastIndexOf(byte[] sequence, int fromIndex, int toIndex) {
+        for (int i = toIndex - sequence.length; i >= fromIndex; i--) {
+            int k = 0;
+            while (k < sequence.length && buffer[i + k] == sequence[k]) {
+                k++;
+            }
+            if (k == sequence.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Flushes buffer if it is large enough. Output is written in large blocks then.
+     */
+    public void flushIfFull() throws IOException {
+        if (length >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes buffered bytes to the site output
+     */
+    public void flush() throws IOException {
+        if (length == 0) {
+            return;
+        }
+        OutputStream outputStream = binaryOutput ? site.getOutputStream() : null;
+        if (outputStream != null) {
+            outputStream.write(buffer, 0, length);
+        } else {
+            Writer writer = site.getWriter();
+            writer.write(new String(buffer, 0, length, StandardCharsets.UTF_8));
+        }
+        length = 0;
+    }
+
+    private void ensureCapacity(int count) {
+        if (length + count > buffer.length) {
+            int newCapacity = Math.max(buffer.length * 2, length + count);
+            byte[] newBuffer = new byte[newCapacity];
+            System.arraycopy(buffer, 0, newBuffer, 0, length);
+            buffer = newBuffer;
+        }
+    }
+
+    private static boolean isUTF8(String encoding) {
+        return encoding != null &&
+            (StandardCharsets.UTF_8.name().equalsIgnoreCase(encoding) || "UTF8".equalsIgnoreCase(encoding));
+    }
+
+}
@@ -23,6 +23,7 @@ import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporter;
 import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
 
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 
@@ -59,6 +60,18 @@ public abstract class StreamExporterAbstract implements IStreamDataExporter {
         // do nothing
     }
 
+    @Override
+    public long getBufferedSize()
+    {
+        return 0;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException
+    {
+        // nothing is buffered
+    }
+
     protected String getValueDisplayString(
         DBDAttributeBinding column,
         Object value)
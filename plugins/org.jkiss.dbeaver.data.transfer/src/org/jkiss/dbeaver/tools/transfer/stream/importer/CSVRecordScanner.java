@@ -0,0 +1,81 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+/**
+ * Finds CSV record boundaries in raw bytes.
+ * Record ends at line feed outside of quoted value. Scanner keeps quote state between calls
+ * so file can be scanned block by block.
+ *
+ * Works only for encodings where ASCII characters are never a part of multi-byte sequences (UTF-8, single byte encodings).
+ * Quote and escape characters must be ASCII.
+ */
+public class CSVRecordScanner {
+
+    private final byte quoteChar;
+    private final byte escapeChar;
+    private boolean inQuotes;
+    private boolean escapePending;
+
+    public CSVRecordScanner(char quoteChar, char escapeChar) {
+        if (quoteChar >= 0x80 || escapeChar >= 0x80) {
+            throw new IllegalArgumentException("Quote and escape characters must be ASCII");
+        }
+        this.quoteChar = (byte) quoteChar;
+        this.escapeChar = (byte) escapeChar;
+    }
+
+    /**
+     * True if the last scanned byte is inside quoted value
+     */
+    public boolean isInQuotes() {
+        return inQuotes;
+    }
+
+    /**
+     * Scans bytes and returns position right after the last record end in the specified range, or -1 if there are no record ends.
+     */
+    public int scan(byte[] buffer, int offset, int length) {
+        int lastRecordEnd = -1;
+        int end = offset + length;
+        int i = offset;
+        if (escapePending && i < end) {
+            // Escape char was the last byte of the previous block
+            escapePending = false;
+            if (buffer[i] == quoteChar || buffer[i] == escapeChar) {
+                i++;
+            }
+        }
+        for (; i < end; i++) {
+            byte b = buffer[i];
+            if (b == escapeChar && escapeChar != quoteChar) {
+                if (i + 1 == end) {
+                    escapePending = true;
+                } else if (buffer[i + 1] == quoteChar || buffer[i + 1] == escapeChar) {
+                    i++;
+                }
+            } else if (b == quoteChar) {
+                // Doubled quote switches state twice
+                inQuotes = !inQuotes;
+            } else if (b == '\n' && !inQuotes) {
+                lastRecordEnd = i + 1;
+            }
+        }
+        return lastRecordEnd;
+    }
+
+}
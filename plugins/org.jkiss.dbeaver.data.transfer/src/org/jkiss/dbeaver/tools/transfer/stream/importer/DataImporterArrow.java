@@ -0,0 +1,216 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.local.LocalStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferResultSet;
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowConstants;
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowField;
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowFileReader;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arrow IPC (file and stream format) importer.
+ * Column types are taken from the file schema. Values are passed to the consumer as typed objects.
+ * Only buffers of mapped columns are read.
+ */
+public class DataImporterArrow extends StreamImporterAbstract {
+
+    private static final Log log = Log.getLog(DataImporterArrow.class);
+
+    // Arrow strings have no length limit
+    private static final int DEFAULT_STRING_LENGTH = 255;
+
+    @NotNull
+    @Override
+    public List<StreamDataImporterColumnInfo> readColumnsInfo(StreamEntityMapping entityMapping, @NotNull InputStream inputStream) throws DBException {
+        int stringLength = Math.max(CommonUtils.toInt(getSite().getProcessorProperties().get(PROP_COLUMN_TYPE_LENGTH), DEFAULT_STRING_LENGTH), 1);
+        List<StreamDataImporterColumnInfo> columnsInfo = new ArrayList<>();
+        try (ArrowFileReader reader = new ArrowFileReader(getInputFile(entityMapping))) {
+            if (!reader.getSkippedColumns().isEmpty()) {
+                log.warn("Nested Arrow columns are not supported. Skipped columns: " + reader.getSkippedColumns());
+            }
+            List<ArrowField> columns = reader.getColumns();
+            for (int i = 0; i < columns.size(); i++) {
+                columnsInfo.add(makeColumnInfo(entityMapping, i, columns.get(i), stringLength));
+            }
+        } catch (IOException e) {
+            throw new DBException("IO error reading Arrow file", e);
+        }
+        return columnsInfo;
+    }
+
+    @Override
+    public void runImport(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource streamDataSource, @NotNull InputStream inputStream, @NotNull IDataTransferConsumer consumer) throws DBException {
+        StreamEntityMapping entityMapping = getSite().getSourceObject();
+        DBCExecutionContext context = streamDataSource.getDefaultInstance().getDefaultContext(monitor, false);
+        try (DBCSession producerSession = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Transfer stream data")) {
+            LocalStatement localStatement = new LocalStatement(producerSession, "SELECT * FROM Stream");
+            StreamTransferResultSet resultSet = new StreamTransferResultSet(producerSession, localStatement, entityMapping);
+
+            consumer.fetchStart(producerSession, resultSet, -1, -1);
+
+            applyTransformHints(resultSet, consumer, getSite().getProcessorProperties(), null, null);
+
+            try (ArrowFileReader reader = new ArrowFileReader(getInputFile(entityMapping))) {
+                int columnCount = entityMapping.getStreamColumns().size();
+                if (columnCount > reader.getColumns().size()) {
+                    throw new DBException("Arrow file schema doesn't match the import settings");
+                }
+                boolean[] mappedColumns = getMappedColumns(consumer, columnCount);
+                int maxRows = getSite().getSettings().getMaxRows();
+                long rowNumber = 0;
+                while (!monitor.isCanceled() && (maxRows <= 0 || rowNumber < maxRows) && reader.nextBatch()) {
+                    Object[][] columnValues = new Object[columnCount][];
+                    for (int i = 0; i < columnCount; i++) {
+                        if (mappedColumns[i]) {
+                            columnValues[i] = reader.readColumn(i);
+                        }
+                    }
+                    rowNumber = fetchColumnarRows(monitor, producerSession, resultSet, consumer, columnValues,
+                        reader.getBatchRowCount(), rowNumber);
+                }
+            } catch (IOException e) {
+                throw new DBException("IO error reading Arrow file", e);
+            } finally {
+                try {
+                    consumer.fetchEnd(producerSession, resultSet);
+                } finally {
+                    consumer.close();
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private static File getInputFile(@NotNull StreamEntityMapping entityMapping) throws DBException {
+        File inputFile = entityMapping.getInputFile();
+        if (inputFile == null) {
+            throw new DBException("Arrow import requires a local file");
+        }
+        return inputFile;
+    }
+
+    @NotNull
+    private static StreamDataImporterColumnInfo makeColumnInfo(@NotNull StreamEntityMapping entityMapping, int index, @NotNull ArrowField field, int stringLength) {
+        DBPDataKind dataKind;
+        String typeName;
+        int valueType;
+        int maxLength = 0;
+        switch (field.getTypeId()) {
+            case ArrowConstants.TYPE_BOOL:
+                dataKind = DBPDataKind.BOOLEAN;
+                typeName = "BOOLEAN";
+                valueType = Types.BOOLEAN;
+                break;
+            case ArrowConstants.TYPE_INT:
+                dataKind = DBPDataKind.NUMERIC;
+                if (field.getBitWidth() == 64 && !field.isSigned()) {
+                    typeName = "DECIMAL";
+                    valueType = Types.DECIMAL;
+                } else if (field.getBitWidth() == 64 || (field.getBitWidth() == 32 && !field.isSigned())) {
+                    typeName = "BIGINT";
+                    valueType = Types.BIGINT;
+                } else if (field.getBitWidth() == 32 || !field.isSigned() && field.getBitWidth() == 16) {
+                    typeName = "INTEGER";
+                    valueType = Types.INTEGER;
+                } else {
+                    typeName = "SMALLINT";
+                    valueType = Types.SMALLINT;
+                }
+                break;
+            case ArrowConstants.TYPE_FLOATING_POINT:
+                dataKind = DBPDataKind.NUMERIC;
+                if (field.getPrecision() == ArrowConstants.PRECISION_DOUBLE) {
+                    typeName = "DOUBLE";
+                    valueType = Types.DOUBLE;
+                } else {
+                    typeName = "REAL";
+                    valueType = Types.REAL;
+                }
+                break;
+            case ArrowConstants.TYPE_DECIMAL:
+                dataKind = DBPDataKind.NUMERIC;
+                typeName = "DECIMAL";
+                valueType = Types.DECIMAL;
+                break;
+            case ArrowConstants.TYPE_DATE:
+                dataKind = DBPDataKind.DATETIME;
+                typeName = "DATE";
+                valueType = Types.DATE;
+                break;
+            case ArrowConstants.TYPE_TIME:
+                dataKind = DBPDataKind.DATETIME;
+                typeName = "TIME";
+                valueType = Types.TIME;
+                break;
+            case ArrowConstants.TYPE_TIMESTAMP:
+                dataKind = DBPDataKind.DATETIME;
+                typeName = "TIMESTAMP";
+                valueType = Types.TIMESTAMP;
+                break;
+            case ArrowConstants.TYPE_BINARY:
+            case ArrowConstants.TYPE_LARGE_BINARY:
+            case ArrowConstants.TYPE_FIXED_SIZE_BINARY:
+                dataKind = DBPDataKind.BINARY;
+                typeName = "VARBINARY";
+                valueType = Types.VARBINARY;
+                maxLength = field.getTypeId() == ArrowConstants.TYPE_FIXED_SIZE_BINARY ? field.getByteWidth() : stringLength;
+                break;
+            default:
+                // Utf8 and Null
+                dataKind = DBPDataKind.STRING;
+                typeName = "VARCHAR";
+                valueType = Types.VARCHAR;
+                maxLength = stringLength;
+                break;
+        }
+        StreamDataImporterColumnInfo columnInfo = new StreamDataImporterColumnInfo(entityMapping, index, field.getName(), typeName, maxLength, dataKind);
+        columnInfo.setValueType(valueType);
+        if (field.getTypeId() == ArrowConstants.TYPE_DECIMAL) {
+            columnInfo.setPrecision(field.getPrecision());
+            columnInfo.setScale(field.getScale());
+        } else if (typeName.equals("DECIMAL")) {
+            // Unsigned 64-bit integer
+            columnInfo.setPrecision(20);
+            columnInfo.setScale(0);
+        }
+        columnInfo.setRequired(!field.isNullable());
+        columnInfo.setMappingMetadataPresent(true);
+        return columnInfo;
+    }
+
+}
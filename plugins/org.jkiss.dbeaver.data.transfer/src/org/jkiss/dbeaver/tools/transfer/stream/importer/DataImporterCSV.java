@@ -18,6 +18,7 @@ package org.jkiss.dbeaver.tools.transfer.stream.importer;
 
 import au.com.bytecode.opencsv.CSVReader;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataKind;
@@ -29,6 +30,7 @@ import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.impl.local.LocalStatement;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferUtils;
 import org.jkiss.dbeaver.tools.transfer.stream.*;
 import org.jkiss.dbeaver.utils.GeneralUtils;
@@ -38,9 +40,8 @@ import org.jkiss.utils.io.BOMInputStream;
 
 import java.io.*;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * CSV importer
@@ -55,6 +56,11 @@ public class DataImporterCSV extends StreamImporterAbstract {
     private static final String PROP_NULL_STRING = "nullString";
     private static final String PROP_EMPTY_STRING_NULL = "emptyStringNull";
     private static final String PROP_ESCAPE_CHAR = "escapeChar";
+    private static final String PROP_PARALLEL_THREADS = "parallelThreads";
+    private static final String PROP_PRESERVE_ORDER = "preserveOrder";
+
+    private static final int PARALLEL_CHUNK_SIZE = 8 * 1024 * 1024;
+    private static final int PARALLEL_READ_BLOCK_SIZE = 1024 * 1024;
 
     public enum HeaderPosition {
         none,
@@ -152,20 +158,32 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
     private CSVReader openCSVReader(Reader reader, Map<String, Object> processorProperties) {
         String delimiter = StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER);
+        return new CSVReader(reader, delimiter.charAt(0), getQuoteChar(processorProperties), getEscapeChar(processorProperties));
+    }
+
+    private static char getQuoteChar(Map<String, Object> processorProperties) {
         String quoteChar = CommonUtils.toString(processorProperties.get(PROP_QUOTE_CHAR));
         if (CommonUtils.isEmpty(quoteChar)) {
             quoteChar = "'";
         }
+        return quoteChar.charAt(0);
+    }
+
+    private static char getEscapeChar(Map<String, Object> processorProperties) {
         String escapeChar = CommonUtils.toString(processorProperties.get(PROP_ESCAPE_CHAR));
         if (CommonUtils.isEmpty(escapeChar)) {
             escapeChar = "\\";
         }
-        return new CSVReader(reader, delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0));
+        return escapeChar.charAt(0);
     }
 
-    private InputStreamReader openStreamReader(InputStream inputStream, Map<String, Object> processorProperties) throws UnsupportedEncodingException {
+    private static Charset getCharset(Map<String, Object> processorProperties) {
         final String encoding = CommonUtils.toString(processorProperties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING);
-        final Charset charset = Charset.forName(encoding);
+        return Charset.forName(encoding);
+    }
+
+    private InputStreamReader openStreamReader(InputStream inputStream, Map<String, Object> processorProperties) throws UnsupportedEncodingException {
+        final Charset charset = getCharset(processorProperties);
         try {
             inputStream = new BOMInputStream(inputStream, charset);
         } catch (IllegalArgumentException ignored) {
@@ -192,9 +210,8 @@ public class DataImporterCSV extends StreamImporterAbstract {
         IStreamDataImporterSite site = getSite();
         StreamEntityMapping entityMapping = site.getSourceObject();
         Map<String, Object> properties = site.getProcessorProperties();
-        HeaderPosition headerPosition = getHeaderPosition(properties);
-        boolean emptyStringNull = CommonUtils.getBoolean(properties.get(PROP_EMPTY_STRING_NULL), false);
-        String nullValueMark = CommonUtils.toString(properties.get(PROP_NULL_STRING));
+        int threadCount = CommonUtils.toInt(properties.get(PROP_PARALLEL_THREADS), 0);
+        setImportStatistics(null);
 
         DBCExecutionContext context = streamDataSource.getDefaultInstance().getDefaultContext(monitor, false);
         try (DBCSession producerSession = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Transfer stream data")) {
@@ -205,64 +222,15 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
             applyTransformHints(resultSet, consumer, properties, PROP_TIMESTAMP_FORMAT, PROP_TIMESTAMP_ZONE);
 
-            try (Reader reader = openStreamReader(inputStream, properties)) {
-                try (CSVReader csvReader = openCSVReader(reader, properties)) {
-
-                    int maxRows = site.getSettings().getMaxRows();
-                    int targetAttrSize = entityMapping.getStreamColumns().size();
-                    boolean headerRead = false;
-                    for (int lineNum = 0; ; ) {
-                        if (monitor.isCanceled()) {
-                            break;
-                        }
-                        String[] line = csvReader.readNext();
-                        if (line == null) {
-                            break;
-                        }
-                        if (line.length == 0) {
-                            continue;
-                        }
-                        if (headerPosition != HeaderPosition.none && !headerRead) {
-                            // First line is a header
-                            headerRead = true;
-                            continue;
-                        }
-                        if (maxRows > 0 && lineNum >= maxRows) {
-                            break;
-                        }
-
-                        if (line.length < targetAttrSize) {
-                            // Stream row may be shorter than header
-                            String[] newLine = new String[targetAttrSize];
-                            System.arraycopy(line, 0, newLine, 0, line.length);
-                            for (int i = line.length; i < targetAttrSize; i++) {
-                                newLine[i] = null;
-                            }
-                            line = newLine;
-                        }
-                        if (emptyStringNull) {
-                            for (int i = 0; i < line.length; i++) {
-                                if ("".equals(line[i])) {
-                                    line[i] = null;
-                                }
-                            }
-                        }
-                        if (!CommonUtils.isEmpty(nullValueMark)) {
-                            for (int i = 0; i < line.length; i++) {
-                                if (nullValueMark.equals(line[i])) {
-                                    line[i] = null;
-                                }
-                            }
-                        }
-
-                        resultSet.setStreamRow(line);
-                        consumer.fetchRow(producerSession, resultSet);
-                        lineNum++;
-
-                        if (lineNum % 1000 == 0) {
-                            monitor.subTask(String.valueOf(lineNum) + " rows processed");
-                        }
-                    }
+            try {
+                if (threadCount > 1 && isParallelImportSupported(entityMapping.getInputFile(), properties)) {
+                    // Rows order doesn't matter for database tables
+                    boolean preserveOrder = CommonUtils.getBoolean(properties.get(PROP_PRESERVE_ORDER), true) ||
+                        !(consumer instanceof DatabaseTransferConsumer) ||
+                        site.getSettings().getMaxRows() > 0;
+                    importRowsParallel(monitor, producerSession, resultSet, consumer, entityMapping.getInputFile(), threadCount, preserveOrder);
+                } else {
+                    importRows(monitor, producerSession, resultSet, consumer, inputStream);
                 }
             } catch (IOException e) {
                 throw new DBException("IO error reading CSV", e);
@@ -277,4 +245,325 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
     }
 
+    private void importRows(@NotNull DBRProgressMonitor monitor, @NotNull DBCSession session, @NotNull StreamTransferResultSet resultSet, @NotNull IDataTransferConsumer consumer, @NotNull InputStream inputStream) throws IOException, DBException {
+        IStreamDataImporterSite site = getSite();
+        Map<String, Object> properties = site.getProcessorProperties();
+        HeaderPosition headerPosition = getHeaderPosition(properties);
+        RowFormat rowFormat = new RowFormat(properties, site.getSourceObject().getStreamColumns().size());
+
+        try (Reader reader = openStreamReader(inputStream, properties)) {
+            try (CSVReader csvReader = openCSVReader(reader, properties)) {
+
+                int maxRows = site.getSettings().getMaxRows();
+                boolean headerRead = false;
+                for (int lineNum = 0; ; ) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    String[] line = csvReader.readNext();
+                    if (line == null) {
+                        break;
+                    }
+                    if (line.length == 0) {
+                        continue;
+                    }
+                    if (headerPosition != HeaderPosition.none && !headerRead) {
+                        // First line is a header
+                        headerRead = true;
+                        continue;
+                    }
+                    if (maxRows > 0 && lineNum >= maxRows) {
+                        break;
+                    }
+
+                    resultSet.setStreamRow(rowFormat.prepareRow(line));
+                    consumer.fetchRow(session, resultSet);
+                    lineNum++;
+
+                    if (lineNum % 1000 == 0) {
+                        monitor.subTask(String.valueOf(lineNum) + " rows processed");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Parallel import of local file.
+     * Calling thread splits the file into chunks at record boundaries and delivers parsed rows to the consumer.
+     * Chunks are read, parsed and converted by worker threads.
+     * Number of chunks in progress is limited so memory consumption doesn't depend on file size.
+     */
+    private void importRowsParallel(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCSession session,
+        @NotNull StreamTransferResultSet resultSet,
+        @NotNull IDataTransferConsumer consumer,
+        @NotNull File inputFile,
+        int threadCount,
+        boolean preserveOrder) throws IOException, DBException
+    {
+        IStreamDataImporterSite site = getSite();
+        Map<String, Object> properties = site.getProcessorProperties();
+        int maxRows = site.getSettings().getMaxRows();
+        RowFormat rowFormat = new RowFormat(properties, site.getSourceObject().getStreamColumns().size());
+        StreamImportStatistics statistics = new StreamImportStatistics(threadCount);
+        long startTime = System.currentTimeMillis();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, r -> {
+            Thread thread = new Thread(r, "CSV import worker (" + inputFile.getName() + ")");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Completion service is used only for unordered delivery: it keeps references to all completed chunks
+        CompletionService<ChunkResult> completionService = preserveOrder ? null : new ExecutorCompletionService<>(executor);
+        Deque<Future<ChunkResult>> pendingChunks = new ArrayDeque<>();
+        int maxPendingChunks = threadCount * 2;
+        long rowCount = 0;
+        try (RandomAccessFile file = new RandomAccessFile(inputFile, "r")) {
+            ChunkSplitter splitter = new ChunkSplitter(file, createRecordScanner(properties));
+            boolean splitFinished = false;
+            while (!monitor.isCanceled()) {
+                while (!splitFinished && pendingChunks.size() < maxPendingChunks) {
+                    ImportChunk chunk = splitter.nextChunk();
+                    if (chunk == null) {
+                        splitFinished = true;
+                        break;
+                    }
+                    Callable<ChunkResult> task = () -> parseChunk(inputFile, chunk, resultSet, rowFormat, properties);
+                    pendingChunks.add(completionService == null ? executor.submit(task) : completionService.submit(task));
+                }
+                if (pendingChunks.isEmpty()) {
+                    break;
+                }
+                Future<ChunkResult> future;
+                if (completionService == null) {
+                    future = pendingChunks.removeFirst();
+                } else {
+                    future = completionService.take();
+                    pendingChunks.remove(future);
+                }
+                ChunkResult chunkResult = getChunkResult(future);
+                statistics.addChunk(chunkResult.chunk.length, chunkResult.rows.size(), chunkResult.parseTime);
+                for (Object[] row : chunkResult.rows) {
+                    if (maxRows > 0 && rowCount >= maxRows) {
+                        return;
+                    }
+                    resultSet.setStreamRow(row);
+                    consumer.fetchRow(session, resultSet);
+                    rowCount++;
+                    if (rowCount % 1000 == 0) {
+                        monitor.subTask(rowCount + " rows processed (" + threadCount + " threads)");
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new DBException("CSV import interrupted", e);
+        } finally {
+            executor.shutdownNow();
+            statistics.setElapsedMillis(System.currentTimeMillis() - startTime);
+            setImportStatistics(statistics);
+        }
+    }
+
+    @NotNull
+    private static ChunkResult getChunkResult(@NotNull Future<ChunkResult> future) throws IOException, DBException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof DBException) {
+                throw (DBException) cause;
+            }
+            throw new DBException("Error parsing CSV chunk", cause);
+        }
+    }
+
+    /**
+     * Reads and parses chunk. Called in worker thread
+     */
+    @NotNull
+    private ChunkResult parseChunk(@NotNull File inputFile, @NotNull ImportChunk chunk, @NotNull StreamTransferResultSet resultSet, @NotNull RowFormat rowFormat, @NotNull Map<String, Object> properties) throws IOException {
+        long startTime = System.nanoTime();
+        if (chunk.length > Integer.MAX_VALUE - 8) {
+            throw new IOException("CSV record at offset " + chunk.offset + " is too big for parallel import");
+        }
+        byte[] data = new byte[(int) chunk.length];
+        try (RandomAccessFile file = new RandomAccessFile(inputFile, "r")) {
+            file.seek(chunk.offset);
+            file.readFully(data);
+        }
+        boolean convertValues = resultSet.getDateTimeFormat() != null;
+        int attributeCount = resultSet.getAttributeMappings().size();
+        List<Object[]> rows = new ArrayList<>();
+        InputStream inputStream = new ByteArrayInputStream(data);
+        // Only the first chunk may start with BOM and header
+        boolean skipHeader = chunk.first && getHeaderPosition(properties) != HeaderPosition.none;
+        try (Reader reader = chunk.first ? openStreamReader(inputStream, properties) : new InputStreamReader(inputStream, getCharset(properties))) {
+            try (CSVReader csvReader = openCSVReader(reader, properties)) {
+                for (; ; ) {
+                    String[] line = csvReader.readNext();
+                    if (line == null) {
+                        break;
+                    }
+                    if (line.length == 0) {
+                        continue;
+                    }
+                    if (skipHeader) {
+                        skipHeader = false;
+                        continue;
+                    }
+                    Object[] row = rowFormat.prepareRow(line);
+                    if (convertValues) {
+                        // Conversion result may be not a string
+                        Object[] values = new Object[row.length];
+                        for (int i = 0; i < row.length; i++) {
+                            values[i] = i < attributeCount ? resultSet.convertValue(i, row[i]) : row[i];
+                        }
+                        row = values;
+                    }
+                    rows.add(row);
+                }
+            }
+        }
+        return new ChunkResult(chunk, rows, System.nanoTime() - startTime);
+    }
+
+    private boolean isParallelImportSupported(@Nullable File inputFile, @NotNull Map<String, Object> properties) {
+        if (inputFile == null || !inputFile.isFile() || inputFile.length() <= PARALLEL_CHUNK_SIZE) {
+            // Nothing to split
+            return false;
+        }
+        try {
+            createRecordScanner(properties);
+        } catch (IllegalArgumentException e) {
+            log.debug("Parallel CSV import is not supported: " + e.getMessage());
+            return false;
+        }
+        Charset charset = getCharset(properties);
+        String charsetName = charset.name().toUpperCase(Locale.ENGLISH);
+        if (!charsetName.equals("UTF-8") && !charsetName.equals("US-ASCII") && !charsetName.startsWith("ISO-8859-") && !charsetName.startsWith("WINDOWS-125")) {
+            // Line feeds and quotes can't be found in raw bytes of multi-byte encodings
+            log.debug("Parallel CSV import is not supported for encoding " + charset.name());
+            return false;
+        }
+        return true;
+    }
+
+    @NotNull
+    private CSVRecordScanner createRecordScanner(@NotNull Map<String, Object> properties) {
+        return new CSVRecordScanner(getQuoteChar(properties), getEscapeChar(properties));
+    }
+
+    /**
+     * Stream row post-processing: nulls and short rows
+     */
+    private static class RowFormat {
+        private final int targetAttrSize;
+        private final boolean emptyStringNull;
+        private final String nullValueMark;
+
+        RowFormat(Map<String, Object> properties, int targetAttrSize) {
+            this.targetAttrSize = targetAttrSize;
+            this.emptyStringNull = CommonUtils.getBoolean(properties.get(PROP_EMPTY_STRING_NULL), false);
+            this.nullValueMark = CommonUtils.toString(properties.get(PROP_NULL_STRING));
+        }
+
+        String[] prepareRow(String[] line) {
+            if (line.length < targetAttrSize) {
+                // Stream row may be shorter than header
+                String[] newLine = new String[targetAttrSize];
+                System.arraycopy(line, 0, newLine, 0, line.length);
+                for (int i = line.length; i < targetAttrSize; i++) {
+                    newLine[i] = null;
+                }
+                line = newLine;
+            }
+            if (emptyStringNull) {
+                for (int i = 0; i < line.length; i++) {
+                    if ("".equals(line[i])) {
+                        line[i] = null;
+                    }
+                }
+            }
+            if (!CommonUtils.isEmpty(nullValueMark)) {
+                for (int i = 0; i < line.length; i++) {
+                    if (nullValueMark.equals(line[i])) {
+                        line[i] = null;
+                    }
+                }
+            }
+            return line;
+        }
+    }
+
+    private static class ImportChunk {
+        final long offset;
+        final long length;
+        final boolean first;
+
+        ImportChunk(long offset, long length, boolean first) {
+            this.offset = offset;
+            this.length = length;
+            this.first = first;
+        }
+    }
+
+    private static class ChunkResult {
+        final ImportChunk chunk;
+        final List<Object[]> rows;
+        final long parseTime;
+
+        ChunkResult(ImportChunk chunk, List<Object[]> rows, long parseTime) {
+            this.chunk = chunk;
+            this.rows = rows;
+            this.parseTime = parseTime;
+        }
+    }
+
+    /**
+     * Splits file into chunks of (at least) {@link #PARALLEL_CHUNK_SIZE} bytes. Each chunk ends at record boundary.
+     */
+    private static class ChunkSplitter {
+        private final RandomAccessFile file;
+        private final CSVRecordScanner scanner;
+        private final byte[] block = new byte[PARALLEL_READ_BLOCK_SIZE];
+        private long chunkStart;
+        private long position;
+
+        ChunkSplitter(RandomAccessFile file, CSVRecordScanner scanner) {
+            this.file = file;
+            this.scanner = scanner;
+        }
+
+        @Nullable
+        ImportChunk nextChunk() throws IOException {
+            for (; ; ) {
+                int count = file.read(block);
+                if (count <= 0) {
+                    break;
+                }
+                long blockStart = position;
+                position += count;
+                int recordEnd = scanner.scan(block, 0, count);
+                if (recordEnd >= 0 && blockStart + recordEnd - chunkStart >= PARALLEL_CHUNK_SIZE) {
+                    return makeChunk(blockStart + recordEnd);
+                }
+            }
+            if (position > chunkStart) {
+                // The rest of file
+                return makeChunk(position);
+            }
+            return null;
+        }
+
+        private ImportChunk makeChunk(long chunkEnd) {
+            ImportChunk chunk = new ImportChunk(chunkStart, chunkEnd - chunkStart, chunkStart == 0);
+            chunkStart = chunkEnd;
+            return chunk;
+        }
+    }
+
 }
@@ -0,0 +1,223 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.local.LocalStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferResultSet;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetColumn;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetConstants;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetFileReader;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parquet importer.
+ * Column types are taken from the file schema. Values are passed to the consumer as typed objects.
+ * Only column chunks of mapped columns are read.
+ */
+public class DataImporterParquet extends StreamImporterAbstract {
+
+    private static final Log log = Log.getLog(DataImporterParquet.class);
+
+    // Parquet strings have no length limit
+    private static final int DEFAULT_STRING_LENGTH = 255;
+
+    @NotNull
+    @Override
+    public List<StreamDataImporterColumnInfo> readColumnsInfo(StreamEntityMapping entityMapping, @NotNull InputStream inputStream) throws DBException {
+        int stringLength = Math.max(CommonUtils.toInt(getSite().getProcessorProperties().get(PROP_COLUMN_TYPE_LENGTH), DEFAULT_STRING_LENGTH), 1);
+        List<StreamDataImporterColumnInfo> columnsInfo = new ArrayList<>();
+        try (ParquetFileReader reader = new ParquetFileReader(getInputFile(entityMapping))) {
+            if (!reader.getSkippedColumns().isEmpty()) {
+                log.warn("Nested and repeated Parquet columns are not supported. Skipped columns: " + reader.getSkippedColumns());
+            }
+            List<ParquetColumn> columns = reader.getColumns();
+            for (int i = 0; i < columns.size(); i++) {
+                columnsInfo.add(makeColumnInfo(entityMapping, i, columns.get(i), stringLength));
+            }
+        } catch (IOException e) {
+            throw new DBException("IO error reading Parquet file", e);
+        }
+        return columnsInfo;
+    }
+
+    @Override
+    public void runImport(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource streamDataSource, @NotNull InputStream inputStream, @NotNull IDataTransferConsumer consumer) throws DBException {
+        StreamEntityMapping entityMapping = getSite().getSourceObject();
+        DBCExecutionContext context = streamDataSource.getDefaultInstance().getDefaultContext(monitor, false);
+        try (DBCSession producerSession = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Transfer stream data")) {
+            LocalStatement localStatement = new LocalStatement(producerSession, "SELECT * FROM Stream");
+            StreamTransferResultSet resultSet = new StreamTransferResultSet(producerSession, localStatement, entityMapping);
+
+            consumer.fetchStart(producerSession, resultSet, -1, -1);
+
+            applyTransformHints(resultSet, consumer, getSite().getProcessorProperties(), null, null);
+
+            try (ParquetFileReader reader = new ParquetFileReader(getInputFile(entityMapping))) {
+                int columnCount = entityMapping.getStreamColumns().size();
+                if (columnCount > reader.getColumns().size()) {
+                    throw new DBException("Parquet file schema doesn't match the import settings");
+                }
+                boolean[] mappedColumns = getMappedColumns(consumer, columnCount);
+                int maxRows = getSite().getSettings().getMaxRows();
+                long rowNumber = 0;
+                for (int rowGroup = 0; rowGroup < reader.getRowGroupCount(); rowGroup++) {
+                    if (monitor.isCanceled() || (maxRows > 0 && rowNumber >= maxRows)) {
+                        break;
+                    }
+                    Object[][] columnValues = new Object[columnCount][];
+                    for (int i = 0; i < columnCount; i++) {
+                        if (mappedColumns[i]) {
+                            columnValues[i] = reader.readColumn(rowGroup, i);
+                        }
+                    }
+                    rowNumber = fetchColumnarRows(monitor, producerSession, resultSet, consumer, columnValues,
+                        (int) reader.getRowGroupRowCount(rowGroup), rowNumber);
+                }
+            } catch (IOException e) {
+                throw new DBException("IO error reading Parquet file", e);
+            } finally {
+                try {
+                    consumer.fetchEnd(producerSession, resultSet);
+                } finally {
+                    consumer.close();
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private static File getInputFile(@NotNull StreamEntityMapping entityMapping) throws DBException {
+        File inputFile = entityMapping.getInputFile();
+        if (inputFile == null) {
+            throw new DBException("Parquet import requires a local file");
+        }
+        return inputFile;
+    }
+
+    @NotNull
+    private static StreamDataImporterColumnInfo makeColumnInfo(@NotNull StreamEntityMapping entityMapping, int index, @NotNull ParquetColumn column, int stringLength) {
+        DBPDataKind dataKind;
+        String typeName;
+        int valueType;
+        int maxLength = 0;
+        int logicalType = column.getLogicalType();
+        if (logicalType == ParquetConstants.LOGICAL_DECIMAL) {
+            dataKind = DBPDataKind.NUMERIC;
+            typeName = "DECIMAL";
+            valueType = Types.DECIMAL;
+        } else if (logicalType == ParquetConstants.LOGICAL_DATE) {
+            dataKind = DBPDataKind.DATETIME;
+            typeName = "DATE";
+            valueType = Types.DATE;
+        } else if (logicalType == ParquetConstants.LOGICAL_TIME) {
+            dataKind = DBPDataKind.DATETIME;
+            typeName = "TIME";
+            valueType = Types.TIME;
+        } else if (logicalType == ParquetConstants.LOGICAL_TIMESTAMP || column.getType() == ParquetConstants.TYPE_INT96) {
+            dataKind = DBPDataKind.DATETIME;
+            typeName = "TIMESTAMP";
+            valueType = Types.TIMESTAMP;
+        } else if (logicalType == ParquetConstants.LOGICAL_STRING || logicalType == ParquetConstants.LOGICAL_ENUM ||
+            logicalType == ParquetConstants.LOGICAL_JSON || logicalType == ParquetConstants.LOGICAL_UUID)
+        {
+            dataKind = DBPDataKind.STRING;
+            typeName = "VARCHAR";
+            valueType = Types.VARCHAR;
+            maxLength = logicalType == ParquetConstants.LOGICAL_UUID ? 36 : stringLength;
+        } else {
+            switch (column.getType()) {
+                case ParquetConstants.TYPE_BOOLEAN:
+                    dataKind = DBPDataKind.BOOLEAN;
+                    typeName = "BOOLEAN";
+                    valueType = Types.BOOLEAN;
+                    break;
+                case ParquetConstants.TYPE_INT32:
+                    dataKind = DBPDataKind.NUMERIC;
+                    if (logicalType == ParquetConstants.LOGICAL_INTEGER && column.getBitWidth() < 32) {
+                        typeName = column.isSigned() && column.getBitWidth() <= 16 ? "SMALLINT" : "INTEGER";
+                        valueType = column.isSigned() && column.getBitWidth() <= 16 ? Types.SMALLINT : Types.INTEGER;
+                    } else if (logicalType == ParquetConstants.LOGICAL_INTEGER && !column.isSigned()) {
+                        typeName = "BIGINT";
+                        valueType = Types.BIGINT;
+                    } else {
+                        typeName = "INTEGER";
+                        valueType = Types.INTEGER;
+                    }
+                    break;
+                case ParquetConstants.TYPE_INT64:
+                    dataKind = DBPDataKind.NUMERIC;
+                    if (logicalType == ParquetConstants.LOGICAL_INTEGER && !column.isSigned()) {
+                        typeName = "DECIMAL";
+                        valueType = Types.DECIMAL;
+                    } else {
+                        typeName = "BIGINT";
+                        valueType = Types.BIGINT;
+                    }
+                    break;
+                case ParquetConstants.TYPE_FLOAT:
+                    dataKind = DBPDataKind.NUMERIC;
+                    typeName = "REAL";
+                    valueType = Types.REAL;
+                    break;
+                case ParquetConstants.TYPE_DOUBLE:
+                    dataKind = DBPDataKind.NUMERIC;
+                    typeName = "DOUBLE";
+                    valueType = Types.DOUBLE;
+                    break;
+                default:
+                    dataKind = DBPDataKind.BINARY;
+                    typeName = "VARBINARY";
+                    valueType = Types.VARBINARY;
+                    maxLength = column.getType() == ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY ? column.getTypeLength() : stringLength;
+                    break;
+            }
+        }
+        StreamDataImporterColumnInfo columnInfo = new StreamDataImporterColumnInfo(entityMapping, index, column.getName(), typeName, maxLength, dataKind);
+        columnInfo.setValueType(valueType);
+        if (logicalType == ParquetConstants.LOGICAL_DECIMAL) {
+            columnInfo.setPrecision(column.getPrecision());
+            columnInfo.setScale(column.getScale());
+        } else if (typeName.equals("DECIMAL")) {
+            // Unsigned 64-bit integer
+            columnInfo.setPrecision(20);
+            columnInfo.setScale(0);
+        }
+        columnInfo.setRequired(column.getRepetition() == ParquetConstants.REPETITION_REQUIRED);
+        columnInfo.setMappingMetadataPresent(true);
+        return columnInfo;
+    }
+
+}
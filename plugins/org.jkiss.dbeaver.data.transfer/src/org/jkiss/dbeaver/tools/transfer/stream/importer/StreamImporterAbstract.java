@@ -21,6 +21,9 @@ import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
@@ -28,11 +31,13 @@ import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataImporter;
 import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataImporterSite;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamImportStatistics;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferResultSet;
 import org.jkiss.utils.CommonUtils;
 
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.Map;
 
 /**
@@ -48,6 +53,7 @@ public abstract class StreamImporterAbstract implements IStreamDataImporter {
     protected static final String PROP_COLUMN_TYPE_LENGTH = "columnTypeMinimalLength";
 
     private IStreamDataImporterSite site;
+    private StreamImportStatistics importStatistics;
 
     public IStreamDataImporterSite getSite()
     {
@@ -60,6 +66,18 @@ public abstract class StreamImporterAbstract implements IStreamDataImporter {
         this.site = site;
     }
 
+    /**
+     * Statistics of the last parallel import. Null if import was performed in a single thread
+     */
+    @Nullable
+    public StreamImportStatistics getImportStatistics() {
+        return importStatistics;
+    }
+
+    protected void setImportStatistics(@Nullable StreamImportStatistics importStatistics) {
+        this.importStatistics = importStatistics;
+    }
+
     @Override
     public void dispose()
     {
@@ -81,6 +99,64 @@ public abstract class StreamImporterAbstract implements IStreamDataImporter {
         return tsFormat;
     }
 
+    /**
+     * Returns flags of stream columns which are mapped to target columns.
+     * Columnar importers don't read unmapped columns at all.
+     * For consumers other than database all columns are mapped.
+     */
+    @NotNull
+    protected boolean[] getMappedColumns(@NotNull IDataTransferConsumer consumer, int columnCount) {
+        boolean[] mapped = new boolean[columnCount];
+        if (consumer instanceof DatabaseTransferConsumer) {
+            DatabaseTransferConsumer.ColumnMapping[] columnMappings = ((DatabaseTransferConsumer) consumer).getColumnMappings();
+            if (columnMappings != null) {
+                for (int i = 0; i < columnCount && i < columnMappings.length; i++) {
+                    mapped[i] = columnMappings[i] != null && columnMappings[i].targetIndex >= 0;
+                }
+                return mapped;
+            }
+        }
+        Arrays.fill(mapped, true);
+        return mapped;
+    }
+
+    /**
+     * Passes rows of a columnar block to the consumer.
+     * @param columnValues values of each stream column. Null for columns which weren't read
+     * @param rowNumber number of rows fetched before this block
+     * @return number of rows fetched after this block
+     */
+    protected long fetchColumnarRows(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCSession session,
+        @NotNull StreamTransferResultSet resultSet,
+        @NotNull IDataTransferConsumer consumer,
+        @NotNull Object[][] columnValues,
+        int rowCount,
+        long rowNumber) throws DBCException
+    {
+        int maxRows = site.getSettings().getMaxRows();
+        for (int row = 0; row < rowCount; row++) {
+            if (monitor.isCanceled() || (maxRows > 0 && rowNumber >= maxRows)) {
+                break;
+            }
+            Object[] values = new Object[columnValues.length];
+            for (int i = 0; i < columnValues.length; i++) {
+                if (columnValues[i] != null) {
+                    values[i] = columnValues[i][row];
+                }
+            }
+            resultSet.setStreamRow(values);
+            consumer.fetchRow(session, resultSet);
+            rowNumber++;
+
+            if (rowNumber % 1000 == 0) {
+                monitor.subTask(rowNumber + " rows processed");
+            }
+        }
+        return rowNumber;
+    }
+
     protected void applyTransformHints(StreamTransferResultSet resultSet, IDataTransferConsumer consumer, Map<String, Object> properties, String formatPropName, String zoneIdPropName) throws DBException {
         DateTimeFormatter tsFormat = formatPropName == null ? null : getTimeStampFormat(properties, formatPropName);
         ZoneId tsZoneId = null;
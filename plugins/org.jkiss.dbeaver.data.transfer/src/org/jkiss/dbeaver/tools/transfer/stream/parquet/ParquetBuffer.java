@@ -0,0 +1,134 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Growable little-endian byte buffer.
+ * Used to encode Parquet pages and Thrift structures before they are written to the file.
+ */
+public class ParquetBuffer {
+
+    private byte[] data;
+    private int size;
+
+    public ParquetBuffer() {
+        this(1024);
+    }
+
+    public ParquetBuffer(int initialCapacity) {
+        this.data = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Internal buffer. Only first {@link #size()} bytes are valid.
+     */
+    @NotNull
+    public byte[] getData() {
+        return data;
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    public void write(int b) {
+        ensureCapacity(1);
+        data[size++] = (byte) b;
+    }
+
+    public void write(@NotNull byte[] bytes) {
+        write(bytes, 0, bytes.length);
+    }
+
+    public void write(@NotNull byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, data, size, length);
+        size += length;
+    }
+
+    public void write(@NotNull ParquetBuffer buffer) {
+        write(buffer.data, 0, buffer.size);
+    }
+
+    public void writeIntLE(int value) {
+        ensureCapacity(4);
+        data[size++] = (byte) value;
+        data[size++] = (byte) (value >>> 8);
+        data[size++] = (byte) (value >>> 16);
+        data[size++] = (byte) (value >>> 24);
+    }
+
+    public void writeLongLE(long value) {
+        ensureCapacity(8);
+        for (int i = 0; i < 8; i++) {
+            data[size++] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    /**
+     * Unsigned LEB128 varint
+     */
+    public void writeVarInt(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            data[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[size++] = (byte) value;
+    }
+
+    /**
+     * Sets int value at the specified position (e.g. length prefix which is known after the data was written).
+     */
+    public void setIntLE(int position, int value) {
+        data[position] = (byte) value;
+        data[position + 1] = (byte) (value >>> 8);
+        data[position + 2] = (byte) (value >>> 16);
+        data[position + 3] = (byte) (value >>> 24);
+    }
+
+    public void writeTo(@NotNull OutputStream out) throws IOException {
+        out.write(data, 0, size);
+    }
+
+    @NotNull
+    public byte[] toByteArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    private void ensureCapacity(int count) {
+        if (size + count > data.length) {
+            int newCapacity = Math.max(data.length * 2, size + count);
+            if (newCapacity < 0) {
+                throw new OutOfMemoryError("Parquet buffer is too large");
+            }
+            data = Arrays.copyOf(data, newCapacity);
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+/**
+ * Leaf column of a flat Parquet schema: physical type plus logical type annotation.
+ */
+public class ParquetColumn {
+
+    @NotNull
+    private final String name;
+    private final int type;
+    private int typeLength;
+    private int repetition = ParquetConstants.REPETITION_OPTIONAL;
+    private int convertedType = ParquetConstants.CONVERTED_NONE;
+    private int logicalType = ParquetConstants.LOGICAL_NONE;
+    private int scale;
+    private int precision;
+    private int timeUnit;
+    private boolean adjustedToUTC;
+    private int bitWidth;
+    private boolean signed = true;
+
+    public ParquetColumn(@NotNull String name, int type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Physical type (ParquetConstants.TYPE_*)
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Value length for FIXED_LEN_BYTE_ARRAY
+     */
+    public int getTypeLength() {
+        return typeLength;
+    }
+
+    public ParquetColumn setTypeLength(int typeLength) {
+        this.typeLength = typeLength;
+        return this;
+    }
+
+    public int getRepetition() {
+        return repetition;
+    }
+
+    public ParquetColumn setRepetition(int repetition) {
+        this.repetition = repetition;
+        return this;
+    }
+
+    public boolean isOptional() {
+        return repetition == ParquetConstants.REPETITION_OPTIONAL;
+    }
+
+    public int getConvertedType() {
+        return convertedType;
+    }
+
+    public ParquetColumn setConvertedType(int convertedType) {
+        this.convertedType = convertedType;
+        return this;
+    }
+
+    /**
+     * LogicalType union field id (ParquetConstants.LOGICAL_*)
+     */
+    public int getLogicalType() {
+        return logicalType;
+    }
+
+    public ParquetColumn setLogicalType(int logicalType) {
+        this.logicalType = logicalType;
+        return this;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public ParquetColumn setDecimal(int precision, int scale) {
+        this.logicalType = ParquetConstants.LOGICAL_DECIMAL;
+        this.convertedType = ParquetConstants.CONVERTED_DECIMAL;
+        this.precision = precision;
+        this.scale = scale;
+        return this;
+    }
+
+    /**
+     * TimeUnit union field id (ParquetConstants.TIME_UNIT_*) of TIME and TIMESTAMP logical types
+     */
+    public int getTimeUnit() {
+        return timeUnit;
+    }
+
+    public boolean isAdjustedToUTC() {
+        return adjustedToUTC;
+    }
+
+    public ParquetColumn setTemporal(int logicalType, int timeUnit, boolean adjustedToUTC) {
+        this.logicalType = logicalType;
+        this.timeUnit = timeUnit;
+        this.adjustedToUTC = adjustedToUTC;
+        return this;
+    }
+
+    public int getBitWidth() {
+        return bitWidth;
+    }
+
+    public boolean isSigned() {
+        return signed;
+    }
+
+    public ParquetColumn setInteger(int bitWidth, boolean signed) {
+        this.logicalType = ParquetConstants.LOGICAL_INTEGER;
+        this.bitWidth = bitWidth;
+        this.signed = signed;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (type " + type + ", logical " + logicalType + ")";
+    }
+
+}
@@ -0,0 +1,492 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decodes column chunk of a flat column: dictionary page and data pages (V1 and V2).
+ * Values are converted with {@link ParquetValueConverter}. Dictionary values are converted only once.
+ */
+class ParquetColumnReader {
+
+    @NotNull
+    private final ParquetColumn column;
+    private final int codec;
+    private Object[] dictionary;
+
+    ParquetColumnReader(@NotNull ParquetColumn column, int codec) {
+        this.column = column;
+        this.codec = codec;
+    }
+
+    /**
+     * Reads values of all pages in the chunk
+     * @param values row values of the row group
+     */
+    void readChunk(@NotNull byte[] chunk, int offset, int length, @NotNull Object[] values) throws IOException {
+        dictionary = null;
+        int pos = offset;
+        int end = offset + length;
+        int rowCount = 0;
+        while (pos < end && rowCount < values.length) {
+            ThriftCompactReader headerReader = new ThriftCompactReader(chunk, pos, end - pos);
+            ThriftStruct header = headerReader.readStruct();
+            pos = headerReader.getPosition();
+            int pageType = header.getInt(1, -1);
+            int uncompressedSize = header.getInt(2, 0);
+            int compressedSize = header.getInt(3, 0);
+            if (compressedSize < 0 || uncompressedSize < 0 || pos + compressedSize > end) {
+                throw new IOException("Corrupted page header in column '" + column.getName() + "'");
+            }
+            switch (pageType) {
+                case ParquetConstants.PAGE_DICTIONARY: {
+                    ThriftStruct pageHeader = header.getStruct(7);
+                    if (pageHeader == null) {
+                        throw new IOException("Dictionary page header is missing");
+                    }
+                    byte[] data = decompress(chunk, pos, compressedSize, uncompressedSize);
+                    int count = pageHeader.getInt(1, 0);
+                    Object[] plainValues = new Object[count];
+                    decodePlain(data, 0, data.length, plainValues, count);
+                    for (int i = 0; i < count; i++) {
+                        plainValues[i] = ParquetValueConverter.convertValue(column, plainValues[i]);
+                    }
+                    dictionary = plainValues;
+                    break;
+                }
+                case ParquetConstants.PAGE_DATA: {
+                    ThriftStruct pageHeader = header.getStruct(5);
+                    if (pageHeader == null) {
+                        throw new IOException("Data page header is missing");
+                    }
+                    byte[] data = decompress(chunk, pos, compressedSize, uncompressedSize);
+                    int count = checkPageRows(pageHeader.getInt(1, 0), rowCount, values.length);
+                    int dataPos = 0;
+                    int[] levels = null;
+                    if (column.isOptional()) {
+                        if (pageHeader.getInt(3, ParquetConstants.ENCODING_RLE) != ParquetConstants.ENCODING_RLE) {
+                            throw new IOException("Unsupported definition levels encoding in column '" + column.getName() + "'");
+                        }
+                        int levelsLength = readIntLE(data, dataPos, data.length);
+                        dataPos += 4;
+                        levels = new int[count];
+                        ParquetRLE.decode(data, dataPos, dataPos + levelsLength, 1, levels, count);
+                        dataPos += levelsLength;
+                    }
+                    readPageValues(pageHeader.getInt(2, ParquetConstants.ENCODING_PLAIN), data, dataPos, data.length, levels, values, rowCount, count);
+                    rowCount += count;
+                    break;
+                }
+                case ParquetConstants.PAGE_DATA_V2: {
+                    ThriftStruct pageHeader = header.getStruct(8);
+                    if (pageHeader == null) {
+                        throw new IOException("Data page header is missing");
+                    }
+                    int count = checkPageRows(pageHeader.getInt(1, 0), rowCount, values.length);
+                    int levelsLength = pageHeader.getInt(5, 0);
+                    int repetitionLength = pageHeader.getInt(6, 0);
+                    if (levelsLength < 0 || repetitionLength < 0 || levelsLength + repetitionLength > compressedSize) {
+                        throw new IOException("Corrupted page header in column '" + column.getName() + "'");
+                    }
+                    // Levels are never compressed
+                    int[] levels = null;
+                    if (column.isOptional()) {
+                        int levelsPos = pos + repetitionLength;
+                        levels = new int[count];
+                        ParquetRLE.decode(chunk, levelsPos, levelsPos + levelsLength, 1, levels, count);
+                    }
+                    int valuesPos = pos + repetitionLength + levelsLength;
+                    int valuesLength = compressedSize - repetitionLength - levelsLength;
+                    byte[] data;
+                    if (pageHeader.getBoolean(7, true)) {
+                        data = decompress(chunk, valuesPos, valuesLength, uncompressedSize - repetitionLength - levelsLength);
+                    } else {
+                        data = new byte[valuesLength];
+                        System.arraycopy(chunk, valuesPos, data, 0, valuesLength);
+                    }
+                    readPageValues(pageHeader.getInt(4, ParquetConstants.ENCODING_PLAIN), data, 0, data.length, levels, values, rowCount, count);
+                    rowCount += count;
+                    break;
+                }
+                default:
+                    // Index pages and unknown pages are skipped
+                    break;
+            }
+            pos += compressedSize;
+        }
+        if (rowCount < values.length) {
+            throw new IOException("Column '" + column.getName() + "' has " + rowCount + " values while row group has " + values.length + " rows");
+        }
+    }
+
+    private int checkPageRows(int count, int rowCount, int totalRows) throws IOException {
+        if (count < 0 || rowCount + count > totalRows) {
+            throw new IOException("Column '" + column.getName() + "' has more values than rows in the row group");
+        }
+        return count;
+    }
+
+    private void readPageValues(int encoding, byte[] data, int pos, int end, int[] levels, Object[] values, int rowOffset, int count) throws IOException {
+        int valueCount = count;
+        if (levels != null) {
+            valueCount = 0;
+            for (int i = 0; i < count; i++) {
+                if (levels[i] == 1) {
+                    valueCount++;
+                }
+            }
+        }
+        Object[] pageValues = new Object[valueCount];
+        if (valueCount == 0) {
+            // All values are nulls. Values section may be empty
+            encoding = ParquetConstants.ENCODING_PLAIN;
+        }
+        switch (encoding) {
+            case ParquetConstants.ENCODING_PLAIN:
+                decodePlain(data, pos, end, pageValues, valueCount);
+                convertValues(pageValues);
+                break;
+            case ParquetConstants.ENCODING_PLAIN_DICTIONARY:
+            case ParquetConstants.ENCODING_RLE_DICTIONARY: {
+                if (dictionary == null) {
+                    throw new IOException("Dictionary page is missing in column '" + column.getName() + "'");
+                }
+                int[] indexes = new int[valueCount];
+                if (valueCount > 0) {
+                    ParquetRLE.decode(data, pos + 1, end, data[pos], indexes, valueCount);
+                }
+                for (int i = 0; i < valueCount; i++) {
+                    int index = indexes[i];
+                    if (index < 0 || index >= dictionary.length) {
+                        throw new IOException("Bad dictionary index " + index + " in column '" + column.getName() + "'");
+                    }
+                    pageValues[i] = dictionary[index];
+                }
+                break;
+            }
+            case ParquetConstants.ENCODING_RLE: {
+                if (column.getType() != ParquetConstants.TYPE_BOOLEAN) {
+                    throw new IOException("RLE encoding is not supported for column '" + column.getName() + "'");
+                }
+                int[] bits = new int[valueCount];
+                ParquetRLE.decode(data, pos + 4, end, 1, bits, valueCount);
+                for (int i = 0; i < valueCount; i++) {
+                    pageValues[i] = bits[i] != 0;
+                }
+                break;
+            }
+            case ParquetConstants.ENCODING_DELTA_BINARY_PACKED: {
+                long[] deltaValues = new long[valueCount];
+                decodeDeltaBinaryPacked(data, pos, end, deltaValues);
+                for (int i = 0; i < valueCount; i++) {
+                    pageValues[i] = column.getType() == ParquetConstants.TYPE_INT32 ? (Object) (int) deltaValues[i] : (Object) deltaValues[i];
+                }
+                convertValues(pageValues);
+                break;
+            }
+            case ParquetConstants.ENCODING_DELTA_LENGTH_BYTE_ARRAY:
+                decodeDeltaLengthByteArray(data, pos, end, pageValues, null);
+                convertValues(pageValues);
+                break;
+            case ParquetConstants.ENCODING_DELTA_BYTE_ARRAY: {
+                long[] prefixLengths = new long[valueCount];
+                pos = decodeDeltaBinaryPacked(data, pos, end, prefixLengths);
+                decodeDeltaLengthByteArray(data, pos, end, pageValues, prefixLengths);
+                convertValues(pageValues);
+                break;
+            }
+            case ParquetConstants.ENCODING_BYTE_STREAM_SPLIT:
+                decodeByteStreamSplit(data, pos, end, pageValues);
+                convertValues(pageValues);
+                break;
+            default:
+                throw new IOException("Unsupported encoding " + encoding + " in column '" + column.getName() + "'");
+        }
+        int valueIndex = 0;
+        for (int i = 0; i < count; i++) {
+            values[rowOffset + i] = levels == null || levels[i] == 1 ? pageValues[valueIndex++] : null;
+        }
+    }
+
+    private void convertValues(Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ParquetValueConverter.convertValue(column, values[i]);
+        }
+    }
+
+    private void decodePlain(byte[] data, int pos, int end, Object[] values, int count) throws IOException {
+        switch (column.getType()) {
+            case ParquetConstants.TYPE_BOOLEAN:
+                checkLength(pos, (count + 7) / 8, end);
+                for (int i = 0; i < count; i++) {
+                    values[i] = ((data[pos + (i >> 3)] >> (i & 7)) & 1) != 0;
+                }
+                break;
+            case ParquetConstants.TYPE_INT32:
+                checkLength(pos, count * 4L, end);
+                for (int i = 0; i < count; i++, pos += 4) {
+                    values[i] = readIntLE(data, pos, end);
+                }
+                break;
+            case ParquetConstants.TYPE_FLOAT:
+                checkLength(pos, count * 4L, end);
+                for (int i = 0; i < count; i++, pos += 4) {
+                    values[i] = Float.intBitsToFloat(readIntLE(data, pos, end));
+                }
+                break;
+            case ParquetConstants.TYPE_INT64:
+                checkLength(pos, count * 8L, end);
+                for (int i = 0; i < count; i++, pos += 8) {
+                    values[i] = readLongLE(data, pos);
+                }
+                break;
+            case ParquetConstants.TYPE_DOUBLE:
+                checkLength(pos, count * 8L, end);
+                for (int i = 0; i < count; i++, pos += 8) {
+                    values[i] = Double.longBitsToDouble(readLongLE(data, pos));
+                }
+                break;
+            case ParquetConstants.TYPE_INT96:
+            case ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY: {
+                int length = column.getType() == ParquetConstants.TYPE_INT96 ? 12 : column.getTypeLength();
+                checkLength(pos, (long) count * length, end);
+                for (int i = 0; i < count; i++, pos += length) {
+                    values[i] = copyBytes(data, pos, length);
+                }
+                break;
+            }
+            case ParquetConstants.TYPE_BYTE_ARRAY:
+                for (int i = 0; i < count; i++) {
+                    int length = readIntLE(data, pos, end);
+                    pos += 4;
+                    checkLength(pos, length, end);
+                    values[i] = copyBytes(data, pos, length);
+                    pos += length;
+                }
+                break;
+            default:
+                throw new IOException("Unsupported physical type " + column.getType());
+        }
+    }
+
+    /**
+     * Decodes DELTA_BINARY_PACKED values. Returns position after the encoded data.
+     */
+    private static int decodeDeltaBinaryPacked(byte[] data, int pos, int end, long[] values) throws IOException {
+        int[] cursor = {pos};
+        int blockSize = (int) readVarLong(data, cursor, end);
+        int miniBlockCount = (int) readVarLong(data, cursor, end);
+        long totalCount = readVarLong(data, cursor, end);
+        long value = readZigZag(data, cursor, end);
+        if (miniBlockCount <= 0 || blockSize <= 0 || blockSize % miniBlockCount != 0) {
+            throw new IOException("Bad DELTA_BINARY_PACKED header");
+        }
+        int miniBlockSize = blockSize / miniBlockCount;
+        int[] bitWidths = new int[miniBlockCount];
+        int index = 0;
+        if (totalCount > 0 && values.length > 0) {
+            values[index] = value;
+        }
+        index++;
+        while (index < totalCount) {
+            long minDelta = readZigZag(data, cursor, end);
+            checkLength(cursor[0], miniBlockCount, end);
+            for (int i = 0; i < miniBlockCount; i++) {
+                bitWidths[i] = data[cursor[0]++] & 0xFF;
+            }
+            for (int i = 0; i < miniBlockCount && index < totalCount; i++) {
+                int bitWidth = bitWidths[i];
+                if (bitWidth > 64) {
+                    throw new IOException("Bad DELTA_BINARY_PACKED bit width " + bitWidth);
+                }
+                long bitPos = (long) cursor[0] * 8;
+                for (int k = 0; k < miniBlockSize && index < totalCount; k++, index++) {
+                    value += minDelta + readBits(data, bitPos + (long) k * bitWidth, bitWidth, end);
+                    if (index < values.length) {
+                        values[index] = value;
+                    }
+                }
+                cursor[0] += miniBlockSize * bitWidth / 8;
+            }
+        }
+        return Math.min(cursor[0], end);
+    }
+
+    private static long readBits(byte[] data, long bitPos, int bitWidth, int end) {
+        long result = 0;
+        for (int bits = 0; bits < bitWidth; ) {
+            int bytePos = (int) (bitPos >>> 3);
+            int bitOffset = (int) (bitPos & 7);
+            int take = Math.min(8 - bitOffset, bitWidth - bits);
+            int b = bytePos < end ? data[bytePos] & 0xFF : 0;
+            result |= (long) ((b >>> bitOffset) & ((1 << take) - 1)) << bits;
+            bits += take;
+            bitPos += take;
+        }
+        return result;
+    }
+
+    /**
+     * Decodes DELTA_LENGTH_BYTE_ARRAY values. If prefix lengths are specified then values are
+     * suffixes of DELTA_BYTE_ARRAY encoding.
+     */
+    private static void decodeDeltaLengthByteArray(byte[] data, int pos, int end, Object[] values, long[] prefixLengths) throws IOException {
+        long[] lengths = new long[values.length];
+        pos = decodeDeltaBinaryPacked(data, pos, end, lengths);
+        byte[] previous = new byte[0];
+        for (int i = 0; i < values.length; i++) {
+            long length = lengths[i];
+            checkLength(pos, length, end);
+            byte[] value;
+            if (prefixLengths == null) {
+                value = copyBytes(data, pos, (int) length);
+            } else {
+                int prefixLength = (int) prefixLengths[i];
+                if (prefixLength < 0 || prefixLength > previous.length) {
+                    throw new IOException("Bad DELTA_BYTE_ARRAY prefix length " + prefixLength);
+                }
+                value = new byte[prefixLength + (int) length];
+                System.arraycopy(previous, 0, value, 0, prefixLength);
+                System.arraycopy(data, pos, value, prefixLength, (int) length);
+                previous = value;
+            }
+            values[i] = value;
+            pos += (int) length;
+        }
+    }
+
+    private void decodeByteStreamSplit(byte[] data, int pos, int end, Object[] values) throws IOException {
+        int count = values.length;
+        int width;
+        switch (column.getType()) {
+            case ParquetConstants.TYPE_INT32:
+            case ParquetConstants.TYPE_FLOAT: width = 4; break;
+            case ParquetConstants.TYPE_INT64:
+            case ParquetConstants.TYPE_DOUBLE: width = 8; break;
+            case ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY: width = column.getTypeLength(); break;
+            default:
+                throw new IOException("BYTE_STREAM_SPLIT encoding is not supported for column '" + column.getName() + "'");
+        }
+        checkLength(pos, (long) count * width, end);
+        byte[] value = new byte[width];
+        for (int i = 0; i < count; i++) {
+            for (int k = 0; k < width; k++) {
+                value[k] = data[pos + k * count + i];
+            }
+            switch (column.getType()) {
+                case ParquetConstants.TYPE_INT32: values[i] = readIntLE(value, 0, width); break;
+                case ParquetConstants.TYPE_FLOAT: values[i] = Float.intBitsToFloat(readIntLE(value, 0, width)); break;
+                case ParquetConstants.TYPE_INT64: values[i] = readLongLE(value, 0); break;
+                case ParquetConstants.TYPE_DOUBLE: values[i] = Double.longBitsToDouble(readLongLE(value, 0)); break;
+                default: values[i] = value.clone(); break;
+            }
+        }
+    }
+
+    @NotNull
+    private byte[] decompress(byte[] data, int offset, int length, int uncompressedSize) throws IOException {
+        switch (codec) {
+            case ParquetConstants.CODEC_UNCOMPRESSED:
+                return copyBytes(data, offset, length);
+            case ParquetConstants.CODEC_SNAPPY:
+                return SnappyCodec.uncompress(data, offset, length);
+            case ParquetConstants.CODEC_GZIP: {
+                byte[] result = new byte[uncompressedSize];
+                try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data, offset, length))) {
+                    int resultLength = 0;
+                    while (resultLength < uncompressedSize) {
+                        int count = in.read(result, resultLength, uncompressedSize - resultLength);
+                        if (count < 0) {
+                            throw new IOException("Unexpected end of compressed page in column '" + column.getName() + "'");
+                        }
+                        resultLength += count;
+                    }
+                }
+                return result;
+            }
+            default:
+                throw new IOException("Compression codec " + getCodecName(codec) + " is not supported");
+        }
+    }
+
+    @NotNull
+    static String getCodecName(int codec) {
+        switch (codec) {
+            case ParquetConstants.CODEC_UNCOMPRESSED: return "UNCOMPRESSED";
+            case ParquetConstants.CODEC_SNAPPY: return "SNAPPY";
+            case ParquetConstants.CODEC_GZIP: return "GZIP";
+            case ParquetConstants.CODEC_LZO: return "LZO";
+            case ParquetConstants.CODEC_BROTLI: return "BROTLI";
+            case ParquetConstants.CODEC_LZ4: return "LZ4";
+            case ParquetConstants.CODEC_ZSTD: return "ZSTD";
+            case ParquetConstants.CODEC_LZ4_RAW: return "LZ4_RAW";
+            default: return String.valueOf(codec);
+        }
+    }
+
+    private static long readVarLong(byte[] data, int[] cursor, int end) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (cursor[0] >= end) {
+                throw new IOException("Unexpected end of page data");
+            }
+            int b = data[cursor[0]++];
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Bad varint");
+    }
+
+    private static long readZigZag(byte[] data, int[] cursor, int end) throws IOException {
+        long value = readVarLong(data, cursor, end);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void checkLength(int pos, long length, int end) throws IOException {
+        if (length < 0 || pos + length > end) {
+            throw new IOException("Unexpected end of page data");
+        }
+    }
+
+    private static int readIntLE(byte[] data, int pos, int end) throws IOException {
+        checkLength(pos, 4, end);
+        return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8 | (data[pos + 2] & 0xFF) << 16 | (data[pos + 3] & 0xFF) << 24;
+    }
+
+    private static long readLongLE(byte[] data, int pos) {
+        long result = 0;
+        for (int i = 7; i >= 0; i--) {
+            result = (result << 8) | (data[pos + i] & 0xFF);
+        }
+        return result;
+    }
+
+    private static byte[] copyBytes(byte[] data, int pos, int length) {
+        byte[] result = new byte[length];
+        System.arraycopy(data, pos, result, 0, length);
+        return result;
+    }
+
+}
@@ -0,0 +1,478 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Buffers values of one column for the current row group and writes them as a column chunk.
+ * Fixed width values are kept as longs (floating point values as raw bits), byte arrays in one shared buffer.
+ * Chunk is dictionary encoded if the number of distinct values is small enough, otherwise it is PLAIN encoded.
+ */
+public class ParquetColumnWriter {
+
+    private static final int MAX_PAGE_ROWS = 20000;
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+    private static final int MAX_DICTIONARY_BYTES = 1024 * 1024;
+    // Longer binary min/max statistics are omitted
+    private static final int MAX_STATISTICS_LENGTH = 256;
+
+    @NotNull
+    private final ParquetColumn column;
+    private final int type;
+    private final boolean dictionaryEnabled;
+
+    private int rowCount;
+    private int[] definitionLevels = new int[1024];
+    private int valueCount;
+    private long[] values;
+    private ParquetBuffer binaryData;
+    private int[] binaryOffsets;
+
+    // Statistics
+    private boolean hasRange;
+    private boolean skipRange;
+    private long minLong, maxLong;
+    private double minDouble, maxDouble;
+    private byte[] minBinary, maxBinary;
+
+    // Written chunk info
+    private long dictionaryPageOffset = -1;
+    private long dataPageOffset;
+    private long totalUncompressedSize;
+    private long totalCompressedSize;
+    private boolean dictionaryEncoded;
+    private int dictionarySize;
+
+    public ParquetColumnWriter(@NotNull ParquetColumn column, boolean dictionaryEnabled) {
+        this.column = column;
+        this.type = column.getType();
+        this.dictionaryEnabled = dictionaryEnabled && type != ParquetConstants.TYPE_BOOLEAN;
+        if (isBinaryType()) {
+            binaryData = new ParquetBuffer(8192);
+            binaryOffsets = new int[1025];
+        } else {
+            values = new long[1024];
+        }
+    }
+
+    @NotNull
+    public ParquetColumn getColumn() {
+        return column;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Approximate size of buffered (unencoded) values
+     */
+    public long getBufferedSize() {
+        return isBinaryType() ? binaryData.size() + valueCount * 4L : valueCount * 8L;
+    }
+
+    public void addNull() {
+        if (!column.isOptional()) {
+            throw new IllegalArgumentException("Null value in required column " + column.getName());
+        }
+        addLevel(0);
+    }
+
+    public void addBoolean(boolean value) {
+        addFixed(value ? 1 : 0);
+    }
+
+    public void addInt(int value) {
+        addLong(value);
+    }
+
+    public void addLong(long value) {
+        if (!hasRange || value < minLong) minLong = value;
+        if (!hasRange || value > maxLong) maxLong = value;
+        hasRange = true;
+        addFixed(value);
+    }
+
+    public void addFloat(float value) {
+        addDoubleStatistics(value);
+        addFixed(Float.floatToRawIntBits(value));
+    }
+
+    public void addDouble(double value) {
+        addDoubleStatistics(value);
+        addFixed(Double.doubleToRawLongBits(value));
+    }
+
+    public void addBinary(@NotNull byte[] value) {
+        addBinary(value, 0, value.length);
+    }
+
+    public void addBinary(@NotNull byte[] value, int offset, int length) {
+        if (type == ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY && length != column.getTypeLength()) {
+            throw new IllegalArgumentException("Bad value length " + length + " for column " + column.getName() + " (" + column.getTypeLength() + " expected)");
+        }
+        if (type != ParquetConstants.TYPE_BYTE_ARRAY || length > MAX_STATISTICS_LENGTH) {
+            skipRange = true;
+        } else if (!skipRange) {
+            if (!hasRange || compareUnsigned(value, offset, length, minBinary) < 0) {
+                minBinary = Arrays.copyOfRange(value, offset, offset + length);
+            }
+            if (!hasRange || compareUnsigned(value, offset, length, maxBinary) > 0) {
+                maxBinary = Arrays.copyOfRange(value, offset, offset + length);
+            }
+            hasRange = true;
+        }
+        binaryData.write(value, offset, length);
+        if (valueCount + 1 >= binaryOffsets.length) {
+            binaryOffsets = Arrays.copyOf(binaryOffsets, binaryOffsets.length * 2);
+        }
+        binaryOffsets[++valueCount] = binaryData.size();
+        addLevel(1);
+    }
+
+    private void addDoubleStatistics(double value) {
+        if (Double.isNaN(value)) {
+            skipRange = true;
+            return;
+        }
+        if (!hasRange || value < minDouble) minDouble = value;
+        if (!hasRange || value > maxDouble) maxDouble = value;
+        hasRange = true;
+        // Spec: -0.0 for zero min and +0.0 for zero max
+        if (minDouble == 0.0) minDouble = -0.0;
+        if (maxDouble == 0.0) maxDouble = 0.0;
+    }
+
+    private void addFixed(long value) {
+        if (valueCount == values.length) {
+            values = Arrays.copyOf(values, valueCount * 2);
+        }
+        values[valueCount++] = value;
+        addLevel(1);
+    }
+
+    private void addLevel(int level) {
+        if (rowCount == definitionLevels.length) {
+            definitionLevels = Arrays.copyOf(definitionLevels, rowCount * 2);
+        }
+        definitionLevels[rowCount++] = level;
+    }
+
+    private boolean isBinaryType() {
+        return type == ParquetConstants.TYPE_BYTE_ARRAY || type == ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY;
+    }
+
+    /**
+     * Writes buffered values as a column chunk
+     */
+    void writeChunk(@NotNull ParquetFileWriter writer) throws IOException {
+        long chunkStart = writer.getPosition();
+        dictionaryPageOffset = -1;
+        dictionaryEncoded = false;
+
+        int[] indices = null;
+        int bitWidth = 0;
+        if (dictionaryEnabled && valueCount > 0) {
+            ParquetBuffer dictionary = new ParquetBuffer();
+            indices = buildDictionary(dictionary);
+            if (indices != null) {
+                bitWidth = ParquetRLE.getBitWidth(dictionarySize - 1);
+                dictionaryPageOffset = chunkStart;
+                dictionaryEncoded = true;
+                writer.writeDictionaryPage(this, dictionary, dictionarySize);
+            }
+        }
+
+        dataPageOffset = writer.getPosition();
+        ParquetBuffer page = new ParquetBuffer(64 * 1024);
+        int pageSize = writer.getPageSize();
+        int rowStart = 0;
+        int valueStart = 0;
+        while (rowStart < rowCount) {
+            // Find page bounds
+            int rowEnd = rowStart;
+            int valueEnd = valueStart;
+            long pageBits = 0;
+            while (rowEnd < rowCount && rowEnd - rowStart < MAX_PAGE_ROWS && pageBits < pageSize * 8L) {
+                if (definitionLevels[rowEnd] != 0) {
+                    pageBits += indices != null ? Math.max(bitWidth, 1) : getPlainBits(valueEnd);
+                    valueEnd++;
+                }
+                rowEnd++;
+            }
+            page.reset();
+            if (column.isOptional()) {
+                int lengthPosition = page.size();
+                page.writeIntLE(0);
+                ParquetRLE.encode(definitionLevels, rowStart, rowEnd - rowStart, 1, page);
+                page.setIntLE(lengthPosition, page.size() - lengthPosition - 4);
+            }
+            if (indices != null) {
+                page.write(bitWidth);
+                ParquetRLE.encode(indices, valueStart, valueEnd - valueStart, bitWidth, page);
+            } else {
+                writePlainValues(valueStart, valueEnd, page);
+            }
+            writer.writeDataPage(this, page, rowEnd - rowStart, indices != null ? ParquetConstants.ENCODING_RLE_DICTIONARY : ParquetConstants.ENCODING_PLAIN);
+            rowStart = rowEnd;
+            valueStart = valueEnd;
+        }
+        totalCompressedSize = writer.getPosition() - chunkStart;
+    }
+
+    private long getPlainBits(int valueIndex) {
+        switch (type) {
+            case ParquetConstants.TYPE_BOOLEAN:
+                return 1;
+            case ParquetConstants.TYPE_INT32:
+            case ParquetConstants.TYPE_FLOAT:
+                return 32;
+            case ParquetConstants.TYPE_BYTE_ARRAY:
+                return (4L + binaryOffsets[valueIndex + 1] - binaryOffsets[valueIndex]) * 8;
+            case ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY:
+                return column.getTypeLength() * 8L;
+            default:
+                return 64;
+        }
+    }
+
+    private void writePlainValues(int start, int end, ParquetBuffer out) {
+        switch (type) {
+            case ParquetConstants.TYPE_BOOLEAN: {
+                int bits = 0;
+                int count = 0;
+                for (int i = start; i < end; i++) {
+                    bits |= (int) values[i] << count;
+                    if (++count == 8) {
+                        out.write(bits);
+                        bits = 0;
+                        count = 0;
+                    }
+                }
+                if (count > 0) {
+                    out.write(bits);
+                }
+                break;
+            }
+            case ParquetConstants.TYPE_INT32:
+            case ParquetConstants.TYPE_FLOAT:
+                for (int i = start; i < end; i++) {
+                    out.writeIntLE((int) values[i]);
+                }
+                break;
+            case ParquetConstants.TYPE_INT64:
+            case ParquetConstants.TYPE_DOUBLE:
+                for (int i = start; i < end; i++) {
+                    out.writeLongLE(values[i]);
+                }
+                break;
+            case ParquetConstants.TYPE_BYTE_ARRAY:
+                for (int i = start; i < end; i++) {
+                    int length = binaryOffsets[i + 1] - binaryOffsets[i];
+                    out.writeIntLE(length);
+                    out.write(binaryData.getData(), binaryOffsets[i], length);
+                }
+                break;
+            case ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY:
+                out.write(binaryData.getData(), binaryOffsets[start], binaryOffsets[end] - binaryOffsets[start]);
+                break;
+            default:
+                throw new IllegalStateException("Unsupported physical type " + type);
+        }
+    }
+
+    /**
+     * Builds dictionary of distinct values and PLAIN encodes it.
+     * Returns value indices or null if dictionary is too large.
+     */
+    @Nullable
+    private int[] buildDictionary(ParquetBuffer dictionary) {
+        int maxSize = Math.min(MAX_DICTIONARY_SIZE, Math.max(valueCount / 2, 1));
+        int[] indices = new int[valueCount];
+        if (isBinaryType()) {
+            Map<ByteBuffer, Integer> entries = new HashMap<>();
+            byte[] data = binaryData.getData();
+            for (int i = 0; i < valueCount; i++) {
+                ByteBuffer key = ByteBuffer.wrap(data, binaryOffsets[i], binaryOffsets[i + 1] - binaryOffsets[i]);
+                Integer index = entries.get(key);
+                if (index == null) {
+                    index = entries.size();
+                    if (index >= maxSize || dictionary.size() > MAX_DICTIONARY_BYTES) {
+                        return null;
+                    }
+                    entries.put(key, index);
+                    dictionarySize = entries.size();
+                    if (type == ParquetConstants.TYPE_BYTE_ARRAY) {
+                        dictionary.writeIntLE(key.remaining());
+                    }
+                    dictionary.write(data, binaryOffsets[i], key.remaining());
+                }
+                indices[i] = index;
+            }
+        } else {
+            Map<Long, Integer> entries = new HashMap<>();
+            boolean int32 = type == ParquetConstants.TYPE_INT32 || type == ParquetConstants.TYPE_FLOAT;
+            for (int i = 0; i < valueCount; i++) {
+                Integer index = entries.get(values[i]);
+                if (index == null) {
+                    index = entries.size();
+                    if (index >= maxSize || dictionary.size() > MAX_DICTIONARY_BYTES) {
+                        return null;
+                    }
+                    entries.put(values[i], index);
+                    dictionarySize = entries.size();
+                    if (int32) {
+                        dictionary.writeIntLE((int) values[i]);
+                    } else {
+                        dictionary.writeLongLE(values[i]);
+                    }
+                }
+                indices[i] = index;
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Writes ColumnMetaData struct. Must be called after {@link #writeChunk(ParquetFileWriter)}.
+     */
+    void writeMetaData(@NotNull ThriftCompactWriter thrift, int codec) {
+        thrift.fieldI32(1, type);
+        if (dictionaryEncoded) {
+            thrift.fieldListBegin(2, ThriftCompactWriter.TYPE_I32, 3);
+            thrift.writeI32(ParquetConstants.ENCODING_PLAIN);
+            thrift.writeI32(ParquetConstants.ENCODING_RLE);
+            thrift.writeI32(ParquetConstants.ENCODING_RLE_DICTIONARY);
+        } else {
+            thrift.fieldListBegin(2, ThriftCompactWriter.TYPE_I32, 2);
+            thrift.writeI32(ParquetConstants.ENCODING_PLAIN);
+            thrift.writeI32(ParquetConstants.ENCODING_RLE);
+        }
+        thrift.fieldListBegin(3, ThriftCompactWriter.TYPE_BINARY, 1);
+        thrift.writeString(column.getName());
+        thrift.fieldI32(4, codec);
+        thrift.fieldI64(5, rowCount);
+        thrift.fieldI64(6, totalUncompressedSize);
+        thrift.fieldI64(7, totalCompressedSize);
+        thrift.fieldI64(9, dataPageOffset);
+        if (dictionaryPageOffset >= 0) {
+            thrift.fieldI64(11, dictionaryPageOffset);
+        }
+        thrift.fieldStructBegin(12);
+        thrift.fieldI64(3, rowCount - valueCount);
+        if (hasRange && !skipRange) {
+            byte[] maxValue = null, minValue = null;
+            switch (type) {
+                case ParquetConstants.TYPE_INT32: {
+                    ParquetBuffer buffer = new ParquetBuffer(8);
+                    buffer.writeIntLE((int) maxLong);
+                    buffer.writeIntLE((int) minLong);
+                    maxValue = Arrays.copyOfRange(buffer.getData(), 0, 4);
+                    minValue = Arrays.copyOfRange(buffer.getData(), 4, 8);
+                    break;
+                }
+                case ParquetConstants.TYPE_INT64: {
+                    ParquetBuffer buffer = new ParquetBuffer(16);
+                    buffer.writeLongLE(maxLong);
+                    buffer.writeLongLE(minLong);
+                    maxValue = Arrays.copyOfRange(buffer.getData(), 0, 8);
+                    minValue = Arrays.copyOfRange(buffer.getData(), 8, 16);
+                    break;
+                }
+                case ParquetConstants.TYPE_FLOAT:
+                case ParquetConstants.TYPE_DOUBLE: {
+                    ParquetBuffer buffer = new ParquetBuffer(16);
+                    if (type == ParquetConstants.TYPE_FLOAT) {
+                        buffer.writeIntLE(Float.floatToRawIntBits((float) maxDouble));
+                        buffer.writeIntLE(Float.floatToRawIntBits((float) minDouble));
+                    } else {
+                        buffer.writeLongLE(Double.doubleToRawLongBits(maxDouble));
+                        buffer.writeLongLE(Double.doubleToRawLongBits(minDouble));
+                    }
+                    int size = buffer.size() / 2;
+                    maxValue = Arrays.copyOfRange(buffer.getData(), 0, size);
+                    minValue = Arrays.copyOfRange(buffer.getData(), size, size * 2);
+                    break;
+                }
+                case ParquetConstants.TYPE_BYTE_ARRAY:
+                    maxValue = maxBinary;
+                    minValue = minBinary;
+                    break;
+            }
+            if (maxValue != null && minValue != null) {
+                thrift.fieldBinary(5, maxValue);
+                thrift.fieldBinary(6, minValue);
+            }
+        }
+        thrift.structEnd();
+    }
+
+    void addUncompressedSize(long size) {
+        totalUncompressedSize += size;
+    }
+
+    long getTotalUncompressedSize() {
+        return totalUncompressedSize;
+    }
+
+    long getTotalCompressedSize() {
+        return totalCompressedSize;
+    }
+
+    /**
+     * Offset of the first page of the written chunk
+     */
+    long getChunkOffset() {
+        return dictionaryPageOffset >= 0 ? dictionaryPageOffset : dataPageOffset;
+    }
+
+    /**
+     * Clears buffered values. Called after row group was written.
+     */
+    void reset() {
+        rowCount = 0;
+        valueCount = 0;
+        hasRange = false;
+        skipRange = false;
+        minBinary = maxBinary = null;
+        totalUncompressedSize = 0;
+        totalCompressedSize = 0;
+        if (binaryData != null) {
+            binaryData.reset();
+        }
+    }
+
+    private static int compareUnsigned(byte[] value, int offset, int length, byte[] other) {
+        int count = Math.min(length, other.length);
+        for (int i = 0; i < count; i++) {
+            int diff = (value[offset + i] & 0xFF) - (other[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - other.length;
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parquet format constants (see parquet.thrift of the Apache Parquet format specification).
+ */
+public class ParquetConstants {
+
+    public static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    // Physical types
+    public static final int TYPE_BOOLEAN = 0;
+    public static final int TYPE_INT32 = 1;
+    public static final int TYPE_INT64 = 2;
+    public static final int TYPE_INT96 = 3;
+    public static final int TYPE_FLOAT = 4;
+    public static final int TYPE_DOUBLE = 5;
+    public static final int TYPE_BYTE_ARRAY = 6;
+    public static final int TYPE_FIXED_LEN_BYTE_ARRAY = 7;
+
+    // Field repetition
+    public static final int REPETITION_REQUIRED = 0;
+    public static final int REPETITION_OPTIONAL = 1;
+    public static final int REPETITION_REPEATED = 2;
+
+    // Converted (legacy logical) types
+    public static final int CONVERTED_NONE = -1;
+    public static final int CONVERTED_UTF8 = 0;
+    public static final int CONVERTED_ENUM = 4;
+    public static final int CONVERTED_DECIMAL = 5;
+    public static final int CONVERTED_DATE = 6;
+    public static final int CONVERTED_TIME_MILLIS = 7;
+    public static final int CONVERTED_TIME_MICROS = 8;
+    public static final int CONVERTED_TIMESTAMP_MILLIS = 9;
+    public static final int CONVERTED_TIMESTAMP_MICROS = 10;
+    public static final int CONVERTED_UINT_8 = 11;
+    public static final int CONVERTED_UINT_16 = 12;
+    public static final int CONVERTED_UINT_32 = 13;
+    public static final int CONVERTED_UINT_64 = 14;
+    public static final int CONVERTED_INT_8 = 15;
+    public static final int CONVERTED_INT_16 = 16;
+    public static final int CONVERTED_INT_32 = 17;
+    public static final int CONVERTED_INT_64 = 18;
+    public static final int CONVERTED_JSON = 19;
+
+    // LogicalType union fields
+    public static final int LOGICAL_NONE = 0;
+    public static final int LOGICAL_STRING = 1;
+    public static final int LOGICAL_ENUM = 4;
+    public static final int LOGICAL_DECIMAL = 5;
+    public static final int LOGICAL_DATE = 6;
+    public static final int LOGICAL_TIME = 7;
+    public static final int LOGICAL_TIMESTAMP = 8;
+    public static final int LOGICAL_INTEGER = 10;
+    public static final int LOGICAL_JSON = 12;
+    public static final int LOGICAL_UUID = 14;
+
+    // TimeUnit union fields
+    public static final int TIME_UNIT_MILLIS = 1;
+    public static final int TIME_UNIT_MICROS = 2;
+    public static final int TIME_UNIT_NANOS = 3;
+
+    // Encodings
+    public static final int ENCODING_PLAIN = 0;
+    public static final int ENCODING_PLAIN_DICTIONARY = 2;
+    public static final int ENCODING_RLE = 3;
+    public static final int ENCODING_BIT_PACKED = 4;
+    public static final int ENCODING_DELTA_BINARY_PACKED = 5;
+    public static final int ENCODING_DELTA_LENGTH_BYTE_ARRAY = 6;
+    public static final int ENCODING_DELTA_BYTE_ARRAY = 7;
+    public static final int ENCODING_RLE_DICTIONARY = 8;
+    public static final int ENCODING_BYTE_STREAM_SPLIT = 9;
+
+    // Compression codecs
+    public static final int CODEC_UNCOMPRESSED = 0;
+    public static final int CODEC_SNAPPY = 1;
+    public static final int CODEC_GZIP = 2;
+    public static final int CODEC_LZO = 3;
+    public static final int CODEC_BROTLI = 4;
+    public static final int CODEC_LZ4 = 5;
+    public static final int CODEC_ZSTD = 6;
+    public static final int CODEC_LZ4_RAW = 7;
+
+    // Page types
+    public static final int PAGE_DATA = 0;
+    public static final int PAGE_INDEX = 1;
+    public static final int PAGE_DICTIONARY = 2;
+    public static final int PAGE_DATA_V2 = 3;
+
+}
@@ -0,0 +1,297 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parquet file reader.
+ * Reads file metadata from the footer and then column chunks of the requested columns only,
+ * so unused columns are never read from disk.
+ *
+ * Only flat schemas are supported: nested groups and repeated fields are skipped
+ * (see {@link #getSkippedColumns()}).
+ */
+public class ParquetFileReader implements AutoCloseable {
+
+    private static final int FOOTER_TAIL_LENGTH = 8;
+
+    @NotNull
+    private final FileChannel channel;
+    @NotNull
+    private final ThriftStruct metaData;
+    private final List<ParquetColumn> columns = new ArrayList<>();
+    // Column chunk index (leaf column index) of each supported column
+    private final List<Integer> chunkIndexes = new ArrayList<>();
+    private final List<String> skippedColumns = new ArrayList<>();
+
+    public ParquetFileReader(@NotNull File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            this.metaData = readMetaData();
+            readSchema();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Supported columns of the file schema
+     */
+    @NotNull
+    public List<ParquetColumn> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Names of nested and repeated columns which can't be read
+     */
+    @NotNull
+    public List<String> getSkippedColumns() {
+        return skippedColumns;
+    }
+
+    public long getRowCount() {
+        return metaData.getLong(3, 0);
+    }
+
+    public int getRowGroupCount() {
+        return metaData.getList(4).size();
+    }
+
+    public long getRowGroupRowCount(int rowGroup) {
+        return getRowGroup(rowGroup).getLong(3, 0);
+    }
+
+    @Nullable
+    public String getCreatedBy() {
+        return metaData.getString(6);
+    }
+
+    /**
+     * Reads all values of the column in the specified row group
+     * @param columnIndex index in {@link #getColumns()}
+     */
+    @NotNull
+    public Object[] readColumn(int rowGroup, int columnIndex) throws IOException {
+        ParquetColumn column = columns.get(columnIndex);
+        ThriftStruct group = getRowGroup(rowGroup);
+        long rowCount = group.getLong(3, 0);
+        List<Object> chunks = group.getList(1);
+        int chunkIndex = chunkIndexes.get(columnIndex);
+        if (chunkIndex >= chunks.size() || rowCount < 0 || rowCount > Integer.MAX_VALUE) {
+            throw new IOException("Corrupted row group " + rowGroup + " metadata");
+        }
+        ThriftStruct chunk = (ThriftStruct) chunks.get(chunkIndex);
+        if (chunk.hasField(1)) {
+            throw new IOException("Column '" + column.getName() + "' is stored in external file " + chunk.getString(1));
+        }
+        ThriftStruct chunkMeta = chunk.getStruct(3);
+        if (chunkMeta == null) {
+            throw new IOException("Column '" + column.getName() + "' metadata is missing");
+        }
+        long dataOffset = chunkMeta.getLong(9, 0);
+        long dictionaryOffset = chunkMeta.getLong(11, 0);
+        long start = dictionaryOffset > 0 && dictionaryOffset < dataOffset ? dictionaryOffset : dataOffset;
+        long length = chunkMeta.getLong(7, 0);
+        if (start < 0 || length < 0 || length > Integer.MAX_VALUE || start + length > channel.size()) {
+            throw new IOException("Bad column '" + column.getName() + "' chunk location");
+        }
+        byte[] data = readFully(start, (int) length);
+
+        Object[] values = new Object[(int) rowCount];
+        new ParquetColumnReader(column, chunkMeta.getInt(4, ParquetConstants.CODEC_UNCOMPRESSED)).readChunk(data, 0, data.length, values);
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @NotNull
+    private ThriftStruct getRowGroup(int rowGroup) {
+        return (ThriftStruct) metaData.getList(4).get(rowGroup);
+    }
+
+    @NotNull
+    private ThriftStruct readMetaData() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < ParquetConstants.MAGIC.length + FOOTER_TAIL_LENGTH) {
+            throw new IOException("File is too small to be a Parquet file");
+        }
+        byte[] tail = readFully(fileSize - FOOTER_TAIL_LENGTH, FOOTER_TAIL_LENGTH);
+        if (!Arrays.equals(Arrays.copyOfRange(tail, 4, 8), ParquetConstants.MAGIC)) {
+            throw new IOException("Not a Parquet file (bad magic)");
+        }
+        long footerLength = (tail[0] & 0xFF) | (tail[1] & 0xFF) << 8 | (tail[2] & 0xFF) << 16 | (long) (tail[3] & 0xFF) << 24;
+        if (footerLength <= 0 || footerLength > fileSize - FOOTER_TAIL_LENGTH - ParquetConstants.MAGIC.length) {
+            throw new IOException("Bad Parquet footer length " + footerLength);
+        }
+        byte[] footer = readFully(fileSize - FOOTER_TAIL_LENGTH - footerLength, (int) footerLength);
+        return new ThriftCompactReader(footer, 0, footer.length).readStruct();
+    }
+
+    private void readSchema() throws IOException {
+        List<Object> schema = metaData.getList(2);
+        if (schema.isEmpty()) {
+            throw new IOException("Parquet schema is empty");
+        }
+        int rootChildren = ((ThriftStruct) schema.get(0)).getInt(5, 0);
+        int[] position = {1};
+        int leafIndex = 0;
+        for (int i = 0; i < rootChildren && position[0] < schema.size(); i++) {
+            ThriftStruct element = (ThriftStruct) schema.get(position[0]);
+            String name = element.getString(4);
+            if (element.getInt(5, 0) > 0 || !element.hasField(1)) {
+                // Nested group. Skip all its leaves
+                leafIndex += skipGroup(schema, position);
+                skippedColumns.add(name);
+                continue;
+            }
+            position[0]++;
+            if (element.getInt(3, ParquetConstants.REPETITION_REQUIRED) == ParquetConstants.REPETITION_REPEATED) {
+                skippedColumns.add(name);
+            } else {
+                columns.add(makeColumn(element));
+                chunkIndexes.add(leafIndex);
+            }
+            leafIndex++;
+        }
+    }
+
+    /**
+     * Skips schema element and all its children. Returns number of leaf columns
+     */
+    private static int skipGroup(List<Object> schema, int[] position) throws IOException {
+        if (position[0] >= schema.size()) {
+            throw new IOException("Corrupted Parquet schema");
+        }
+        ThriftStruct element = (ThriftStruct) schema.get(position[0]++);
+        int childCount = element.getInt(5, 0);
+        if (childCount <= 0) {
+            return element.hasField(1) ? 1 : 0;
+        }
+        int leafCount = 0;
+        for (int i = 0; i < childCount; i++) {
+            leafCount += skipGroup(schema, position);
+        }
+        return leafCount;
+    }
+
+    @NotNull
+    private static ParquetColumn makeColumn(@NotNull ThriftStruct element) {
+        String name = element.getString(4);
+        ParquetColumn column = new ParquetColumn(name == null ? "" : name, element.getInt(1, ParquetConstants.TYPE_BYTE_ARRAY))
+            .setTypeLength(element.getInt(2, 0))
+            .setRepetition(element.getInt(3, ParquetConstants.REPETITION_REQUIRED));
+        int convertedType = element.getInt(6, ParquetConstants.CONVERTED_NONE);
+        column.setConvertedType(convertedType);
+        ThriftStruct logicalType = element.getStruct(10);
+        if (logicalType != null) {
+            int kind = logicalType.getUnionField();
+            ThriftStruct params = logicalType.getStruct(kind);
+            switch (kind) {
+                case ParquetConstants.LOGICAL_DECIMAL:
+                    column.setDecimal(params == null ? 0 : params.getInt(2, 0), params == null ? 0 : params.getInt(1, 0));
+                    break;
+                case ParquetConstants.LOGICAL_TIME:
+                case ParquetConstants.LOGICAL_TIMESTAMP: {
+                    ThriftStruct unit = params == null ? null : params.getStruct(2);
+                    column.setTemporal(
+                        kind,
+                        unit == null ? ParquetConstants.TIME_UNIT_MILLIS : unit.getUnionField(),
+                        params != null && params.getBoolean(1, false));
+                    break;
+                }
+                case ParquetConstants.LOGICAL_INTEGER:
+                    column.setInteger(params == null ? 32 : params.getInt(1, 32), params == null || params.getBoolean(2, true));
+                    break;
+                default:
+                    column.setLogicalType(kind);
+                    break;
+            }
+            return column;
+        }
+        // Legacy annotations
+        switch (convertedType) {
+            case ParquetConstants.CONVERTED_UTF8:
+                column.setLogicalType(ParquetConstants.LOGICAL_STRING);
+                break;
+            case ParquetConstants.CONVERTED_ENUM:
+                column.setLogicalType(ParquetConstants.LOGICAL_ENUM);
+                break;
+            case ParquetConstants.CONVERTED_JSON:
+                column.setLogicalType(ParquetConstants.LOGICAL_JSON);
+                break;
+            case ParquetConstants.CONVERTED_DECIMAL:
+                column.setDecimal(element.getInt(8, 0), element.getInt(7, 0));
+                break;
+            case ParquetConstants.CONVERTED_DATE:
+                column.setLogicalType(ParquetConstants.LOGICAL_DATE);
+                break;
+            case ParquetConstants.CONVERTED_TIME_MILLIS:
+                column.setTemporal(ParquetConstants.LOGICAL_TIME, ParquetConstants.TIME_UNIT_MILLIS, true);
+                break;
+            case ParquetConstants.CONVERTED_TIME_MICROS:
+                column.setTemporal(ParquetConstants.LOGICAL_TIME, ParquetConstants.TIME_UNIT_MICROS, true);
+                break;
+            case ParquetConstants.CONVERTED_TIMESTAMP_MILLIS:
+                column.setTemporal(ParquetConstants.LOGICAL_TIMESTAMP, ParquetConstants.TIME_UNIT_MILLIS, true);
+                break;
+            case ParquetConstants.CONVERTED_TIMESTAMP_MICROS:
+                column.setTemporal(ParquetConstants.LOGICAL_TIMESTAMP, ParquetConstants.TIME_UNIT_MICROS, true);
+                break;
+            case ParquetConstants.CONVERTED_UINT_8:
+            case ParquetConstants.CONVERTED_UINT_16:
+            case ParquetConstants.CONVERTED_UINT_32:
+            case ParquetConstants.CONVERTED_UINT_64:
+                column.setInteger(8 << (convertedType - ParquetConstants.CONVERTED_UINT_8), false);
+                break;
+            case ParquetConstants.CONVERTED_INT_8:
+            case ParquetConstants.CONVERTED_INT_16:
+            case ParquetConstants.CONVERTED_INT_32:
+            case ParquetConstants.CONVERTED_INT_64:
+                column.setInteger(8 << (convertedType - ParquetConstants.CONVERTED_INT_8), true);
+                break;
+        }
+        return column;
+    }
+
+    @NotNull
+    private byte[] readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        return buffer.array();
+    }
+
+}
@@ -0,0 +1,305 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes flat Parquet file: row groups of column chunks (V1 data pages) followed by the Thrift encoded footer.
+ * All columns are buffered in memory until {@link #flushRowGroup()} is called.
+ */
+public class ParquetFileWriter {
+
+    @NotNull
+    private final OutputStream out;
+    @NotNull
+    private final ParquetColumnWriter[] columnWriters;
+    private final int codec;
+    private final int pageSize;
+    @NotNull
+    private final String createdBy;
+
+    private long position;
+    private long totalRowCount;
+    private int rowGroupCount;
+    // Already encoded RowGroup structs
+    private final ParquetBuffer rowGroups = new ParquetBuffer();
+
+    private final ParquetBuffer compressBuffer = new ParquetBuffer(64 * 1024);
+    private final ParquetBuffer headerBuffer = new ParquetBuffer(64);
+    private SnappyCodec snappyCodec;
+    private ByteArrayOutputStream gzipBuffer;
+
+    public ParquetFileWriter(@NotNull OutputStream out, @NotNull List<ParquetColumn> columns, int codec, boolean dictionary, int pageSize, @NotNull String createdBy) {
+        if (codec != ParquetConstants.CODEC_UNCOMPRESSED && codec != ParquetConstants.CODEC_SNAPPY && codec != ParquetConstants.CODEC_GZIP) {
+            throw new IllegalArgumentException("Unsupported Parquet compression codec " + codec);
+        }
+        this.out = out;
+        this.columnWriters = new ParquetColumnWriter[columns.size()];
+        for (int i = 0; i < columnWriters.length; i++) {
+            columnWriters[i] = new ParquetColumnWriter(columns.get(i), dictionary);
+        }
+        this.codec = codec;
+        this.pageSize = pageSize;
+        this.createdBy = createdBy;
+    }
+
+    @NotNull
+    public ParquetColumnWriter getColumnWriter(int index) {
+        return columnWriters[index];
+    }
+
+    public int getColumnCount() {
+        return columnWriters.length;
+    }
+
+    /**
+     * Number of rows in the current (not yet written) row group
+     */
+    public int getBufferedRowCount() {
+        return columnWriters.length == 0 ? 0 : columnWriters[0].getRowCount();
+    }
+
+    public long getBufferedSize() {
+        long size = 0;
+        for (ParquetColumnWriter columnWriter : columnWriters) {
+            size += columnWriter.getBufferedSize();
+        }
+        return size;
+    }
+
+    long getPosition() {
+        return position;
+    }
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    public void start() throws IOException {
+        write(ParquetConstants.MAGIC, 0, ParquetConstants.MAGIC.length);
+    }
+
+    /**
+     * Writes buffered rows as a row group
+     */
+    public void flushRowGroup() throws IOException {
+        int rowCount = getBufferedRowCount();
+        if (rowCount == 0) {
+            return;
+        }
+        for (ParquetColumnWriter columnWriter : columnWriters) {
+            if (columnWriter.getRowCount() != rowCount) {
+                throw new IOException("Column '" + columnWriter.getColumn().getName() + "' has " +
+                    columnWriter.getRowCount() + " values while row group has " + rowCount + " rows");
+            }
+            columnWriter.writeChunk(this);
+        }
+
+        ThriftCompactWriter thrift = new ThriftCompactWriter(rowGroups);
+        thrift.structBegin();
+        thrift.fieldListBegin(1, ThriftCompactWriter.TYPE_STRUCT, columnWriters.length);
+        long totalByteSize = 0;
+        long totalCompressedSize = 0;
+        for (ParquetColumnWriter columnWriter : columnWriters) {
+            thrift.structBegin();
+            // Deprecated ColumnChunk.file_offset. Zero means that metadata is in footer only
+            thrift.fieldI64(2, 0);
+            thrift.fieldStructBegin(3);
+            columnWriter.writeMetaData(thrift, codec);
+            thrift.structEnd();
+            thrift.structEnd();
+            totalByteSize += columnWriter.getTotalUncompressedSize();
+            totalCompressedSize += columnWriter.getTotalCompressedSize();
+        }
+        thrift.fieldI64(2, totalByteSize);
+        thrift.fieldI64(3, rowCount);
+        thrift.fieldI64(5, columnWriters[0].getChunkOffset());
+        thrift.fieldI64(6, totalCompressedSize);
+        thrift.structEnd();
+
+        for (ParquetColumnWriter columnWriter : columnWriters) {
+            columnWriter.reset();
+        }
+        totalRowCount += rowCount;
+        rowGroupCount++;
+    }
+
+    /**
+     * Flushes last row group and writes file footer
+     */
+    public void finish() throws IOException {
+        flushRowGroup();
+
+        ParquetBuffer footer = new ParquetBuffer(1024 + rowGroups.size());
+        ThriftCompactWriter thrift = new ThriftCompactWriter(footer);
+        thrift.structBegin();
+        thrift.fieldI32(1, 1);
+        thrift.fieldListBegin(2, ThriftCompactWriter.TYPE_STRUCT, columnWriters.length + 1);
+        thrift.structBegin();
+        thrift.fieldString(4, "schema");
+        thrift.fieldI32(5, columnWriters.length);
+        thrift.structEnd();
+        for (ParquetColumnWriter columnWriter : columnWriters) {
+            writeSchemaElement(thrift, columnWriter.getColumn());
+        }
+        thrift.fieldI64(3, totalRowCount);
+        thrift.fieldListBegin(4, ThriftCompactWriter.TYPE_STRUCT, rowGroupCount);
+        footer.write(rowGroups);
+        thrift.fieldString(6, createdBy);
+        // Type defined sort order for min/max statistics
+        thrift.fieldListBegin(7, ThriftCompactWriter.TYPE_STRUCT, columnWriters.length);
+        for (int i = 0; i < columnWriters.length; i++) {
+            thrift.structBegin();
+            thrift.fieldEmptyStruct(1);
+            thrift.structEnd();
+        }
+        thrift.structEnd();
+
+        int footerLength = footer.size();
+        footer.writeIntLE(footerLength);
+        footer.write(ParquetConstants.MAGIC);
+        write(footer.getData(), 0, footer.size());
+        out.flush();
+    }
+
+    private static void writeSchemaElement(ThriftCompactWriter thrift, ParquetColumn column) {
+        thrift.structBegin();
+        thrift.fieldI32(1, column.getType());
+        if (column.getType() == ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY) {
+            thrift.fieldI32(2, column.getTypeLength());
+        }
+        thrift.fieldI32(3, column.getRepetition());
+        thrift.fieldString(4, column.getName());
+        if (column.getConvertedType() != ParquetConstants.CONVERTED_NONE) {
+            thrift.fieldI32(6, column.getConvertedType());
+        }
+        if (column.getLogicalType() == ParquetConstants.LOGICAL_DECIMAL) {
+            thrift.fieldI32(7, column.getScale());
+            thrift.fieldI32(8, column.getPrecision());
+        }
+        if (column.getLogicalType() != ParquetConstants.LOGICAL_NONE) {
+            thrift.fieldStructBegin(10);
+            switch (column.getLogicalType()) {
+                case ParquetConstants.LOGICAL_DECIMAL:
+                    thrift.fieldStructBegin(ParquetConstants.LOGICAL_DECIMAL);
+                    thrift.fieldI32(1, column.getScale());
+                    thrift.fieldI32(2, column.getPrecision());
+                    thrift.structEnd();
+                    break;
+                case ParquetConstants.LOGICAL_TIME:
+                case ParquetConstants.LOGICAL_TIMESTAMP:
+                    thrift.fieldStructBegin(column.getLogicalType());
+                    thrift.fieldBool(1, column.isAdjustedToUTC());
+                    thrift.fieldStructBegin(2);
+                    thrift.fieldEmptyStruct(column.getTimeUnit());
+                    thrift.structEnd();
+                    thrift.structEnd();
+                    break;
+                case ParquetConstants.LOGICAL_INTEGER:
+                    thrift.fieldStructBegin(ParquetConstants.LOGICAL_INTEGER);
+                    thrift.fieldByte(1, column.getBitWidth());
+                    thrift.fieldBool(2, column.isSigned());
+                    thrift.structEnd();
+                    break;
+                default:
+                    // Logical types without parameters
+                    thrift.fieldEmptyStruct(column.getLogicalType());
+                    break;
+            }
+            thrift.structEnd();
+        }
+        thrift.structEnd();
+    }
+
+    void writeDictionaryPage(@NotNull ParquetColumnWriter columnWriter, @NotNull ParquetBuffer page, int valueCount) throws IOException {
+        ParquetBuffer compressed = compress(page);
+        headerBuffer.reset();
+        ThriftCompactWriter thrift = new ThriftCompactWriter(headerBuffer);
+        thrift.structBegin();
+        thrift.fieldI32(1, ParquetConstants.PAGE_DICTIONARY);
+        thrift.fieldI32(2, page.size());
+        thrift.fieldI32(3, compressed.size());
+        thrift.fieldStructBegin(7);
+        thrift.fieldI32(1, valueCount);
+        thrift.fieldI32(2, ParquetConstants.ENCODING_PLAIN);
+        thrift.structEnd();
+        thrift.structEnd();
+        writePage(columnWriter, page, compressed);
+    }
+
+    void writeDataPage(@NotNull ParquetColumnWriter columnWriter, @NotNull ParquetBuffer page, int valueCount, int encoding) throws IOException {
+        ParquetBuffer compressed = compress(page);
+        headerBuffer.reset();
+        ThriftCompactWriter thrift = new ThriftCompactWriter(headerBuffer);
+        thrift.structBegin();
+        thrift.fieldI32(1, ParquetConstants.PAGE_DATA);
+        thrift.fieldI32(2, page.size());
+        thrift.fieldI32(3, compressed.size());
+        thrift.fieldStructBegin(5);
+        thrift.fieldI32(1, valueCount);
+        thrift.fieldI32(2, encoding);
+        thrift.fieldI32(3, ParquetConstants.ENCODING_RLE);
+        thrift.fieldI32(4, ParquetConstants.ENCODING_RLE);
+        thrift.structEnd();
+        thrift.structEnd();
+        writePage(columnWriter, page, compressed);
+    }
+
+    private void writePage(ParquetColumnWriter columnWriter, ParquetBuffer page, ParquetBuffer compressed) throws IOException {
+        columnWriter.addUncompressedSize(headerBuffer.size() + page.size());
+        write(headerBuffer.getData(), 0, headerBuffer.size());
+        write(compressed.getData(), 0, compressed.size());
+    }
+
+    private ParquetBuffer compress(ParquetBuffer page) throws IOException {
+        switch (codec) {
+            case ParquetConstants.CODEC_SNAPPY:
+                if (snappyCodec == null) {
+                    snappyCodec = new SnappyCodec();
+                }
+                compressBuffer.reset();
+                snappyCodec.compress(page.getData(), 0, page.size(), compressBuffer);
+                return compressBuffer;
+            case ParquetConstants.CODEC_GZIP:
+                if (gzipBuffer == null) {
+                    gzipBuffer = new ByteArrayOutputStream(64 * 1024);
+                }
+                gzipBuffer.reset();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(gzipBuffer, 8192)) {
+                    gzip.write(page.getData(), 0, page.size());
+                }
+                compressBuffer.reset();
+                compressBuffer.write(gzipBuffer.toByteArray());
+                return compressBuffer;
+            default:
+                return page;
+        }
+    }
+
+    private void write(byte[] data, int offset, int length) throws IOException {
+        out.write(data, offset, length);
+        position += length;
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+
+/**
+ * RLE/bit-packing hybrid encoding.
+ * Used for definition levels and dictionary indices.
+ * Runs of 8+ equal values are written as RLE runs, everything else as bit-packed groups of 8 values.
+ */
+public class ParquetRLE {
+
+    // Keeps bit-packed run header in one byte
+    private static final int MAX_BIT_PACKED_GROUPS = 63;
+
+    /**
+     * Returns number of bits required to store values in range [0, maxValue]
+     */
+    public static int getBitWidth(int maxValue) {
+        return 32 - Integer.numberOfLeadingZeros(maxValue);
+    }
+
+    public static void encode(@NotNull int[] values, int offset, int count, int bitWidth, @NotNull ParquetBuffer out) {
+        int pos = offset;
+        int end = offset + count;
+        while (pos < end) {
+            int runLength = getRunLength(values, pos, end, Integer.MAX_VALUE);
+            if (runLength >= 8) {
+                writeRleRun(values[pos], runLength, bitWidth, out);
+                pos += runLength;
+                continue;
+            }
+            int start = pos;
+            int groups = 0;
+            do {
+                pos += 8;
+                groups++;
+            } while (pos < end && groups < MAX_BIT_PACKED_GROUPS && getRunLength(values, pos, end, 8) < 8);
+            if (pos > end) {
+                pos = end;
+            }
+            out.writeVarInt((groups << 1) | 1);
+            writeBitPacked(values, start, pos, groups * 8, bitWidth, out);
+        }
+    }
+
+    /**
+     * Decodes count values starting at position pos.
+     * Returns position after the last decoded run.
+     */
+    public static int decode(@NotNull byte[] data, int pos, int end, int bitWidth, @NotNull int[] values, int count) throws IOException {
+        int byteWidth = (bitWidth + 7) / 8;
+        int decoded = 0;
+        while (decoded < count) {
+            long header = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (pos >= end || shift > 35) {
+                    throw new IOException("Bad RLE run header");
+                }
+                int b = data[pos++];
+                header |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            if ((header & 1) == 0) {
+                int runLength = (int) Math.min(header >>> 1, count - decoded);
+                if (pos + byteWidth > end) {
+                    throw new IOException("Unexpected end of RLE data");
+                }
+                int value = 0;
+                for (int i = 0; i < byteWidth; i++) {
+                    value |= (data[pos++] & 0xFF) << (i * 8);
+                }
+                for (int i = 0; i < runLength; i++) {
+                    values[decoded++] = value;
+                }
+            } else {
+                int packedCount = (int) (header >>> 1) * 8;
+                int packedBytes = (int) (((long) packedCount * bitWidth + 7) / 8);
+                int valueCount = Math.min(packedCount, count - decoded);
+                // Last run may be truncated by the writer
+                unpack(data, pos, Math.min(end, pos + packedBytes), bitWidth, values, decoded, valueCount);
+                decoded += valueCount;
+                pos += packedBytes;
+            }
+        }
+        return Math.min(pos, end);
+    }
+
+    /**
+     * Unpacks LSB first packed values. Missing trailing bytes are treated as zeros.
+     */
+    public static void unpack(@NotNull byte[] data, int pos, int end, int bitWidth, @NotNull int[] values, int offset, int count) {
+        if (bitWidth == 0) {
+            for (int i = 0; i < count; i++) {
+                values[offset + i] = 0;
+            }
+            return;
+        }
+        long mask = (1L << bitWidth) - 1;
+        long accumulator = 0;
+        int bits = 0;
+        for (int i = 0; i < count; i++) {
+            while (bits < bitWidth) {
+                long b = pos < end ? data[pos] & 0xFF : 0;
+                pos++;
+                accumulator |= b << bits;
+                bits += 8;
+            }
+            values[offset + i] = (int) (accumulator & mask);
+            accumulator >>>= bitWidth;
+            bits -= bitWidth;
+        }
+    }
+
+    private static int getRunLength(int[] values, int pos, int end, int maxLength) {
+        int value = values[pos];
+        int length = 1;
+        while (pos + length < end && length < maxLength && values[pos + length] == value) {
+            length++;
+        }
+        return length;
+    }
+
+    private static void writeRleRun(int value, int runLength, int bitWidth, ParquetBuffer out) {
+        out.writeVarInt((long) runLength << 1);
+        for (int i = 0; i < (bitWidth + 7) / 8; i++) {
+            out.write(value >>> (i * 8));
+        }
+    }
+
+    /**
+     * Packs values LSB first. Missing values of the last group are padded with zeros.
+     */
+    private static void writeBitPacked(int[] values, int start, int end, int packedCount, int bitWidth, ParquetBuffer out) {
+        long accumulator = 0;
+        int bits = 0;
+        for (int i = 0; i < packedCount; i++) {
+            long value = start + i < end ? values[start + i] & 0xFFFFFFFFL : 0;
+            accumulator |= value << bits;
+            bits += bitWidth;
+            while (bits >= 8) {
+                out.write((int) accumulator);
+                accumulator >>>= 8;
+                bits -= 8;
+            }
+        }
+        if (bits > 0) {
+            out.write((int) accumulator);
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Converts physical Parquet values (Boolean, Integer, Long, Float, Double, byte[])
+ * into Java values according to the column logical type.
+ */
+public class ParquetValueConverter {
+
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+    // Julian day of 1970-01-01
+    private static final long JULIAN_EPOCH_DAY = 2_440_588L;
+
+    @Nullable
+    public static Object convertValue(@NotNull ParquetColumn column, @Nullable Object value) {
+        if (value == null) {
+            return null;
+        }
+        int logicalType = column.getLogicalType();
+        switch (column.getType()) {
+            case ParquetConstants.TYPE_INT32: {
+                int intValue = (Integer) value;
+                switch (logicalType) {
+                    case ParquetConstants.LOGICAL_DECIMAL:
+                        return BigDecimal.valueOf(intValue, column.getScale());
+                    case ParquetConstants.LOGICAL_DATE:
+                        return java.sql.Date.valueOf(LocalDate.ofEpochDay(intValue));
+                    case ParquetConstants.LOGICAL_TIME:
+                        return makeTime(intValue * 1_000_000L);
+                    case ParquetConstants.LOGICAL_INTEGER:
+                        if (!column.isSigned()) {
+                            return column.getBitWidth() >= 32 ? (Object) (intValue & 0xFFFFFFFFL) : (Object) intValue;
+                        }
+                        break;
+                }
+                return value;
+            }
+            case ParquetConstants.TYPE_INT64: {
+                long longValue = (Long) value;
+                switch (logicalType) {
+                    case ParquetConstants.LOGICAL_DECIMAL:
+                        return BigDecimal.valueOf(longValue, column.getScale());
+                    case ParquetConstants.LOGICAL_TIME:
+                        return makeTime(column.getTimeUnit() == ParquetConstants.TIME_UNIT_NANOS ? longValue : longValue * 1000);
+                    case ParquetConstants.LOGICAL_TIMESTAMP:
+                        return makeTimestamp(longValue, column.getTimeUnit(), column.isAdjustedToUTC());
+                    case ParquetConstants.LOGICAL_INTEGER:
+                        if (!column.isSigned()) {
+                            return new BigDecimal(Long.toUnsignedString(longValue));
+                        }
+                        break;
+                }
+                return value;
+            }
+            case ParquetConstants.TYPE_INT96: {
+                // Legacy timestamp: nanoseconds of day and Julian day number
+                ByteBuffer buffer = ByteBuffer.wrap((byte[]) value).order(ByteOrder.LITTLE_ENDIAN);
+                long nanosOfDay = buffer.getLong();
+                long epochDay = (buffer.getInt() & 0xFFFFFFFFL) - JULIAN_EPOCH_DAY;
+                return makeTimestamp(epochDay * NANOS_PER_DAY + nanosOfDay, ParquetConstants.TIME_UNIT_NANOS, true);
+            }
+            case ParquetConstants.TYPE_BYTE_ARRAY:
+            case ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY: {
+                byte[] bytes = (byte[]) value;
+                switch (logicalType) {
+                    case ParquetConstants.LOGICAL_STRING:
+                    case ParquetConstants.LOGICAL_ENUM:
+                    case ParquetConstants.LOGICAL_JSON:
+                        return new String(bytes, StandardCharsets.UTF_8);
+                    case ParquetConstants.LOGICAL_DECIMAL:
+                        return bytes.length == 0 ? BigDecimal.ZERO : new BigDecimal(new BigInteger(bytes), column.getScale());
+                    case ParquetConstants.LOGICAL_UUID:
+                        if (bytes.length == 16) {
+                            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                            return new UUID(buffer.getLong(), buffer.getLong()).toString();
+                        }
+                        break;
+                }
+                return value;
+            }
+            default:
+                return value;
+        }
+    }
+
+    @NotNull
+    private static Time makeTime(long nanosOfDay) {
+        LocalTime localTime = LocalTime.ofNanoOfDay(Math.floorMod(nanosOfDay, NANOS_PER_DAY));
+        // Time.valueOf truncates milliseconds
+        return new Time(Time.valueOf(localTime).getTime() + localTime.getNano() / 1_000_000);
+    }
+
+    @NotNull
+    private static Timestamp makeTimestamp(long value, int timeUnit, boolean adjustedToUTC) {
+        long unitsPerSecond;
+        switch (timeUnit) {
+            case ParquetConstants.TIME_UNIT_MILLIS: unitsPerSecond = 1_000L; break;
+            case ParquetConstants.TIME_UNIT_NANOS: unitsPerSecond = 1_000_000_000L; break;
+            default: unitsPerSecond = 1_000_000L; break;
+        }
+        long seconds = Math.floorDiv(value, unitsPerSecond);
+        int nanos = (int) (Math.floorMod(value, unitsPerSecond) * (1_000_000_000L / unitsPerSecond));
+        if (adjustedToUTC) {
+            return Timestamp.from(Instant.ofEpochSecond(seconds, nanos));
+        }
+        // Local date/time. Timestamp.valueOf keeps field values for pre-Gregorian dates
+        return Timestamp.valueOf(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC));
+    }
+
+}
@@ -0,0 +1,205 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Raw (unframed) Snappy block format compressor and decompressor.
+ * Compression is a simple greedy LZ77 with a 16K hash table over 64K fragments, like the reference implementation.
+ * Output is compatible with any Snappy decoder.
+ */
+public class SnappyCodec {
+
+    private static final int FRAGMENT_SIZE = 1 << 16;
+    private static final int HASH_BITS = 14;
+    private static final int MIN_MATCH = 4;
+
+    private final int[] hashTable = new int[1 << HASH_BITS];
+
+    public void compress(@NotNull byte[] input, int offset, int length, @NotNull ParquetBuffer out) {
+        out.writeVarInt(length);
+        for (int pos = 0; pos < length; pos += FRAGMENT_SIZE) {
+            compressFragment(input, offset + pos, Math.min(FRAGMENT_SIZE, length - pos), out);
+        }
+    }
+
+    private void compressFragment(byte[] input, int base, int length, ParquetBuffer out) {
+        int nextEmit = 0;
+        if (length >= MIN_MATCH + 11) {
+            Arrays.fill(hashTable, -1);
+            int limit = length - MIN_MATCH;
+            int pos = 0;
+            while (pos <= limit) {
+                int bytes = readInt(input, base + pos);
+                int hash = (bytes * 0x1e35a7bd) >>> (32 - HASH_BITS);
+                int candidate = hashTable[hash];
+                hashTable[hash] = pos;
+                if (candidate < 0 || readInt(input, base + candidate) != bytes) {
+                    // Skip faster through incompressible data
+                    pos += 1 + ((pos - nextEmit) >> 5);
+                    continue;
+                }
+                if (pos > nextEmit) {
+                    writeLiteral(input, base + nextEmit, pos - nextEmit, out);
+                }
+                int matchLength = MIN_MATCH;
+                while (pos + matchLength < length && input[base + candidate + matchLength] == input[base + pos + matchLength]) {
+                    matchLength++;
+                }
+                writeCopy(pos - candidate, matchLength, out);
+                pos += matchLength;
+                nextEmit = pos;
+            }
+        }
+        if (nextEmit < length) {
+            writeLiteral(input, base + nextEmit, length - nextEmit, out);
+        }
+    }
+
+    private static int readInt(byte[] data, int pos) {
+        return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8 | (data[pos + 2] & 0xFF) << 16 | (data[pos + 3] & 0xFF) << 24;
+    }
+
+    private static void writeLiteral(byte[] input, int offset, int length, ParquetBuffer out) {
+        int n = length - 1;
+        if (n < 60) {
+            out.write(n << 2);
+        } else {
+            int lengthBytes = n < (1 << 8) ? 1 : n < (1 << 16) ? 2 : n < (1 << 24) ? 3 : 4;
+            out.write((59 + lengthBytes) << 2);
+            for (int i = 0; i < lengthBytes; i++) {
+                out.write(n >>> (i * 8));
+            }
+        }
+        out.write(input, offset, length);
+    }
+
+    private static void writeCopy(int distance, int length, ParquetBuffer out) {
+        // Split long matches so the tail is at least 4 bytes long
+        while (length >= 68) {
+            writeCopy2(distance, 64, out);
+            length -= 64;
+        }
+        if (length > 64) {
+            writeCopy2(distance, 60, out);
+            length -= 60;
+        }
+        if (length < 12 && distance < 2048) {
+            out.write(1 | ((length - 4) << 2) | ((distance >>> 8) << 5));
+            out.write(distance);
+        } else {
+            writeCopy2(distance, length, out);
+        }
+    }
+
+    private static void writeCopy2(int distance, int length, ParquetBuffer out) {
+        out.write(2 | ((length - 1) << 2));
+        out.write(distance);
+        out.write(distance >>> 8);
+    }
+
+    @NotNull
+    public static byte[] uncompress(@NotNull byte[] input, int offset, int length) throws IOException {
+        int pos = offset;
+        int end = offset + length;
+        // Uncompressed length varint
+        long resultLength = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (pos >= end || shift > 28) {
+                throw new IOException("Corrupted Snappy data: bad length");
+            }
+            int b = input[pos++];
+            resultLength |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        if (resultLength > Integer.MAX_VALUE) {
+            throw new IOException("Corrupted Snappy data: bad length " + resultLength);
+        }
+        byte[] result = new byte[(int) resultLength];
+        int outPos = 0;
+        while (pos < end) {
+            int tag = input[pos++] & 0xFF;
+            int copyLength;
+            int distance;
+            switch (tag & 3) {
+                case 0: {
+                    int literalLength = tag >>> 2;
+                    if (literalLength >= 60) {
+                        int lengthBytes = literalLength - 59;
+                        if (pos + lengthBytes > end) {
+                            throw new IOException("Corrupted Snappy data: truncated literal");
+                        }
+                        literalLength = 0;
+                        for (int i = 0; i < lengthBytes; i++) {
+                            literalLength |= (input[pos++] & 0xFF) << (i * 8);
+                        }
+                    }
+                    literalLength++;
+                    if (literalLength <= 0 || pos + literalLength > end || outPos + literalLength > result.length) {
+                        throw new IOException("Corrupted Snappy data: bad literal");
+                    }
+                    System.arraycopy(input, pos, result, outPos, literalLength);
+                    pos += literalLength;
+                    outPos += literalLength;
+                    continue;
+                }
+                case 1:
+                    if (pos >= end) {
+                        throw new IOException("Corrupted Snappy data: truncated copy");
+                    }
+                    copyLength = ((tag >>> 2) & 7) + 4;
+                    distance = ((tag >>> 5) << 8) | (input[pos++] & 0xFF);
+                    break;
+                case 2:
+                    if (pos + 2 > end) {
+                        throw new IOException("Corrupted Snappy data: truncated copy");
+                    }
+                    copyLength = (tag >>> 2) + 1;
+                    distance = (input[pos] & 0xFF) | (input[pos + 1] & 0xFF) << 8;
+                    pos += 2;
+                    break;
+                default:
+                    if (pos + 4 > end) {
+                        throw new IOException("Corrupted Snappy data: truncated copy");
+                    }
+                    copyLength = (tag >>> 2) + 1;
+                    distance = readInt(input, pos);
+                    pos += 4;
+                    break;
+            }
+            if (distance <= 0 || distance > outPos || outPos + copyLength > result.length) {
+                throw new IOException("Corrupted Snappy data: bad copy");
+            }
+            // Byte by byte: source and target may overlap
+            for (int i = 0; i < copyLength; i++) {
+                result[outPos] = result[outPos - distance];
+                outPos++;
+            }
+        }
+        if (outPos != result.length) {
+            throw new IOException("Corrupted Snappy data: expected " + result.length + " bytes, got " + outPos);
+        }
+        return result;
+    }
+
+}
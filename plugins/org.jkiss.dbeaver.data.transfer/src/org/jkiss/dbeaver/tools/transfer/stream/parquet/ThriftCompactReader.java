@@ -0,0 +1,167 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal reader of the Thrift compact protocol.
+ * Structs are read into {@link ThriftStruct} (field id to value maps) so unknown fields are skipped naturally.
+ */
+public class ThriftCompactReader {
+
+    private static final int MAX_NESTING = 64;
+
+    @NotNull
+    private final byte[] data;
+    private int position;
+    private final int limit;
+    private int depth;
+
+    public ThriftCompactReader(@NotNull byte[] data, int offset, int length) {
+        this.data = data;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    @NotNull
+    public ThriftStruct readStruct() throws IOException {
+        if (++depth > MAX_NESTING) {
+            throw new IOException("Too deep Thrift struct nesting");
+        }
+        ThriftStruct struct = new ThriftStruct();
+        int lastFieldId = 0;
+        for (; ; ) {
+            int header = readByte();
+            if (header == 0) {
+                break;
+            }
+            int type = header & 0x0F;
+            int delta = header >>> 4;
+            int fieldId = delta != 0 ? lastFieldId + delta : (int) readZigZag();
+            lastFieldId = fieldId;
+            Object value;
+            if (type == ThriftCompactWriter.TYPE_BOOLEAN_TRUE || type == ThriftCompactWriter.TYPE_BOOLEAN_FALSE) {
+                value = type == ThriftCompactWriter.TYPE_BOOLEAN_TRUE;
+            } else {
+                value = readValue(type);
+            }
+            struct.setField(fieldId, value);
+        }
+        depth--;
+        return struct;
+    }
+
+    private Object readValue(int type) throws IOException {
+        switch (type) {
+            case ThriftCompactWriter.TYPE_BOOLEAN_TRUE:
+            case ThriftCompactWriter.TYPE_BOOLEAN_FALSE:
+                // Collection element
+                return readByte() == ThriftCompactWriter.TYPE_BOOLEAN_TRUE;
+            case ThriftCompactWriter.TYPE_BYTE:
+                return (int) (byte) readByte();
+            case ThriftCompactWriter.TYPE_I16:
+            case ThriftCompactWriter.TYPE_I32:
+                return (int) readZigZag();
+            case ThriftCompactWriter.TYPE_I64:
+                return readZigZag();
+            case ThriftCompactWriter.TYPE_DOUBLE: {
+                long bits = 0;
+                for (int i = 0; i < 8; i++) {
+                    bits |= (long) readByte() << (i * 8);
+                }
+                return Double.longBitsToDouble(bits);
+            }
+            case ThriftCompactWriter.TYPE_BINARY: {
+                int length = (int) readVarInt();
+                if (length < 0 || position + length > limit) {
+                    throw new IOException("Bad Thrift binary length " + length);
+                }
+                byte[] value = new byte[length];
+                System.arraycopy(data, position, value, 0, length);
+                position += length;
+                return value;
+            }
+            case ThriftCompactWriter.TYPE_LIST:
+            case ThriftCompactWriter.TYPE_SET: {
+                int header = readByte();
+                int size = header >>> 4;
+                if (size == 15) {
+                    size = (int) readVarInt();
+                }
+                if (size < 0 || size > limit - position) {
+                    throw new IOException("Bad Thrift list size " + size);
+                }
+                int elementType = header & 0x0F;
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(elementType));
+                }
+                return list;
+            }
+            case ThriftCompactWriter.TYPE_MAP: {
+                int size = (int) readVarInt();
+                if (size > 0) {
+                    int types = readByte();
+                    for (int i = 0; i < size; i++) {
+                        readValue(types >>> 4);
+                        readValue(types & 0x0F);
+                    }
+                }
+                // Maps aren't used by Parquet metadata
+                return null;
+            }
+            case ThriftCompactWriter.TYPE_STRUCT:
+                return readStruct();
+            default:
+                throw new IOException("Unsupported Thrift type " + type);
+        }
+    }
+
+    private int readByte() throws IOException {
+        if (position >= limit) {
+            throw new IOException("Unexpected end of Thrift data");
+        }
+        return data[position++] & 0xFF;
+    }
+
+    private long readVarInt() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Bad Thrift varint");
+    }
+
+    private long readZigZag() throws IOException {
+        long value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal writer of the Thrift compact protocol.
+ * Supports the subset which is used by Parquet metadata: structs, lists, booleans, integers and binaries.
+ */
+public class ThriftCompactWriter {
+
+    public static final int TYPE_BOOLEAN_TRUE = 1;
+    public static final int TYPE_BOOLEAN_FALSE = 2;
+    public static final int TYPE_BYTE = 3;
+    public static final int TYPE_I16 = 4;
+    public static final int TYPE_I32 = 5;
+    public static final int TYPE_I64 = 6;
+    public static final int TYPE_DOUBLE = 7;
+    public static final int TYPE_BINARY = 8;
+    public static final int TYPE_LIST = 9;
+    public static final int TYPE_SET = 10;
+    public static final int TYPE_MAP = 11;
+    public static final int TYPE_STRUCT = 12;
+
+    private static final int MAX_NESTING = 32;
+
+    private final ParquetBuffer buffer;
+    // Last written field id for each nested struct
+    private final int[] lastFieldIds = new int[MAX_NESTING];
+    private int depth;
+
+    public ThriftCompactWriter(@NotNull ParquetBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @NotNull
+    public ParquetBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Starts top-level struct or struct element of a list.
+     */
+    public void structBegin() {
+        if (depth == MAX_NESTING) {
+            throw new IllegalStateException("Too deep Thrift struct nesting");
+        }
+        lastFieldIds[depth++] = 0;
+    }
+
+    public void structEnd() {
+        buffer.write(0);
+        depth--;
+    }
+
+    public void fieldStructBegin(int fieldId) {
+        writeFieldHeader(TYPE_STRUCT, fieldId);
+        structBegin();
+    }
+
+    /**
+     * Writes empty struct field (e.g. logical type without parameters).
+     */
+    public void fieldEmptyStruct(int fieldId) {
+        fieldStructBegin(fieldId);
+        structEnd();
+    }
+
+    public void fieldBool(int fieldId, boolean value) {
+        writeFieldHeader(value ? TYPE_BOOLEAN_TRUE : TYPE_BOOLEAN_FALSE, fieldId);
+    }
+
+    public void fieldByte(int fieldId, int value) {
+        writeFieldHeader(TYPE_BYTE, fieldId);
+        buffer.write(value);
+    }
+
+    public void fieldI32(int fieldId, int value) {
+        writeFieldHeader(TYPE_I32, fieldId);
+        writeI32(value);
+    }
+
+    public void fieldI64(int fieldId, long value) {
+        writeFieldHeader(TYPE_I64, fieldId);
+        writeI64(value);
+    }
+
+    public void fieldBinary(int fieldId, @NotNull byte[] value) {
+        writeFieldHeader(TYPE_BINARY, fieldId);
+        writeBinary(value);
+    }
+
+    public void fieldString(int fieldId, @NotNull String value) {
+        fieldBinary(fieldId, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes list field header. Caller must write exactly {@code size} elements of {@code elementType} after it.
+     */
+    public void fieldListBegin(int fieldId, int elementType, int size) {
+        writeFieldHeader(TYPE_LIST, fieldId);
+        if (size < 15) {
+            buffer.write((size << 4) | elementType);
+        } else {
+            buffer.write(0xF0 | elementType);
+            buffer.writeVarInt(size);
+        }
+    }
+
+    public void writeI32(int value) {
+        buffer.writeVarInt(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+    }
+
+    public void writeI64(long value) {
+        buffer.writeVarInt((value << 1) ^ (value >> 63));
+    }
+
+    public void writeBinary(@NotNull byte[] value) {
+        buffer.writeVarInt(value.length);
+        buffer.write(value);
+    }
+
+    public void writeString(@NotNull String value) {
+        writeBinary(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeFieldHeader(int type, int fieldId) {
+        int delta = fieldId - lastFieldIds[depth - 1];
+        if (delta > 0 && delta <= 15) {
+            buffer.write((delta << 4) | type);
+        } else {
+            buffer.write(type);
+            writeI32(fieldId);
+        }
+        lastFieldIds[depth - 1] = fieldId;
+    }
+
+}
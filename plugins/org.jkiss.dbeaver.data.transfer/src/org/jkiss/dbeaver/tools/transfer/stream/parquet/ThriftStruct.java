@@ -0,0 +1,101 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decoded Thrift struct: field values by field id
+ */
+public class ThriftStruct {
+
+    private final Map<Integer, Object> fields = new HashMap<>();
+
+    void setField(int fieldId, Object value) {
+        fields.put(fieldId, value);
+    }
+
+    public boolean hasField(int fieldId) {
+        return fields.containsKey(fieldId);
+    }
+
+    public int getInt(int fieldId, int defaultValue) {
+        Object value = fields.get(fieldId);
+        return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+    }
+
+    public long getLong(int fieldId, long defaultValue) {
+        Object value = fields.get(fieldId);
+        return value instanceof Number ? ((Number) value).longValue() : defaultValue;
+    }
+
+    public boolean getBoolean(int fieldId, boolean defaultValue) {
+        Object value = fields.get(fieldId);
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+
+    @Nullable
+    public byte[] getBinary(int fieldId) {
+        Object value = fields.get(fieldId);
+        return value instanceof byte[] ? (byte[]) value : null;
+    }
+
+    @Nullable
+    public String getString(int fieldId) {
+        byte[] value = getBinary(fieldId);
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    @Nullable
+    public ThriftStruct getStruct(int fieldId) {
+        Object value = fields.get(fieldId);
+        return value instanceof ThriftStruct ? (ThriftStruct) value : null;
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public List<Object> getList(int fieldId) {
+        Object value = fields.get(fieldId);
+        return value instanceof List ? (List<Object>) value : Collections.emptyList();
+    }
+
+    /**
+     * Returns id of the first set field. Used for Thrift unions.
+     */
+    public int getUnionField() {
+        int result = 0;
+        for (Integer fieldId : fields.keySet()) {
+            if (result == 0 || fieldId < result) {
+                result = fieldId;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return fields.toString();
+    }
+
+}
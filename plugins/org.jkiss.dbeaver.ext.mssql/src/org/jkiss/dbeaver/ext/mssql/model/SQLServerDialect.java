@@ -184,6 +184,11 @@ public class SQLServerDialect extends JDBCSQLDialect {
         }
     }
 
+    @Override
+    public int getMaxQueryParameters() {
+        return 2100;
+    }
+
     @Override
     public String getColumnTypeModifiers(@NotNull DBPDataSource dataSource, @NotNull DBSTypedObject column, @NotNull String typeName, @NotNull DBPDataKind dataKind) {
         if (dataKind == DBPDataKind.DATETIME) {
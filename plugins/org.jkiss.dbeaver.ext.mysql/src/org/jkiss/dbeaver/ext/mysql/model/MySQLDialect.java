@@ -18,15 +18,18 @@ package org.jkiss.dbeaver.ext.mysql.model;
 
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ext.mysql.MySQLConstants;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCDatabaseMetaData;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
 import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -36,6 +39,11 @@ import java.util.Collections;
 */
 class MySQLDialect extends JDBCSQLDialect {
 
+    private static final Log log = Log.getLog(MySQLDialect.class);
+
+    // max_allowed_packet default of MySQL 5.7 and older servers
+    private static final int DEFAULT_MAX_ALLOWED_PACKET = 4 * 1024 * 1024;
+
     public static final String[] MYSQL_NON_TRANSACTIONAL_KEYWORDS = ArrayUtils.concatArrays(
         BasicSQLDialect.NON_TRANSACTIONAL_KEYWORDS,
         new String[]{
@@ -109,6 +117,7 @@ class MySQLDialect extends JDBCSQLDialect {
 
     private static String[] EXEC_KEYWORDS =  { "CALL" };
     private int lowerCaseTableNames;
+    private int maxAllowedPacket = DEFAULT_MAX_ALLOWED_PACKET;
 
     public MySQLDialect() {
         super("MySQL", "mysql");
@@ -118,6 +127,7 @@ class MySQLDialect extends JDBCSQLDialect {
         super.initDriverSettings(session, dataSource, metaData);
         this.lowerCaseTableNames = ((MySQLDataSource)dataSource).getLowerCaseTableNames();
         this.setSupportsUnquotedMixedCase(lowerCaseTableNames != 2);
+        this.maxAllowedPacket = readMaxAllowedPacket(session, (MySQLDataSource) dataSource);
 
         //addSQLKeyword("STATISTICS");
         Collections.addAll(tableQueryWords, "EXPLAIN", "DESCRIBE", "DESC");
@@ -189,6 +199,32 @@ class MySQLDialect extends JDBCSQLDialect {
         return MultiValueInsertMode.GROUP_ROWS;
     }
 
+    @Override
+    public int getMaxQueryParameters() {
+        return 65535;
+    }
+
+    @Override
+    public int getMaxQueryLength() {
+        return maxAllowedPacket;
+    }
+
+    private static int readMaxAllowedPacket(JDBCSession session, MySQLDataSource dataSource) {
+        try {
+            int packetSize = CommonUtils.toInt(JDBCUtils.queryString(session, "SELECT @@max_allowed_packet"));
+            if (packetSize > 0) {
+                return packetSize;
+            }
+        } catch (Throwable e) {
+            log.debug("Error reading max_allowed_packet", e);
+        }
+        // Documented defaults
+        if (dataSource.isMariaDB()) {
+            return dataSource.isServerVersionAtLeast(10, 2) ? 16 * 1024 * 1024 : DEFAULT_MAX_ALLOWED_PACKET;
+        }
+        return dataSource.isServerVersionAtLeast(8, 0) ? 64 * 1024 * 1024 : DEFAULT_MAX_ALLOWED_PACKET;
+    }
+
     @Override
     public boolean supportsAliasInSelect() {
         return true;
@@ -58,7 +58,7 @@ import java.util.regex.Pattern;
 /**
  * GenericDataSource
  */
-public class OracleDataSource extends JDBCDataSource implements DBPObjectStatisticsCollector, IAdaptable {
+public class OracleDataSource extends JDBCDataSource implements DBPObjectStatisticsCollector, IAdaptable, JDBCMetadataSnapshotProvider {
     private static final Log log = Log.getLog(OracleDataSource.class);
 
     final public SchemaCache schemaCache = new SchemaCache();
@@ -634,6 +634,31 @@ public class OracleDataSource extends JDBCDataSource implements DBPObjectStatist
         return super.createQueryTransformer(type);
     }
 
+    @Nullable
+    @Override
+    public String getMetadataChangeToken(@NotNull JDBCSession session, @NotNull DBSObject owner) throws SQLException {
+        if (!(owner instanceof OracleSchema)) {
+            return null;
+        }
+        return JDBCUtils.queryString(session,
+            "SELECT TO_CHAR(MAX(LAST_DDL_TIME),'YYYYMMDDHH24MISS') || ':' || COUNT(*) FROM " +
+                OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), this, "OBJECTS") + " WHERE OWNER=?",
+            owner.getName());
+    }
+
+    @Nullable
+    @Override
+    public Object normalizeMetadataValue(@NotNull Object value) {
+        if (value.getClass().getName().equals("oracle.sql.TIMESTAMP")) {
+            try {
+                return BeanUtils.invokeObjectMethod(value, "timestampValue");
+            } catch (Throwable e) {
+                log.debug("Can't read Oracle timestamp value", e);
+            }
+        }
+        return null;
+    }
+
     private Pattern ERROR_POSITION_PATTERN = Pattern.compile(".+\\s+line ([0-9]+), column ([0-9]+)");
     private Pattern ERROR_POSITION_PATTERN_2 = Pattern.compile(".+\\s+at line ([0-9]+)");
     private Pattern ERROR_POSITION_PATTERN_3 = Pattern.compile(".+\\s+at position\\: ([0-9]+)");
@@ -96,6 +96,7 @@ public class PostgreConstants {
     public static final String TYPE_JSON = "json";
     public static final String TYPE_JSONB = "jsonb";
     public static final String TYPE_BIT = "bit";
+    public static final String TYPE_BYTEA = "bytea";
     public static final String TYPE_REFCURSOR = "refcursor";
     public static final String TYPE_MONEY = "money";
     public static final String TYPE_GEOMETRY = "geometry";
@@ -0,0 +1,295 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.postgresql.PostgreConstants;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.edit.DBEPersistAction;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.utils.BeanUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Bulk insert batch which loads rows with COPY FROM STDIN (text format) through the driver's CopyManager.
+ * It is used only if bulk load option is enabled. Rows which can't be encoded in COPY format
+ * (complex types, LOBs, nulls which must be replaced with column defaults) and connections
+ * which don't support CopyManager are inserted by the regular insert batch.
+ */
+class PostgreCopyBatch implements DBSDataManipulator.ExecuteBatch {
+
+    private static final Log log = Log.getLog(PostgreCopyBatch.class);
+
+    private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final PostgreTableReal table;
+    private final DBSAttributeBase[] attributes;
+    private final DBSDataManipulator.ExecuteBatch insertBatch;
+    private final List<Object[]> values = new ArrayList<>();
+    private boolean copyUnsupported;
+
+    PostgreCopyBatch(@NotNull PostgreTableReal table, @NotNull DBSAttributeBase[] attributes, @NotNull DBSDataManipulator.ExecuteBatch insertBatch) {
+        this.table = table;
+        this.attributes = attributes;
+        this.insertBatch = insertBatch;
+        this.copyUnsupported = !isCopySupported(attributes);
+    }
+
+    @Override
+    public void add(@NotNull Object[] attributeValues) throws DBCException {
+        if (copyUnsupported) {
+            insertBatch.add(attributeValues);
+        } else {
+            values.add(attributeValues);
+        }
+    }
+
+    @NotNull
+    @Override
+    public DBCStatistics execute(@NotNull DBCSession session, Map<String, Object> options) throws DBCException {
+        if (!values.isEmpty()) {
+            if (CommonUtils.getOption(options, DBSDataManipulator.OPTION_USE_BULK_LOAD) &&
+                !CommonUtils.getOption(options, DBSDataManipulator.OPTION_DISABLE_BATCHES) &&
+                options.get(DBSDataManipulator.OPTION_INSERT_REPLACE_METHOD) == null &&
+                session instanceof JDBCSession)
+            {
+                String copyData = encodeRows();
+                if (copyData != null) {
+                    Object copyManager = getCopyManager((JDBCSession) session);
+                    if (copyManager != null) {
+                        DBCStatistics statistics = copyRows(copyManager, copyData, options);
+                        values.clear();
+                        return statistics;
+                    }
+                }
+            }
+            moveRowsToInsertBatch();
+        }
+        return insertBatch.execute(session, options);
+    }
+
+    @Override
+    public void generatePersistActions(@NotNull DBCSession session, @NotNull List<DBEPersistAction> actions, Map<String, Object> options) throws DBCException {
+        moveRowsToInsertBatch();
+        insertBatch.generatePersistActions(session, actions, options);
+    }
+
+    @Override
+    public void close() {
+        values.clear();
+        insertBatch.close();
+    }
+
+    private void moveRowsToInsertBatch() throws DBCException {
+        for (Object[] row : values) {
+            insertBatch.add(row);
+        }
+        values.clear();
+    }
+
+    @NotNull
+    private DBCStatistics copyRows(@NotNull Object copyManager, @NotNull String copyData, Map<String, Object> options) throws DBCException {
+        String query = makeCopyQuery(options);
+        DBCStatistics statistics = new DBCStatistics();
+        statistics.setQueryText(query);
+        statistics.addStatementsCount();
+        long startTime = System.currentTimeMillis();
+        try {
+            Object rowCount = BeanUtils.invokeObjectMethod(
+                copyManager,
+                "copyIn",
+                new Class[] { String.class, Reader.class },
+                new Object[] { query, new StringReader(copyData) });
+            if (rowCount instanceof Number) {
+                statistics.addRowsUpdated(((Number) rowCount).longValue());
+            }
+        } catch (Throwable e) {
+            if (e instanceof InvocationTargetException) {
+                e = ((InvocationTargetException) e).getTargetException();
+            }
+            throw new DBCException("Error copying data into " + table.getName(), e, table.getDataSource());
+        }
+        statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+        return statistics;
+    }
+
+    @NotNull
+    private String makeCopyQuery(Map<String, Object> options) {
+        StringBuilder query = new StringBuilder(100);
+        query.append("COPY ").append(DBUtils.getEntityScriptName(table, options)).append(" (");
+        boolean hasColumn = false;
+        for (DBSAttributeBase attribute : attributes) {
+            if (DBUtils.isPseudoAttribute(attribute)) {
+                continue;
+            }
+            if (hasColumn) query.append(",");
+            hasColumn = true;
+            query.append(DBUtils.getQuotedIdentifier(table.getDataSource(), attribute.getName()));
+        }
+        query.append(") FROM STDIN");
+        return query.toString();
+    }
+
+    /**
+     * Encodes all pending rows in COPY text format.
+     * Returns null if some value can't be encoded.
+     */
+    @Nullable
+    private String encodeRows() {
+        StringBuilder buffer = new StringBuilder(values.size() * attributes.length * 10);
+        for (Object[] row : values) {
+            boolean hasColumn = false;
+            for (int i = 0; i < attributes.length; i++) {
+                DBSAttributeBase attribute = attributes[i];
+                if (DBUtils.isPseudoAttribute(attribute)) {
+                    continue;
+                }
+                if (hasColumn) buffer.append('\t');
+                hasColumn = true;
+                Object value = row[i];
+                if (DBUtils.isNullValue(value)) {
+                    if (attribute instanceof DBSEntityAttribute && !CommonUtils.isEmpty(((DBSEntityAttribute) attribute).getDefaultValue())) {
+                        // Regular insert skips null values so column default is used. COPY can't do this
+                        return null;
+                    }
+                    buffer.append("\\N");
+                } else if (!appendValue(buffer, value)) {
+                    log.debug("Value of type " + value.getClass().getName() + " can't be loaded with COPY. Use regular insert.");
+                    return null;
+                }
+            }
+            buffer.append('\n');
+        }
+        return buffer.toString();
+    }
+
+    static boolean appendValue(@NotNull StringBuilder buffer, @NotNull Object value) {
+        if (value instanceof String) {
+            appendEscaped(buffer, (String) value);
+        } else if (value instanceof Boolean) {
+            buffer.append((Boolean) value ? "t" : "f");
+        } else if (value instanceof BigDecimal) {
+            buffer.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number) {
+            buffer.append(value.toString());
+        } else if (value instanceof java.sql.Timestamp) {
+            // Local time with explicit offset. Offset is ignored for timestamp without time zone.
+            // Instant keeps the right offset in the ambiguous hour of DST change
+            buffer.append(((java.sql.Timestamp) value).toInstant().atZone(ZoneId.systemDefault()).toOffsetDateTime().toString());
+        } else if (value instanceof java.sql.Time) {
+            // Time.toString drops fractional seconds
+            java.sql.Time time = (java.sql.Time) value;
+            buffer.append(time.toLocalTime().withNano((int) Math.floorMod(time.getTime(), 1000L) * 1_000_000).toString());
+        } else if (value instanceof java.sql.Date) {
+            buffer.append(value.toString());
+        } else if (value instanceof Date) {
+            buffer.append(Instant.ofEpochMilli(((Date) value).getTime()).atZone(ZoneId.systemDefault()).toOffsetDateTime().toString());
+        } else if (value instanceof java.time.temporal.Temporal || value instanceof UUID) {
+            buffer.append(value.toString());
+        } else if (value instanceof byte[]) {
+            // bytea hex format. Backslash is escaped in COPY text
+            buffer.append("\\\\x");
+            for (byte b : (byte[]) value) {
+                buffer.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static void appendEscaped(@NotNull StringBuilder buffer, @NotNull String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': buffer.append("\\\\"); break;
+                case '\n': buffer.append("\\n"); break;
+                case '\r': buffer.append("\\r"); break;
+                case '\t': buffer.append("\\t"); break;
+                default: buffer.append(c); break;
+            }
+        }
+    }
+
+    @Nullable
+    private Object getCopyManager(@NotNull JDBCSession session) {
+        try {
+            Connection connection = session.getOriginal();
+            Class<?> pgConnectionClass = Class.forName(PG_CONNECTION_CLASS, true, connection.getClass().getClassLoader());
+            if (!connection.isWrapperFor(pgConnectionClass)) {
+                throw new SQLException("Connection is not a " + PG_CONNECTION_CLASS);
+            }
+            return BeanUtils.invokeObjectMethod(connection.unwrap(pgConnectionClass), "getCopyAPI");
+        } catch (Throwable e) {
+            log.debug("COPY API is not available for " + table.getDataSource().getName() + ". Use regular insert.", e);
+            copyUnsupported = true;
+            return null;
+        }
+    }
+
+    /**
+     * Checks attribute types. Complex and LOB values aren't loaded with COPY.
+     */
+    static boolean isCopySupported(@NotNull DBSAttributeBase[] attributes) {
+        for (DBSAttributeBase attribute : attributes) {
+            if (DBUtils.isPseudoAttribute(attribute)) {
+                continue;
+            }
+            DBPDataKind dataKind = attribute.getDataKind();
+            switch (dataKind) {
+                case BOOLEAN:
+                case NUMERIC:
+                case STRING:
+                case DATETIME:
+                    if (PostgreConstants.TYPE_BIT.equalsIgnoreCase(attribute.getTypeName()) || "varbit".equalsIgnoreCase(attribute.getTypeName())) {
+                        // Bit strings don't accept boolean literals
+                        return false;
+                    }
+                    break;
+                case BINARY:
+                    if (!PostgreConstants.TYPE_BYTEA.equalsIgnoreCase(attribute.getTypeName())) {
+                        return false;
+                    }
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+}
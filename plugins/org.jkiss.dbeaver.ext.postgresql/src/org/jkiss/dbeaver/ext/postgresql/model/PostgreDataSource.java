@@ -64,10 +64,26 @@ import java.util.regex.Pattern;
 /**
  * PostgreDataSource
  */
-public class PostgreDataSource extends JDBCDataSource implements DBSInstanceContainer, IAdaptable, DBPObjectStatisticsCollector {
+public class PostgreDataSource extends JDBCDataSource implements DBSInstanceContainer, IAdaptable, DBPObjectStatisticsCollector, JDBCMetadataSnapshotProvider {
 
     private static final Log log = Log.getLog(PostgreDataSource.class);
 
+    // Catalogs which are read by schema object caches. Used to build metadata change token
+    private static final String[] METADATA_TOKEN_QUERIES = {
+        "pg_catalog.pg_class x WHERE x.relnamespace=?",
+        "pg_catalog.pg_attribute x JOIN pg_catalog.pg_class c ON c.oid=x.attrelid WHERE c.relnamespace=?",
+        "pg_catalog.pg_attrdef x JOIN pg_catalog.pg_class c ON c.oid=x.adrelid WHERE c.relnamespace=?",
+        "pg_catalog.pg_constraint x WHERE x.connamespace=?",
+        "pg_catalog.pg_index x JOIN pg_catalog.pg_class c ON c.oid=x.indrelid WHERE c.relnamespace=?",
+        "pg_catalog.pg_inherits x JOIN pg_catalog.pg_class c ON c.oid=x.inhrelid WHERE c.relnamespace=?",
+        "pg_catalog.pg_trigger x JOIN pg_catalog.pg_class c ON c.oid=x.tgrelid WHERE c.relnamespace=?",
+        "pg_catalog.pg_proc x WHERE x.pronamespace=?",
+        "pg_catalog.pg_aggregate x JOIN pg_catalog.pg_proc p ON p.oid=x.aggfnoid WHERE p.pronamespace=?",
+        "pg_catalog.pg_type x WHERE x.typnamespace=?",
+        "pg_catalog.pg_description x",
+        "pg_catalog.pg_extension x",
+    };
+
     private DatabaseCache databaseCache;
     private SettingCache settingCache;
     private String activeDatabaseName;
@@ -737,4 +753,42 @@ public class PostgreDataSource extends JDBCDataSource implements DBSInstanceCont
     public boolean supportReadingAllDataTypes() {
         return CommonUtils.toBoolean(getContainer().getActualConnectionConfiguration().getProviderProperty(PostgreConstants.PROP_READ_ALL_DATA_TYPES));
     }
+
+    @Nullable
+    @Override
+    public String getMetadataChangeToken(@NotNull JDBCSession session, @NotNull DBSObject owner) throws SQLException {
+        if (!(owner instanceof PostgreSchema)) {
+            return null;
+        }
+        // Catalog rows get new xmin on each DDL change. Counts detect dropped objects.
+        // Sum of xmin is used instead of max because xmin values are reused after wraparound.
+        // Token covers all catalogs which are read by schema caches (comments and extensions are database wide)
+        long schemaId = ((PostgreSchema) owner).getObjectId();
+        StringBuilder sql = new StringBuilder("SELECT ''");
+        List<Object> params = new ArrayList<>();
+        for (String catalogQuery : METADATA_TOKEN_QUERIES) {
+            sql.append(" || '/' || (SELECT count(*) || ':' || coalesce(sum(x.xmin::text::bigint), 0) FROM ").append(catalogQuery).append(")");
+            if (catalogQuery.indexOf('?') != -1) {
+                params.add(schemaId);
+            }
+        }
+        // Row count estimates are updated in place by VACUUM and ANALYZE, without new xmin
+        sql.append(" || '/' || (SELECT coalesce(sum(x.reltuples), 0) FROM pg_catalog.pg_class x WHERE x.relnamespace=?)");
+        params.add(schemaId);
+        return JDBCUtils.queryString(session, sql.toString(), params.toArray());
+    }
+
+    @Override
+    public boolean isSnapshotCache(@NotNull DBSObject owner, @NotNull String cacheName) {
+        // Index cache reads relation size and scan statistics
+        return !cacheName.equals(PostgreSchema.IndexCache.class.getName());
+    }
+
+    @Nullable
+    @Override
+    public Object normalizeMetadataValue(@NotNull Object value) {
+        // Vectors and other special types are read as strings
+        Object pgValue = PostgreUtils.extractPGObjectValue(value);
+        return pgValue instanceof String ? pgValue : null;
+    }
 }
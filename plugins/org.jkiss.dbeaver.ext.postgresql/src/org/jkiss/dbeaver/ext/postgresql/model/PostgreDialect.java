@@ -792,6 +792,12 @@ public class PostgreDialect extends JDBCSQLDialect implements TPRuleProvider {
         return MultiValueInsertMode.GROUP_ROWS;
     }
 
+    @Override
+    public int getMaxQueryParameters() {
+        // Parameters number is sent as signed 16-bit integer
+        return Short.MAX_VALUE;
+    }
+
     @Override
     public String[][] getBlockBoundStrings() {
         return BLOCK_BOUND_KEYWORDS;
@@ -23,6 +23,9 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPObjectStatistics;
 import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
@@ -35,6 +38,7 @@ import org.jkiss.dbeaver.model.meta.Association;
 import org.jkiss.dbeaver.model.meta.Property;
 import org.jkiss.dbeaver.model.preferences.DBPPropertySource;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.utils.ByteNumberFormat;
@@ -83,6 +87,20 @@ public abstract class PostgreTableReal extends PostgreTableBase implements DBPOb
         }
     }
 
+    /**
+     * Wraps regular insert batch with COPY batch. COPY is used only if bulk load option is enabled.
+     * COPY can't return generated keys, so in this case regular insert is used.
+     */
+    @NotNull
+    @Override
+    public ExecuteBatch insertData(@NotNull DBCSession session, @NotNull DBSAttributeBase[] attributes, @Nullable DBDDataReceiver keysReceiver, @NotNull DBCExecutionSource source) throws DBCException {
+        ExecuteBatch insertBatch = super.insertData(session, attributes, keysReceiver, source);
+        if (isView() || keysReceiver != null || !PostgreCopyBatch.isCopySupported(attributes)) {
+            return insertBatch;
+        }
+        return new PostgreCopyBatch(this, attributes, insertBatch);
+    }
+
     public TriggerCache getTriggerCache() {
         return triggerCache;
     }
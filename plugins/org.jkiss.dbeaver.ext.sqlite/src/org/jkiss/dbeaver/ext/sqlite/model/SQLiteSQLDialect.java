@@ -16,6 +16,7 @@
  */
 package org.jkiss.dbeaver.ext.sqlite.model;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.ext.generic.model.GenericSQLDialect;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCDatabaseMetaData;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
@@ -45,4 +46,22 @@ public class SQLiteSQLDialect extends GenericSQLDialect {
     public boolean supportsAlterTableConstraint() {
         return false;
     }
+
+    @NotNull
+    @Override
+    public MultiValueInsertMode getDefaultMultiValueInsertMode() {
+        return MultiValueInsertMode.GROUP_ROWS;
+    }
+
+    @Override
+    public int getMaxQueryParameters() {
+        // SQLITE_MAX_VARIABLE_NUMBER default for versions prior to 3.32
+        return 999;
+    }
+
+    @Override
+    public int getMaxQueryLength() {
+        // SQLITE_MAX_SQL_LENGTH default
+        return 1000000;
+    }
 }
@@ -0,0 +1,164 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.headless.task;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.data.json.JSONUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Task dependency graph.
+ * Task is identified by its id (or name) in project task manager.
+ * Task may start only after all tasks it depends on have finished successfully.
+ *
+ * Graph file format:
+ * <pre>
+ * {
+ *     "threads": 4,
+ *     "tasks": [
+ *         { "id": "export-orders" },
+ *         { "id": "export-customers" },
+ *         { "id": "load-warehouse", "dependsOn": [ "export-orders", "export-customers" ] }
+ *     ]
+ * }
+ * </pre>
+ */
+public class HeadlessTaskGraph {
+
+    private static final Gson GRAPH_GSON = new GsonBuilder().setLenient().create();
+
+    private final Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+    private int threadCount;
+
+    public void addTask(@NotNull String taskId, @NotNull Collection<String> dependsOn) throws DBException {
+        if (dependencies.containsKey(taskId)) {
+            throw new DBException("Duplicate task '" + taskId + "' in task graph");
+        }
+        dependencies.put(taskId, new LinkedHashSet<>(dependsOn));
+    }
+
+    @NotNull
+    public Set<String> getTaskIds() {
+        return Collections.unmodifiableSet(dependencies.keySet());
+    }
+
+    @NotNull
+    public Set<String> getDependencies(@NotNull String taskId) {
+        Set<String> taskDeps = dependencies.get(taskId);
+        return taskDeps == null ? Collections.emptySet() : Collections.unmodifiableSet(taskDeps);
+    }
+
+    /**
+     * Returns tasks which directly depend on the specified task
+     */
+    @NotNull
+    public List<String> getDependents(@NotNull String taskId) {
+        List<String> dependents = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+            if (entry.getValue().contains(taskId)) {
+                dependents.add(entry.getKey());
+            }
+        }
+        return dependents;
+    }
+
+    /**
+     * Number of worker threads specified in graph file. Zero means default.
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Validates graph and returns tasks in topological order (dependencies first).
+     * Tasks without mutual dependencies keep their declaration order.
+     */
+    @NotNull
+    public List<String> getExecutionOrder() throws DBException {
+        Map<String, Integer> pendingCount = new HashMap<>();
+        for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+            for (String dependency : entry.getValue()) {
+                if (!dependencies.containsKey(dependency)) {
+                    throw new DBException("Task '" + entry.getKey() + "' depends on unknown task '" + dependency + "'");
+                }
+            }
+            pendingCount.put(entry.getKey(), entry.getValue().size());
+        }
+        List<String> order = new ArrayList<>(dependencies.size());
+        Deque<String> ready = new ArrayDeque<>();
+        for (String taskId : dependencies.keySet()) {
+            if (pendingCount.get(taskId) == 0) {
+                ready.add(taskId);
+            }
+        }
+        while (!ready.isEmpty()) {
+            String taskId = ready.poll();
+            order.add(taskId);
+            for (String dependent : getDependents(taskId)) {
+                int count = pendingCount.get(dependent) - 1;
+                pendingCount.put(dependent, count);
+                if (count == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() != dependencies.size()) {
+            List<String> cycle = new ArrayList<>();
+            for (String taskId : dependencies.keySet()) {
+                if (!order.contains(taskId)) {
+                    cycle.add(taskId);
+                }
+            }
+            throw new DBException("Cyclic dependencies between tasks " + cycle);
+        }
+        return order;
+    }
+
+    @NotNull
+    public static HeadlessTaskGraph loadGraph(@NotNull Reader reader) throws DBException {
+        Map<String, Object> graphJSON;
+        try {
+            graphJSON = JSONUtils.parseMap(GRAPH_GSON, reader);
+        } catch (Exception e) {
+            throw new DBException("Error parsing task graph", e);
+        }
+        if (graphJSON == null) {
+            throw new DBException("Empty task graph");
+        }
+        HeadlessTaskGraph graph = new HeadlessTaskGraph();
+        graph.setThreadCount(JSONUtils.getInteger(graphJSON, "threads", 0));
+        for (Map<String, Object> taskJSON : JSONUtils.getObjectList(graphJSON, "tasks")) {
+            String taskId = JSONUtils.getString(taskJSON, "id");
+            if (CommonUtils.isEmpty(taskId)) {
+                throw new DBException("Task id is not specified in task graph");
+            }
+            graph.addTask(taskId, JSONUtils.getStringList(taskJSON, "dependsOn"));
+        }
+        return graph;
+    }
+
+}
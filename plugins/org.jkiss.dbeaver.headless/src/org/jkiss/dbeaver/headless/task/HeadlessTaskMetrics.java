@@ -0,0 +1,148 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.headless.task;
+
+import com.google.gson.stream.JsonWriter;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.json.JSONUtils;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Execution metrics of a single task run.
+ * Row and statement counters are collected from query manager events of the task threads.
+ */
+public class HeadlessTaskMetrics {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        SUCCESS,
+        FAILED,
+        SKIPPED
+    }
+
+    @NotNull
+    private final String taskId;
+    @Nullable
+    private final String taskName;
+    @Nullable
+    private final String taskType;
+    private volatile Status status = Status.PENDING;
+    private volatile String errorMessage;
+    private volatile String threadName;
+    private long startTime;
+    private long duration;
+
+    final AtomicLong statementsExecuted = new AtomicLong();
+    final AtomicLong rowsFetched = new AtomicLong();
+    final AtomicLong rowsUpdated = new AtomicLong();
+
+    public HeadlessTaskMetrics(@NotNull String taskId, @Nullable String taskName, @Nullable String taskType) {
+        this.taskId = taskId;
+        this.taskName = taskName;
+        this.taskType = taskType;
+    }
+
+    @NotNull
+    public String getTaskId() {
+        return taskId;
+    }
+
+    @Nullable
+    public String getTaskName() {
+        return taskName;
+    }
+
+    @NotNull
+    public Status getStatus() {
+        return status;
+    }
+
+    @Nullable
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Task start time (ms). Zero if task wasn't started
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Task execution time (ms)
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    public long getStatementsExecuted() {
+        return statementsExecuted.get();
+    }
+
+    public long getRowsFetched() {
+        return rowsFetched.get();
+    }
+
+    public long getRowsUpdated() {
+        return rowsUpdated.get();
+    }
+
+    void markStarted() {
+        this.startTime = System.currentTimeMillis();
+        this.threadName = Thread.currentThread().getName();
+        this.status = Status.RUNNING;
+    }
+
+    void markFinished(@Nullable String errorMessage) {
+        this.duration = System.currentTimeMillis() - startTime;
+        this.errorMessage = errorMessage;
+        this.status = errorMessage == null ? Status.SUCCESS : Status.FAILED;
+    }
+
+    void markSkipped(@NotNull String reason) {
+        this.errorMessage = reason;
+        this.status = Status.SKIPPED;
+    }
+
+    void serialize(@NotNull JsonWriter json) throws IOException {
+        json.beginObject();
+        JSONUtils.field(json, "id", taskId);
+        JSONUtils.fieldNE(json, "name", taskName);
+        JSONUtils.fieldNE(json, "type", taskType);
+        JSONUtils.field(json, "status", status.name());
+        if (startTime > 0) {
+            JSONUtils.field(json, "startTime", startTime);
+            JSONUtils.field(json, "duration", duration);
+            JSONUtils.field(json, "thread", threadName);
+        }
+        JSONUtils.field(json, "statements", statementsExecuted.get());
+        JSONUtils.field(json, "rowsFetched", rowsFetched.get());
+        JSONUtils.field(json, "rowsUpdated", rowsUpdated.get());
+        JSONUtils.fieldNE(json, "error", errorMessage);
+        json.endObject();
+    }
+
+    @Override
+    public String toString() {
+        return taskId + " [" + status + "]";
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.headless.task;
+
+import com.google.gson.stream.JsonWriter;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.data.json.JSONUtils;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.qm.QMUtils;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
+import org.jkiss.dbeaver.model.task.DBTTask;
+import org.jkiss.dbeaver.model.task.DBTTaskExecutionListener;
+import org.jkiss.dbeaver.model.task.DBTTaskManager;
+import org.jkiss.dbeaver.model.task.DBTTaskRun;
+import org.jkiss.dbeaver.runtime.qm.DefaultExecutionHandler;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Executes project tasks according to the task graph.
+ * Tasks run in a fixed pool of worker threads. Each task starts as soon as all its dependencies
+ * have finished successfully. If some task fails then all tasks which depend on it are skipped,
+ * independent tasks are still executed.
+ */
+public class HeadlessTaskRunner {
+
+    private static final Log log = Log.getLog(HeadlessTaskRunner.class);
+
+    private static final long POLL_TIMEOUT = 100;
+
+    // Child threads (e.g. pipelined data transfer consumers) inherit current task
+    private static final InheritableThreadLocal<HeadlessTaskMetrics> CURRENT_TASK = new InheritableThreadLocal<>();
+
+    private final DBPProject project;
+    private final HeadlessTaskGraph graph;
+    private final int threadCount;
+    private final Map<String, HeadlessTaskMetrics> metrics = new LinkedHashMap<>();
+    private final Map<String, IProgressMonitor> runningMonitors = new ConcurrentHashMap<>();
+    private long startTime;
+    private long duration;
+
+    public HeadlessTaskRunner(@NotNull DBPProject project, @NotNull HeadlessTaskGraph graph, int threadCount) {
+        this.project = project;
+        this.graph = graph;
+        this.threadCount = threadCount > 0 ? threadCount : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    @NotNull
+    public Collection<HeadlessTaskMetrics> getMetrics() {
+        return metrics.values();
+    }
+
+    /**
+     * Runs all tasks of the graph. Returns true if all tasks finished successfully.
+     */
+    public boolean run(@NotNull DBRProgressMonitor monitor) throws DBException {
+        List<String> executionOrder = graph.getExecutionOrder();
+        DBTTaskManager taskManager = project.getTaskManager();
+        Map<String, DBTTask> tasks = new HashMap<>();
+        Map<String, Integer> pendingDependencies = new HashMap<>();
+        metrics.clear();
+        for (String taskId : executionOrder) {
+            DBTTask task = taskManager.getTaskById(taskId);
+            if (task == null) {
+                task = taskManager.getTaskByName(taskId);
+            }
+            if (task == null) {
+                throw new DBException("Task '" + taskId + "' not found in project '" + project.getName() + "'");
+            }
+            tasks.put(taskId, task);
+            metrics.put(taskId, new HeadlessTaskMetrics(taskId, task.getName(), task.getType().getId()));
+            pendingDependencies.put(taskId, graph.getDependencies(taskId).size());
+        }
+
+        monitor.beginTask("Run " + tasks.size() + " task(s) in " + threadCount + " thread(s)", tasks.size());
+        MetricsCollector metricsCollector = new MetricsCollector();
+        QMUtils.registerHandler(metricsCollector);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, new WorkerThreadFactory());
+        CompletionService<HeadlessTaskMetrics> completionService = new ExecutorCompletionService<>(executor);
+        startTime = System.currentTimeMillis();
+        boolean canceled = false;
+        try {
+            int runningCount = 0;
+            for (String taskId : executionOrder) {
+                if (pendingDependencies.get(taskId) == 0) {
+                    submitTask(completionService, tasks.get(taskId), metrics.get(taskId));
+                    runningCount++;
+                }
+            }
+            while (runningCount > 0) {
+                Future<HeadlessTaskMetrics> future = completionService.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                if (future == null) {
+                    if (!canceled && monitor.isCanceled()) {
+                        canceled = true;
+                        for (IProgressMonitor taskMonitor : runningMonitors.values()) {
+                            taskMonitor.setCanceled(true);
+                        }
+                    }
+                    continue;
+                }
+                runningCount--;
+                HeadlessTaskMetrics finished;
+                try {
+                    finished = future.get();
+                } catch (ExecutionException e) {
+                    // Task execution never throws errors
+                    throw new DBException("Internal task runner error", e.getCause());
+                }
+                monitor.worked(1);
+                for (String dependent : graph.getDependents(finished.getTaskId())) {
+                    if (canceled) {
+                        skipTask(dependent, "Execution canceled");
+                    } else if (finished.getStatus() != HeadlessTaskMetrics.Status.SUCCESS) {
+                        skipTask(dependent, "Dependency '" + finished.getTaskId() + "' " + finished.getStatus().name().toLowerCase(Locale.ENGLISH));
+                    } else {
+                        int pendingCount = pendingDependencies.get(dependent) - 1;
+                        pendingDependencies.put(dependent, pendingCount);
+                        HeadlessTaskMetrics dependentMetrics = metrics.get(dependent);
+                        if (pendingCount == 0 && dependentMetrics.getStatus() == HeadlessTaskMetrics.Status.PENDING) {
+                            submitTask(completionService, tasks.get(dependent), dependentMetrics);
+                            runningCount++;
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            canceled = true;
+            for (IProgressMonitor taskMonitor : runningMonitors.values()) {
+                taskMonitor.setCanceled(true);
+            }
+        } finally {
+            executor.shutdown();
+            QMUtils.unregisterHandler(metricsCollector);
+            duration = System.currentTimeMillis() - startTime;
+            monitor.done();
+        }
+
+        boolean success = !canceled;
+        for (HeadlessTaskMetrics taskMetrics : metrics.values()) {
+            if (taskMetrics.getStatus() == HeadlessTaskMetrics.Status.PENDING) {
+                taskMetrics.markSkipped("Execution canceled");
+            }
+            if (taskMetrics.getStatus() != HeadlessTaskMetrics.Status.SUCCESS) {
+                success = false;
+            }
+        }
+        return success;
+    }
+
+    private void submitTask(CompletionService<HeadlessTaskMetrics> completionService, DBTTask task, HeadlessTaskMetrics taskMetrics) {
+        completionService.submit(() -> executeTask(task, taskMetrics));
+    }
+
+    private void skipTask(@NotNull String taskId, @NotNull String reason) {
+        HeadlessTaskMetrics taskMetrics = metrics.get(taskId);
+        if (taskMetrics.getStatus() != HeadlessTaskMetrics.Status.PENDING) {
+            return;
+        }
+        log.info("Task '" + taskId + "' skipped: " + reason);
+        taskMetrics.markSkipped(reason);
+        for (String dependent : graph.getDependents(taskId)) {
+            skipTask(dependent, "Dependency '" + taskId + "' skipped");
+        }
+    }
+
+    private HeadlessTaskMetrics executeTask(@NotNull DBTTask task, @NotNull HeadlessTaskMetrics taskMetrics) {
+        IProgressMonitor taskMonitor = new NullProgressMonitor();
+        runningMonitors.put(taskMetrics.getTaskId(), taskMonitor);
+        CURRENT_TASK.set(taskMetrics);
+        taskMetrics.markStarted();
+        log.info("Task '" + task.getName() + "' started");
+
+        AtomicReference<Throwable> taskError = new AtomicReference<>();
+        try {
+            task.getProject().getTaskManager().executeTask(
+                new DefaultProgressMonitor(taskMonitor),
+                task,
+                new DBTTaskExecutionListener() {
+                    @Override
+                    public void taskStarted(@NotNull Object task) {
+                    }
+
+                    @Override
+                    public void taskFinished(@NotNull Object task, @Nullable Object result, @Nullable Throwable error) {
+                        if (error != null) {
+                            taskError.compareAndSet(null, error);
+                        }
+                    }
+
+                    @Override
+                    public void subTaskFinished(@Nullable Throwable error) {
+                        if (error != null) {
+                            taskError.compareAndSet(null, error);
+                        }
+                    }
+                },
+                Collections.emptyMap());
+        } catch (Throwable e) {
+            taskError.compareAndSet(null, e);
+        } finally {
+            CURRENT_TASK.remove();
+            runningMonitors.remove(taskMetrics.getTaskId());
+        }
+
+        String errorMessage = null;
+        Throwable error = taskError.get();
+        if (error != null) {
+            errorMessage = CommonUtils.notEmpty(error.getMessage());
+            if (errorMessage.isEmpty()) {
+                errorMessage = error.getClass().getName();
+            }
+        } else {
+            // Fatal errors (e.g. invalid task settings) are reported in the task run only
+            DBTTaskRun lastRun = task.getLastRun();
+            if (lastRun != null && !lastRun.isRunSuccess()) {
+                errorMessage = CommonUtils.toString(lastRun.getErrorMessage(), "Task failed");
+            }
+        }
+        if (errorMessage == null && taskMonitor.isCanceled()) {
+            errorMessage = "Task canceled";
+        }
+        taskMetrics.markFinished(errorMessage);
+        if (errorMessage == null) {
+            log.info("Task '" + task.getName() + "' finished in " + taskMetrics.getDuration() + "ms");
+        } else {
+            log.error("Task '" + task.getName() + "' failed: " + errorMessage);
+        }
+        return taskMetrics;
+    }
+
+    /**
+     * Writes metrics of the last run in JSON format
+     */
+    public void writeMetrics(@NotNull File metricsFile) throws IOException {
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(metricsFile), StandardCharsets.UTF_8)) {
+            writeMetrics(out);
+        }
+    }
+
+    public void writeMetrics(@NotNull Writer out) throws IOException {
+        JsonWriter json = new JsonWriter(out);
+        json.setIndent("\t");
+        json.beginObject();
+        JSONUtils.field(json, "project", project.getName());
+        JSONUtils.field(json, "threads", threadCount);
+        JSONUtils.field(json, "startTime", startTime);
+        JSONUtils.field(json, "duration", duration);
+        json.name("tasks");
+        json.beginArray();
+        for (HeadlessTaskMetrics taskMetrics : metrics.values()) {
+            taskMetrics.serialize(json);
+        }
+        json.endArray();
+        json.endObject();
+        json.flush();
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NotNull Runnable runnable) {
+            Thread thread = new Thread(runnable, "Task runner worker " + threadNumber.incrementAndGet()); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Collects statements and rows of the current task
+     */
+    private static class MetricsCollector extends DefaultExecutionHandler {
+
+        @NotNull
+        @Override
+        public String getHandlerName() {
+            return MetricsCollector.class.getName();
+        }
+
+        @Override
+        public void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error) {
+            HeadlessTaskMetrics taskMetrics = CURRENT_TASK.get();
+            if (taskMetrics != null) {
+                taskMetrics.statementsExecuted.incrementAndGet();
+                if (rows > 0) {
+                    taskMetrics.rowsUpdated.addAndGet(rows);
+                }
+            }
+        }
+
+        @Override
+        public void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount) {
+            HeadlessTaskMetrics taskMetrics = CURRENT_TASK.get();
+            if (taskMetrics != null && rowCount > 0) {
+                taskMetrics.rowsFetched.addAndGet(rowCount);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.headless.task;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.app.DBPWorkspace;
+import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
+import org.jkiss.dbeaver.registry.BaseApplicationImpl;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Headless task runner application.
+ * Runs project tasks (data transfer, SQL scripts, native tools) without UI workbench.
+ *
+ * Command line parameters:
+ * <ul>
+ *     <li>-graph &lt;file&gt; - task graph file (see {@link HeadlessTaskGraph}). Required.</li>
+ *     <li>-project &lt;name&gt; - project name. Active project by default.</li>
+ *     <li>-threads &lt;count&gt; - number of worker threads. Overrides graph file setting. Number of CPUs by default.</li>
+ *     <li>-metrics &lt;file&gt; - output file for task metrics (JSON).</li>
+ * </ul>
+ */
+public class HeadlessTaskRunnerApplication extends BaseApplicationImpl {
+
+    private static final Log log = Log.getLog(HeadlessTaskRunnerApplication.class);
+
+    public static final String ARG_GRAPH = "-graph"; //$NON-NLS-1$
+    public static final String ARG_PROJECT = "-project"; //$NON-NLS-1$
+    public static final String ARG_THREADS = "-threads"; //$NON-NLS-1$
+    public static final String ARG_METRICS = "-metrics"; //$NON-NLS-1$
+
+    private static final Integer EXIT_ERROR = 1;
+
+    @Override
+    public Object start(IApplicationContext context) {
+        String[] args = Platform.getApplicationArgs();
+        String graphFile = getArgument(args, ARG_GRAPH);
+        if (CommonUtils.isEmpty(graphFile)) {
+            System.err.println("Task graph file is not specified (" + ARG_GRAPH + " <file>)");
+            return EXIT_ERROR;
+        }
+        try {
+            HeadlessTaskGraph graph;
+            try (Reader reader = new InputStreamReader(new FileInputStream(graphFile), StandardCharsets.UTF_8)) {
+                graph = HeadlessTaskGraph.loadGraph(reader);
+            }
+            DBPProject project = getProject(getArgument(args, ARG_PROJECT));
+            int threadCount = CommonUtils.toInt(getArgument(args, ARG_THREADS), graph.getThreadCount());
+
+            HeadlessTaskRunner runner = new HeadlessTaskRunner(project, graph, threadCount);
+            boolean success = runner.run(new DefaultProgressMonitor(new NullProgressMonitor()));
+
+            String metricsFile = getArgument(args, ARG_METRICS);
+            if (!CommonUtils.isEmpty(metricsFile)) {
+                runner.writeMetrics(new File(metricsFile));
+            }
+            for (HeadlessTaskMetrics taskMetrics : runner.getMetrics()) {
+                System.out.println(taskMetrics.getTaskId() + ": " + taskMetrics.getStatus() +
+                    (taskMetrics.getStartTime() > 0 ? " (" + taskMetrics.getDuration() + "ms)" : "") +
+                    (taskMetrics.getErrorMessage() != null ? " - " + taskMetrics.getErrorMessage() : ""));
+            }
+            return success ? EXIT_OK : EXIT_ERROR;
+        } catch (Exception e) {
+            log.error("Error running tasks", e);
+            System.err.println("Error running tasks: " + e.getMessage());
+            return EXIT_ERROR;
+        }
+    }
+
+    @Override
+    public String getDefaultProjectName() {
+        return "General";
+    }
+
+    private static DBPProject getProject(String projectName) throws DBException {
+        DBPWorkspace workspace = DBWorkbench.getPlatform().getWorkspace();
+        if (CommonUtils.isEmpty(projectName)) {
+            DBPProject project = workspace.getActiveProject();
+            if (project == null) {
+                throw new DBException("No active project");
+            }
+            return project;
+        }
+        DBPProject project = workspace.getProject(projectName);
+        if (project == null) {
+            throw new DBException("Project '" + projectName + "' not found");
+        }
+        return project;
+    }
+
+    private static String getArgument(String[] args, String name) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (name.equals(args[i])) {
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
+
+}
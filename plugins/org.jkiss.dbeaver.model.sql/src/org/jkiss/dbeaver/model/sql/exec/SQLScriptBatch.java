@@ -0,0 +1,205 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.exec;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Executes a run of script DML queries as one JDBC batch.
+ *
+ * Batch is executed in a transaction (auto-commit connection) or after a savepoint (manual commit connection).
+ * If batch fails then queries executed before the first failed query are kept and everything after is rolled back,
+ * so the script may continue from the failed query one by one.
+ * Some drivers continue batch execution after an error (MySQL with continueBatchOnError, SQL Server).
+ * Queries executed after the failed one can't be undone separately, so the whole batch is rolled back then.
+ */
+public class SQLScriptBatch {
+
+    private static final Log log = Log.getLog(SQLScriptBatch.class);
+
+    @NotNull
+    private final JDBCSession session;
+    @NotNull
+    private final DBCTransactionManager txnManager;
+    @NotNull
+    private final List<String> queries;
+    private int statementTimeout;
+    private int[] updateCounts;
+    private boolean batchDisabled;
+
+    public SQLScriptBatch(@NotNull JDBCSession session, @NotNull DBCTransactionManager txnManager, @NotNull List<String> queries) {
+        this.session = session;
+        this.txnManager = txnManager;
+        this.queries = queries;
+    }
+
+    public void setStatementTimeout(int statementTimeout) {
+        this.statementTimeout = statementTimeout;
+    }
+
+    /**
+     * Update counts of executed queries
+     */
+    @Nullable
+    public int[] getUpdateCounts() {
+        return updateCounts;
+    }
+
+    /**
+     * Batches can't be used in this session (transaction can't be started or driver continues after errors)
+     */
+    public boolean isBatchDisabled() {
+        return batchDisabled;
+    }
+
+    /**
+     * Executes batch.
+     * Returns the number of queries (from the batch start) which were executed and kept. It is the batch size if batch succeeded.
+     * @param statementTracker receives the running statement (and null after execution), so it can be canceled
+     */
+    public int execute(@Nullable Consumer<DBCStatement> statementTracker) throws DBCException {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        final boolean autoCommit = txnManager.isAutoCommit();
+        DBCSavepoint savepoint = null;
+        try {
+            if (autoCommit) {
+                txnManager.setAutoCommit(monitor, false);
+            } else {
+                savepoint = txnManager.setSavepoint(monitor, null);
+            }
+        } catch (DBCException e) {
+            log.debug("Can't start transaction for statements batch. Batch execution disabled", e);
+            batchDisabled = true;
+            if (autoCommit && !txnManager.isAutoCommit()) {
+                txnManager.setAutoCommit(monitor, true);
+            }
+            return 0;
+        }
+
+        int executedCount;
+        StringBuilder batchText = new StringBuilder();
+        for (String query : queries) {
+            if (batchText.length() > 0) batchText.append(";\n");
+            batchText.append(query);
+        }
+        try (JDBCStatement dbStat = session.prepareStatement(DBCStatementType.SCRIPT, batchText.toString(), false, false, false)) {
+            if (statementTracker != null) {
+                statementTracker.accept(dbStat);
+            }
+            if (statementTimeout > 0) {
+                try {
+                    dbStat.setStatementTimeout(statementTimeout);
+                } catch (Throwable e) {
+                    log.debug("Can't set statement timeout:" + e.getMessage());
+                }
+            }
+            for (String query : queries) {
+                dbStat.addBatch(query);
+            }
+            updateCounts = dbStat.executeBatch();
+            executedCount = getExecutedCount(updateCounts, queries.size(), false);
+        } catch (Throwable e) {
+            Throwable batchError = e;
+            while (batchError != null && !(batchError instanceof BatchUpdateException)) {
+                batchError = batchError.getCause();
+            }
+            updateCounts = batchError == null ? null : ((BatchUpdateException) batchError).getUpdateCounts();
+            executedCount = getExecutedCount(updateCounts, queries.size(), true);
+            log.debug("Query " + (Math.max(executedCount, 0) + 1) + " of batch failed: " + e.getMessage());
+        } finally {
+            if (statementTracker != null) {
+                statementTracker.accept(null);
+            }
+        }
+        if (executedCount < 0) {
+            log.debug("Driver continued batch execution after the failed query. Batch is rolled back, batch execution disabled");
+            batchDisabled = true;
+            executedCount = 0;
+        }
+
+        try {
+            if (executedCount > 0) {
+                try {
+                    if (autoCommit) {
+                        txnManager.commit(session);
+                    } else {
+                        txnManager.releaseSavepoint(monitor, savepoint);
+                    }
+                } catch (Throwable e) {
+                    if (executedCount == queries.size() && !autoCommit) {
+                        // Some drivers do not support explicit savepoint release
+                        log.debug("Can't release savepoint", e);
+                    } else {
+                        // Transaction is probably aborted by the failed query
+                        log.debug("Can't keep queries of statements batch", e);
+                        executedCount = 0;
+                    }
+                }
+            }
+            if (executedCount == 0) {
+                txnManager.rollback(session, savepoint);
+            }
+        } catch (DBCException e) {
+            // The whole transaction may be already rolled back (see ModelPreferences.QUERY_ROLLBACK_ON_ERROR)
+            log.debug("Error rolling back statements batch", e);
+        } finally {
+            if (autoCommit) {
+                txnManager.setAutoCommit(monitor, true);
+            }
+        }
+        return executedCount;
+    }
+
+    /**
+     * Returns the number of leading queries which were executed successfully.
+     * Returns -1 if driver executed queries after the failed one.
+     * @param failed batch execution thrown an error
+     */
+    private static int getExecutedCount(@Nullable int[] updateCounts, int batchSize, boolean failed) {
+        if (updateCounts == null) {
+            return 0;
+        }
+        int failedQuery = updateCounts.length;
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                failedQuery = i;
+                break;
+            }
+        }
+        if (failedQuery < updateCounts.length - 1) {
+            // There are results after the failed query
+            return -1;
+        }
+        if (failedQuery >= batchSize) {
+            // All queries succeeded. But batch could still fail (e.g. on commit)
+            return failed ? 0 : batchSize;
+        }
+        return failedQuery;
+    }
+
+}
@@ -21,6 +21,7 @@ import org.jkiss.dbeaver.model.DBPKeywordType;
 import org.jkiss.dbeaver.model.sql.format.SQLFormatterConfiguration;
 import org.jkiss.dbeaver.model.text.parser.rules.NumberRule;
 import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CharTrie;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.*;
@@ -39,7 +40,8 @@ class SQLTokensParser {
     private int fPos;
     private char structSeparator;
     private String catalogSeparator;
-    private Set<String> commands = new HashSet<>();
+    private final CharTrie<Boolean> commands = new CharTrie<>();
+    private final CharTrie<DBPKeywordType> keywords;
     private String[] singleLineComments;
     private char[] singleLineCommentStart;
 
@@ -48,6 +50,7 @@ class SQLTokensParser {
         this.structSeparator = configuration.getSyntaxManager().getStructSeparator();
         this.catalogSeparator = configuration.getSyntaxManager().getCatalogSeparator();
         this.quoteStrings = configuration.getSyntaxManager().getIdentifierQuoteStrings();
+        this.keywords = configuration.getSyntaxManager().getKeywordTrie();
         this.singleLineComments = configuration.getSyntaxManager().getDialect().getSingleLineComments();
         this.singleLineCommentStart = new char[this.singleLineComments.length];
         for (int i = 0; i < singleLineComments.length; i++) {
@@ -57,7 +60,7 @@ class SQLTokensParser {
 
         String delimiterRedefiner = configuration.getSyntaxManager().getDialect().getScriptDelimiterRedefiner();
         if (!CommonUtils.isEmpty(delimiterRedefiner)) {
-            commands.add(delimiterRedefiner.toUpperCase(Locale.ENGLISH));
+            commands.put(delimiterRedefiner, Boolean.TRUE);
         }
     }
 
@@ -190,7 +193,7 @@ class SQLTokensParser {
                 fChar = fBefore.charAt(fPos);
             }
             String word = s.toString();
-            if (commands.contains(word.toUpperCase(Locale.ENGLISH))) {
+            if (commands.containsKey(word)) {
                 s.setLength(0);
                 for (; fPos < fBefore.length(); fPos++) {
                     fChar = fBefore.charAt(fPos);
@@ -202,7 +205,7 @@ class SQLTokensParser {
                 }
                 return new FormatterToken(TokenType.COMMAND, word + s.toString(), start_pos);
             }
-            if (configuration.getSyntaxManager().getDialect().getKeywordType(word) == DBPKeywordType.KEYWORD) {
+            if (keywords.get(word) == DBPKeywordType.KEYWORD) {
                 return new FormatterToken(TokenType.KEYWORD, word, start_pos);
             }
             return new FormatterToken(TokenType.NAME, word, start_pos);
@@ -44,6 +44,7 @@ public class SQLParserContext {
     @NotNull
     private final IDocument document;
     private TPRuleBasedScanner scanner;
+    private SQLScriptParseCache parseCache;
 
     public SQLParserContext(@NotNull DBPContextProvider contextProvider, @NotNull SQLSyntaxManager syntaxManager, @NotNull SQLRuleManager ruleManager, @NotNull IDocument document) {
         this.contextProvider = contextProvider;
@@ -92,6 +93,23 @@ public class SQLParserContext {
             dataSource.getContainer().getPreferenceStore();
     }
 
+    synchronized SQLScriptParseCache getParseCache() {
+        if (parseCache == null) {
+            parseCache = new SQLScriptParseCache(document);
+        }
+        return parseCache;
+    }
+
+    /**
+     * Releases parsed script cache. Context can be used after dispose, but it will parse scripts from scratch.
+     */
+    public synchronized void dispose() {
+        if (parseCache != null) {
+            parseCache.dispose();
+            parseCache = null;
+        }
+    }
+
     void startScriptEvaluation() {
         getScanner().startEval();
     }
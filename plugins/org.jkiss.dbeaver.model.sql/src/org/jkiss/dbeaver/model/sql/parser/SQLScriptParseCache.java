@@ -0,0 +1,226 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.sql.SQLControlCommand;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statement boundaries of the last parsed script.
+ * Tracks document changes, so the next parse rescans only the changed region.
+ * Statements before the change and statements in the unchanged document tail are reused.
+ *
+ * Scripts with control commands are always parsed from scratch: commands
+ * (e.g. delimiter change) affect parsing of all following statements.
+ */
+class SQLScriptParseCache implements IDocumentListener {
+
+    private final IDocument document;
+    // Parsed scripts for each combination of scriptMode/keepDelimiters flags
+    private final ParsedScript[] scripts = new ParsedScript[4];
+
+    SQLScriptParseCache(@NotNull IDocument document) {
+        this.document = document;
+        this.document.addDocumentListener(this);
+    }
+
+    void dispose() {
+        document.removeDocumentListener(this);
+        synchronized (this) {
+            for (int i = 0; i < scripts.length; i++) {
+                scripts[i] = null;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void documentAboutToBeChanged(DocumentEvent event) {
+        int documentLength = event.getDocument().getLength();
+        int textLength = event.getText() == null ? 0 : event.getText().length();
+        for (ParsedScript script : scripts) {
+            if (script != null) {
+                script.addChange(event.getOffset(), event.getLength(), textLength, documentLength);
+            }
+        }
+    }
+
+    @Override
+    public void documentChanged(DocumentEvent event) {
+        // Changes are tracked before document modification
+    }
+
+    /**
+     * Parses the whole document. Must be called in script evaluation mode.
+     */
+    @NotNull
+    List<SQLScriptElement> parseScript(@NotNull SQLParserContext context, boolean scriptMode, boolean keepDelimiters) {
+        int index = (scriptMode ? 1 : 0) | (keepDelimiters ? 2 : 0);
+        SQLDialect dialect = context.getDialect();
+        int documentLength = document.getLength();
+
+        ParsedScript prevScript;
+        ParsedScript newScript = new ParsedScript(dialect, documentLength);
+        synchronized (this) {
+            // Take previous script out. Changes made during parse are recorded in the new one
+            prevScript = scripts[index];
+            scripts[index] = newScript;
+        }
+        if (prevScript != null && !prevScript.isReusable(dialect, documentLength)) {
+            prevScript = null;
+        }
+
+        List<SQLScriptElement> elements = new ArrayList<>();
+        List<ScriptEntry> entries = new ArrayList<>(prevScript == null ? 16 : prevScript.entries.size() + 16);
+        int parseOffset = 0;
+        int resumeIndex = 0;
+        int tailStart = documentLength;
+        if (prevScript != null) {
+            List<ScriptEntry> prevEntries = prevScript.entries;
+            if (prevScript.changeStart < 0) {
+                // Nothing has changed
+                parseOffset = documentLength;
+                resumeIndex = prevEntries.size();
+                entries.addAll(prevEntries);
+            } else {
+                // Keep statements which end before the change. The last of them is rescanned
+                // because its end may depend on the following text (e.g. missing delimiter)
+                int keepCount = 0;
+                while (keepCount < prevEntries.size() && prevEntries.get(keepCount).getEnd() < prevScript.changeStart) {
+                    keepCount++;
+                }
+                if (keepCount > 0) {
+                    keepCount--;
+                }
+                entries.addAll(prevEntries.subList(0, keepCount));
+                parseOffset = keepCount == 0 ? 0 : prevEntries.get(keepCount - 1).getEnd();
+                resumeIndex = keepCount;
+                tailStart = documentLength - prevScript.unchangedTail;
+            }
+            for (ScriptEntry entry : entries) {
+                elements.add(entry.createElement(context));
+            }
+        }
+
+        boolean cacheable = true;
+        for (; ; ) {
+            if (prevScript != null && parseOffset >= tailStart) {
+                // Parse position is in the unchanged tail. If it is an old statement boundary then
+                // all following statements are the same (just shifted)
+                int oldOffset = parseOffset - prevScript.lengthDelta;
+                List<ScriptEntry> prevEntries = prevScript.entries;
+                while (resumeIndex < prevEntries.size() && prevEntries.get(resumeIndex).getEnd() < oldOffset) {
+                    resumeIndex++;
+                }
+                if (resumeIndex < prevEntries.size() && prevEntries.get(resumeIndex).getEnd() == oldOffset) {
+                    for (int i = resumeIndex + 1; i < prevEntries.size(); i++) {
+                        ScriptEntry entry = prevEntries.get(i);
+                        entry.offset += prevScript.lengthDelta;
+                        entries.add(entry);
+                        elements.add(entry.createElement(context));
+                    }
+                    break;
+                }
+            }
+            if (parseOffset >= documentLength) {
+                break;
+            }
+            SQLScriptElement element = SQLScriptParser.parseQuery(
+                context, parseOffset, documentLength, parseOffset, scriptMode, keepDelimiters);
+            if (element == null) {
+                break;
+            }
+            elements.add(element);
+            if (element instanceof SQLControlCommand) {
+                // Parse the rest of script from scratch
+                cacheable = false;
+                prevScript = null;
+            } else {
+                entries.add(new ScriptEntry(element));
+            }
+            parseOffset = element.getOffset() + element.getLength();
+        }
+
+        synchronized (this) {
+            if (scripts[index] == newScript) {
+                if (cacheable && newScript.changeStart < 0) {
+                    newScript.entries = entries;
+                } else {
+                    // Document was changed during parse or script can't be parsed incrementally
+                    scripts[index] = null;
+                }
+            }
+        }
+        return elements;
+    }
+
+    private static class ParsedScript {
+        private final SQLDialect dialect;
+        private final int documentLength;
+        private List<ScriptEntry> entries;
+        // Document changes since parse
+        private int changeStart = -1;
+        private int unchangedTail;
+        private int lengthDelta;
+
+        ParsedScript(SQLDialect dialect, int documentLength) {
+            this.dialect = dialect;
+            this.documentLength = documentLength;
+            this.unchangedTail = documentLength;
+        }
+
+        boolean isReusable(SQLDialect dialect, int documentLength) {
+            return entries != null && this.dialect == dialect && this.documentLength + lengthDelta == documentLength;
+        }
+
+        void addChange(int offset, int removedLength, int textLength, int documentLength) {
+            changeStart = changeStart < 0 ? offset : Math.min(changeStart, offset);
+            unchangedTail = Math.min(unchangedTail, documentLength - offset - removedLength);
+            lengthDelta += textLength - removedLength;
+        }
+    }
+
+    private static class ScriptEntry {
+        private final String text;
+        private final int length;
+        private int offset;
+
+        ScriptEntry(SQLScriptElement element) {
+            this.text = element.getOriginalText();
+            this.offset = element.getOffset();
+            this.length = element.getLength();
+        }
+
+        int getEnd() {
+            return offset + length;
+        }
+
+        SQLScriptElement createElement(SQLParserContext context) {
+            // Queries are mutable (parameters, data) so each parse gets its own copy
+            return new SQLQuery(context.getDataSource(), text, offset, length);
+        }
+    }
+
+}
@@ -707,14 +707,19 @@ public class SQLScriptParser
 
         parserContext.startScriptEvaluation();
         try {
-            for (int queryOffset = startOffset; ; ) {
-                SQLScriptElement query = parseQuery(
-                    parserContext, queryOffset, startOffset + length, queryOffset, scriptMode, keepDelimiters);
-                if (query == null) {
-                    break;
+            if (startOffset == 0 && length == document.getLength()) {
+                // Whole script. Reuse statements which weren't changed since the last parse
+                queryList.addAll(parserContext.getParseCache().parseScript(parserContext, scriptMode, keepDelimiters));
+            } else {
+                for (int queryOffset = startOffset; ; ) {
+                    SQLScriptElement query = parseQuery(
+                        parserContext, queryOffset, startOffset + length, queryOffset, scriptMode, keepDelimiters);
+                    if (query == null) {
+                        break;
+                    }
+                    queryList.add(query);
+                    queryOffset = query.getOffset() + query.getLength();
                 }
-                queryList.add(query);
-                queryOffset = query.getOffset() + query.getLength();
             }
         } finally {
             parserContext.endScriptEvaluation();
@@ -20,24 +20,21 @@ import org.jkiss.dbeaver.model.text.parser.TPCharacterScanner;
 import org.jkiss.dbeaver.model.text.parser.TPRule;
 import org.jkiss.dbeaver.model.text.parser.TPToken;
 import org.jkiss.dbeaver.model.text.parser.TPTokenAbstract;
-
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import org.jkiss.utils.CharTrie;
 
 
 /**
- * Smart word detector
+ * Smart word detector.
+ * Words are read into reusable char buffer and looked up in the case-insensitive trie (no string allocations).
  */
 public class SQLWordRule implements TPRule {
 
     private SQLDelimiterRule delimRule;
     private TPToken functionToken;
     private TPToken defaultToken;
-    private Map<String, TPToken> words = new HashMap<>();
-    private Set<String> functions = new HashSet<>();
-    private StringBuilder buffer = new StringBuilder();
+    private final CharTrie<WordInfo> words = new CharTrie<>();
+    private char[] buffer = new char[64];
+    private int bufferLength;
     private char[][] delimiters;
 
     public SQLWordRule(SQLDelimiterRule delimRule, TPToken functionToken, TPToken defaultToken) {
@@ -47,39 +44,50 @@ public class SQLWordRule implements TPRule {
     }
 
     public boolean hasWord(String word) {
-        return words.containsKey(word.toLowerCase());
+        WordInfo wordInfo = words.get(word);
+        return wordInfo != null && wordInfo.token != null;
     }
 
     public void addWord(String word, TPToken token) {
-        words.put(word.toLowerCase(), token);
+        getWordInfo(word).token = token;
     }
 
     public boolean hasFunction(String function) {
-        return functions.contains(function);
+        WordInfo wordInfo = words.get(function);
+        return wordInfo != null && wordInfo.function;
     }
 
     public void addFunction(String function) {
-        functions.add(function.toLowerCase());
+        getWordInfo(function).function = true;
+    }
+
+    private WordInfo getWordInfo(String word) {
+        WordInfo wordInfo = words.get(word);
+        if (wordInfo == null) {
+            wordInfo = new WordInfo();
+            words.put(word, wordInfo);
+        }
+        return wordInfo;
     }
 
     @Override
     public TPToken evaluate(TPCharacterScanner scanner) {
         int c = scanner.read();
         if (c != TPCharacterScanner.EOF && Character.isUnicodeIdentifierStart(c)) {
-            buffer.setLength(0);
+            bufferLength = 0;
             delimiters = delimRule.getDelimiters();
             char prevC;
             do {
                 prevC = (char)c;
-                buffer.append((char) c);
+                appendChar((char) c);
                 c = scanner.read();
             } while (c != TPCharacterScanner.EOF && isWordPart((char) c, prevC, scanner));
             scanner.unread();
 
-            String buffer = this.buffer.toString().toLowerCase();
-            TPToken token = words.get(buffer);
+            WordInfo wordInfo = words.get(buffer, 0, bufferLength);
+            TPToken token = wordInfo == null ? null : wordInfo.token;
 
-            if (functions.contains(buffer)) {
+            if (wordInfo != null && wordInfo.function) {
                 int length = 0;
                 while (c != TPCharacterScanner.EOF && Character.isWhitespace(c)) {
                     c = scanner.read();
@@ -107,6 +115,15 @@ public class SQLWordRule implements TPRule {
         return TPTokenAbstract.UNDEFINED;
     }
 
+    private void appendChar(char c) {
+        if (bufferLength == buffer.length) {
+            char[] newBuffer = new char[buffer.length * 2];
+            System.arraycopy(buffer, 0, newBuffer, 0, bufferLength);
+            buffer = newBuffer;
+        }
+        buffer[bufferLength++] = c;
+    }
+
     private boolean isWordPart(char c, char prevC, TPCharacterScanner scanner) {
         if (!Character.isUnicodeIdentifierPart(c) && c != '$') {
             return false;
@@ -114,7 +131,7 @@ public class SQLWordRule implements TPRule {
         if (c == '$' && prevC == '$') {
             // Double dollar. Prev dollar is also wrong char
             scanner.unread();
-            buffer.setLength(buffer.length() - 1);
+            bufferLength--;
             return false;
         }
         // Check for delimiter
@@ -149,9 +166,14 @@ public class SQLWordRule implements TPRule {
     }
 
     private void unreadBuffer(TPCharacterScanner scanner) {
-        for (int i = buffer.length() - 1; i >= 0; i--) {
+        for (int i = bufferLength - 1; i >= 0; i--) {
             scanner.unread();
         }
     }
 
+    private static class WordInfo {
+        private TPToken token;
+        private boolean function;
+    }
+
 }
@@ -20,11 +20,15 @@ package org.jkiss.dbeaver.model.text.parser;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.jkiss.dbeaver.model.sql.parser.rules.SQLDelimiterRule;
 
 
 /**
- * Rule based text scanner
+ * Rule based text scanner.
+ *
+ * Big ranges are read from the document text snapshot (char sequence) instead of
+ * per-character document access. Snapshot is reused while document modification stamp is the same.
  */
 public class TPRuleBasedScanner implements TPCharacterScanner, TPTokenScanner, TPEvalScanner {
 
@@ -46,6 +50,15 @@ public class TPRuleBasedScanner implements TPCharacterScanner, TPTokenScanner, T
 	private int fColumn;
 	/** Internal setting for the un-initialized column cache. */
 	private static final int UNDEFINED= -1;
+	/** Minimal range length which is read from the document text snapshot */
+	private static final int SNAPSHOT_MIN_LENGTH= 4096;
+
+	/** The text of the document to be scanned. Null if characters are read from the document */
+	private CharSequence fText;
+	/** The document text snapshot and its modification stamp */
+	private IDocument fSnapshotDocument;
+	private String fSnapshot;
+	private long fSnapshotStamp;
 
 	private boolean evalMode;
 
@@ -92,20 +105,47 @@ public class TPRuleBasedScanner implements TPCharacterScanner, TPTokenScanner, T
 		}
 		checkRange(offset, length, documentLength);
 
+		if (document != fDocument || fDelimiters == null) {
+			String[] delimiters= document.getLegalLineDelimiters();
+			fDelimiters= new char[delimiters.length][];
+			for (int i= 0; i < delimiters.length; i++)
+				fDelimiters[i]= delimiters[i].toCharArray();
+		}
+
 		fDocument= document;
+		fText= getDocumentText(document, length);
 		fOffset= offset;
 		fColumn= UNDEFINED;
 		fRangeEnd= offset + length;
 
-		String[] delimiters= fDocument.getLegalLineDelimiters();
-		fDelimiters= new char[delimiters.length][];
-		for (int i= 0; i < delimiters.length; i++)
-			fDelimiters[i]= delimiters[i].toCharArray();
-
 		if (fDefaultReturnToken == null)
 			fDefaultReturnToken= TPTokenAbstract.UNDEFINED;
 	}
 
+	/**
+	 * Returns document text snapshot if it is up to date or if the range is big enough to make one.
+	 * Small ranges (e.g. current statement) are read from the document directly.
+	 */
+	private CharSequence getDocumentText(IDocument document, int length) {
+		if (!(document instanceof IDocumentExtension4)) {
+			return null;
+		}
+		long stamp= ((IDocumentExtension4) document).getModificationStamp();
+		if (stamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP) {
+			return null;
+		}
+		if (document == fSnapshotDocument && stamp == fSnapshotStamp) {
+			return fSnapshot;
+		}
+		if (length < SNAPSHOT_MIN_LENGTH) {
+			return null;
+		}
+		fSnapshot= document.get();
+		fSnapshotDocument= document;
+		fSnapshotStamp= stamp;
+		return fSnapshot;
+	}
+
 	/**
 	 * Checks that the given range is valid.
 	 * See https://bugs.eclipse.org/bugs/show_bug.cgi?id=69292
@@ -179,6 +219,9 @@ public class TPRuleBasedScanner implements TPCharacterScanner, TPTokenScanner, T
 		try {
 
 			if (fOffset < fRangeEnd) {
+				if (fText != null) {
+					return fText.charAt(fOffset);
+				}
 				try {
 					return fDocument.getChar(fOffset);
 				} catch (BadLocationException e) {
@@ -466,6 +466,37 @@ public final class DBUtils {
         return null;
     }
 
+    /**
+     * Caches structure of parent containers which own many of the specified objects.
+     * Container-wide metadata read takes a few queries while per-object reads take a query (or more) for each object.
+     * Containers with less objects than the prefetch threshold are skipped.
+     */
+    public static void cacheParentStructure(@NotNull DBRProgressMonitor monitor, @NotNull Collection<? extends DBSObject> objects, int scope)
+        throws DBException
+    {
+        Map<DBSObjectContainer, Integer> containerObjects = new LinkedHashMap<>();
+        for (DBSObject object : objects) {
+            DBSObjectContainer container = getParentOfType(DBSObjectContainer.class, object);
+            if (container != null) {
+                containerObjects.merge(container, 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<DBSObjectContainer, Integer> entry : containerObjects.entrySet()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            DBSObjectContainer container = entry.getKey();
+            DBPDataSource dataSource = container.getDataSource();
+            if (dataSource == null) {
+                continue;
+            }
+            int threshold = dataSource.getContainer().getPreferenceStore().getInt(ModelPreferences.META_CHILDREN_PREFETCH_THRESHOLD);
+            if (threshold > 0 && entry.getValue() >= threshold) {
+                container.cacheStructure(monitor, scope);
+            }
+        }
+    }
+
     /**
      * Search for virtual entity descriptor
      * @param object object
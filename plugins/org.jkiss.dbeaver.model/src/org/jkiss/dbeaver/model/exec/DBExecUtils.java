@@ -603,6 +603,22 @@ public class DBExecUtils {
         @Nullable DBCResultSet resultSet,
         @NotNull DBDAttributeBinding[] bindings,
         @Nullable List<Object[]> rows) throws DBException
+    {
+        bindAttributes(session, sourceEntity, resultSet, bindings, rows, true);
+    }
+
+    /**
+     * Binds attributes to entity attributes and fixes already fetched rows.
+     * @param lateBinding resolve nested bindings and transformers from rows. If rows are not fetched completely
+     *                    then it can be skipped and {@link #lateBindAttributes} called for all rows later.
+     */
+    public static void bindAttributes(
+        @NotNull DBCSession session,
+        @Nullable DBSEntity sourceEntity,
+        @Nullable DBCResultSet resultSet,
+        @NotNull DBDAttributeBinding[] bindings,
+        @Nullable List<Object[]> rows,
+        boolean lateBinding) throws DBException
     {
         final DBRProgressMonitor monitor = session.getProgressMonitor();
         final DBPDataSource dataSource = session.getDataSource();
@@ -794,7 +810,7 @@ public class DBExecUtils {
                 monitor.worked(1);
             }
 
-            if (readMetaData && readReferences && rows != null) {
+            if (lateBinding && readMetaData && readReferences && rows != null) {
                 monitor.subTask("Read results metadata");
                 // Read nested bindings
                 for (DBDAttributeBinding binding : bindings) {
@@ -821,6 +837,27 @@ public class DBExecUtils {
         }
     }
 
+    /**
+     * Resolves nested bindings and transformers from all fetched rows.
+     * Used when rows were not available during {@link #bindAttributes}.
+     */
+    public static void lateBindAttributes(
+        @NotNull DBCSession session,
+        @NotNull DBDAttributeBinding[] bindings,
+        @NotNull List<Object[]> rows) throws DBException
+    {
+        DBPPreferenceStore preferenceStore = session.getDataSource().getContainer().getPreferenceStore();
+        if (!preferenceStore.getBoolean(ModelPreferences.RESULT_SET_READ_METADATA) ||
+            !preferenceStore.getBoolean(ModelPreferences.RESULT_SET_READ_REFERENCES)) {
+            return;
+        }
+        final DBRProgressMonitor monitor = session.getProgressMonitor();
+        monitor.subTask("Read results metadata");
+        for (DBDAttributeBinding binding : bindings) {
+            binding.lateBinding(session, rows);
+        }
+    }
+
     public static boolean isAttributeReadOnly(@NotNull DBDAttributeBinding attribute) {
         if (attribute == null || attribute.getMetaAttribute() == null || attribute.getMetaAttribute().isReadOnly()) {
             return true;
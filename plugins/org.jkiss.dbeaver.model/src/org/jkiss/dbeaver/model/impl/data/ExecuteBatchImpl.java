@@ -27,6 +27,7 @@ import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.model.edit.DBEPersistAction;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.edit.SQLDatabasePersistAction;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
 import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
@@ -108,7 +109,13 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
             }
         }
 
-        boolean useBatch = session.getDataSource().getInfo().supportsBatchUpdates() && reuseStatement && !CommonUtils.toBoolean(options.get(DBSDataManipulator.OPTION_DISABLE_BATCHES));
+        boolean disableBatches = CommonUtils.toBoolean(options.get(DBSDataManipulator.OPTION_DISABLE_BATCHES));
+        int multiRowCount = CommonUtils.toInt(options.get(DBSDataManipulator.OPTION_MULTI_ROW_INSERT));
+        if (actions == null && !disableBatches && multiRowCount > 1 && values.size() > 1 && supportsMultiRowStatements(session, handlers)) {
+            return processMultiRowBatch(session, handlers, options, multiRowCount);
+        }
+
+        boolean useBatch = session.getDataSource().getInfo().supportsBatchUpdates() && reuseStatement && !disableBatches;
         if (values.size() <= 1) {
             useBatch = false;
         }
@@ -220,6 +227,114 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         return statistics;
     }
 
+    /**
+     * Executes batch with statements which insert several rows at once.
+     * Consecutive rows with the same null values are grouped in one statement.
+     * Number of rows in statement is limited by dialect's max parameters number and max query length.
+     */
+    @NotNull
+    private DBCStatistics processMultiRowBatch(@NotNull DBCSession session, @NotNull DBDValueHandler[] handlers, Map<String, Object> options, int maxRows) throws DBCException
+    {
+        SQLDialect dialect = SQLUtils.getDialectFromDataSource(session.getDataSource());
+        int paramsPerRow = 0;
+        for (DBSAttributeBase attribute : attributes) {
+            if (!DBUtils.isPseudoAttribute(attribute)) {
+                paramsPerRow++;
+            }
+        }
+        int maxParameters = dialect.getMaxQueryParameters();
+        if (maxParameters > 0 && paramsPerRow > 0) {
+            maxRows = Math.max(1, Math.min(maxRows, maxParameters / paramsPerRow));
+        }
+        int maxLength = dialect.getMaxQueryLength();
+
+        DBCStatistics statistics = new DBCStatistics();
+        DBCStatement statement = null;
+        boolean[] statementNulls = null;
+        int statementRows = 0;
+        int rowIndex = 0;
+        try {
+            while (rowIndex < values.size()) {
+                if (session.getProgressMonitor().isCanceled()) {
+                    break;
+                }
+                boolean[] nulls = getNullValues(values.get(rowIndex));
+                int chunkEnd = rowIndex + 1;
+                long chunkLength = estimateRowLength(values.get(rowIndex));
+                while (chunkEnd < values.size() && chunkEnd - rowIndex < maxRows) {
+                    Object[] rowValues = values.get(chunkEnd);
+                    if (!Arrays.equals(nulls, getNullValues(rowValues))) {
+                        break;
+                    }
+                    long rowLength = estimateRowLength(rowValues);
+                    if (maxLength > 0 && chunkLength + rowLength > maxLength) {
+                        break;
+                    }
+                    chunkLength += rowLength;
+                    chunkEnd++;
+                }
+                List<Object[]> rows = values.subList(rowIndex, chunkEnd);
+                if (statement == null || statementRows != rows.size() || !Arrays.equals(statementNulls, nulls)) {
+                    // Statement text depends on nulls and rows number. Reuse it while they are the same
+                    if (statement != null) {
+                        statement.close();
+                        statement = null;
+                    }
+                    statement = prepareMultiRowStatement(session, handlers, rows, options);
+                    statementNulls = nulls;
+                    statementRows = rows.size();
+                    statistics.setQueryText(statement.getQueryString());
+                    statistics.addStatementsCount();
+                }
+                bindMultiRowStatement(handlers, statement, rows);
+
+                long startTime = System.currentTimeMillis();
+                executeStatement(statistics, statement);
+                statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+
+                long rowCount = statement.getUpdateRowCount();
+                if (rowCount > 0) {
+                    statistics.addRowsUpdated(rowCount);
+                }
+                rowIndex = chunkEnd;
+            }
+        } finally {
+            if (statement != null) {
+                statement.close();
+            }
+            // Keep failed rows for retry
+            values.subList(0, rowIndex).clear();
+        }
+        values.clear();
+
+        return statistics;
+    }
+
+    private boolean[] getNullValues(Object[] rowValues) {
+        boolean[] nulls = new boolean[rowValues.length];
+        for (int i = 0; i < rowValues.length; i++) {
+            nulls[i] = DBUtils.isNullValue(rowValues[i]);
+        }
+        return nulls;
+    }
+
+    /**
+     * Approximate length of row in statement text. Some drivers inline parameters so values are counted too.
+     */
+    private static long estimateRowLength(Object[] rowValues) {
+        long length = 3;
+        for (Object value : rowValues) {
+            if (value instanceof CharSequence) {
+                length += ((CharSequence) value).length() + 3;
+            } else if (value instanceof byte[]) {
+                length += ((byte[]) value).length * 2L + 4;
+            } else {
+                length += 20;
+            }
+        }
+        return length;
+    }
+
     protected int getNextUsedParamIndex(Object[] attributeValues, int paramIndex) {
         return paramIndex + 1;
     }
@@ -355,5 +470,22 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
 
     protected abstract void bindStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues) throws DBCException;
 
+    /**
+     * Returns true if batch can process several rows with a single statement.
+     * All rows passed to such statement have the same null values.
+     */
+    protected boolean supportsMultiRowStatements(@NotNull DBCSession session, @NotNull DBDValueHandler[] handlers) {
+        return false;
+    }
+
+    @NotNull
+    protected DBCStatement prepareMultiRowStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, List<Object[]> rows, Map<String, Object> options) throws DBCException {
+        throw new DBCException("Multi-row statements are not supported");
+    }
+
+    protected void bindMultiRowStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, List<Object[]> rows) throws DBCException {
+        throw new DBCException("Multi-row statements are not supported");
+    }
+
 
 }
@@ -32,6 +32,8 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCDatabaseMetaData;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCFactory;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataSnapshot;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCObjectNameIndex;
 import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCConnectionImpl;
 import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCFactoryDefault;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
@@ -77,6 +79,8 @@ public abstract class JDBCDataSource
     protected final SQLDialect sqlDialect;
     protected final JDBCFactory jdbcFactory;
     private JDBCRemoteInstance defaultRemoteInstance;
+    private JDBCMetadataSnapshot metadataSnapshot;
+    private final JDBCObjectNameIndex objectNameIndex = new JDBCObjectNameIndex();
 
     private int databaseMajorVersion;
     private int databaseMinorVersion;
@@ -386,9 +390,45 @@ public abstract class JDBCDataSource
             Collections.singletonList(defaultInstance);
     }
 
+    /**
+     * Returns index of cached object names. It is used for object search
+     */
+    @NotNull
+    public JDBCObjectNameIndex getObjectNameIndex()
+    {
+        return objectNameIndex;
+    }
+
+    /**
+     * Returns metadata snapshot if data source supports it and snapshots are enabled in connection preferences
+     */
+    @Nullable
+    public synchronized JDBCMetadataSnapshot getMetadataSnapshot()
+    {
+        if (metadataSnapshot == null) {
+            if (!(this instanceof JDBCMetadataSnapshotProvider) ||
+                !getContainer().getPreferenceStore().getBoolean(ModelPreferences.META_SNAPSHOT_ENABLED))
+            {
+                return null;
+            }
+            metadataSnapshot = new JDBCMetadataSnapshot(
+                (JDBCMetadataSnapshotProvider) this,
+                JDBCMetadataSnapshot.getSnapshotFile(getContainer()));
+        }
+        return metadataSnapshot;
+    }
+
     @Override
     public void shutdown(DBRProgressMonitor monitor)
     {
+        synchronized (this) {
+            if (metadataSnapshot != null) {
+                monitor.subTask("Save metadata snapshot");
+                metadataSnapshot.close();
+                metadataSnapshot = null;
+            }
+        }
+        objectNameIndex.clear();
         for (JDBCRemoteInstance instance : getAvailableInstances()) {
             Object exclusiveLock = instance.getExclusiveLock().acquireExclusiveLock();
             try {
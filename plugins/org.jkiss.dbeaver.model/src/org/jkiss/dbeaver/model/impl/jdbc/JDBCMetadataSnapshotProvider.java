@@ -0,0 +1,55 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+
+import java.sql.SQLException;
+
+/**
+ * JDBC data source which supports persistent metadata snapshots.
+ * Metadata read by object caches is saved locally and reused in the next sessions
+ * while the DDL change token of cache owner remains the same.
+ */
+public interface JDBCMetadataSnapshotProvider {
+
+    /**
+     * Reads token which changes on any DDL change of owner's objects (e.g. last DDL time of schema objects).
+     * Returns null if metadata of this owner can't be snapshotted.
+     */
+    @Nullable
+    String getMetadataChangeToken(@NotNull JDBCSession session, @NotNull DBSObject owner) throws SQLException;
+
+    /**
+     * Checks whether results of the cache may be snapshotted.
+     * Caches which read data not covered by the change token (e.g. statistics) must always execute their queries.
+     */
+    default boolean isSnapshotCache(@NotNull DBSObject owner, @NotNull String cacheName) {
+        return true;
+    }
+
+    /**
+     * Converts driver specific metadata value into a standard one (string, number, date or array).
+     * Returns null if value can't be stored in snapshot.
+     */
+    @Nullable
+    Object normalizeMetadataValue(@NotNull Object value);
+
+}
@@ -21,6 +21,7 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCObjectNameIndex;
 import org.jkiss.dbeaver.model.impl.struct.RelationalObjectType;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -66,19 +67,50 @@ public abstract class JDBCStructureAssistant<CONTEXT extends JDBCExecutionContex
     public List<DBSObjectReference> findObjectsByMask(@NotNull DBRProgressMonitor monitor, @NotNull CONTEXT executionContext,
                                                       @NotNull ObjectsSearchParams params) throws DBException {
         List<DBSObjectReference> references = new ArrayList<>();
-        try (JDBCSession session = executionContext.openSession(monitor, DBCExecutionPurpose.META, ModelMessages.model_jdbc_find_objects_by_name)) {
+        JDBCSession session = null;
+        try {
             for (DBSObjectType type : params.getObjectTypes()) {
-                findObjectsByMask(executionContext, session, type, params, references);
+                if (!findCachedObjectsByMask(type, params, references)) {
+                    if (session == null) {
+                        session = executionContext.openSession(monitor, DBCExecutionPurpose.META, ModelMessages.model_jdbc_find_objects_by_name);
+                    }
+                    findObjectsByMask(executionContext, session, type, params, references);
+                }
                 if (references.size() >= params.getMaxResults()) {
                     break;
                 }
             }
         } catch (SQLException ex) {
             throw new DBException(ex, getDataSource());
+        } finally {
+            if (session != null) {
+                session.close();
+            }
         }
         return references;
     }
 
+    /**
+     * Searches objects in the cached metadata of the parent object.
+     * Cached objects are used only if every cache of the parent which may contain objects of this type is fully loaded.
+     * @return false if objects of this type are not cached yet and database search is required
+     */
+    protected boolean findCachedObjectsByMask(@NotNull DBSObjectType objectType, @NotNull ObjectsSearchParams params, @NotNull List<DBSObjectReference> references) {
+        DBSObject parentObject = params.getParentObject();
+        if (parentObject == null || params.isSearchInComments()) {
+            // Search scope (search path, schema filters, etc) is determined by database-specific implementation
+            return false;
+        }
+        JDBCObjectNameIndex nameIndex = getDataSource().getObjectNameIndex();
+        List<DBSObjectReference> cachedReferences = nameIndex.findObjects(
+            parentObject, objectType, params.getMask(), params.isCaseSensitive(), params.getMaxResults() - references.size());
+        if (cachedReferences == null) {
+            return false;
+        }
+        references.addAll(cachedReferences);
+        return true;
+    }
+
     protected abstract void findObjectsByMask(@NotNull CONTEXT executionContext, @NotNull JDBCSession session, @NotNull DBSObjectType objectType,
                                   @NotNull ObjectsSearchParams params, @NotNull List<DBSObjectReference> references) throws DBException, SQLException;
 }
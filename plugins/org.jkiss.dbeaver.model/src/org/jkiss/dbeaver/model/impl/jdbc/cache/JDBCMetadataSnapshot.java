@@ -0,0 +1,350 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCMetadataSnapshotProvider;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCPreparedStatementImpl;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.SecurityUtils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Persistent metadata snapshot of JDBC data source.
+ *
+ * Keeps results of metadata queries executed by object caches. Each entry is bound to the DDL change token
+ * of cache owner (see {@link JDBCMetadataSnapshotProvider}). Entry is used instead of the query only if owner's
+ * token wasn't changed since the entry was saved. Owner token is read on the first cache load in each session
+ * and again when cache is refreshed. Snapshot is saved in the project metadata folder on disconnect.
+ */
+public class JDBCMetadataSnapshot {
+
+    private static final Log log = Log.getLog(JDBCMetadataSnapshot.class);
+
+    private static final String SNAPSHOT_FOLDER = "metadata-snapshots";
+    private static final String SNAPSHOT_EXT = ".dbsnap";
+    private static final int FILE_MAGIC = 0x44425353;
+    private static final int FILE_VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 12;
+
+    private final JDBCMetadataSnapshotProvider provider;
+    private final File file;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    // Current owner tokens. Empty token means that owner isn't supported
+    private final Map<String, String> ownerTokens = new HashMap<>();
+    // Entries used in this session
+    private final Set<String> usedKeys = new HashSet<>();
+    private RandomAccessFile snapshotFile;
+    private boolean modified;
+
+    private static class Entry {
+        private final String ownerKey;
+        private final String token;
+        // Data position in the snapshot file. Negative if data is in memory
+        private final long offset;
+        private final int length;
+        private final byte[] data;
+
+        Entry(String ownerKey, String token, long offset, int length, byte[] data)
+        {
+            this.ownerKey = ownerKey;
+            this.token = token;
+            this.offset = offset;
+            this.length = length;
+            this.data = data;
+        }
+    }
+
+    public JDBCMetadataSnapshot(@NotNull JDBCMetadataSnapshotProvider provider, @NotNull File file)
+    {
+        this.provider = provider;
+        this.file = file;
+        if (file.exists()) {
+            try {
+                loadIndex();
+            } catch (IOException e) {
+                log.debug("Error reading metadata snapshot " + file.getAbsolutePath(), e);
+                entries.clear();
+                closeFile();
+            }
+        }
+    }
+
+    @NotNull
+    public static File getSnapshotFile(@NotNull DBPDataSourceContainer container)
+    {
+        File folder = new File(container.getProject().getMetadataFolder(false), SNAPSHOT_FOLDER);
+        return new File(folder, CommonUtils.escapeFileName(container.getId()) + SNAPSHOT_EXT);
+    }
+
+    /**
+     * Executes metadata statement of object cache.
+     * If data source keeps metadata snapshot then results are read from the snapshot or saved in it.
+     */
+    @Nullable
+    public static JDBCResultSet executeStatement(
+        @NotNull JDBCSession session,
+        @NotNull DBSObject owner,
+        @NotNull String cacheName,
+        @NotNull JDBCStatement dbStat)
+        throws SQLException, DBCException
+    {
+        JDBCMetadataSnapshot snapshot = session.getDataSource().getMetadataSnapshot();
+        if (snapshot != null && owner.isPersisted() && snapshot.provider.isSnapshotCache(owner, cacheName)) {
+            return snapshot.openResultSet(session, owner, cacheName, dbStat);
+        }
+        dbStat.executeStatement();
+        return dbStat.getResultSet();
+    }
+
+    @Nullable
+    private JDBCResultSet openResultSet(
+        @NotNull JDBCSession session,
+        @NotNull DBSObject owner,
+        @NotNull String cacheName,
+        @NotNull JDBCStatement dbStat)
+        throws SQLException, DBCException
+    {
+        String ownerKey = owner.getClass().getName() + ":" + DBUtils.getObjectFullName(owner, DBPEvaluationContext.DDL);
+        // Query text includes parameters which depend on parent object and object filters
+        String query = dbStat instanceof JDBCPreparedStatementImpl ?
+            ((JDBCPreparedStatementImpl) dbStat).getFormattedQuery() : dbStat.getQueryString();
+        String key = ownerKey + "|" + cacheName + "|" + SecurityUtils.makeDigest(CommonUtils.notEmpty(query));
+        boolean refresh;
+        synchronized (this) {
+            refresh = !usedKeys.add(key);
+            if (refresh) {
+                // Cache refresh. Metadata may be changed
+                ownerTokens.remove(ownerKey);
+            }
+        }
+        String token = getOwnerToken(session, owner, ownerKey);
+        if (token == null) {
+            dbStat.executeStatement();
+            return dbStat.getResultSet();
+        }
+        if (!refresh) {
+            byte[] data = readEntry(key, token);
+            if (data != null) {
+                try {
+                    return JDBCSnapshotResultSet.replay(session, dbStat, data);
+                } catch (IOException e) {
+                    log.debug("Error reading metadata snapshot entry", e);
+                }
+            }
+        }
+        dbStat.executeStatement();
+        JDBCResultSet dbResult = dbStat.getResultSet();
+        if (dbResult == null) {
+            return null;
+        }
+        return JDBCSnapshotResultSet.record(session, dbStat, dbResult, provider,
+            data -> putEntry(key, ownerKey, token, data));
+    }
+
+    @Nullable
+    private String getOwnerToken(@NotNull JDBCSession session, @NotNull DBSObject owner, @NotNull String ownerKey)
+    {
+        synchronized (this) {
+            String token = ownerTokens.get(ownerKey);
+            if (token != null) {
+                return token.isEmpty() ? null : token;
+            }
+        }
+        String token = null;
+        try {
+            token = provider.getMetadataChangeToken(session, owner);
+        } catch (SQLException e) {
+            log.debug("Error reading metadata change token of " + ownerKey, e);
+        }
+        synchronized (this) {
+            ownerTokens.put(ownerKey, CommonUtils.notEmpty(token));
+        }
+        return CommonUtils.isEmpty(token) ? null : token;
+    }
+
+    @Nullable
+    private synchronized byte[] readEntry(@NotNull String key, @NotNull String token)
+    {
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.token.equals(token)) {
+            return null;
+        }
+        if (entry.data != null) {
+            return entry.data;
+        }
+        try {
+            byte[] data = new byte[entry.length];
+            snapshotFile.seek(entry.offset);
+            snapshotFile.readFully(data);
+            return data;
+        } catch (IOException e) {
+            log.debug("Error reading metadata snapshot " + file.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    private synchronized void putEntry(@NotNull String key, @NotNull String ownerKey, @NotNull String token, @NotNull byte[] data)
+    {
+        entries.put(key, new Entry(ownerKey, token, -1, data.length, data));
+        modified = true;
+    }
+
+    /**
+     * Saves modified snapshot and releases resources
+     */
+    public synchronized void close()
+    {
+        try {
+            if (modified) {
+                save();
+            }
+        } catch (IOException e) {
+            log.warn("Error saving metadata snapshot " + file.getAbsolutePath(), e);
+        } finally {
+            closeFile();
+            entries.clear();
+            ownerTokens.clear();
+            usedKeys.clear();
+        }
+    }
+
+    private void loadIndex() throws IOException
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            if (raf.readInt() != FILE_MAGIC || raf.readInt() != FILE_VERSION) {
+                log.debug("Unsupported metadata snapshot format: " + file.getAbsolutePath());
+                raf.close();
+                return;
+            }
+            int indexLength = raf.readInt();
+            byte[] index = new byte[indexLength];
+            raf.readFully(index);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(index));
+            if (!in.readUTF().equals(GeneralUtils.getProductVersion().toString())) {
+                // Metadata queries may be different in other versions
+                raf.close();
+                return;
+            }
+            long offset = FILE_HEADER_SIZE + indexLength;
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                String key = in.readUTF();
+                String ownerKey = in.readUTF();
+                String token = in.readUTF();
+                int length = in.readInt();
+                entries.put(key, new Entry(ownerKey, token, offset, length, null));
+                offset += length;
+            }
+            snapshotFile = raf;
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    private void save() throws IOException
+    {
+        List<Map.Entry<String, Entry>> validEntries = new ArrayList<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            String ownerToken = ownerTokens.get(entry.getValue().ownerKey);
+            if (ownerToken != null && !ownerToken.equals(entry.getValue().token)) {
+                // Owner metadata was changed
+                continue;
+            }
+            validEntries.add(entry);
+        }
+
+        ByteArrayOutputStream indexBuffer = new ByteArrayOutputStream();
+        DataOutputStream index = new DataOutputStream(indexBuffer);
+        index.writeUTF(GeneralUtils.getProductVersion().toString());
+        index.writeInt(validEntries.size());
+        for (Map.Entry<String, Entry> entry : validEntries) {
+            index.writeUTF(entry.getKey());
+            index.writeUTF(entry.getValue().ownerKey);
+            index.writeUTF(entry.getValue().token);
+            index.writeInt(entry.getValue().length);
+        }
+        index.flush();
+
+        File folder = file.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Can't create folder " + folder.getAbsolutePath());
+        }
+        File tempFile = new File(folder, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 64 * 1024))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(indexBuffer.size());
+            indexBuffer.writeTo(out);
+            byte[] buffer = new byte[64 * 1024];
+            for (Map.Entry<String, Entry> mapEntry : validEntries) {
+                Entry entry = mapEntry.getValue();
+                if (entry.data != null) {
+                    out.write(entry.data);
+                } else {
+                    // Copy data from the previous snapshot
+                    snapshotFile.seek(entry.offset);
+                    for (int remaining = entry.length; remaining > 0; ) {
+                        int count = Math.min(remaining, buffer.length);
+                        snapshotFile.readFully(buffer, 0, count);
+                        out.write(buffer, 0, count);
+                        remaining -= count;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            if (!tempFile.delete()) {
+                log.debug("Can't delete " + tempFile.getAbsolutePath());
+            }
+            throw e;
+        }
+        closeFile();
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        modified = false;
+    }
+
+    private void closeFile()
+    {
+        if (snapshotFile != null) {
+            try {
+                snapshotFile.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            snapshotFile = null;
+        }
+    }
+
+}
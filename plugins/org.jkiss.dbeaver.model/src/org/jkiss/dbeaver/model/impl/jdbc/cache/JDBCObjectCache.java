@@ -26,6 +26,7 @@ import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
@@ -33,6 +34,7 @@ import org.jkiss.dbeaver.model.struct.cache.AbstractObjectCache;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
@@ -48,6 +50,8 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
 
     // Maximum number of objects in cache
     private int maximumCacheSize = DEFAULT_MAX_CACHE_SIZE;
+    // Name index where this cache is registered
+    private volatile JDBCObjectNameIndex nameIndex;
 
     protected JDBCObjectCache() {
     }
@@ -105,8 +109,7 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
                     try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
                         monitor.subTask("Load " + getCacheName());
                         dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                        dbStat.executeStatement();
-                        JDBCResultSet dbResult = dbStat.getResultSet();
+                        JDBCResultSet dbResult = JDBCMetadataSnapshot.executeStatement(session, owner, getClass().getName(), dbStat);
                         if (dbResult != null) {
                             try {
                                 while (dbResult.next()) {
@@ -156,6 +159,38 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         detectCaseSensitivity(owner);
         mergeCache(tmpObjectList);
         this.invalidateObjects(monitor, owner, new CacheIterator());
+
+        if (dataSource instanceof JDBCDataSource) {
+            nameIndex = ((JDBCDataSource) dataSource).getObjectNameIndex();
+            nameIndex.addCache(owner, this);
+        }
+    }
+
+    @Override
+    public void removeObject(@NotNull OBJECT object, boolean resetFullCache)
+    {
+        super.removeObject(object, resetFullCache);
+        JDBCObjectNameIndex index = nameIndex;
+        if (index != null) {
+            index.removeContainers(Collections.singletonList(object));
+        }
+    }
+
+    @Override
+    public void clearCache()
+    {
+        JDBCObjectNameIndex index = nameIndex;
+        if (index != null) {
+            nameIndex = null;
+            List<OBJECT> cachedObjects;
+            synchronized (getCacheSync()) {
+                cachedObjects = new ArrayList<>(getCachedObjects());
+            }
+            index.removeCache(this);
+            // Cached objects may own other indexed caches (e.g. schemas of a database)
+            index.removeContainers(cachedObjects);
+        }
+        super.clearCache();
     }
 
     protected String getCacheName() {
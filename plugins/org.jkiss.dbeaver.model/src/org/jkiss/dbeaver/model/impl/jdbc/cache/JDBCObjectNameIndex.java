@@ -0,0 +1,389 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.impl.struct.DirectObjectReference;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectReference;
+import org.jkiss.dbeaver.model.struct.DBSObjectType;
+import org.jkiss.dbeaver.model.struct.cache.AbstractObjectCache;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Index of names of already cached objects.
+ * Object caches register themselves after full load. Index data is rebuilt for a cache only when this cache was changed.
+ *
+ * Search result is returned only if all objects of the requested type in the requested container are cached.
+ * Caches which may contain objects of the requested type are the cache fields of the container with a compatible
+ * object type, plus caches where such objects were found before (per container class). If some of these caches
+ * isn't loaded then search returns null and caller must search in database.
+ */
+public class JDBCObjectNameIndex {
+
+    // Indexed caches of each container
+    private final Map<DBSObject, List<CacheIndex>> containerCaches = new IdentityHashMap<>();
+    // Container class -> object type -> classes of caches which contain objects of this type
+    private final Map<Class<?>, Map<DBSObjectType, Set<Class<?>>>> typeCaches = new HashMap<>();
+    // Container class -> cache fields
+    private final Map<Class<?>, List<Field>> cacheFields = new HashMap<>();
+    // Cache class -> class of cached objects
+    private final Map<Class<?>, Class<?>> cacheObjectClasses = new HashMap<>();
+
+    public synchronized void addCache(@NotNull DBSObject container, @NotNull AbstractObjectCache<?, ?> cache) {
+        List<CacheIndex> caches = containerCaches.computeIfAbsent(container, c -> new ArrayList<>());
+        for (CacheIndex cacheIndex : caches) {
+            if (cacheIndex.cache == cache) {
+                return;
+            }
+        }
+        caches.add(new CacheIndex(cache));
+    }
+
+    public synchronized void removeCache(@NotNull AbstractObjectCache<?, ?> cache) {
+        for (Iterator<List<CacheIndex>> iter = containerCaches.values().iterator(); iter.hasNext(); ) {
+            List<CacheIndex> caches = iter.next();
+            caches.removeIf(cacheIndex -> cacheIndex.cache == cache);
+            if (caches.isEmpty()) {
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes caches of the specified containers and of their nested containers.
+     * Containers are replaced with new objects after refresh, so old ones must not stay reachable from the index.
+     */
+    public synchronized void removeContainers(@NotNull Collection<? extends DBSObject> containers) {
+        if (containers.isEmpty() || containerCaches.isEmpty()) {
+            return;
+        }
+        Set<DBSObject> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        removed.addAll(containers);
+        containerCaches.keySet().removeIf(container -> {
+            for (DBSObject object = container; object != null; object = object.getParentObject()) {
+                if (removed.contains(object)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    public synchronized void clear() {
+        containerCaches.clear();
+        typeCaches.clear();
+    }
+
+    /**
+     * Finds cached objects by name mask (SQL LIKE syntax).
+     * @return found objects or null if some objects of this type may be not cached
+     */
+    @Nullable
+    public synchronized List<DBSObjectReference> findObjects(
+        @NotNull DBSObject container,
+        @NotNull DBSObjectType objectType,
+        @NotNull String mask,
+        boolean caseSensitive,
+        int maxResults)
+    {
+        List<CacheIndex> caches = containerCaches.get(container);
+        if (caches == null) {
+            return null;
+        }
+        Class<? extends DBSObject> typeClass = objectType.getTypeClass();
+        Set<Class<?>> typeCacheClasses = typeCaches
+            .computeIfAbsent(container.getClass(), c -> new HashMap<>())
+            .computeIfAbsent(objectType, t -> new HashSet<>());
+        for (CacheIndex cacheIndex : caches) {
+            if (cacheIndex.cache.isFullyCached() && cacheIndex.hasObjectsOf(typeClass)) {
+                typeCacheClasses.add(cacheIndex.cache.getClass());
+            }
+        }
+        // Every cache which may contain objects of this type must be loaded
+        List<CacheIndex> typeIndexes = new ArrayList<>();
+        for (Field field : getCacheFields(container.getClass())) {
+            Object cache;
+            try {
+                cache = field.get(container);
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+            if (cache == null) {
+                // Cache is created on demand. Its objects weren't read
+                if (mayContain(getObjectClass(field.getGenericType()), typeClass)) {
+                    return null;
+                }
+                continue;
+            }
+            if (!typeCacheClasses.contains(cache.getClass()) && !mayContain(getCacheObjectClass(cache.getClass()), typeClass)) {
+                continue;
+            }
+            CacheIndex typeIndex = findCacheIndex(caches, cache);
+            if (typeIndex == null) {
+                // Cache wasn't read yet (or was cleared)
+                return null;
+            }
+            typeIndexes.add(typeIndex);
+        }
+        // Caches which are not container fields
+        for (CacheIndex cacheIndex : caches) {
+            if (!typeIndexes.contains(cacheIndex) && typeCacheClasses.contains(cacheIndex.cache.getClass())) {
+                if (!cacheIndex.cache.isFullyCached()) {
+                    return null;
+                }
+                typeIndexes.add(cacheIndex);
+            }
+        }
+        if (typeIndexes.isEmpty()) {
+            return null;
+        }
+
+        NameMatcher matcher;
+        try {
+            matcher = new NameMatcher(mask, caseSensitive);
+        } catch (PatternSyntaxException e) {
+            // Let database handle it
+            return null;
+        }
+        List<DBSObjectReference> references = new ArrayList<>();
+        for (CacheIndex cacheIndex : typeIndexes) {
+            cacheIndex.findObjects(container, objectType, matcher, references, maxResults);
+            if (references.size() >= maxResults) {
+                break;
+            }
+        }
+        return references;
+    }
+
+    @Nullable
+    private static CacheIndex findCacheIndex(@NotNull List<CacheIndex> caches, @NotNull Object cache) {
+        for (CacheIndex cacheIndex : caches) {
+            if (cacheIndex.cache == cache) {
+                return cacheIndex.cache.isFullyCached() ? cacheIndex : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Object caches declared in the container class and its superclasses
+     */
+    @NotNull
+    private List<Field> getCacheFields(@NotNull Class<?> containerClass) {
+        return cacheFields.computeIfAbsent(containerClass, c -> {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> cls = c; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+                for (Field field : cls.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && AbstractObjectCache.class.isAssignableFrom(field.getType())) {
+                        try {
+                            field.setAccessible(true);
+                        } catch (RuntimeException e) {
+                            continue;
+                        }
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields;
+        });
+    }
+
+    @NotNull
+    private Class<?> getCacheObjectClass(@NotNull Class<?> cacheClass) {
+        return cacheObjectClasses.computeIfAbsent(cacheClass, JDBCObjectNameIndex::getObjectClass);
+    }
+
+    /**
+     * Resolves OBJECT type argument of AbstractObjectCache. Returns DBSObject if it can't be resolved.
+     */
+    @NotNull
+    static Class<?> getObjectClass(@NotNull Type cacheType) {
+        Map<TypeVariable<?>, Type> arguments = new HashMap<>();
+        Type type = cacheType;
+        while (type != null) {
+            Class<?> rawClass;
+            if (type instanceof ParameterizedType) {
+                ParameterizedType parameterizedType = (ParameterizedType) type;
+                rawClass = (Class<?>) parameterizedType.getRawType();
+                TypeVariable<?>[] parameters = rawClass.getTypeParameters();
+                Type[] actualArguments = parameterizedType.getActualTypeArguments();
+                for (int i = 0; i < parameters.length && i < actualArguments.length; i++) {
+                    Type argument = actualArguments[i];
+                    arguments.put(parameters[i], arguments.getOrDefault(argument, argument));
+                }
+            } else if (type instanceof Class) {
+                rawClass = (Class<?>) type;
+            } else {
+                break;
+            }
+            if (rawClass == AbstractObjectCache.class) {
+                return eraseType(arguments.get(rawClass.getTypeParameters()[1]));
+            }
+            type = rawClass.getGenericSuperclass();
+        }
+        return DBSObject.class;
+    }
+
+    @NotNull
+    private static Class<?> eraseType(@Nullable Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        } else if (type instanceof TypeVariable) {
+            Type[] bounds = ((TypeVariable<?>) type).getBounds();
+            return bounds.length == 0 ? DBSObject.class : eraseType(bounds[0]);
+        }
+        return DBSObject.class;
+    }
+
+    /**
+     * Cache of objectClass objects may contain objects of typeClass if one of these classes extends another
+     */
+    static boolean mayContain(@NotNull Class<?> objectClass, @NotNull Class<?> typeClass) {
+        return typeClass.isAssignableFrom(objectClass) || objectClass.isAssignableFrom(typeClass);
+    }
+
+    private static class CacheIndex {
+        private final AbstractObjectCache<?, ?> cache;
+        private int modificationCount = -1;
+        // Upper case names and objects sorted by name
+        private String[] names;
+        private DBSObject[] objects;
+        private final Map<Class<?>, Boolean> typePresence = new HashMap<>();
+
+        CacheIndex(AbstractObjectCache<?, ?> cache) {
+            this.cache = cache;
+        }
+
+        private void checkIndex() {
+            int cacheModCount = cache.getModificationCount();
+            if (names != null && cacheModCount == modificationCount) {
+                return;
+            }
+            List<DBSObject> cachedObjects;
+            synchronized (cache.getCacheSync()) {
+                cachedObjects = new ArrayList<>(cache.getCachedObjects());
+            }
+            List<Map.Entry<String, DBSObject>> entries = new ArrayList<>(cachedObjects.size());
+            for (DBSObject object : cachedObjects) {
+                String name = object.getName();
+                if (name != null) {
+                    entries.add(new AbstractMap.SimpleEntry<>(name.toUpperCase(Locale.ENGLISH), object));
+                }
+            }
+            entries.sort(Map.Entry.comparingByKey());
+            names = new String[entries.size()];
+            objects = new DBSObject[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                names[i] = entries.get(i).getKey();
+                objects[i] = entries.get(i).getValue();
+            }
+            typePresence.clear();
+            modificationCount = cacheModCount;
+        }
+
+        boolean hasObjectsOf(Class<?> typeClass) {
+            checkIndex();
+            return typePresence.computeIfAbsent(typeClass, tc -> {
+                for (DBSObject object : objects) {
+                    if (tc.isInstance(object)) {
+                        return true;
+                    }
+                }
+                return false;
+            });
+        }
+
+        void findObjects(DBSObject container, DBSObjectType objectType, NameMatcher matcher, List<DBSObjectReference> references, int maxResults) {
+            checkIndex();
+            Class<? extends DBSObject> typeClass = objectType.getTypeClass();
+            // Names are sorted so objects with the same prefix are adjacent
+            int start = 0;
+            if (!matcher.prefix.isEmpty()) {
+                start = Arrays.binarySearch(names, matcher.prefix);
+                if (start < 0) {
+                    start = -start - 1;
+                }
+            }
+            for (int i = start; i < names.length; i++) {
+                if (!names[i].startsWith(matcher.prefix)) {
+                    break;
+                }
+                DBSObject object = objects[i];
+                if (typeClass.isInstance(object) && matcher.matches(object.getName())) {
+                    references.add(new DirectObjectReference(container, objectType, object));
+                    if (references.size() >= maxResults) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Matches names with LIKE mask. Mask part before the first wildcard is used for index lookup.
+     */
+    static class NameMatcher {
+        private final String prefix;
+        private final boolean prefixOnly;
+        private final boolean caseSensitive;
+        private final String mask;
+        private final Pattern pattern;
+
+        NameMatcher(String mask, boolean caseSensitive) {
+            int wildcardPos = 0;
+            while (wildcardPos < mask.length() && "%_*?\\".indexOf(mask.charAt(wildcardPos)) == -1) {
+                wildcardPos++;
+            }
+            String rest = mask.substring(wildcardPos);
+            this.mask = mask;
+            this.prefix = mask.substring(0, wildcardPos).toUpperCase(Locale.ENGLISH);
+            this.prefixOnly = rest.equals("%") || rest.equals("*");
+            this.caseSensitive = caseSensitive;
+            if (prefixOnly || rest.isEmpty()) {
+                this.pattern = null;
+            } else {
+                this.pattern = Pattern.compile(
+                    SQLUtils.makeLikePattern(mask),
+                    caseSensitive ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+            }
+        }
+
+        boolean matches(String name) {
+            if (pattern != null) {
+                return pattern.matcher(name).matches();
+            }
+            if (prefixOnly) {
+                if (!caseSensitive) {
+                    // Prefix was already checked by index lookup
+                    return true;
+                }
+                return name.startsWith(mask.substring(0, prefix.length()));
+            }
+            return caseSensitive ? name.equals(mask) : name.equalsIgnoreCase(mask);
+        }
+    }
+
+}
@@ -0,0 +1,759 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCMetadataSnapshotProvider;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetImpl;
+
+import java.io.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Result set of metadata snapshot.
+ * In record mode rows are read from the original result set and serialized.
+ * In replay mode rows are deserialized from snapshot data.
+ * In both modes getters read values from the current row buffer, so cache sees the same values in both modes.
+ */
+class JDBCSnapshotResultSet implements InvocationHandler {
+
+    private static final Log log = Log.getLog(JDBCSnapshotResultSet.class);
+
+    private static final byte ROW_END = 0;
+    private static final byte ROW_DATA = 1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_SHORT = 4;
+    private static final byte TAG_BYTE = 5;
+    private static final byte TAG_DOUBLE = 6;
+    private static final byte TAG_FLOAT = 7;
+    private static final byte TAG_DECIMAL = 8;
+    private static final byte TAG_BIGINT = 9;
+    private static final byte TAG_BOOLEAN = 10;
+    private static final byte TAG_TIMESTAMP = 11;
+    private static final byte TAG_DATE = 12;
+    private static final byte TAG_TIME = 13;
+    private static final byte TAG_BYTES = 14;
+    private static final byte TAG_ARRAY = 15;
+
+    // Supported array component types
+    private static final Class<?>[] ARRAY_COMPONENTS = {
+        Object.class, String.class, Integer.class, Long.class, Short.class, Double.class, Float.class, BigDecimal.class, Boolean.class
+    };
+
+    private final String[] labels;
+    private final Map<String, Integer> labelIndexes = new HashMap<>();
+    private final Object[] row;
+    private boolean hasRow;
+    private boolean wasNull;
+    private boolean closed;
+
+    // Replay mode
+    @Nullable
+    private final DataInputStream source;
+
+    // Record mode
+    @Nullable
+    private final ResultSet original;
+    @Nullable
+    private final JDBCMetadataSnapshotProvider provider;
+    @Nullable
+    private final Consumer<byte[]> recordListener;
+    private ByteArrayOutputStream recordBuffer;
+    private DataOutputStream recordOut;
+
+    private JDBCSnapshotResultSet(
+        @NotNull String[] labels,
+        @Nullable DataInputStream source,
+        @Nullable ResultSet original,
+        @Nullable JDBCMetadataSnapshotProvider provider,
+        @Nullable Consumer<byte[]> recordListener)
+    {
+        this.labels = labels;
+        for (int i = 0; i < labels.length; i++) {
+            labelIndexes.putIfAbsent(labels[i].toUpperCase(Locale.ENGLISH), i);
+        }
+        this.row = new Object[labels.length];
+        this.source = source;
+        this.original = original;
+        this.provider = provider;
+        this.recordListener = recordListener;
+    }
+
+    /**
+     * Makes result set which reads rows from snapshot data
+     */
+    @NotNull
+    static JDBCResultSet replay(@NotNull JDBCSession session, @NotNull JDBCStatement statement, @NotNull byte[] data)
+        throws SQLException, IOException
+    {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        String[] labels = new String[in.readInt()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = in.readUTF();
+        }
+        return makeResultSet(session, statement, new JDBCSnapshotResultSet(labels, in, null, null, null));
+    }
+
+    /**
+     * Makes result set which reads rows from the original result set and serializes them.
+     * Listener receives serialized data when all rows were read. If some value can't be serialized then listener isn't called.
+     */
+    @NotNull
+    static JDBCResultSet record(
+        @NotNull JDBCSession session,
+        @NotNull JDBCStatement statement,
+        @NotNull JDBCResultSet original,
+        @NotNull JDBCMetadataSnapshotProvider provider,
+        @NotNull Consumer<byte[]> recordListener)
+        throws SQLException
+    {
+        ResultSetMetaData metaData = original.getMetaData();
+        String[] labels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+        }
+        JDBCSnapshotResultSet handler = new JDBCSnapshotResultSet(labels, null, original, provider, recordListener);
+        handler.recordBuffer = new ByteArrayOutputStream(8192);
+        handler.recordOut = new DataOutputStream(handler.recordBuffer);
+        try {
+            handler.recordOut.writeInt(labels.length);
+            for (String label : labels) {
+                handler.recordOut.writeUTF(label);
+            }
+        } catch (IOException e) {
+            handler.stopRecording();
+        }
+        return makeResultSet(session, statement, handler);
+    }
+
+    @NotNull
+    private static JDBCResultSet makeResultSet(@NotNull JDBCSession session, @NotNull JDBCStatement statement, @NotNull JDBCSnapshotResultSet handler)
+        throws SQLException
+    {
+        ResultSet resultSet = (ResultSet) Proxy.newProxyInstance(
+            JDBCSnapshotResultSet.class.getClassLoader(),
+            new Class[] { ResultSet.class },
+            handler);
+        // Original statement and result set are logged by QM
+        return JDBCResultSetImpl.makeResultSet(session, statement, resultSet, "Metadata snapshot", true);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+    {
+        String name = method.getName();
+        switch (name) {
+            case "next":
+                return next();
+            case "close":
+                close();
+                return null;
+            case "isClosed":
+                return closed;
+            case "wasNull":
+                return wasNull;
+            case "findColumn":
+                return findColumn((String) args[0]) + 1;
+            case "getMetaData":
+                return original != null ? original.getMetaData() : makeMetaData();
+            case "getStatement":
+            case "getWarnings":
+                return null;
+            case "clearWarnings":
+            case "setFetchSize":
+            case "setFetchDirection":
+                return null;
+            case "getFetchSize":
+                return 0;
+            case "getType":
+                return ResultSet.TYPE_FORWARD_ONLY;
+            case "getConcurrency":
+                return ResultSet.CONCUR_READ_ONLY;
+            case "isWrapperFor":
+                return false;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "Metadata snapshot result set";
+        }
+        if (name.startsWith("get") && args != null && args.length > 0 && (args[0] instanceof Integer || args[0] instanceof String)) {
+            Object value = getColumnValue(args[0]);
+            wasNull = value == null;
+            return getValue(value, method, args);
+        }
+        throw new SQLFeatureNotSupportedException("Method " + name + " is not supported by metadata snapshot");
+    }
+
+    private boolean next() throws SQLException
+    {
+        if (closed) {
+            throw new SQLException("Result set is closed");
+        }
+        hasRow = false;
+        if (source != null) {
+            try {
+                if (source.readByte() == ROW_END) {
+                    return false;
+                }
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = readValue(source);
+                }
+            } catch (IOException e) {
+                throw new SQLException("Error reading metadata snapshot", e);
+            }
+        } else if (original != null) {
+            if (!original.next()) {
+                finishRecording();
+                return false;
+            }
+            for (int i = 0; i < row.length; i++) {
+                row[i] = fetchValue(original.getObject(i + 1));
+            }
+            if (recordOut != null) {
+                try {
+                    recordOut.writeByte(ROW_DATA);
+                    for (Object value : row) {
+                        if (!writeValue(recordOut, value)) {
+                            log.debug("Value of type " + value.getClass().getName() + " can't be saved in metadata snapshot");
+                            stopRecording();
+                            break;
+                        }
+                    }
+                } catch (IOException e) {
+                    stopRecording();
+                }
+            }
+        }
+        hasRow = true;
+        return true;
+    }
+
+    private void close()
+    {
+        if (!closed) {
+            closed = true;
+            stopRecording();
+            if (original != null) {
+                try {
+                    original.close();
+                } catch (SQLException e) {
+                    log.debug(e);
+                }
+            }
+        }
+    }
+
+    private void finishRecording()
+    {
+        if (recordOut != null && recordListener != null) {
+            try {
+                recordOut.writeByte(ROW_END);
+                recordOut.flush();
+                recordListener.accept(recordBuffer.toByteArray());
+            } catch (IOException e) {
+                log.debug(e);
+            }
+        }
+        stopRecording();
+    }
+
+    private void stopRecording()
+    {
+        recordOut = null;
+        recordBuffer = null;
+    }
+
+    /**
+     * Converts driver value into a value which can be serialized.
+     * Arrays are materialized because their content may depend on cursor state.
+     */
+    @Nullable
+    private Object fetchValue(@Nullable Object value) throws SQLException
+    {
+        if (value == null || isSupportedValue(value)) {
+            return value;
+        }
+        if (value instanceof Array) {
+            Array array = (Array) value;
+            Object elements = array.getArray();
+            if (elements instanceof Object[] && isSupportedArray((Object[]) elements)) {
+                return new SnapshotArray(array.getBaseTypeName(), array.getBaseType(), (Object[]) elements);
+            }
+            return value;
+        }
+        Object normalized = provider == null ? null : provider.normalizeMetadataValue(value);
+        return normalized != null && isSupportedValue(normalized) ? normalized : value;
+    }
+
+    private int findColumn(@NotNull String label) throws SQLException
+    {
+        Integer index = labelIndexes.get(label.toUpperCase(Locale.ENGLISH));
+        if (index == null) {
+            throw new SQLException("Column '" + label + "' not found");
+        }
+        return index;
+    }
+
+    @Nullable
+    private Object getColumnValue(@NotNull Object column) throws SQLException
+    {
+        if (!hasRow) {
+            throw new SQLException("No current row");
+        }
+        int index = column instanceof Integer ? (Integer) column - 1 : findColumn((String) column);
+        if (index < 0 || index >= row.length) {
+            throw new SQLException("Column index out of range (" + column + ")");
+        }
+        return row[index];
+    }
+
+    @NotNull
+    private ResultSetMetaData makeMetaData()
+    {
+        return (ResultSetMetaData) Proxy.newProxyInstance(
+            JDBCSnapshotResultSet.class.getClassLoader(),
+            new Class[] { ResultSetMetaData.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getColumnCount":
+                        return labels.length;
+                    case "getColumnLabel":
+                    case "getColumnName":
+                        return labels[(Integer) args[0] - 1];
+                    case "isWrapperFor":
+                        return false;
+                    default:
+                        throw new SQLFeatureNotSupportedException("Method " + method.getName() + " is not supported by metadata snapshot");
+                }
+            });
+    }
+
+    ////////////////////////////////////////////////////
+    // Value conversion
+
+    @Nullable
+    private static Object getValue(@Nullable Object value, @NotNull Method method, @NotNull Object[] args) throws SQLException
+    {
+        switch (method.getName()) {
+            case "getObject":
+                if (args.length == 2 && args[1] instanceof Class) {
+                    return convertValue(value, (Class<?>) args[1]);
+                }
+                return value;
+            case "getBigDecimal": {
+                BigDecimal decimal = (BigDecimal) convertValue(value, BigDecimal.class);
+                if (decimal != null && args.length == 2 && args[1] instanceof Integer) {
+                    decimal = decimal.setScale((Integer) args[1], RoundingMode.HALF_UP);
+                }
+                return decimal;
+            }
+            default: {
+                Class<?> type = method.getReturnType();
+                Object result = convertValue(value, type);
+                if (result == null && type.isPrimitive()) {
+                    // Null value of primitive type
+                    return type == Boolean.TYPE ? Boolean.FALSE : convertValue(0, type);
+                }
+                return result;
+            }
+        }
+    }
+
+    @Nullable
+    private static Object convertValue(@Nullable Object value, @NotNull Class<?> type) throws SQLException
+    {
+        if (value == null) {
+            return null;
+        }
+        if (type.isPrimitive()) {
+            type = getWrapperType(type);
+        }
+        if (type.isInstance(value)) {
+            return value;
+        }
+        if (type == String.class) {
+            if (value instanceof BigDecimal) {
+                return ((BigDecimal) value).toPlainString();
+            } else if (value instanceof byte[]) {
+                return new String((byte[]) value, StandardCharsets.UTF_8);
+            }
+            return value.toString();
+        } else if (type == Boolean.class) {
+            if (value instanceof Number) {
+                return ((Number) value).intValue() != 0;
+            }
+            String str = value.toString().trim();
+            return str.equals("1") || str.equalsIgnoreCase("true") || str.equalsIgnoreCase("t") ||
+                str.equalsIgnoreCase("y") || str.equalsIgnoreCase("yes") || str.equalsIgnoreCase("on");
+        } else if (Number.class.isAssignableFrom(type)) {
+            Number number = toNumber(value);
+            if (type == Integer.class) {
+                return number.intValue();
+            } else if (type == Long.class) {
+                return number.longValue();
+            } else if (type == Short.class) {
+                return number.shortValue();
+            } else if (type == Byte.class) {
+                return number.byteValue();
+            } else if (type == Double.class) {
+                return number.doubleValue();
+            } else if (type == Float.class) {
+                return number.floatValue();
+            } else if (type == BigDecimal.class) {
+                return number instanceof BigDecimal ? number : new BigDecimal(number.toString());
+            } else if (type == BigInteger.class) {
+                return number instanceof BigDecimal ? ((BigDecimal) number).toBigInteger() : new BigInteger(number.toString());
+            }
+        } else if (value instanceof java.util.Date) {
+            long time = ((java.util.Date) value).getTime();
+            if (type == Timestamp.class) {
+                return new Timestamp(time);
+            } else if (type == Date.class) {
+                return new Date(time);
+            } else if (type == Time.class) {
+                return new Time(time);
+            }
+        } else if (value instanceof String) {
+            try {
+                if (type == Timestamp.class) {
+                    return Timestamp.valueOf(((String) value).trim());
+                } else if (type == Date.class) {
+                    return Date.valueOf(((String) value).trim());
+                } else if (type == Time.class) {
+                    return Time.valueOf(((String) value).trim());
+                } else if (type == byte[].class) {
+                    return ((String) value).getBytes(StandardCharsets.UTF_8);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new SQLException("Bad " + type.getSimpleName() + " value: " + value, e);
+            }
+        }
+        if (type == Reader.class) {
+            return new StringReader((String) convertValue(value, String.class));
+        }
+        throw new SQLException("Can't convert " + value.getClass().getName() + " to " + type.getName());
+    }
+
+    @NotNull
+    private static Number toNumber(@NotNull Object value) throws SQLException
+    {
+        if (value instanceof Number) {
+            return (Number) value;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        try {
+            return new BigDecimal(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new SQLException("Bad numeric value: " + value, e);
+        }
+    }
+
+    @NotNull
+    private static Class<?> getWrapperType(@NotNull Class<?> type)
+    {
+        if (type == Integer.TYPE) return Integer.class;
+        if (type == Long.TYPE) return Long.class;
+        if (type == Short.TYPE) return Short.class;
+        if (type == Byte.TYPE) return Byte.class;
+        if (type == Double.TYPE) return Double.class;
+        if (type == Float.TYPE) return Float.class;
+        if (type == Boolean.TYPE) return Boolean.class;
+        return type;
+    }
+
+    ////////////////////////////////////////////////////
+    // Serialization
+
+    private static boolean isSupportedValue(@NotNull Object value)
+    {
+        Class<?> type = value.getClass();
+        return type == String.class || type == Integer.class || type == Long.class || type == Short.class ||
+            type == Byte.class || type == Double.class || type == Float.class || type == BigDecimal.class ||
+            type == BigInteger.class || type == Boolean.class || type == Timestamp.class || type == Date.class ||
+            type == Time.class || type == byte[].class || type == SnapshotArray.class;
+    }
+
+    private static boolean isSupportedArray(@NotNull Object[] elements)
+    {
+        if (getComponentIndex(elements.getClass().getComponentType()) < 0) {
+            return false;
+        }
+        for (Object element : elements) {
+            if (element != null && (!isSupportedValue(element) || element instanceof SnapshotArray)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int getComponentIndex(@NotNull Class<?> componentType)
+    {
+        for (int i = 0; i < ARRAY_COMPONENTS.length; i++) {
+            if (ARRAY_COMPONENTS[i] == componentType) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean writeValue(@NotNull DataOutputStream out, @Nullable Object value) throws IOException
+    {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+            return true;
+        }
+        Class<?> type = value.getClass();
+        if (type == String.class) {
+            out.writeByte(TAG_STRING);
+            writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (type == Integer.class) {
+            out.writeByte(TAG_INT);
+            out.writeInt((Integer) value);
+        } else if (type == Long.class) {
+            out.writeByte(TAG_LONG);
+            out.writeLong((Long) value);
+        } else if (type == Short.class) {
+            out.writeByte(TAG_SHORT);
+            out.writeShort((Short) value);
+        } else if (type == Byte.class) {
+            out.writeByte(TAG_BYTE);
+            out.writeByte((Byte) value);
+        } else if (type == Double.class) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (type == Float.class) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (type == BigDecimal.class) {
+            out.writeByte(TAG_DECIMAL);
+            out.writeUTF(value.toString());
+        } else if (type == BigInteger.class) {
+            out.writeByte(TAG_BIGINT);
+            out.writeUTF(value.toString());
+        } else if (type == Boolean.class) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (type == Timestamp.class) {
+            out.writeByte(TAG_TIMESTAMP);
+            out.writeLong(((Timestamp) value).getTime());
+            out.writeInt(((Timestamp) value).getNanos());
+        } else if (type == Date.class) {
+            out.writeByte(TAG_DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (type == Time.class) {
+            out.writeByte(TAG_TIME);
+            out.writeLong(((Time) value).getTime());
+        } else if (type == byte[].class) {
+            out.writeByte(TAG_BYTES);
+            writeBytes(out, (byte[]) value);
+        } else if (type == SnapshotArray.class) {
+            SnapshotArray array = (SnapshotArray) value;
+            out.writeByte(TAG_ARRAY);
+            out.writeUTF(array.baseTypeName == null ? "" : array.baseTypeName);
+            out.writeInt(array.baseType);
+            out.writeByte(getComponentIndex(array.elements.getClass().getComponentType()));
+            out.writeInt(array.elements.length);
+            for (Object element : array.elements) {
+                writeValue(out, element);
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    @Nullable
+    private static Object readValue(@NotNull DataInputStream in) throws IOException
+    {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+            case TAG_INT:
+                return in.readInt();
+            case TAG_LONG:
+                return in.readLong();
+            case TAG_SHORT:
+                return in.readShort();
+            case TAG_BYTE:
+                return in.readByte();
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_FLOAT:
+                return in.readFloat();
+            case TAG_DECIMAL:
+                return new BigDecimal(in.readUTF());
+            case TAG_BIGINT:
+                return new BigInteger(in.readUTF());
+            case TAG_BOOLEAN:
+                return in.readBoolean();
+            case TAG_TIMESTAMP: {
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            }
+            case TAG_DATE:
+                return new Date(in.readLong());
+            case TAG_TIME:
+                return new Time(in.readLong());
+            case TAG_BYTES:
+                return readBytes(in);
+            case TAG_ARRAY: {
+                String baseTypeName = in.readUTF();
+                int baseType = in.readInt();
+                Class<?> componentType = ARRAY_COMPONENTS[in.readByte()];
+                Object[] elements = (Object[]) java.lang.reflect.Array.newInstance(componentType, in.readInt());
+                for (int i = 0; i < elements.length; i++) {
+                    elements[i] = readValue(in);
+                }
+                return new SnapshotArray(baseTypeName, baseType, elements);
+            }
+            default:
+                throw new IOException("Bad value tag: " + tag);
+        }
+    }
+
+    private static void writeBytes(@NotNull DataOutputStream out, @NotNull byte[] bytes) throws IOException
+    {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @NotNull
+    private static byte[] readBytes(@NotNull DataInputStream in) throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Materialized array value
+     */
+    private static class SnapshotArray implements Array {
+
+        private final String baseTypeName;
+        private final int baseType;
+        private final Object[] elements;
+
+        SnapshotArray(String baseTypeName, int baseType, Object[] elements)
+        {
+            this.baseTypeName = baseTypeName;
+            this.baseType = baseType;
+            this.elements = elements;
+        }
+
+        @Override
+        public String getBaseTypeName()
+        {
+            return baseTypeName;
+        }
+
+        @Override
+        public int getBaseType()
+        {
+            return baseType;
+        }
+
+        @Override
+        public Object getArray()
+        {
+            return elements.clone();
+        }
+
+        @Override
+        public Object getArray(Map<String, Class<?>> map)
+        {
+            return getArray();
+        }
+
+        @Override
+        public Object getArray(long index, int count)
+        {
+            Object[] result = (Object[]) java.lang.reflect.Array.newInstance(elements.getClass().getComponentType(), count);
+            System.arraycopy(elements, (int) index - 1, result, 0, count);
+            return result;
+        }
+
+        @Override
+        public Object getArray(long index, int count, Map<String, Class<?>> map)
+        {
+            return getArray(index, count);
+        }
+
+        @Override
+        public ResultSet getResultSet() throws SQLException
+        {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public ResultSet getResultSet(Map<String, Class<?>> map) throws SQLException
+        {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public ResultSet getResultSet(long index, int count) throws SQLException
+        {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public ResultSet getResultSet(long index, int count, Map<String, Class<?>> map) throws SQLException
+        {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public void free()
+        {
+        }
+
+        @Override
+        public String toString()
+        {
+            return java.util.Arrays.toString(elements);
+        }
+    }
+
+}
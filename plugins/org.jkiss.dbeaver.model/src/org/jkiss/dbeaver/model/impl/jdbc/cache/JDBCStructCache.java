@@ -20,6 +20,7 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBUtils;
@@ -29,6 +30,7 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.SharedLoad;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.cache.DBSObjectCache;
 import org.jkiss.dbeaver.model.struct.cache.DBSStructCache;
@@ -47,9 +49,22 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
 {
     private static final Log log = Log.getLog(JDBCStructCache.class);
 
+    // Single parent reads are counted within this time window
+    private static final long CHILDREN_MISS_WINDOW = 60 * 1000;
+    // Container-wide read of larger containers may take minutes
+    private static final int CHILDREN_PREFETCH_MAX_OBJECTS = 5000;
+
     private final Object objectNameColumn;
     private volatile boolean childrenCached = false;
     private final Map<OBJECT, SimpleObjectCache<OBJECT, CHILD>> childrenCache = new IdentityHashMap<>();
+    // In-flight children loads. Guarded by itself
+    private final Map<OBJECT, SharedLoad> childrenLoads = new IdentityHashMap<>();
+    private SharedLoad allChildrenLoad;
+    // Number of single parent reads in the current time window. Many single reads in a short time
+    // switch the cache to a container-wide read. Guarded by childrenLoads
+    private int childrenMisses;
+    private long childrenMissWindowStart;
+    private volatile boolean childrenPrefetchDisabled;
 
     abstract protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull OWNER owner, @Nullable OBJECT forObject)
         throws SQLException;
@@ -72,12 +87,126 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
      * @throws org.jkiss.dbeaver.DBException
      *             on error
      */
-    public synchronized void loadChildren(DBRProgressMonitor monitor, OWNER owner, @Nullable final OBJECT forObject) throws DBException
+    public void loadChildren(DBRProgressMonitor monitor, OWNER owner, @Nullable final OBJECT forObject) throws DBException
+    {
+        boolean prefetchChecked = false;
+        for (;;) {
+            if ((forObject == null && this.childrenCached)
+                || (forObject != null && (!forObject.isPersisted() || isChildrenCached(forObject))) || monitor.isCanceled()) {
+                return;
+            }
+            if (forObject != null && !prefetchChecked) {
+                prefetchChecked = true;
+                if (isChildrenPrefetchNeeded(owner)) {
+                    prefetchChildren(monitor, owner);
+                    continue;
+                }
+            }
+            // Concurrent requests for the same parent share one load. Loads for different parents run in parallel.
+            // If all children are being read then there is no need to read children of a single parent.
+            SharedLoad activeLoad;
+            SharedLoad newLoad = null;
+            synchronized (childrenLoads) {
+                activeLoad = allChildrenLoad;
+                if (activeLoad == null && forObject != null) {
+                    activeLoad = childrenLoads.get(forObject);
+                }
+                if (activeLoad == null) {
+                    newLoad = new SharedLoad();
+                    if (forObject == null) {
+                        allChildrenLoad = newLoad;
+                    } else {
+                        childrenLoads.put(forObject, newLoad);
+                        registerChildrenMiss();
+                    }
+                }
+            }
+            if (newLoad == null) {
+                if (activeLoad.isLoadThread()) {
+                    // Nested request from the load itself
+                    readChildren(monitor, owner, forObject);
+                    return;
+                }
+                // Wait for other thread and check the cache again (the load could be canceled)
+                activeLoad.waitFor(monitor, "child objects");
+                continue;
+            }
+            try {
+                readChildren(monitor, owner, forObject);
+                newLoad.complete(null);
+            } catch (Throwable e) {
+                newLoad.completeExceptionally(e);
+                throw e;
+            } finally {
+                synchronized (childrenLoads) {
+                    if (forObject == null) {
+                        allChildrenLoad = null;
+                    } else {
+                        childrenLoads.remove(forObject);
+                    }
+                }
+            }
+            return;
+        }
+    }
+
+    private boolean isChildrenPrefetchNeeded(OWNER owner)
+    {
+        if (childrenCached || childrenPrefetchDisabled) {
+            return false;
+        }
+        DBPDataSource dataSource = owner.getDataSource();
+        if (dataSource == null) {
+            return false;
+        }
+        int threshold = dataSource.getContainer().getPreferenceStore().getInt(ModelPreferences.META_CHILDREN_PREFETCH_THRESHOLD);
+        if (threshold <= 0) {
+            return false;
+        }
+        synchronized (childrenLoads) {
+            if (System.currentTimeMillis() - childrenMissWindowStart > CHILDREN_MISS_WINDOW || childrenMisses < threshold) {
+                return false;
+            }
+        }
+        if (getCacheSize() > CHILDREN_PREFETCH_MAX_OBJECTS) {
+            log.debug("Too many objects in " + getClass().getSimpleName() + " (" + getCacheSize() + "). Read children by parent");
+            childrenPrefetchDisabled = true;
+            return false;
+        }
+        return true;
+    }
+
+    private void registerChildrenMiss()
+    {
+        long currentTime = System.currentTimeMillis();
+        if (currentTime - childrenMissWindowStart > CHILDREN_MISS_WINDOW) {
+            childrenMissWindowStart = currentTime;
+            childrenMisses = 0;
+        }
+        childrenMisses++;
+    }
+
+    /**
+     * Reads children of all objects in a single query.
+     * If it fails or reads nothing then this cache reads children by parent only.
+     */
+    private void prefetchChildren(DBRProgressMonitor monitor, OWNER owner)
     {
-        if ((forObject == null && this.childrenCached)
-            || (forObject != null && (!forObject.isPersisted() || isChildrenCached(forObject))) || monitor.isCanceled()) {
+        log.debug("Read all children in " + getClass().getSimpleName() + " after many single reads");
+        try {
+            loadChildren(monitor, owner, null);
+        } catch (DBException e) {
+            log.debug("Error reading all children. Read children by parent", e);
+            childrenPrefetchDisabled = true;
             return;
         }
+        if (!childrenCached && !monitor.isCanceled()) {
+            childrenPrefetchDisabled = true;
+        }
+    }
+
+    private void readChildren(DBRProgressMonitor monitor, OWNER owner, @Nullable final OBJECT forObject) throws DBException
+    {
         if (forObject == null) {
             // If we have some child objects read before that - do not clear them.
             // We have to reuse them because there could be some references in cached model
@@ -95,8 +224,7 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
             // Load columns
             try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
                 dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                dbStat.executeStatement();
-                JDBCResultSet dbResult = dbStat.getResultSet();
+                JDBCResultSet dbResult = JDBCMetadataSnapshot.executeStatement(session, owner, getClass().getName() + "#children", dbStat);
                 if (dbResult != null) {
                     try {
                         while (dbResult.next()) {
@@ -146,11 +274,8 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
 
                         // All children are read. Now assign them to parents
                         for (Map.Entry<OBJECT, List<CHILD>> colEntry : objectMap.entrySet()) {
-                            if (!isChildrenCached(colEntry.getKey())) {
-                                // isChildrenCached may return true if the same cache was read in other thread
-                                // just skip
-                                cacheChildren(colEntry.getKey(), colEntry.getValue());
-                            }
+                            // Children may be already read by a concurrent load - just skip
+                            cacheChildrenIfAbsent(colEntry.getKey(), colEntry.getValue());
                         }
                         if (forObject == null) {
                             if (objectMap.isEmpty()) {
@@ -159,14 +284,14 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
                             } else {
                                 // Now set empty column list for other tables
                                 for (OBJECT tmpObject : getAllObjects(monitor, owner)) {
-                                    if (!isChildrenCached(tmpObject) && !objectMap.containsKey(tmpObject)) {
-                                        cacheChildren(tmpObject, new ArrayList<>());
+                                    if (!objectMap.containsKey(tmpObject)) {
+                                        cacheChildrenIfAbsent(tmpObject, new ArrayList<>());
                                     }
                                 }
                                 this.childrenCached = true;
                             }
                         } else if (!objectMap.containsKey(forObject)) {
-                            cacheChildren(forObject, new ArrayList<>());
+                            cacheChildrenIfAbsent(forObject, new ArrayList<>());
                         }
                     } finally {
                         dbResult.close();
@@ -245,6 +370,11 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
             }
             childrenCached = false;
         }
+        if (forParent == null) {
+            synchronized (childrenLoads) {
+                childrenMisses = 0;
+            }
+        }
     }
 
     protected boolean isChildrenCached(OBJECT parent)
@@ -256,6 +386,15 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         }
     }
 
+    private void cacheChildrenIfAbsent(OBJECT parent, List<CHILD> children)
+    {
+        synchronized (childrenCache) {
+            if (!childrenCache.containsKey(parent)) {
+                cacheChildren(parent, children);
+            }
+        }
+    }
+
     protected void cacheChildren(OBJECT parent, List<CHILD> children)
     {
         synchronized (childrenCache) {
@@ -316,7 +316,43 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
             @NotNull
             @Override
             protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) throws DBCException {
-                // Make query
+                return prepareInsertStatement(session, handlers, Collections.singletonList(attributeValues), options);
+            }
+
+            @Override
+            protected boolean supportsMultiRowStatements(@NotNull DBCSession session, @NotNull DBDValueHandler[] handlers) {
+                if (keysReceiver != null || useUpsert(session) ||
+                    SQLUtils.getDialectFromDataSource(session.getDataSource()).getDefaultMultiValueInsertMode() != SQLDialect.MultiValueInsertMode.GROUP_ROWS)
+                {
+                    return false;
+                }
+                for (DBDValueHandler handler : handlers) {
+                    if (handler instanceof DBDValueBinder) {
+                        // Bind expression may depend on value
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @NotNull
+            @Override
+            protected DBCStatement prepareMultiRowStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, List<Object[]> rows, Map<String, Object> options) throws DBCException {
+                return prepareInsertStatement(session, handlers, rows, options);
+            }
+
+            @Override
+            protected void bindMultiRowStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, List<Object[]> rows) throws DBCException {
+                int paramIndex = 0;
+                for (Object[] attributeValues : rows) {
+                    paramIndex = bindInsertValues(handlers, statement, attributeValues, paramIndex);
+                }
+            }
+
+            @NotNull
+            private DBCStatement prepareInsertStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, List<Object[]> rows, Map<String, Object> options) throws DBCException {
+                // Make query. All rows have the same null values
+                Object[] attributeValues = rows.get(0);
                 String tableName = DBUtils.getEntityScriptName(JDBCTable.this, options);
                 StringBuilder query = new StringBuilder(200);
 
@@ -349,24 +385,29 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
                     hasKey = true;
                     query.append(getAttributeName(attribute));
                 }
-                query.append(")\n\tVALUES ("); //$NON-NLS-1$
-                hasKey = false;
-                for (int i = 0; i < attributes.length; i++) {
-                    DBSAttributeBase attribute = attributes[i];
-                    if (DBUtils.isPseudoAttribute(attribute) || (!allNulls && DBUtils.isNullValue(attributeValues[i]))) {
-                        continue;
-                    }
-                    if (hasKey) query.append(","); //$NON-NLS-1$
-                    hasKey = true;
+                query.append(")\n\tVALUES "); //$NON-NLS-1$
+                for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
+                    Object[] rowValues = rows.get(rowIndex);
+                    if (rowIndex > 0) query.append(","); //$NON-NLS-1$
+                    query.append("("); //$NON-NLS-1$
+                    hasKey = false;
+                    for (int i = 0; i < attributes.length; i++) {
+                        DBSAttributeBase attribute = attributes[i];
+                        if (DBUtils.isPseudoAttribute(attribute) || (!allNulls && DBUtils.isNullValue(rowValues[i]))) {
+                            continue;
+                        }
+                        if (hasKey) query.append(","); //$NON-NLS-1$
+                        hasKey = true;
 
-                    DBDValueHandler valueHandler = handlers[i];
-                    if (valueHandler instanceof DBDValueBinder) {
-                        query.append(((DBDValueBinder) valueHandler) .makeQueryBind(attribute, attributeValues[i]));
-                    } else {
-                        query.append("?"); //$NON-NLS-1$
+                        DBDValueHandler valueHandler = handlers[i];
+                        if (valueHandler instanceof DBDValueBinder) {
+                            query.append(((DBDValueBinder) valueHandler) .makeQueryBind(attribute, rowValues[i]));
+                        } else {
+                            query.append("?"); //$NON-NLS-1$
+                        }
                     }
+                    query.append(")"); //$NON-NLS-1$
                 }
-                query.append(")"); //$NON-NLS-1$
 
                 String trailingClause = method.getTrailingClause(JDBCTable.this, session.getProgressMonitor(), attributes);
                 if (trailingClause != null) {
@@ -381,7 +422,10 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
 
             @Override
             protected void bindStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues) throws DBCException {
-                int paramIndex = 0;
+                bindInsertValues(handlers, statement, attributeValues, 0);
+            }
+
+            private int bindInsertValues(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues, int paramIndex) throws DBCException {
                 for (int k = 0; k < handlers.length; k++) {
                     DBSAttributeBase attribute = attributes[k];
                     if (DBUtils.isPseudoAttribute(attribute) || (!allNulls && DBUtils.isNullValue(attributeValues[k]))) {
@@ -389,6 +433,7 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
                     }
                     handlers[k].bindValueObject(statement.getSession(), statement, attribute, paramIndex++, attributeValues[k]);
                 }
+                return paramIndex;
             }
         };
     }
@@ -17,10 +17,12 @@
 package org.jkiss.dbeaver.model.navigator;
 
 import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeItem;
@@ -28,13 +30,21 @@ import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
 import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
 import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.runtime.DBServiceConnections;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * DBNDataSource
@@ -43,8 +53,14 @@ public class DBNDataSource extends DBNDatabaseNode implements DBNContainer, IAda
 {
     private static final boolean USE_ICON_DECORATIONS = false; // Disabled in #9384
 
+    private static final long LOADER_KEEP_ALIVE_TIME = 30;
+
     private final DBPDataSourceContainer dataSource;
     private DBXTreeNode treeRoot;
+    // Loads child nodes in background. Number of threads is limited per datasource
+    private ThreadPoolExecutor childrenLoader;
+    // Monitors of running background loads. They are canceled when the node is cleared (e.g. on disconnect) or disposed
+    private final Set<DBRProgressMonitor> loaderMonitors = Collections.newSetFromMap(new IdentityHashMap<>());
 
     public DBNDataSource(@NotNull DBNNode parentNode, @NotNull DBPDataSourceContainer dataSource)
     {
@@ -70,6 +86,13 @@ public class DBNDataSource extends DBNDatabaseNode implements DBNContainer, IAda
     @Override
     protected void dispose(boolean reflect)
     {
+        synchronized (this) {
+            if (childrenLoader != null) {
+                childrenLoader.shutdownNow();
+                childrenLoader = null;
+            }
+        }
+        cancelChildrenLoads();
         unregisterNode(reflect);
 
         super.dispose(reflect);
@@ -291,11 +314,79 @@ public class DBNDataSource extends DBNDatabaseNode implements DBNContainer, IAda
         clearNode(true);
     }
 
+    @Override
+    void clearNode(boolean reflect) {
+        // Children read in background belong to the old node content
+        cancelChildrenLoads();
+        super.clearNode(reflect);
+    }
+
     @Override
     public String toString() {
         return dataSource.toString();
     }
 
+    /**
+     * Loads children of the specified node in background.
+     * @return false if background load is disabled
+     */
+    boolean loadChildrenAsync(@NotNull DBNDatabaseNode node) {
+        ThreadPoolExecutor executor;
+        synchronized (this) {
+            if (childrenLoader == null) {
+                int threadCount = dataSource.getPreferenceStore().getInt(ModelPreferences.NAVIGATOR_LOAD_THREADS);
+                if (threadCount <= 0 || isDisposed()) {
+                    return false;
+                }
+                childrenLoader = new ThreadPoolExecutor(
+                    threadCount, threadCount,
+                    LOADER_KEEP_ALIVE_TIME, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    r -> {
+                        Thread thread = new Thread(r, "Navigator loader (" + dataSource.getName() + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                childrenLoader.allowCoreThreadTimeOut(true);
+            }
+            executor = childrenLoader;
+        }
+        try {
+            executor.execute(() -> {
+                if (node.isDisposed() || !dataSource.isConnected()) {
+                    return;
+                }
+                DBRProgressMonitor monitor = new DefaultProgressMonitor(new NullProgressMonitor());
+                synchronized (loaderMonitors) {
+                    loaderMonitors.add(monitor);
+                }
+                try {
+                    node.getChildren(monitor);
+                } catch (Throwable e) {
+                    if (!monitor.isCanceled()) {
+                        log.debug("Error loading children of '" + node.getNodeName() + "' in background", e);
+                    }
+                } finally {
+                    synchronized (loaderMonitors) {
+                        loaderMonitors.remove(monitor);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Disposed
+            return false;
+        }
+        return true;
+    }
+
+    private void cancelChildrenLoads() {
+        synchronized (loaderMonitors) {
+            for (DBRProgressMonitor monitor : loaderMonitors) {
+                monitor.getNestedMonitor().setCanceled(true);
+            }
+        }
+    }
+
     public static DBNDataSource getDataSourceNode(DBNNode node) {
         for (DBNNode pn = node; pn != null; pn = pn.getParentNode()) {
             if (pn instanceof DBNDataSource) {
@@ -32,6 +32,7 @@ import org.jkiss.dbeaver.model.navigator.meta.DBXTreeObject;
 import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableParametrized;
+import org.jkiss.dbeaver.model.runtime.SharedLoad;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.struct.rdb.DBSPackage;
@@ -54,6 +55,8 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBNLazyNode, DB
 
     private volatile boolean locked;
     protected volatile DBNDatabaseNode[] childNodes;
+    // Children load in progress. Concurrent readers wait for it instead of loading children again
+    private SharedLoad childrenLoad;
     private boolean filtered;
 
     protected DBNDatabaseNode(DBNNode parentNode) {
@@ -199,27 +202,95 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBNLazyNode, DB
     @Override
     public DBNDatabaseNode[] getChildren(DBRProgressMonitor monitor)
         throws DBException {
-        boolean needsLoad;
-        synchronized (this) {
-            needsLoad = childNodes == null && hasChildren(false);
-        }
-        if (needsLoad) {
-            if (this.initializeNode(monitor, null)) {
-                final List<DBNDatabaseNode> tmpList = new ArrayList<>();
-                loadChildren(monitor, getMeta(), null, tmpList, this, true);
-                if (!monitor.isCanceled()) {
-                    synchronized (this) {
-                        if (tmpList.isEmpty()) {
-                            this.childNodes = EMPTY_NODES;
-                        } else {
-                            this.childNodes = tmpList.toArray(new DBNDatabaseNode[0]);
-                        }
+        for (;;) {
+            SharedLoad activeLoad;
+            SharedLoad newLoad = null;
+            synchronized (this) {
+                if (childNodes != null || !hasChildren(false)) {
+                    return childNodes;
+                }
+                activeLoad = childrenLoad;
+                if (activeLoad == null) {
+                    newLoad = childrenLoad = new SharedLoad();
+                }
+            }
+            if (newLoad == null) {
+                if (activeLoad.isLoadThread()) {
+                    // Nested read from the load itself
+                    readChildren(monitor);
+                    return childNodes;
+                }
+                // Wait for other reader and check children again (load could be canceled)
+                activeLoad.waitFor(monitor, "child nodes");
+                if (monitor.isCanceled()) {
+                    return childNodes;
+                }
+                continue;
+            }
+            try {
+                readChildren(monitor);
+                newLoad.complete(null);
+            } catch (Throwable e) {
+                newLoad.completeExceptionally(e);
+                throw e;
+            } finally {
+                synchronized (this) {
+                    childrenLoad = null;
+                }
+            }
+            DBNDatabaseNode[] children = childNodes;
+            if (children != null) {
+                loadChildFoldersAsync(children);
+            }
+            return children;
+        }
+    }
+
+    private void readChildren(DBRProgressMonitor monitor) throws DBException {
+        if (this.initializeNode(monitor, null)) {
+            final List<DBNDatabaseNode> tmpList = new ArrayList<>();
+            loadChildren(monitor, getMeta(), null, tmpList, this, true);
+            if (!monitor.isCanceled()) {
+                synchronized (this) {
+                    if (tmpList.isEmpty()) {
+                        this.childNodes = EMPTY_NODES;
+                    } else {
+                        this.childNodes = tmpList.toArray(new DBNDatabaseNode[0]);
                     }
-                    this.afterChildRead();
+                }
+                this.afterChildRead();
+            }
+        }
+    }
+
+    /**
+     * Starts children load of sibling folders (tables, views, procedures, etc) of a schema or catalog in background.
+     * Folders are loaded in parallel, so their expand doesn't wait for each folder query one by one.
+     */
+    private void loadChildFoldersAsync(DBNDatabaseNode[] children) {
+        if (!(this instanceof DBNDatabaseItem)) {
+            // Datasource root folders are mostly service ones (security, administration, etc). Load them on demand
+            return;
+        }
+        DBSObject object = getObject();
+        if (!(object instanceof DBSObjectContainer) || object instanceof DBSEntity) {
+            // Only containers (catalogs, schemas). Folders of tables (columns, indexes, etc) are loaded on demand
+            return;
+        }
+        DBNDataSource dataSourceNode = null;
+        for (DBNDatabaseNode child : children) {
+            if (child instanceof DBNDatabaseFolder && !child.getMeta().isVirtual() && child.needsInitialization()) {
+                if (dataSourceNode == null) {
+                    dataSourceNode = DBNDataSource.getDataSourceNode(this);
+                    if (dataSourceNode == null) {
+                        return;
+                    }
+                }
+                if (!dataSourceNode.loadChildrenAsync(child)) {
+                    return;
                 }
             }
         }
-        return childNodes;
     }
 
     protected void afterChildRead() {
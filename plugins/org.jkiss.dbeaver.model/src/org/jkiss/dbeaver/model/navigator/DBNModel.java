@@ -43,9 +43,9 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -80,7 +80,8 @@ public class DBNModel implements IResourceChangeListener {
     private final List<INavigatorListener> listeners = new ArrayList<>();
     private transient INavigatorListener[] listenersCopy = null;
     private final transient List<DBNEvent> eventCache = new ArrayList<>();
-    private final Map<DBSObject, Object> nodeMap = new HashMap<>();
+    // Object -> node or list of nodes. Node lists are never modified, they are replaced with a new list
+    private final Map<DBSObject, Object> nodeMap = new ConcurrentHashMap<>();
     private final List<Function<DBNNode, Boolean>> nodeFilters = new ArrayList<>();
 
     /**
@@ -130,9 +131,7 @@ public class DBNModel implements IResourceChangeListener {
 
         if (root != null) {
             this.root.dispose(false);
-            synchronized (nodeMap) {
-                this.nodeMap.clear();
-            }
+            this.nodeMap.clear();
             this.root = null;
         }
         synchronized (this.listeners) {
@@ -169,10 +168,10 @@ public class DBNModel implements IResourceChangeListener {
         }
         object = DBUtils.getPublicObjectContainer(object);
 
-        Object obj;
-        synchronized (nodeMap) {
-            obj = nodeMap.get(object);
+        if (object == null) {
+            return null;
         }
+        Object obj = nodeMap.get(object);
         if (obj == null) {
             return null;
         } else if (obj instanceof DBNDatabaseNode) {
@@ -499,24 +498,31 @@ public class DBNModel implements IResourceChangeListener {
 
     void addNode(DBNDatabaseNode node, boolean reflect)
     {
-        synchronized (nodeMap) {
-            Object obj = nodeMap.get(node.getObject());
+        DBSObject object = node.getObject();
+        if (object == null) {
+            log.warn("Attempt to register node '" + node.getNodeName() + "' without object");
+            return;
+        }
+        nodeMap.compute(object, (o, obj) -> {
             if (obj == null) {
                 // New node
-                nodeMap.put(node.getObject(), node);
-            } else if (obj instanceof DBNNode) {
+                return node;
+            }
+            List<DBNNode> nodeList;
+            if (obj instanceof DBNNode) {
                 // Second node - make a list
-                List<DBNNode> nodeList = new ArrayList<>(2);
-                nodeList.add((DBNNode)obj);
-                nodeList.add(node);
-                nodeMap.put(node.getObject(), nodeList);
-            } else if (obj instanceof List) {
+                nodeList = new ArrayList<>(2);
+                nodeList.add((DBNNode) obj);
+            } else {
                 // Multiple nodes
                 @SuppressWarnings("unchecked")
-                List<DBNNode> nodeList = (List<DBNNode>) obj;
-                nodeList.add(node);
+                List<DBNNode> oldList = (List<DBNNode>) obj;
+                nodeList = new ArrayList<>(oldList.size() + 1);
+                nodeList.addAll(oldList);
             }
-        }
+            nodeList.add(node);
+            return nodeList;
+        });
         if (reflect) {
             this.fireNodeEvent(new DBNEvent(this, DBNEvent.Action.ADD, DBNEvent.NodeChange.LOAD, node));
         }
@@ -524,29 +530,26 @@ public class DBNModel implements IResourceChangeListener {
 
     void removeNode(DBNDatabaseNode node, boolean reflect)
     {
-        boolean badNode = false;
-        synchronized (nodeMap) {
-            Object obj = nodeMap.get(node.getObject());
-            if (obj == null) {
-                // No found
-                badNode = true;
-            } else if (obj instanceof DBNNode) {
-                // Just remove it
-                if (nodeMap.remove(node.getObject()) != node) {
-                    badNode = true;
+        boolean[] removed = new boolean[1];
+        DBSObject object = node.getObject();
+        if (object != null) {
+            nodeMap.computeIfPresent(object, (o, obj) -> {
+                if (obj instanceof DBNNode) {
+                    // Just remove it
+                    if (obj == node) {
+                        removed[0] = true;
+                        return null;
+                    }
+                    return obj;
                 }
-            } else if (obj instanceof List) {
                 // Multiple nodes
                 @SuppressWarnings("unchecked")
-                List<DBNNode> nodeList = (List<DBNNode>) obj;
-                if (!nodeList.remove(node)) {
-                    badNode = true;
-                }
-                if (nodeList.isEmpty()) {
-                    nodeMap.remove(node.getObject());
-                }
-            }
+                List<DBNNode> nodeList = new ArrayList<>((List<DBNNode>) obj);
+                removed[0] = nodeList.remove(node);
+                return nodeList.isEmpty() ? null : nodeList;
+            });
         }
+        boolean badNode = !removed[0];
         if (badNode) {
             log.warn("Remove unregistered meta node object " + node.getNodeName());
         } else {
@@ -37,6 +37,9 @@ public class QMEventCriteria {
     DBCExecutionPurpose[] queryTypes = new DBCExecutionPurpose[0];
     @Nullable
     String searchString;
+    long startTime;
+    long endTime;
+    long minDuration;
 
     public String getContainerId() {
         return containerId;
@@ -95,4 +98,37 @@ public class QMEventCriteria {
     public void setSearchString(String searchString) {
         this.searchString = searchString;
     }
+
+    /**
+     * Minimal event time (ms). Zero means no limit
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    /**
+     * Maximal event time (ms). Zero means no limit
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(long endTime) {
+        this.endTime = endTime;
+    }
+
+    /**
+     * Minimal query execution time (ms). Events other than queries don't match positive duration
+     */
+    public long getMinDuration() {
+        return minDuration;
+    }
+
+    public void setMinDuration(long minDuration) {
+        this.minDuration = minDuration;
+    }
 }
@@ -36,6 +36,13 @@ public class QMMTransactionInfo extends QMMObject {
         this.savepointStack = new QMMTransactionSavepointInfo(this, null, null, null);
     }
 
+    public QMMTransactionInfo(long openTime, long closeTime, QMMSessionInfo session, boolean committed) {
+        super(openTime, closeTime);
+        this.session = session;
+        this.previous = null;
+        this.committed = committed;
+    }
+
     void commit()
     {
         this.committed = true;
@@ -0,0 +1,70 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.runtime;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Load shared by concurrent readers.
+ * The thread which creates the load reads objects and completes it, other threads wait for it.
+ */
+public class SharedLoad extends CompletableFuture<Void> {
+
+    // Monitor cancel check interval
+    private static final long WAIT_TIMEOUT = 100;
+
+    private final Thread loadThread = Thread.currentThread();
+
+    /**
+     * Nested read from the load itself must not wait for the load
+     */
+    public boolean isLoadThread() {
+        return loadThread == Thread.currentThread();
+    }
+
+    /**
+     * Waits until the load ends or the monitor is canceled. Rethrows the load error.
+     * @param objectsName name of loaded objects for error messages
+     */
+    public void waitFor(@NotNull DBRProgressMonitor monitor, @NotNull String objectsName) throws DBException {
+        try {
+            while (!monitor.isCanceled()) {
+                try {
+                    get(WAIT_TIMEOUT, TimeUnit.MILLISECONDS);
+                    return;
+                } catch (TimeoutException e) {
+                    // Check for cancel and wait more
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new DBException("Load of " + objectsName + " interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DBException) {
+                throw (DBException) cause;
+            }
+            throw new DBException("Error loading " + objectsName, cause);
+        }
+    }
+
+}
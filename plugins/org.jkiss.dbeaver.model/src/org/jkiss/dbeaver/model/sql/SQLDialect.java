@@ -331,6 +331,23 @@ public interface SQLDialect {
     @NotNull
     MultiValueInsertMode getDefaultMultiValueInsertMode();
 
+    /**
+     * Maximum number of bind parameters in a single statement.
+     * Used e.g. to limit number of rows in multi-row insert.
+     * @return parameters number or 0 if there is no known limit
+     */
+    default int getMaxQueryParameters() {
+        return 0;
+    }
+
+    /**
+     * Maximum length of a single statement (including inlined parameter values) in characters.
+     * @return statement length or 0 if there is no known limit
+     */
+    default int getMaxQueryLength() {
+        return 0;
+    }
+
     String addFiltersToQuery(DBRProgressMonitor monitor, DBPDataSource dataSource, String query, DBDDataFilter filter);
 
     /**
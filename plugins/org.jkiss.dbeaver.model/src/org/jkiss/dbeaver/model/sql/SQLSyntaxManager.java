@@ -21,9 +21,11 @@ import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPIdentifierCase;
+import org.jkiss.dbeaver.model.DBPKeywordType;
 import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CharTrie;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.Collections;
@@ -60,6 +62,8 @@ public class SQLSyntaxManager {
 
     private char escapeChar;
     private boolean blankLineDelimiter;
+    private CharTrie<DBPKeywordType> keywordTrie;
+    private int keywordTrieSize;
 
     public SQLSyntaxManager()
     {
@@ -186,6 +190,35 @@ public class SQLSyntaxManager {
         if (CommonUtils.isEmpty(this.controlCommandPrefix)) {
             this.controlCommandPrefix = SQLConstants.DEFAULT_CONTROL_COMMAND_PREFIX;
         }
+        synchronized (this) {
+            this.keywordTrie = null;
+        }
+    }
+
+    /**
+     * Dialect keywords with their types. Tokenizers use it to look up words without string allocations.
+     * Dictionary is rebuilt if dialect keywords were changed (e.g. after connect).
+     */
+    @NotNull
+    public synchronized CharTrie<DBPKeywordType> getKeywordTrie() {
+        Set<String> reservedWords = sqlDialect.getReservedWords();
+        if (keywordTrie == null || keywordTrieSize != reservedWords.size()) {
+            keywordTrie = createKeywordTrie(sqlDialect);
+            keywordTrieSize = reservedWords.size();
+        }
+        return keywordTrie;
+    }
+
+    @NotNull
+    public static CharTrie<DBPKeywordType> createKeywordTrie(@NotNull SQLDialect dialect) {
+        CharTrie<DBPKeywordType> trie = new CharTrie<>();
+        for (String word : dialect.getReservedWords()) {
+            DBPKeywordType keywordType = dialect.getKeywordType(word);
+            if (keywordType != null) {
+                trie.put(word, keywordType);
+            }
+        }
+        return trie;
     }
 
     @NotNull
@@ -30,6 +30,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Various objects cache
@@ -39,8 +40,10 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
 {
     private static final Log log = Log.getLog(AbstractObjectCache.class);
 
-    private List<OBJECT> objectList;
-    private Map<String, OBJECT> objectMap;
+    // Readers access list and name map without locking. All modifications are made under cacheSync
+    private volatile List<OBJECT> objectList;
+    private volatile Map<String, OBJECT> objectMap;
+    private volatile int modificationCount;
     protected volatile boolean fullCache = false;
     protected volatile boolean caseSensitive = true;
 
@@ -74,9 +77,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public List<OBJECT> getCachedObjects()
     {
-        synchronized (cacheSync) {
-            return objectList == null ? Collections.<OBJECT>emptyList() : objectList;
-        }
+        List<OBJECT> list = objectList;
+        return list == null ? Collections.<OBJECT>emptyList() : list;
     }
 
     public <SUB_TYPE> List<SUB_TYPE> getTypedObjects(DBRProgressMonitor monitor, OWNER owner, Class<SUB_TYPE> type)
@@ -95,15 +97,27 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public OBJECT getCachedObject(@NotNull String name)
     {
-        synchronized (cacheSync) {
-            return objectList == null || name == null ? null : getObjectMap().get(caseSensitive ? name : name.toUpperCase());
+        if (objectList == null || name == null) {
+            return null;
         }
+        Map<String, OBJECT> map = objectMap;
+        if (map == null) {
+            // Name map is built once after cache (re)load
+            map = getObjectMap();
+        }
+        return map.get(caseSensitive ? name : name.toUpperCase());
+    }
+
+    /**
+     * Incremented on each cache change. Used to detect changes by listeners which keep cache data copies
+     */
+    public int getModificationCount() {
+        return modificationCount;
     }
 
     public int getCacheSize() {
-        synchronized (cacheSync) {
-            return objectList == null ? 0 : objectList.size();
-        }
+        List<OBJECT> list = objectList;
+        return list == null ? 0 : list.size();
     }
 
     @Override
@@ -115,10 +129,13 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
             }
             detectCaseSensitivity(object);
             this.objectList.add(object);
+            modificationCount++;
             if (this.objectMap != null) {
                 String name = getObjectName(object);
-                checkDuplicateName(name, object);
-                this.objectMap.put(name, object);
+                if (name != null) {
+                    checkDuplicateName(name, object);
+                    this.objectMap.put(name, object);
+                }
             }
         }
     }
@@ -130,9 +147,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
             if (this.objectList != null) {
                 detectCaseSensitivity(object);
                 this.objectList.remove(object);
-                if (this.objectMap != null) {
-                    this.objectMap.remove(getObjectName(object));
-                }
+                removeObjectName(object);
+                modificationCount++;
             }
             if (resetFullCache) {
                 fullCache = false;
@@ -152,6 +168,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
                     this.objectMap.put(newName, object);
                 }
             }
+            modificationCount++;
         }
     }
 
@@ -179,6 +196,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
             this.objectList = null;
             this.objectMap = null;
             this.fullCache = false;
+            modificationCount++;
         }
     }
 
@@ -188,6 +206,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
             this.objectList = objects;
             this.objectMap = null;
             this.fullCache = true;
+            modificationCount++;
         }
     }
 
@@ -232,27 +251,49 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     {
         synchronized (cacheSync) {
             if (this.objectMap == null) {
-                this.objectMap = new HashMap<>();
+                if (objectList == null) {
+                    return Collections.emptyMap();
+                }
+                // Map is published only when it is complete so readers never see partially filled map
+                Map<String, OBJECT> map = new ConcurrentHashMap<>(Math.max(16, objectList.size() * 2));
                 if (objectList.size() > 0) {
                     detectCaseSensitivity(objectList.get(0));
                 }
 
                 for (OBJECT object : objectList) {
                     String name = getObjectName(object);
-                    checkDuplicateName(name, object);
-                    this.objectMap.put(name, object);
+                    if (name == null) {
+                        continue;
+                    }
+                    checkDuplicateName(map, name, object);
+                    map.put(name, object);
                 }
+                this.objectMap = map;
             }
             return this.objectMap;
         }
     }
 
     private void checkDuplicateName(String name, OBJECT object) {
-        if (this.objectMap.containsKey(name)) {
+        checkDuplicateName(this.objectMap, name, object);
+    }
+
+    private void checkDuplicateName(Map<String, OBJECT> map, String name, OBJECT object) {
+        if (map.containsKey(name)) {
             log.debug("Duplicate object name '" + name + "' in cache " + this.getClass().getSimpleName() + ". Last value: " + DBUtils.getObjectFullName(object, DBPEvaluationContext.DDL));
         }
     }
 
+    private void removeObjectName(OBJECT object) {
+        Map<String, OBJECT> map = this.objectMap;
+        if (map != null) {
+            String name = getObjectName(object);
+            if (name != null) {
+                map.remove(name);
+            }
+        }
+    }
+
     protected void detectCaseSensitivity(DBSObject object) {
         if (this.caseSensitive) {
             DBPDataSource dataSource = object.getDataSource();
@@ -281,10 +322,9 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
                 OBJECT object = objectList.get(i);
                 if (object.getParentObject() == parent) {
                     this.objectList.remove(object);
-                    if (this.objectMap != null) {
-                        this.objectMap.remove(getObjectName(object));
-                    }
+                    removeObjectName(object);
                     fullCache = false;
+                    modificationCount++;
                 } else {
                     i++;
                 }
@@ -381,9 +421,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         public void remove()
         {
             listIterator.remove();
-            if (objectMap != null) {
-                objectMap.remove(getObjectName(curObject));
-            }
+            removeObjectName(curObject);
+            modificationCount++;
         }
     }
 
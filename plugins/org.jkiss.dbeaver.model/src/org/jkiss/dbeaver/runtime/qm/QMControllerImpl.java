@@ -48,6 +48,7 @@ public class QMControllerImpl implements QMController {
     private final List<QMExecutionHandler> handlers = new ArrayList<>();
     private QMEventBrowser eventBrowser;
     private DefaultEventBrowser defaultEventBrowser = new DefaultEventBrowser();
+    private QMEventHistoryStore historyStore;
 
     public QMControllerImpl() {
         defaultHandler = (QMExecutionHandler) Proxy.newProxyInstance(
@@ -57,10 +58,20 @@ public class QMControllerImpl implements QMController {
 
         metaHandler = new QMMCollectorImpl();
         registerHandler(metaHandler);
+
+        historyStore = new QMEventHistoryStore();
+        metaHandler.addListener(historyStore);
     }
 
     public void dispose()
     {
+        if (historyStore != null) {
+            if (metaHandler != null) {
+                metaHandler.removeListener(historyStore);
+            }
+            historyStore.dispose();
+            historyStore = null;
+        }
         if (metaHandler != null) {
             unregisterHandler(metaHandler);
             metaHandler.dispose();
@@ -99,6 +110,10 @@ public class QMControllerImpl implements QMController {
                 this.eventBrowser = defaultEventBrowser;
             }
         }
+        if (eventBrowser == defaultEventBrowser && historyStore != null && historyStore.isEnabled()) {
+            // Search in persistent history
+            return historyStore;
+        }
 
         return eventBrowser;
     }
@@ -0,0 +1,778 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceListener;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.qm.*;
+import org.jkiss.dbeaver.model.qm.meta.*;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Persistent query manager history.
+ *
+ * Events are appended to segment files in the QM log folder. A segment is closed when it reaches
+ * the size or age limit and its index is saved next to it. The index keeps time range, data source ids,
+ * object types, query types and query duration buckets of segment events, so a search reads only segments
+ * which may contain matching events. Segments older than the history days limit are deleted.
+ */
+public class QMEventHistoryStore implements QMMetaListener, QMEventBrowser, DBPPreferenceListener {
+
+    private static final Log log = Log.getLog(QMEventHistoryStore.class);
+
+    private static final String HISTORY_FOLDER = "qm-history";
+    private static final String SEGMENT_PREFIX = "qm-";
+    private static final String SEGMENT_EXT = ".qmh";
+    private static final String INDEX_EXT = ".qmi";
+    private static final int INDEX_VERSION = 1;
+
+    private static final long MAX_SEGMENT_SIZE = 8 * 1024 * 1024;
+    private static final long MAX_SEGMENT_AGE = 24 * 60 * 60 * 1000L;
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private static final byte TYPE_SESSION = 0;
+    private static final byte TYPE_TRANSACTION = 1;
+    private static final byte TYPE_QUERY = 2;
+    // Upper bounds (ms) of query duration buckets. The last bucket is unbounded
+    private static final long[] DURATION_BUCKETS = {10, 100, 1000, 10000, 60000};
+
+    private final DBPPreferenceStore preferences;
+    private boolean enabled;
+    private File historyFolder;
+    private int historyDays;
+    // Segments sorted by creation time. The last one may be active
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment activeSegment;
+    private OutputStream activeOutput;
+
+    public QMEventHistoryStore()
+    {
+        this(ModelPreferences.getPreferences());
+    }
+
+    QMEventHistoryStore(@NotNull DBPPreferenceStore preferences)
+    {
+        this.preferences = preferences;
+        preferences.addPropertyChangeListener(this);
+        initStore();
+    }
+
+    public void dispose()
+    {
+        preferences.removePropertyChangeListener(this);
+        closeStore();
+    }
+
+    public synchronized boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    private synchronized void initStore()
+    {
+        closeStore();
+        enabled = preferences.getBoolean(QMConstants.PROP_STORE_HISTORY);
+        if (!enabled) {
+            return;
+        }
+        historyDays = preferences.getInt(QMConstants.PROP_HISTORY_DAYS);
+        historyFolder = new File(preferences.getString(QMConstants.PROP_LOG_DIRECTORY), HISTORY_FOLDER);
+        if (!historyFolder.exists() && !historyFolder.mkdirs()) {
+            log.error("Can't create QM history folder '" + historyFolder.getAbsolutePath() + "'");
+            enabled = false;
+            return;
+        }
+        File[] segmentFiles = historyFolder.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_EXT));
+        if (segmentFiles != null) {
+            for (File file : segmentFiles) {
+                Segment segment = Segment.open(file);
+                if (segment != null) {
+                    segments.add(segment);
+                }
+            }
+        }
+        segments.sort(Comparator.comparingLong(s -> s.createTime));
+        deleteExpiredSegments();
+    }
+
+    private synchronized void closeStore()
+    {
+        closeActiveSegment();
+        segments.clear();
+    }
+
+    @Override
+    public void preferenceChange(PreferenceChangeEvent event)
+    {
+        if (event.getProperty().startsWith(QMConstants.PROP_PREFIX)) {
+            initStore();
+        }
+    }
+
+    @Override
+    public synchronized void metaInfoChanged(DBRProgressMonitor monitor, @NotNull List<QMMetaEvent> events)
+    {
+        if (!enabled) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(4000);
+            DataOutputStream out = new DataOutputStream(buffer);
+            Segment segment = getActiveSegment();
+            // Events come in reverse order (fresh first)
+            for (int i = events.size() - 1; i >= 0; i--) {
+                writeEvent(out, events.get(i), segment);
+            }
+            if (buffer.size() > 0) {
+                buffer.writeTo(activeOutput);
+                activeOutput.flush();
+                segment.length += buffer.size();
+            }
+            if (segment.length >= MAX_SEGMENT_SIZE || System.currentTimeMillis() - segment.createTime >= MAX_SEGMENT_AGE) {
+                closeActiveSegment();
+                deleteExpiredSegments();
+            }
+        } catch (IOException e) {
+            log.warn("IO error writing QM history. Disable history store", e);
+            closeActiveSegment();
+            enabled = false;
+        }
+    }
+
+    @NotNull
+    private Segment getActiveSegment() throws IOException
+    {
+        if (activeSegment == null) {
+            long createTime = System.currentTimeMillis();
+            File file;
+            while ((file = new File(historyFolder, SEGMENT_PREFIX + createTime + SEGMENT_EXT)).exists()) {
+                createTime++;
+            }
+            activeOutput = new BufferedOutputStream(new FileOutputStream(file), 64 * 1024);
+            activeSegment = new Segment(file, createTime);
+            segments.add(activeSegment);
+        }
+        return activeSegment;
+    }
+
+    private void closeActiveSegment()
+    {
+        if (activeSegment == null) {
+            return;
+        }
+        ContentUtils.close(activeOutput);
+        activeOutput = null;
+        try {
+            activeSegment.saveIndex();
+        } catch (IOException e) {
+            log.warn("Error saving QM history index", e);
+        }
+        activeSegment = null;
+    }
+
+    private void deleteExpiredSegments()
+    {
+        if (historyDays <= 0) {
+            return;
+        }
+        long minTime = System.currentTimeMillis() - historyDays * DAY_MILLIS;
+        for (Iterator<Segment> iter = segments.iterator(); iter.hasNext(); ) {
+            Segment segment = iter.next();
+            if (segment != activeSegment && segment.maxTime < minTime) {
+                iter.remove();
+                segment.delete();
+            }
+        }
+    }
+
+    @Override
+    public QMEventCursor getQueryHistoryCursor(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull QMEventCriteria criteria,
+        @Nullable QMEventFilter filter)
+        throws DBException
+    {
+        List<SegmentSnapshot> candidates = new ArrayList<>();
+        synchronized (this) {
+            if (!enabled) {
+                throw new DBException("Query manager history is disabled");
+            }
+            // Newest segments first
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                Segment segment = segments.get(i);
+                if (segment.mayContain(criteria)) {
+                    candidates.add(new SegmentSnapshot(segment.file, segment.length, segment.eventCount));
+                }
+            }
+        }
+        return new HistoryCursor(candidates, criteria, filter);
+    }
+
+    ////////////////////////////////////////////////////
+    // Serialization
+
+    private static void writeEvent(@NotNull DataOutputStream out, @NotNull QMMetaEvent event, @NotNull Segment segment) throws IOException
+    {
+        QMMObject object = event.getObject();
+        QMMetaEvent.Action action = event.getAction();
+        // Save the same events as log file writer
+        if (object instanceof QMMStatementInfo || object instanceof QMMTransactionSavepointInfo ||
+            (object instanceof QMMStatementExecuteInfo && action != QMMetaEvent.Action.END)) {
+            return;
+        }
+        byte type;
+        QMMSessionInfo session;
+        DBCExecutionPurpose purpose = null;
+        if (object instanceof QMMStatementExecuteInfo) {
+            type = TYPE_QUERY;
+            QMMStatementInfo statement = ((QMMStatementExecuteInfo) object).getStatement();
+            session = statement.getSession();
+            purpose = statement.getPurpose();
+        } else if (object instanceof QMMTransactionInfo) {
+            type = TYPE_TRANSACTION;
+            session = ((QMMTransactionInfo) object).getSession();
+        } else if (object instanceof QMMSessionInfo) {
+            type = TYPE_SESSION;
+            session = (QMMSessionInfo) object;
+        } else {
+            return;
+        }
+
+        ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(200);
+        DataOutputStream record = new DataOutputStream(recordBuffer);
+        record.writeByte(type);
+        record.writeByte(action.getId());
+        record.writeLong(object.getOpenTime());
+        record.writeLong(object.getCloseTime());
+        writeString(record, session.getContainerId());
+        writeString(record, session.getContainerName());
+        writeString(record, session.getDriverId());
+        writeString(record, session.getContextName());
+        record.writeBoolean(session.isTransactional());
+        record.writeLong(session.getOpenTime());
+        record.writeLong(session.getCloseTime());
+        if (type == TYPE_QUERY) {
+            QMMStatementExecuteInfo exec = (QMMStatementExecuteInfo) object;
+            writeString(record, purpose == null ? null : purpose.name());
+            writeString(record, exec.getQueryString());
+            record.writeLong(exec.getFetchBeginTime() > 0 ? exec.getFetchRowCount() : exec.getUpdateRowCount());
+            record.writeInt(exec.getErrorCode());
+            writeString(record, exec.getErrorMessage());
+            record.writeLong(exec.getFetchBeginTime());
+            record.writeLong(exec.getFetchEndTime());
+            record.writeBoolean(exec.isTransactional());
+        } else if (type == TYPE_TRANSACTION) {
+            record.writeBoolean(((QMMTransactionInfo) object).isCommitted());
+        }
+        record.flush();
+
+        out.writeInt(recordBuffer.size());
+        recordBuffer.writeTo(out);
+
+        segment.addEvent(type, getEventTime(object), session.getContainerId(), purpose, object.getCloseTime() - object.getOpenTime());
+    }
+
+    @NotNull
+    private static QMMetaEvent readEvent(@NotNull DataInputStream in) throws IOException
+    {
+        byte type = in.readByte();
+        QMMetaEvent.Action action = QMMetaEvent.Action.getById(in.readByte());
+        long openTime = in.readLong();
+        long closeTime = in.readLong();
+        String containerId = readString(in);
+        String containerName = readString(in);
+        String driverId = readString(in);
+        String contextName = readString(in);
+        boolean sessionTransactional = in.readBoolean();
+        long sessionOpenTime = in.readLong();
+        long sessionCloseTime = in.readLong();
+        QMMSessionInfo session = new QMMSessionInfo(
+            sessionOpenTime, sessionCloseTime, containerId, containerName, driverId, null, null, contextName, sessionTransactional);
+        QMMObject object;
+        switch (type) {
+            case TYPE_QUERY: {
+                String purposeName = readString(in);
+                DBCExecutionPurpose purpose = CommonUtils.valueOf(DBCExecutionPurpose.class, purposeName, DBCExecutionPurpose.USER);
+                String queryString = readString(in);
+                long rowCount = in.readLong();
+                int errorCode = in.readInt();
+                String errorMessage = readString(in);
+                long fetchBeginTime = in.readLong();
+                long fetchEndTime = in.readLong();
+                boolean transactional = in.readBoolean();
+                QMMStatementInfo statement = new QMMStatementInfo(openTime, closeTime, session, purpose);
+                object = new QMMStatementExecuteInfo(
+                    openTime, closeTime, statement, queryString, rowCount, errorCode, errorMessage, fetchBeginTime, fetchEndTime, transactional);
+                break;
+            }
+            case TYPE_TRANSACTION:
+                object = new QMMTransactionInfo(openTime, closeTime, session, in.readBoolean());
+                break;
+            default:
+                object = session;
+                break;
+        }
+        return new QMMetaEvent(object, action);
+    }
+
+    private static void writeString(@NotNull DataOutputStream out, @Nullable String value) throws IOException
+    {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    @Nullable
+    private static String readString(@NotNull DataInputStream in) throws IOException
+    {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.available()) {
+            throw new EOFException("String length " + length + " is out of record bounds");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long getEventTime(@NotNull QMMObject object)
+    {
+        return object.getCloseTime() > 0 ? object.getCloseTime() : object.getOpenTime();
+    }
+
+    private static byte getObjectType(@NotNull QMMObject object)
+    {
+        if (object instanceof QMMSessionInfo) {
+            return TYPE_SESSION;
+        } else if (object instanceof QMMTransactionInfo) {
+            return TYPE_TRANSACTION;
+        } else {
+            return TYPE_QUERY;
+        }
+    }
+
+    private static int getDurationBucket(long duration)
+    {
+        for (int i = 0; i < DURATION_BUCKETS.length; i++) {
+            if (duration < DURATION_BUCKETS[i]) {
+                return i;
+            }
+        }
+        return DURATION_BUCKETS.length;
+    }
+
+    private static int getObjectTypesMask(@NotNull QMEventCriteria criteria)
+    {
+        int mask = -1;
+        if (criteria.getObjectTypes().length > 0) {
+            mask = 0;
+            if (criteria.hasObjectType(QMObjectType.session)) mask |= 1 << TYPE_SESSION;
+            if (criteria.hasObjectType(QMObjectType.txn)) mask |= 1 << TYPE_TRANSACTION;
+            if (criteria.hasObjectType(QMObjectType.query)) mask |= 1 << TYPE_QUERY;
+        }
+        if (criteria.getMinDuration() > 0) {
+            // Only queries have duration
+            mask &= 1 << TYPE_QUERY;
+        }
+        return mask;
+    }
+
+    private static int getQueryTypesMask(@NotNull QMEventCriteria criteria)
+    {
+        if (criteria.getQueryTypes().length == 0) {
+            return -1;
+        }
+        int mask = 0;
+        for (DBCExecutionPurpose purpose : criteria.getQueryTypes()) {
+            mask |= 1 << purpose.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * Checks the event against criteria and filter.
+     */
+    private static boolean matches(@NotNull QMMetaEvent event, @NotNull QMEventCriteria criteria, @Nullable QMEventFilter filter)
+    {
+        QMMObject object = event.getObject();
+        if ((getObjectTypesMask(criteria) & (1 << getObjectType(object))) == 0) {
+            return false;
+        }
+        long eventTime = getEventTime(object);
+        if ((criteria.getStartTime() > 0 && eventTime < criteria.getStartTime()) ||
+            (criteria.getEndTime() > 0 && eventTime > criteria.getEndTime())) {
+            return false;
+        }
+        QMMSessionInfo session;
+        if (object instanceof QMMStatementExecuteInfo) {
+            QMMStatementInfo statement = ((QMMStatementExecuteInfo) object).getStatement();
+            session = statement.getSession();
+            if (criteria.getQueryTypes().length > 0 && !criteria.hasQueryType(statement.getPurpose())) {
+                return false;
+            }
+            if (object.getCloseTime() - object.getOpenTime() < criteria.getMinDuration()) {
+                return false;
+            }
+        } else if (object instanceof QMMTransactionInfo) {
+            session = ((QMMTransactionInfo) object).getSession();
+        } else {
+            session = (QMMSessionInfo) object;
+        }
+        if (criteria.getContainerId() != null && !criteria.getContainerId().equals(session.getContainerId())) {
+            return false;
+        }
+        if (!CommonUtils.isEmpty(criteria.getSearchString())) {
+            String text = object instanceof QMMStatementExecuteInfo ? ((QMMStatementExecuteInfo) object).getQueryString() : object.getText();
+            if (text == null || !text.toLowerCase().contains(criteria.getSearchString().toLowerCase())) {
+                return false;
+            }
+        }
+        return filter == null || filter.accept(event);
+    }
+
+    /**
+     * History segment and its index
+     */
+    private static class Segment {
+
+        private final File file;
+        private final long createTime;
+        private long length;
+        private long minTime = Long.MAX_VALUE;
+        private long maxTime = Long.MIN_VALUE;
+        private int eventCount;
+        private int objectTypes;
+        private int queryTypes;
+        private int durations;
+        private final Set<String> containerIds = new HashSet<>();
+
+        Segment(@NotNull File file, long createTime)
+        {
+            this.file = file;
+            this.createTime = createTime;
+        }
+
+        /**
+         * Reads segment index. Rebuilds it if index is missing or outdated (e.g. after abnormal termination).
+         */
+        @Nullable
+        static Segment open(@NotNull File file)
+        {
+            String name = file.getName();
+            long createTime;
+            try {
+                createTime = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_EXT.length()));
+            } catch (NumberFormatException e) {
+                log.debug("Bad QM history segment name: " + name);
+                return null;
+            }
+            Segment segment = new Segment(file, createTime);
+            File indexFile = segment.getIndexFile();
+            if (indexFile.exists()) {
+                try {
+                    if (segment.loadIndex() && segment.length == file.length()) {
+                        return segment;
+                    }
+                } catch (IOException e) {
+                    log.debug("Error reading QM history index " + indexFile.getAbsolutePath(), e);
+                }
+            }
+            segment = new Segment(file, createTime);
+            try {
+                segment.rebuildIndex();
+                segment.saveIndex();
+            } catch (IOException e) {
+                log.warn("Error indexing QM history segment " + file.getAbsolutePath(), e);
+                return null;
+            }
+            return segment;
+        }
+
+        @NotNull
+        File getIndexFile()
+        {
+            String name = file.getName();
+            return new File(file.getParentFile(), name.substring(0, name.length() - SEGMENT_EXT.length()) + INDEX_EXT);
+        }
+
+        void addEvent(byte type, long time, @Nullable String containerId, @Nullable DBCExecutionPurpose purpose, long duration)
+        {
+            eventCount++;
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+            objectTypes |= 1 << type;
+            if (containerId != null) {
+                containerIds.add(containerId);
+            }
+            if (type == TYPE_QUERY) {
+                if (purpose != null) {
+                    queryTypes |= 1 << purpose.ordinal();
+                }
+                durations |= 1 << getDurationBucket(duration);
+            }
+        }
+
+        boolean mayContain(@NotNull QMEventCriteria criteria)
+        {
+            if (eventCount == 0) {
+                return false;
+            }
+            if ((criteria.getStartTime() > 0 && maxTime < criteria.getStartTime()) ||
+                (criteria.getEndTime() > 0 && minTime > criteria.getEndTime())) {
+                return false;
+            }
+            if (criteria.getContainerId() != null && !containerIds.contains(criteria.getContainerId())) {
+                return false;
+            }
+            int typesMask = objectTypes & getObjectTypesMask(criteria);
+            if ((typesMask & (1 << TYPE_QUERY)) != 0) {
+                boolean hasQueries = (queryTypes & getQueryTypesMask(criteria)) != 0 &&
+                    (durations >>> getDurationBucket(criteria.getMinDuration())) != 0;
+                if (!hasQueries) {
+                    typesMask &= ~(1 << TYPE_QUERY);
+                }
+            }
+            return typesMask != 0;
+        }
+
+        /**
+         * Reads events of the segment. Reading stops at the first incomplete or corrupted record,
+         * so the segment length covers valid events only.
+         */
+        void rebuildIndex() throws IOException
+        {
+            long fileLength = file.length();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                for (;;) {
+                    int recordLength;
+                    try {
+                        recordLength = in.readInt();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    if (recordLength <= 0 || recordLength > fileLength - length - 4) {
+                        // Incomplete or corrupted record. Following events will be appended to another segment
+                        log.debug("Bad record at " + length + " in QM history segment " + file.getName());
+                        break;
+                    }
+                    byte[] record = new byte[recordLength];
+                    in.readFully(record);
+                    QMMetaEvent event;
+                    try {
+                        event = readEvent(new DataInputStream(new ByteArrayInputStream(record)));
+                    } catch (IOException | RuntimeException e) {
+                        log.debug("Corrupted record at " + length + " in QM history segment " + file.getName(), e);
+                        break;
+                    }
+                    QMMObject object = event.getObject();
+                    String containerId;
+                    DBCExecutionPurpose purpose = null;
+                    if (object instanceof QMMStatementExecuteInfo) {
+                        QMMStatementInfo statement = ((QMMStatementExecuteInfo) object).getStatement();
+                        containerId = statement.getSession().getContainerId();
+                        purpose = statement.getPurpose();
+                    } else if (object instanceof QMMTransactionInfo) {
+                        containerId = ((QMMTransactionInfo) object).getSession().getContainerId();
+                    } else {
+                        containerId = ((QMMSessionInfo) object).getContainerId();
+                    }
+                    addEvent(getObjectType(object), getEventTime(object), containerId, purpose, object.getCloseTime() - object.getOpenTime());
+                    length += 4 + recordLength;
+                }
+            }
+        }
+
+        boolean loadIndex() throws IOException
+        {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(getIndexFile())))) {
+                if (in.readInt() != INDEX_VERSION) {
+                    return false;
+                }
+                length = in.readLong();
+                minTime = in.readLong();
+                maxTime = in.readLong();
+                eventCount = in.readInt();
+                objectTypes = in.readInt();
+                queryTypes = in.readInt();
+                durations = in.readInt();
+                int containerCount = in.readInt();
+                for (int i = 0; i < containerCount; i++) {
+                    containerIds.add(in.readUTF());
+                }
+                return true;
+            }
+        }
+
+        void saveIndex() throws IOException
+        {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getIndexFile())))) {
+                out.writeInt(INDEX_VERSION);
+                out.writeLong(length);
+                out.writeLong(minTime);
+                out.writeLong(maxTime);
+                out.writeInt(eventCount);
+                out.writeInt(objectTypes);
+                out.writeInt(queryTypes);
+                out.writeInt(durations);
+                out.writeInt(containerIds.size());
+                for (String containerId : containerIds) {
+                    out.writeUTF(containerId);
+                }
+            }
+        }
+
+        void delete()
+        {
+            if (!file.delete() || !getIndexFile().delete()) {
+                log.debug("Can't delete QM history segment " + file.getAbsolutePath());
+            }
+        }
+    }
+
+    private static class SegmentSnapshot {
+        private final File file;
+        private final long length;
+        private final int eventCount;
+
+        SegmentSnapshot(File file, long length, int eventCount)
+        {
+            this.file = file;
+            this.length = length;
+            this.eventCount = eventCount;
+        }
+    }
+
+    /**
+     * Reads candidate segments one by one, newest events first.
+     * Only events of the current segment are kept in memory.
+     */
+    private static class HistoryCursor implements QMEventCursor {
+
+        private final List<SegmentSnapshot> segments;
+        private final QMEventCriteria criteria;
+        private final QMEventFilter filter;
+        private final Deque<QMMetaEvent> segmentEvents = new ArrayDeque<>();
+        private int nextSegment;
+        private int position;
+
+        HistoryCursor(@NotNull List<SegmentSnapshot> segments, @NotNull QMEventCriteria criteria, @Nullable QMEventFilter filter)
+        {
+            this.segments = segments;
+            this.criteria = criteria;
+            this.filter = filter;
+        }
+
+        /**
+         * Returns the number of events in segments which may contain matching events.
+         * It is an upper bound of the actual result size.
+         */
+        @Override
+        public long getTotalSize()
+        {
+            long size = 0;
+            for (SegmentSnapshot segment : segments) {
+                size += segment.eventCount;
+            }
+            return size;
+        }
+
+        @Override
+        public void scroll(int position, DBRProgressMonitor monitor) throws DBException
+        {
+            if (position < this.position) {
+                throw new DBException("Can't scroll history cursor backward");
+            }
+            while (this.position < position) {
+                if (!hasNextEvent(monitor)) {
+                    throw new DBException("Position is out of range (" + this.position + ")");
+                }
+                nextEvent(monitor);
+            }
+        }
+
+        @Override
+        public boolean hasNextEvent(DBRProgressMonitor monitor) throws DBException
+        {
+            while (segmentEvents.isEmpty() && nextSegment < segments.size()) {
+                if (monitor.isCanceled()) {
+                    return false;
+                }
+                readSegment(segments.get(nextSegment++));
+            }
+            return !segmentEvents.isEmpty();
+        }
+
+        @Override
+        public QMMetaEvent nextEvent(DBRProgressMonitor monitor) throws DBException
+        {
+            if (!hasNextEvent(monitor)) {
+                throw new DBException("No more events in history");
+            }
+            position++;
+            return segmentEvents.pollFirst();
+        }
+
+        @Override
+        public void close()
+        {
+            segmentEvents.clear();
+            nextSegment = segments.size();
+        }
+
+        private void readSegment(@NotNull SegmentSnapshot segment) throws DBException
+        {
+            long offset = 0;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment.file), 64 * 1024))) {
+                while (offset < segment.length) {
+                    int recordLength = in.readInt();
+                    byte[] record = new byte[recordLength];
+                    in.readFully(record);
+                    offset += 4 + recordLength;
+                    QMMetaEvent event = readEvent(new DataInputStream(new ByteArrayInputStream(record)));
+                    if (matches(event, criteria, filter)) {
+                        // Newest events first
+                        segmentEvents.addFirst(event);
+                    }
+                }
+            } catch (FileNotFoundException e) {
+                // Segment was deleted by retention policy
+                log.debug("QM history segment " + segment.file.getName() + " not found");
+            } catch (IOException e) {
+                throw new DBException("Error reading QM history segment " + segment.file.getAbsolutePath(), e);
+            }
+        }
+    }
+
+}
@@ -30,14 +30,23 @@ import org.jkiss.dbeaver.model.qm.QMMetaListener;
 import org.jkiss.dbeaver.model.qm.meta.*;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
-import org.jkiss.utils.LongKeyMap;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Query manager execution handler implementation
+ * Query manager execution handler implementation.
+ *
+ * Handlers lock only the session they change, so statements in different connections do not contend.
+ * Events are added to a lock-free queue and passed to listeners by a background dispatcher.
+ * If listeners can't keep up and the queue reaches its limit then new events are dropped.
  */
 public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMCollector {
 
@@ -45,28 +54,34 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
     private static final long EVENT_DISPATCH_PERIOD = 250;
     private static final int MAX_HISTORY_EVENTS = 10000;
+    private static final int MAX_PENDING_EVENTS = 100000;
 
     // Session map
-    private LongKeyMap<QMMSessionInfo> sessionMap = new LongKeyMap<>();
-    private List<Long> closedSessions = new ArrayList<>();
+    private final Map<Long, QMMSessionInfo> sessionMap = new ConcurrentHashMap<>();
+    private final Queue<Long> closedSessions = new ConcurrentLinkedQueue<>();
 
     // External listeners
     private final List<QMMetaListener> listeners = new ArrayList<>();
 
-    // Temporary event pool
-    private List<QMMetaEvent> eventPool = new ArrayList<>();
+    // Events waiting for dispatch
+    private final Queue<QMMetaEvent> eventPool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingEventCount = new AtomicInteger();
+    private final AtomicLong droppedEventCount = new AtomicLong();
+    private final AtomicLong dispatchedEventCount = new AtomicLong();
     // Sync object
     private final Object historySync = new Object();
-    // History (may be purged when limit reached)
-    private List<QMMetaEvent> pastEvents = new ArrayList<>();
-    private boolean running = true;
+    // History ring buffer. The oldest event is overwritten when it is full
+    private final QMMetaEvent[] pastEvents = new QMMetaEvent[MAX_HISTORY_EVENTS];
+    private int pastEventsStart;
+    private int pastEventsCount;
+    private volatile boolean running = true;
 
     public QMMCollectorImpl()
     {
         new EventDispatcher().schedule(EVENT_DISPATCH_PERIOD);
     }
 
-    public synchronized void dispose()
+    public void dispose()
     {
         if (!sessionMap.isEmpty()) {
             List<QMMSessionInfo> openSessions = new ArrayList<>();
@@ -129,21 +144,45 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         }
     }
 
-    private synchronized void fireMetaEvent(final QMMObject object, final QMMetaEvent.Action action)
+    private void fireMetaEvent(final QMMObject object, final QMMetaEvent.Action action)
     {
+        if (pendingEventCount.incrementAndGet() > MAX_PENDING_EVENTS) {
+            pendingEventCount.decrementAndGet();
+            droppedEventCount.incrementAndGet();
+            return;
+        }
         eventPool.add(new QMMetaEvent(object, action));
     }
 
-    private synchronized List<QMMetaEvent> obtainEvents()
+    private List<QMMetaEvent> obtainEvents()
     {
         if (eventPool.isEmpty()) {
             return Collections.emptyList();
         }
-        List<QMMetaEvent> events = eventPool;
-        eventPool = new ArrayList<>();
+        List<QMMetaEvent> events = new ArrayList<>(pendingEventCount.get());
+        for (QMMetaEvent event = eventPool.poll(); event != null; event = eventPool.poll()) {
+            events.add(event);
+        }
+        pendingEventCount.addAndGet(-events.size());
         return events;
     }
 
+    /**
+     * Number of events which were dropped because dispatcher didn't keep up with them
+     */
+    public long getDroppedEventCount()
+    {
+        return droppedEventCount.get();
+    }
+
+    /**
+     * Number of events which were passed to listeners
+     */
+    public long getDispatchedEventCount()
+    {
+        return dispatchedEventCount.get();
+    }
+
     public QMMSessionInfo getSessionInfo(DBCExecutionContext context)
     {
         QMMSessionInfo sessionInfo = sessionMap.get(context.getContextId());
@@ -156,154 +195,194 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
     public List<QMMetaEvent> getPastEvents()
     {
         synchronized (historySync) {
-            return new ArrayList<>(pastEvents);
+            List<QMMetaEvent> events = new ArrayList<>(pastEventsCount);
+            for (int i = 0; i < pastEventsCount; i++) {
+                events.add(pastEvents[(pastEventsStart + i) % MAX_HISTORY_EVENTS]);
+            }
+            return events;
+        }
+    }
+
+    private void addPastEvents(List<QMMetaEvent> events)
+    {
+        synchronized (historySync) {
+            for (QMMetaEvent event : events) {
+                if (pastEventsCount < MAX_HISTORY_EVENTS) {
+                    pastEvents[(pastEventsStart + pastEventsCount) % MAX_HISTORY_EVENTS] = event;
+                    pastEventsCount++;
+                } else {
+                    pastEvents[pastEventsStart] = event;
+                    pastEventsStart = (pastEventsStart + 1) % MAX_HISTORY_EVENTS;
+                }
+            }
         }
     }
 
     @Override
-    public synchronized void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional)
+    public void handleContextOpen(@NotNull DBCExecutionContext context, boolean transactional)
     {
         final long contextId = context.getContextId();
-        QMMSessionInfo session = sessionMap.get(contextId);
-        if (session == null) {
-            session = new QMMSessionInfo(
-                context,
-                transactional);
-            sessionMap.put(contextId, session);
-        } else {
+        QMMSessionInfo session = sessionMap.compute(contextId, (id, oldSession) -> {
+            if (oldSession == null) {
+                return new QMMSessionInfo(
+                    context,
+                    transactional);
+            }
             // This session may already be in cache in case of reconnect/invalidate
             // (when context closed and reopened without new context object creation)
-            session.reopen(context);
-        }
-
-        // Remove from closed sessions (in case of re-opened connection)
-        closedSessions.remove(contextId);
+            synchronized (oldSession) {
+                oldSession.reopen(context);
+            }
+            return oldSession;
+        });
         // Notify
         fireMetaEvent(session, QMMetaEvent.Action.BEGIN);
     }
 
     @Override
-    public synchronized void handleContextClose(@NotNull DBCExecutionContext context)
+    public void handleContextClose(@NotNull DBCExecutionContext context)
     {
         QMMSessionInfo session = getSessionInfo(context);
         if (session != null) {
-            session.close();
-            fireMetaEvent(session, QMMetaEvent.Action.END);
+            synchronized (session) {
+                session.close();
+                fireMetaEvent(session, QMMetaEvent.Action.END);
+            }
         }
         closedSessions.add(context.getContextId());
     }
 
     @Override
-    public synchronized void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit)
+    public void handleTransactionAutocommit(@NotNull DBCExecutionContext context, boolean autoCommit)
     {
         QMMSessionInfo sessionInfo = getSessionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
-            if (oldTxn != null) {
-                fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.changeTransactional(!autoCommit);
+                if (oldTxn != null) {
+                    fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+                }
+                fireMetaEvent(sessionInfo, QMMetaEvent.Action.UPDATE);
             }
-            fireMetaEvent(sessionInfo, QMMetaEvent.Action.UPDATE);
         }
     }
 
     @Override
-    public synchronized void handleTransactionCommit(@NotNull DBCExecutionContext context)
+    public void handleTransactionCommit(@NotNull DBCExecutionContext context)
     {
         QMMSessionInfo sessionInfo = getSessionInfo(context);
         if (sessionInfo != null) {
-            QMMTransactionInfo oldTxn = sessionInfo.commit();
-            if (oldTxn != null) {
-                fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+            synchronized (sessionInfo) {
+                QMMTransactionInfo oldTxn = sessionInfo.commit();
+                if (oldTxn != null) {
+                    fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint)
+    public void handleTransactionRollback(@NotNull DBCExecutionContext context, DBCSavepoint savepoint)
     {
         QMMSessionInfo sessionInfo = getSessionInfo(context);
         if (sessionInfo != null) {
-            QMMObject oldTxn = sessionInfo.rollback(savepoint);
-            if (oldTxn != null) {
-                fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+            synchronized (sessionInfo) {
+                QMMObject oldTxn = sessionInfo.rollback(savepoint);
+                if (oldTxn != null) {
+                    fireMetaEvent(oldTxn, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementOpen(@NotNull DBCStatement statement)
+    public void handleStatementOpen(@NotNull DBCStatement statement)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.openStatement(statement);
-            fireMetaEvent(stat, QMMetaEvent.Action.BEGIN);
+            synchronized (session) {
+                QMMStatementInfo stat = session.openStatement(statement);
+                fireMetaEvent(stat, QMMetaEvent.Action.BEGIN);
+            }
         }
     }
 
     @Override
-    public synchronized void handleStatementClose(@NotNull DBCStatement statement, long rows)
+    public void handleStatementClose(@NotNull DBCStatement statement, long rows)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementInfo stat = session.closeStatement(statement, rows);
-            if (stat == null) {
-                log.warn("Can't properly handle statement close");
-            } else {
-                fireMetaEvent(stat, QMMetaEvent.Action.END);
+            synchronized (session) {
+                QMMStatementInfo stat = session.closeStatement(statement, rows);
+                if (stat == null) {
+                    log.warn("Can't properly handle statement close");
+                } else {
+                    fireMetaEvent(stat, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteBegin(@NotNull DBCStatement statement)
+    public void handleStatementExecuteBegin(@NotNull DBCStatement statement)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginExecution(statement);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.BEGIN);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginExecution(statement);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.BEGIN);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error)
+    public void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error)
     {
         QMMSessionInfo session = getSessionInfo(statement.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.END);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endExecution(statement, rows, error);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.END);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetOpen(@NotNull DBCResultSet resultSet)
+    public void handleResultSetOpen(@NotNull DBCResultSet resultSet)
     {
         QMMSessionInfo session = getSessionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.beginFetch(resultSet);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+                }
             }
         }
     }
 
     @Override
-    public synchronized void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount)
+    public void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount)
     {
         QMMSessionInfo session = getSessionInfo(resultSet.getSession().getExecutionContext());
         if (session != null) {
-            QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
-            if (exec != null) {
-                fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+            synchronized (session) {
+                QMMStatementExecuteInfo exec = session.endFetch(resultSet, rowCount);
+                if (exec != null) {
+                    fireMetaEvent(exec, QMMetaEvent.Action.UPDATE);
+                }
             }
         }
     }
 
     private class EventDispatcher extends AbstractJob {
 
+        private long reportedDroppedEvents;
+
         protected EventDispatcher()
         {
             super("QM meta events dispatcher");
@@ -314,13 +393,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         @Override
         protected IStatus run(DBRProgressMonitor monitor)
         {
-            final List<QMMetaEvent> events;
-            List<Long> sessionsToClose;
-            synchronized (QMMCollectorImpl.this) {
-                events = obtainEvents();
-                sessionsToClose = closedSessions;
-                closedSessions.clear();
-            }
+            final List<QMMetaEvent> events = obtainEvents();
             final List<QMMetaListener> listeners = getListeners();
             if (!listeners.isEmpty() && !events.isEmpty()) {
                 // Reverse collection. Fresh events must come first.
@@ -334,25 +407,18 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
                     }
                 }
             }
-            synchronized (historySync) {
-                pastEvents.addAll(events);
-                int size = pastEvents.size();
-                if (size > MAX_HISTORY_EVENTS) {
-                    pastEvents = new ArrayList<>(pastEvents.subList(
-                        size - MAX_HISTORY_EVENTS,
-                        size));
-                }
+            dispatchedEventCount.addAndGet(events.size());
+            addPastEvents(events);
+            long droppedEvents = droppedEventCount.get();
+            if (droppedEvents > reportedDroppedEvents) {
+                log.debug("QM meta events dropped: " + (droppedEvents - reportedDroppedEvents));
+                reportedDroppedEvents = droppedEvents;
             }
             // Cleanup closed sessions
-            synchronized (QMMCollectorImpl.this) {
-                for (Long sessionId : sessionsToClose) {
-                    final QMMSessionInfo session = sessionMap.get(sessionId);
-                    if (session != null && !session.isClosed()) {
-                        // It is possible (rarely) that session was reopened before event dispatcher run
-                        // In that case just ignore it
-                        sessionMap.remove(sessionId);
-                    }
-                }
+            for (Long sessionId = closedSessions.poll(); sessionId != null; sessionId = closedSessions.poll()) {
+                // It is possible (rarely) that session was reopened before event dispatcher run
+                // In that case just ignore it
+                sessionMap.computeIfPresent(sessionId, (id, session) -> session.isClosed() ? null : session);
             }
             if (isRunning()) {
                 this.schedule(EVENT_DISPATCH_PERIOD);
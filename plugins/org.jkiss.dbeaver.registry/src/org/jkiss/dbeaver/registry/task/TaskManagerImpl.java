@@ -20,6 +20,7 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.stream.JsonWriter;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.jobs.Job;
 import org.jkiss.code.NotNull;
@@ -215,6 +216,15 @@ public class TaskManagerImpl implements DBTTaskManager {
         return runJob;
     }
 
+    @Override
+    public void executeTask(@NotNull DBRProgressMonitor monitor, @NotNull DBTTask task, @NotNull DBTTaskExecutionListener listener, @NotNull Map<String, Object> options) throws DBException {
+        TaskRunJob runJob = new TaskRunJob((TaskImpl) task, Locale.getDefault(), listener);
+        IStatus status = runJob.runDirectly(monitor);
+        if (status.getSeverity() == IStatus.ERROR) {
+            throw new DBException(status.getMessage(), status.getException());
+        }
+    }
+
     private void loadConfiguration() {
         File configFile = getConfigFile(false);
         if (!configFile.exists()) {
@@ -69,7 +69,11 @@ public class TaskRunJob extends AbstractJob implements DBRRunnableContext {
     protected IStatus run(DBRProgressMonitor monitor) {
         Date startTime = new Date();
 
-        String taskId = TaskManagerImpl.systemDateFormat.format(startTime) + "_" + taskNumber.incrementAndGet();
+        String taskId;
+        synchronized (TaskManagerImpl.systemDateFormat) {
+            // Tasks may be started in parallel (e.g. by headless task runner)
+            taskId = TaskManagerImpl.systemDateFormat.format(startTime) + "_" + taskNumber.incrementAndGet();
+        }
         TaskRunImpl taskRun = new TaskRunImpl(
             taskId,
             new Date(),
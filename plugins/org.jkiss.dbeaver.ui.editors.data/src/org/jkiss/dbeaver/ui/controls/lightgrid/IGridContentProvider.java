@@ -23,6 +23,8 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.DBPImage;
 
+import java.util.List;
+
 public interface IGridContentProvider extends IContentProvider {
 
     enum ElementState {
@@ -47,6 +49,16 @@ public interface IGridContentProvider extends IContentProvider {
     @Nullable
     Object[] getChildren(Object element);
 
+    /**
+     * Returns row elements if rows have no children. Elements of big row sets may be created on access,
+     * so grid uses this list as is and doesn't copy it.
+     * Returns null if rows must be read by {@link #getElements(boolean)}.
+     */
+    @Nullable
+    default List<?> getFlatRowElements() {
+        return null;
+    }
+
     int getSortOrder(@Nullable Object element);
 
     ElementState getDefaultState(@NotNull Object element);
@@ -161,8 +161,11 @@ public abstract class LightGrid extends Canvas {
     private final List<GridColumn> columns = new ArrayList<>();
     private int maxColumnDepth = 0;
     protected Object[] columnElements = new Object[0];
-    protected Object[] rowElements = new Object[0];
-    private GridNode[] parentNodes = new GridNode[0];
+    // Row elements. Elements of big row sets may be created on access, so this list is never copied for flat rows
+    protected List<?> rowElements = Collections.emptyList();
+    // Parent node of each row. Null if there are no nested rows
+    @Nullable
+    private GridNode[] parentNodes;
     private final Map<Object, GridNode> rowNodes = new IdentityHashMap<>();
 
     private int maxColumnDefWidth = 1000;
@@ -631,15 +634,26 @@ public abstract class LightGrid extends Canvas {
 
     public void refreshRowsData() {
         // Prepare rows
-        Object[] initialElements = getContentProvider().getElements(false);
         this.rowNodes.clear();
+        List<?> flatRows = getContentProvider().getFlatRowElements();
+        if (flatRows != null) {
+            this.rowElements = flatRows;
+            this.parentNodes = null;
+            return;
+        }
+        Object[] initialElements = getContentProvider().getElements(false);
         List<Object> realRows = new ArrayList<>(initialElements.length);
         List<GridNode> parents = new ArrayList<>(initialElements.length);
         collectRows(realRows, parents, null, initialElements, 0);
-        this.rowElements = realRows.toArray();
+        this.rowElements = realRows;
         this.parentNodes = parents.toArray(new GridNode[0]);
     }
 
+    @Nullable
+    private GridNode getParentNode(int row) {
+        return parentNodes == null ? null : parentNodes[row];
+    }
+
     /**
      * Returns current or last client area.
      * If Grid controls are stacked then only the top is visible and has real client area.
@@ -674,17 +688,17 @@ public abstract class LightGrid extends Canvas {
         if (pos.col < 0 || pos.row < 0) {
             return null;
         }
-        if (pos.col >= columnElements.length || pos.row >= rowElements.length) {
+        if (pos.col >= columnElements.length || pos.row >= rowElements.size()) {
             return null;
         }
-        return new GridCell(columnElements[pos.col], rowElements[pos.row]);
+        return new GridCell(columnElements[pos.col], rowElements.get(pos.row));
     }
 
     @NotNull
     public GridPos cellToPos(GridCell cell)
     {
         int colIndex = ArrayUtils.indexOf(columnElements, cell.col);
-        int rowIndex = ArrayUtils.indexOf(rowElements, cell.row);
+        int rowIndex = rowElements.indexOf(cell.row);
         return new GridPos(colIndex, rowIndex);
     }
 
@@ -703,7 +717,7 @@ public abstract class LightGrid extends Canvas {
     }
 
     public Object getRowElement(int row) {
-        return rowElements[row];
+        return rowElements.get(row);
     }
 
     @Override
@@ -985,7 +999,7 @@ public abstract class LightGrid extends Canvas {
      */
     public int getItemCount()
     {
-        return rowElements.length;
+        return rowElements.size();
     }
 
     /**
@@ -1420,7 +1434,8 @@ public abstract class LightGrid extends Canvas {
         topColumns.clear();
         columns.clear();
         columnElements = new Object[0];
-        rowElements = new Object[0];
+        rowElements = Collections.emptyList();
+        parentNodes = null;
     }
 
     /**
@@ -1885,9 +1900,9 @@ public abstract class LightGrid extends Canvas {
 
         // Row header width
         rowHeaderWidth = DEFAULT_ROW_HEADER_WIDTH;
-        for (int i = 0; i < rowElements.length; i++) {
-            Object row = rowElements[i];
-            GridNode parentNode = parentNodes[i];
+        for (int i = 0; i < rowElements.size(); i++) {
+            Object row = rowElements.get(i);
+            GridNode parentNode = getParentNode(i);
             GridNode nr = rowNodes.get(row);
             int width = rowHeaderRenderer.computeHeaderWidth(
                 row, nr != null ? nr.level : parentNode == null ? 0 : parentNode.level + 1);
@@ -2268,7 +2283,7 @@ public abstract class LightGrid extends Canvas {
                             selectedCells.contains(testPos),
                             focusItem == row && focusColumn == column,
                             column.getElement(),
-                            rowElements[row]);
+                            rowElements.get(row));
 
                         //gc.setClipping((Rectangle) null);
                     }
@@ -2282,8 +2297,8 @@ public abstract class LightGrid extends Canvas {
 
                 x = 0;
 
-                GridNode rowNode = this.rowNodes.get(rowElements[row]);
-                GridNode parentNode = this.parentNodes[row];
+                GridNode rowNode = this.rowNodes.get(rowElements.get(row));
+                GridNode parentNode = this.getParentNode(row);
                 if (rowHeaderVisible) {
 
                     if (y >= headerHeight) {
@@ -2300,7 +2315,7 @@ public abstract class LightGrid extends Canvas {
                                 cellInRowSelected,
                                 parentNode == null ? 0 : parentNode.level,
                                 rowNode == null ? IGridContentProvider.ElementState.NONE : rowNode.state,
-                                rowElements[row]);
+                                rowElements.get(row));
                         } finally {
                             gc.setClipping((Rectangle)null);
                         }
@@ -2332,7 +2347,7 @@ public abstract class LightGrid extends Canvas {
                                 selectedCells.contains(testPos),
                                 focusItem == row && focusColumn == pc,
                                 pc.getElement(),
-                                rowElements[row]);
+                                rowElements.get(row));
                         } finally {
                             gc.setClipping((Rectangle)null);
                         }
@@ -3098,8 +3113,8 @@ public abstract class LightGrid extends Canvas {
                 }
 
                 if (e.button == 1 && !shift && !ctrl) {
-                    GridNode node = rowNodes.get(rowElements[row]);
-                    GridNode parentNode = parentNodes[row];
+                    GridNode node = rowNodes.get(rowElements.get(row));
+                    GridNode parentNode = getParentNode(row);
                     if (node != null && node.state != IGridContentProvider.ElementState.NONE) {
                         if (GridRowRenderer.isOverExpander(e.x, parentNode == null ? 0 : parentNode.level))
                         {
@@ -3205,7 +3220,7 @@ public abstract class LightGrid extends Canvas {
         if (selectionEvent != null) {
             selectionEvent.stateMask = e.stateMask;
             selectionEvent.button = e.button;
-            selectionEvent.data = new GridCell(col == null ? null : col.getElement(), row < 0 ? null : rowElements[row]);
+            selectionEvent.data = new GridCell(col == null ? null : col.getElement(), row < 0 ? null : rowElements.get(row));
             selectionEvent.x = e.x;
             selectionEvent.y = e.y;
             notifyListeners(SWT.Selection, selectionEvent);
@@ -3214,8 +3229,13 @@ public abstract class LightGrid extends Canvas {
 
     }
 
+    @NotNull
+    private GridNode[] getParentNodes() {
+        return parentNodes == null ? new GridNode[rowElements.size()] : parentNodes;
+    }
+
     private void toggleRowState(int row) {
-        GridNode node = rowNodes.get(rowElements[row]);
+        GridNode node = rowNodes.get(rowElements.get(row));
         if (node == null || node.state == IGridContentProvider.ElementState.NONE) {
             log.error("Row [" + row + "] state can't be toggled");
             return;
@@ -3223,21 +3243,21 @@ public abstract class LightGrid extends Canvas {
         if (node.state == IGridContentProvider.ElementState.EXPANDED) {
             // Collapse node. Remove all elements with different parent
             int deleteTo;
-            for (deleteTo = row + 1; deleteTo < rowElements.length; deleteTo++) {
-                if (!node.isParentOf(parentNodes[deleteTo])) {
+            for (deleteTo = row + 1; deleteTo < rowElements.size(); deleteTo++) {
+                if (!node.isParentOf(getParentNode(deleteTo))) {
                     break;
                 }
             }
-            rowElements = ArrayUtils.deleteArea(Object.class, rowElements, row + 1, deleteTo - 1);
-            parentNodes = ArrayUtils.deleteArea(GridNode.class, parentNodes, row + 1, deleteTo - 1);
+            rowElements = Arrays.asList(ArrayUtils.deleteArea(Object.class, rowElements.toArray(), row + 1, deleteTo - 1));
+            parentNodes = ArrayUtils.deleteArea(GridNode.class, getParentNodes(), row + 1, deleteTo - 1);
             node.state = IGridContentProvider.ElementState.COLLAPSED;
         } else {
             // Expand node
             List<Object> result = new ArrayList<>();
             List<GridNode> parents = new ArrayList<>();
             collectRows(result, parents, node, node.rows, node.level);
-            rowElements = ArrayUtils.insertArea(Object.class, rowElements, row + 1, result.toArray());
-            parentNodes = ArrayUtils.insertArea(GridNode.class, parentNodes, row + 1, parents.toArray());
+            rowElements = Arrays.asList(ArrayUtils.insertArea(Object.class, rowElements.toArray(), row + 1, result.toArray()));
+            parentNodes = ArrayUtils.insertArea(GridNode.class, getParentNodes(), row + 1, parents.toArray());
             node.state = IGridContentProvider.ElementState.EXPANDED;
         }
 
@@ -3275,13 +3295,13 @@ public abstract class LightGrid extends Canvas {
                 if (col != null) {
                     if (isListening(SWT.DefaultSelection)) {
                         Event newEvent = new Event();
-                        newEvent.data = new GridCell(col.getElement(), rowElements[row]);
+                        newEvent.data = new GridCell(col.getElement(), rowElements.get(row));
 
                         notifyListeners(SWT.DefaultSelection, newEvent);
                     }
                 } else {
-                    GridNode node = rowNodes.get(rowElements[row]);
-                    GridNode parentNode = parentNodes[row];
+                    GridNode node = rowNodes.get(rowElements.get(row));
+                    GridNode parentNode = getParentNode(row);
                     if (node != null && node.state != IGridContentProvider.ElementState.NONE) {
                         if (!GridRowRenderer.isOverExpander(e.x, parentNode == null ? 0 : parentNode.level))
                         {
@@ -3307,7 +3327,7 @@ public abstract class LightGrid extends Canvas {
                 event.x = e.x;
                 event.y = e.y;
                 event.stateMask = e.stateMask;
-                event.data = new GridCell(focusColumn.getElement(), rowElements[focusItem]);
+                event.data = new GridCell(focusColumn.getElement(), rowElements.get(focusItem));
                 notifyListeners(Event_NavigateLink, event);
                 return;
             }
@@ -3366,7 +3386,7 @@ public abstract class LightGrid extends Canvas {
                 GridColumn column = getColumn(point);
                 int rowIndex = getRow(point);
                 if (column != null && rowIndex >= 0) {
-                    se.data = new GridCell(column.getElement(), rowElements[rowIndex]);
+                    se.data = new GridCell(column.getElement(), rowElements.get(rowIndex));
                 }
                 se.stateMask = e.stateMask;
                 se.x = e.x;
@@ -3536,7 +3556,7 @@ public abstract class LightGrid extends Canvas {
             GridColumn column = getColumn(point);
             int rowIndex = getRow(point);
             if (column != null && rowIndex >= 0) {
-                selectionEvent.data = new GridCell(column.getElement(), rowElements[rowIndex]);
+                selectionEvent.data = new GridCell(column.getElement(), rowElements.get(rowIndex));
             }
             selectionEvent.x = e.x;
             selectionEvent.y = e.y;
@@ -3640,9 +3660,9 @@ public abstract class LightGrid extends Canvas {
             focusColumn = getColumn(0);
         }
 
-        if (e.character == '\r' && focusItem >= 0 && focusItem < rowElements.length) {
+        if (e.character == '\r' && focusItem >= 0 && focusItem < rowElements.size()) {
             Event newEvent = new Event();
-            newEvent.data = new GridCell(focusColumn.getElement(), rowElements[focusItem]);
+            newEvent.data = new GridCell(focusColumn.getElement(), rowElements.get(focusItem));
 
             notifyListeners(SWT.DefaultSelection, newEvent);
             return;
@@ -3775,7 +3795,7 @@ public abstract class LightGrid extends Canvas {
             case SWT.KEYPAD_ADD:
             case SWT.KEYPAD_SUBTRACT:
                 if (focusItem >= 0) {
-                    GridNode node = rowNodes.get(rowElements[focusItem]);
+                    GridNode node = rowNodes.get(rowElements.get(focusItem));
                     if (node != null) {
                         boolean isPlus = (e.keyCode == '+' || e.keyCode == '=' || e.keyCode == SWT.KEYPAD_ADD);
                         if ((node.state == IGridContentProvider.ElementState.EXPANDED && !isPlus) ||
@@ -3787,7 +3807,7 @@ public abstract class LightGrid extends Canvas {
                 }
                 break;
             case ' ':
-                toggleCellValue(focusColumn.getElement(), rowElements[focusItem]);
+                toggleCellValue(focusColumn.getElement(), rowElements.get(focusItem));
             default:
                 break;
         }
@@ -3820,8 +3840,8 @@ public abstract class LightGrid extends Canvas {
             showItem(newSelection);
 
             GridCell newPos;
-            if (newSelection >= 0 && newSelection < rowElements.length) {
-                newPos = new GridCell(newColumnFocus.getElement(), rowElements[newSelection]);
+            if (newSelection >= 0 && newSelection < rowElements.size()) {
+                newPos = new GridCell(newColumnFocus.getElement(), rowElements.get(newSelection));
             } else {
                 newPos = null;
             }
@@ -3988,7 +4008,7 @@ public abstract class LightGrid extends Canvas {
             String newTip = null;
             if ((hoveringItem >= 0) && (hoveringColumn != null)) {
                 if (overLink) {
-                    newTip = getContentProvider().getCellLinkText(columnElements[col.getIndex()], rowElements[row]);
+                    newTip = getContentProvider().getCellLinkText(columnElements[col.getIndex()], rowElements.get(row));
                 }
                 if (CommonUtils.isEmpty(newTip)) {
                     // get cell specific tooltip
@@ -4076,10 +4096,10 @@ public abstract class LightGrid extends Canvas {
 
     @Nullable
     public Object getFocusRowElement() {
-        if (focusItem < 0 || focusItem >= rowElements.length) {
+        if (focusItem < 0 || focusItem >= rowElements.size()) {
             return null;
         }
-        return rowElements[focusItem];
+        return rowElements.get(focusItem);
     }
 
     @Nullable
@@ -4489,10 +4509,10 @@ public abstract class LightGrid extends Canvas {
     @Nullable
     private String getCellToolTip(GridColumn col, int row)
     {
-        if (col == null || row < 0 || row >= rowElements.length) {
+        if (col == null || row < 0 || row >= rowElements.size()) {
             return null;
         }
-        String toolTip = getCellText(columnElements[col.getIndex()], rowElements[row]);
+        String toolTip = getCellText(columnElements[col.getIndex()], rowElements.get(row));
         if (toolTip == null) {
             return null;
         }
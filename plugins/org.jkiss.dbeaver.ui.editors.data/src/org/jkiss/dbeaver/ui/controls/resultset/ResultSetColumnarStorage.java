@@ -0,0 +1,334 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDValue;
+
+import java.sql.Timestamp;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented storage of fetched rows.
+ *
+ * Numeric, boolean and date values are kept in primitive arrays with null bitmaps.
+ * Equal strings are stored once. Values are boxed on access, so storage is read-only:
+ * row values must be moved out of it (see {@link ResultSetRow#promoteValues()}) before modification.
+ *
+ * Column type is chosen by the actual values: if all non-null values in column have the same class then
+ * specialized column is used. Rows with {@link DBDValue} values (LOBs, complex types) are not stored here,
+ * because such values are mutable and must be released.
+ */
+class ResultSetColumnarStorage implements ResultSetRowStorage {
+
+    private final int rowCount;
+    private final Column[] columns;
+
+    private ResultSetColumnarStorage(int rowCount, Column[] columns) {
+        this.rowCount = rowCount;
+        this.columns = columns;
+    }
+
+    /**
+     * Creates storage for specified rows.
+     * Returns null if some row can't be stored in columns.
+     */
+    @Nullable
+    static ResultSetColumnarStorage create(@NotNull List<Object[]> rows) {
+        int rowCount = rows.size();
+        if (rowCount == 0) {
+            return null;
+        }
+        int columnCount = rows.get(0).length;
+        for (Object[] row : rows) {
+            if (row.length != columnCount) {
+                return null;
+            }
+        }
+        Column[] columns = new Column[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            Class<?> valueClass = null;
+            boolean mixedTypes = false;
+            for (Object[] row : rows) {
+                Object value = row[i];
+                if (value == null) {
+                    continue;
+                }
+                if (value instanceof DBDValue) {
+                    return null;
+                }
+                if (valueClass == null) {
+                    valueClass = value.getClass();
+                } else if (valueClass != value.getClass()) {
+                    mixedTypes = true;
+                }
+            }
+            Column column = mixedTypes || valueClass == null ? new ObjectColumn(rowCount) : createColumn(valueClass, rowCount);
+            for (int k = 0; k < rowCount; k++) {
+                Object value = rows.get(k)[i];
+                if (value == null) {
+                    column.nulls.set(k);
+                } else {
+                    column.setValue(k, value);
+                }
+            }
+            column.completeLoad();
+            columns[i] = column;
+        }
+        return new ResultSetColumnarStorage(rowCount, columns);
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    int getColumnCount() {
+        return columns.length;
+    }
+
+    @Nullable
+    @Override
+    public Object getValue(int row, int column) {
+        if (column < 0 || column >= columns.length) {
+            return null;
+        }
+        Column data = columns[column];
+        return data.nulls.get(row) ? null : data.getValue(row);
+    }
+
+    @NotNull
+    @Override
+    public Object[] getRowValues(int row) {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = getValue(row, i);
+        }
+        return values;
+    }
+
+    private static Column createColumn(Class<?> valueClass, int rowCount) {
+        if (valueClass == Integer.class || valueClass == Short.class || valueClass == Byte.class) {
+            return new IntColumn(rowCount, valueClass);
+        } else if (valueClass == Long.class) {
+            return new LongColumn(rowCount);
+        } else if (valueClass == Double.class || valueClass == Float.class) {
+            return new DoubleColumn(rowCount, valueClass);
+        } else if (valueClass == Boolean.class) {
+            return new BooleanColumn();
+        } else if (valueClass == Timestamp.class) {
+            return new TimestampColumn(rowCount);
+        } else if (valueClass == Date.class || valueClass == java.sql.Date.class || valueClass == java.sql.Time.class) {
+            return new DateColumn(rowCount, valueClass);
+        } else {
+            return new ObjectColumn(rowCount);
+        }
+    }
+
+    private abstract static class Column {
+        final BitSet nulls = new BitSet();
+
+        abstract void setValue(int row, @NotNull Object value);
+
+        @NotNull
+        abstract Object getValue(int row);
+
+        void completeLoad() {
+        }
+    }
+
+    private static class IntColumn extends Column {
+        private final int[] values;
+        private final Class<?> valueClass;
+
+        IntColumn(int rowCount, Class<?> valueClass) {
+            this.values = new int[rowCount];
+            this.valueClass = valueClass;
+        }
+
+        @Override
+        void setValue(int row, @NotNull Object value) {
+            values[row] = ((Number) value).intValue();
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            if (valueClass == Short.class) {
+                return (short) values[row];
+            } else if (valueClass == Byte.class) {
+                return (byte) values[row];
+            }
+            return values[row];
+        }
+    }
+
+    private static class LongColumn extends Column {
+        private final long[] values;
+
+        LongColumn(int rowCount) {
+            this.values = new long[rowCount];
+        }
+
+        @Override
+        void setValue(int row, @NotNull Object value) {
+            values[row] = (Long) value;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+    }
+
+    private static class DoubleColumn extends Column {
+        private final double[] values;
+        private final boolean floatValues;
+
+        DoubleColumn(int rowCount, Class<?> valueClass) {
+            this.values = new double[rowCount];
+            this.floatValues = valueClass == Float.class;
+        }
+
+        @Override
+        void setValue(int row, @NotNull Object value) {
+            values[row] = ((Number) value).doubleValue();
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            if (floatValues) {
+                return (float) values[row];
+            }
+            return values[row];
+        }
+    }
+
+    private static class BooleanColumn extends Column {
+        private final BitSet values = new BitSet();
+
+        @Override
+        void setValue(int row, @NotNull Object value) {
+            values.set(row, (Boolean) value);
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            return values.get(row);
+        }
+    }
+
+    /**
+     * java.util.Date, java.sql.Date and java.sql.Time values
+     */
+    private static class DateColumn extends Column {
+        private final long[] values;
+        private final Class<?> valueClass;
+
+        DateColumn(int rowCount, Class<?> valueClass) {
+            this.values = new long[rowCount];
+            this.valueClass = valueClass;
+        }
+
+        @Override
+        void setValue(int row, @NotNull Object value) {
+            values[row] = ((Date) value).getTime();
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            if (valueClass == java.sql.Date.class) {
+                return new java.sql.Date(values[row]);
+            } else if (valueClass == java.sql.Time.class) {
+                return new java.sql.Time(values[row]);
+            }
+            return new Date(values[row]);
+        }
+    }
+
+    private static class TimestampColumn extends Column {
+        private final long[] times;
+        private final int[] nanos;
+
+        TimestampColumn(int rowCount) {
+            this.times = new long[rowCount];
+            this.nanos = new int[rowCount];
+        }
+
+        @Override
+        void setValue(int row, @NotNull Object value) {
+            Timestamp timestamp = (Timestamp) value;
+            times[row] = timestamp.getTime();
+            nanos[row] = timestamp.getNanos();
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            Timestamp timestamp = new Timestamp(times[row]);
+            timestamp.setNanos(nanos[row]);
+            return timestamp;
+        }
+    }
+
+    /**
+     * Values of other types. Keeps references, equal strings are deduplicated.
+     */
+    private static class ObjectColumn extends Column {
+        private final Object[] values;
+        private Map<String, String> strings;
+
+        ObjectColumn(int rowCount) {
+            this.values = new Object[rowCount];
+        }
+
+        @Override
+        void setValue(int row, @NotNull Object value) {
+            if (value instanceof String) {
+                if (strings == null) {
+                    strings = new HashMap<>();
+                }
+                String prevValue = strings.putIfAbsent((String) value, (String) value);
+                if (prevValue != null) {
+                    value = prevValue;
+                }
+            }
+            values[row] = value;
+        }
+
+        @NotNull
+        @Override
+        Object getValue(int row) {
+            return values[row];
+        }
+
+        @Override
+        void completeLoad() {
+            // Strings are already shared, lookup map isn't needed anymore
+            strings = null;
+        }
+    }
+
+}
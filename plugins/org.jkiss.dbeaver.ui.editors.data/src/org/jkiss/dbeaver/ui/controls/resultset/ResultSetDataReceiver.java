@@ -51,6 +51,15 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
     private long offset;
     private long maxRows;
 
+    // Rows spilled to disk during current fetch
+    private int spillWindowSize;
+    private ResultSetSpillFile spillFile;
+    private boolean ownSpillFile;
+    private ResultSetSpilledRows spilledRows;
+    private boolean attributesBound;
+    // Nested bindings and transformers must be resolved from all rows at fetch end
+    private boolean lateBindingPending;
+
     private boolean paused;
 
     // Attribute fetching errors. Collect them to avoid tons of similar error in log
@@ -111,6 +120,15 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
 
             resultSetViewer.setMetaData(resultSet, metaColumns);
         }
+
+        ResultSetModel model = resultSetViewer.getModel();
+        model.setSpillWindowSize(resultSetViewer.getPreferenceStore().getInt(ResultSetPreferences.RESULT_SET_SPILL_MEMORY_ROWS));
+        spillWindowSize = model.getSpillWindowSize();
+        spillFile = null;
+        ownSpillFile = false;
+        spilledRows = null;
+        attributesBound = nextSegmentRead;
+        lateBindingPending = false;
     }
 
     @Override
@@ -149,25 +167,93 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
             }
         }
         rows.add(row);
+
+        if (spillWindowSize > 0 && rows.size() >= spillWindowSize + ResultSetSpillFile.PAGE_SIZE) {
+            spillRows(session, resultSet);
+        }
+    }
+
+    /**
+     * Writes oldest page of fetched rows to spill file.
+     */
+    private void spillRows(DBCSession session, DBCResultSet resultSet) {
+        if (!attributesBound) {
+            // Binding may change value handlers and convert fetched values. Do it before values are written.
+            // Nested bindings and transformers need all values, so they are resolved when fetch ends
+            bindAttributes(session, resultSet, false);
+            lateBindingPending = true;
+        }
+        if (spillFile == null) {
+            if (nextSegmentRead) {
+                // Use file of rows which are already in the model
+                spillFile = resultSetViewer.getModel().getSpillFile();
+            } else {
+                // Model keeps old data until this fetch ends
+                spillFile = ResultSetSpillFile.create();
+                ownSpillFile = spillFile != null;
+            }
+            if (spillFile == null) {
+                spillWindowSize = 0;
+                return;
+            }
+            spilledRows = new ResultSetSpilledRows(spillFile);
+        }
+        List<Object[]> pageRows = rows.subList(0, ResultSetSpillFile.PAGE_SIZE);
+        ResultSetSpillFile.Page page = spillFile.writePage(pageRows);
+        if (page == null) {
+            // Some values (LOBs, complex types) can't be spilled. Keep the rest of the data in memory
+            spilledRows.addRows(new ArrayList<>(pageRows));
+            spillWindowSize = 0;
+        } else {
+            spilledRows.addPage(page);
+        }
+        pageRows.clear();
+    }
+
+    private void bindAttributes(DBCSession session, DBCResultSet resultSet, boolean lateBinding) {
+        attributesBound = true;
+        try {
+            // Read locators' metadata
+            DBSEntity entity = null;
+            DBSDataContainer dataContainer = getDataContainer();
+            if (dataContainer instanceof DBSEntity) {
+                entity = (DBSEntity) dataContainer;
+            }
+            DBExecUtils.bindAttributes(session, entity, resultSet, metaColumns, rows, lateBinding);
+        } catch (Throwable e) {
+            errorList.add(e);
+        }
+    }
+
+    private void lateBindAttributes(DBCSession session, List<Object[]> allRows) {
+        lateBindingPending = false;
+        try {
+            DBExecUtils.lateBindAttributes(session, metaColumns, allRows);
+        } catch (Throwable e) {
+            errorList.add(e);
+        }
     }
 
     @Override
     public void fetchEnd(DBCSession session, final DBCResultSet resultSet) {
-        if (!nextSegmentRead) {
-            try {
-                // Read locators' metadata
-                DBSEntity entity = null;
-                DBSDataContainer dataContainer = getDataContainer();
-                if (dataContainer instanceof DBSEntity) {
-                    entity = (DBSEntity) dataContainer;
-                }
-                DBExecUtils.bindAttributes(session, entity, resultSet, metaColumns, rows);
-            } catch (Throwable e) {
-                errorList.add(e);
-            }
+        if (!attributesBound) {
+            bindAttributes(session, resultSet, true);
         }
 
-        final List<Object[]> tmpRows = rows;
+        final List<Object[]> tmpRows;
+        if (spilledRows != null) {
+            spilledRows.addRows(rows);
+            tmpRows = spilledRows;
+            // Model owns spill file now
+            spilledRows = null;
+            ownSpillFile = false;
+        } else {
+            tmpRows = rows;
+        }
+        if (lateBindingPending) {
+            // Spilled rows are read from disk, so all fetched values are seen
+            lateBindAttributes(session, tmpRows);
+        }
 
         final boolean nextSegmentRead = this.nextSegmentRead;
 
@@ -209,6 +295,13 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
 
         attrErrors.clear();
         rows = new ArrayList<>();
+        if (ownSpillFile) {
+            // Fetch failed, data wasn't passed to model
+            spillFile.close();
+        }
+        spillFile = null;
+        ownSpillFile = false;
+        spilledRows = null;
     }
 
     @Override
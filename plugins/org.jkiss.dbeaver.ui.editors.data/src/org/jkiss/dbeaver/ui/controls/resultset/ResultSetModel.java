@@ -57,10 +57,16 @@ public class ResultSetModel {
     private DBCExecutionSource executionSource;
 
     // Data
-    private List<ResultSetRow> curRows = new ArrayList<>();
+    private ResultSetRowList curRows = new ResultSetRowList(this::updateLoadedRowColors);
     private Long totalRowCount = null;
     private int changesCount = 0;
     private volatile boolean hasData = false;
+    // Keep fetched rows in columnar storage
+    private boolean columnarStorage = false;
+    // Maximum number of unchanged rows kept in memory. Older rows are spilled to disk. 0 means no limit
+    private int spillWindowSize = 0;
+    @Nullable
+    private ResultSetSpillFile spillFile;
     // Flag saying that edited values update is in progress
     private volatile DataSourceJob updateInProgress = null;
 
@@ -179,7 +185,7 @@ public class ResultSetModel {
 
     public void refreshChangeCount() {
         changesCount = 0;
-        for (ResultSetRow row : curRows) {
+        for (ResultSetRow row : curRows.getLoadedRows()) {
             if (row.getState() != ResultSetRow.STATE_NORMAL) {
                 changesCount++;
             } else if (row.changes != null) {
@@ -330,14 +336,25 @@ public class ResultSetModel {
         return curRows.size();
     }
 
+    /**
+     * Returns all rows. Rows spilled to disk are created on access, so avoid keeping references to all rows.
+     */
     @NotNull
     public List<ResultSetRow> getAllRows() {
         return curRows;
     }
 
+    /**
+     * Returns rows which are kept in memory. Spilled rows are never changed, so all changed rows are here.
+     */
+    @NotNull
+    List<ResultSetRow> getLoadedRows() {
+        return curRows.getLoadedRows();
+    }
+
     @NotNull
     public Object[] getRowData(int index) {
-        return curRows.get(index).values;
+        return curRows.get(index).getValues();
     }
 
     @NotNull
@@ -355,7 +372,11 @@ public class ResultSetModel {
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row) {
-        return DBUtils.getAttributeValue(attribute, attributes, row.values);
+        if (row.isStored() && attribute.getLevel() == 0 && !attribute.isCustom()) {
+            // Read single value, do not materialize the whole row
+            return row.getValue(attribute.getOrdinalPosition());
+        }
+        return DBUtils.getAttributeValue(attribute, attributes, row.getValues());
     }
 
     /**
@@ -371,6 +392,8 @@ public class ResultSetModel {
     }
 
     public boolean updateCellValue(@NotNull DBDAttributeBinding attr, @NotNull ResultSetRow row, @Nullable Object value, boolean updateChanges) {
+        // Row may be loaded from spill file and then unloaded
+        curRows.pin(row);
         int depth = attr.getLevel();
         int rootIndex;
         if (depth == 0) {
@@ -378,7 +401,7 @@ public class ResultSetModel {
         } else {
             rootIndex = attr.getTopParent().getOrdinalPosition();
         }
-        Object rootValue = row.values[rootIndex];
+        Object rootValue = row.getValue(rootIndex);
         Object ownerValue = depth > 0 ? rootValue : null;
         {
             // Obtain owner value and create all intermediate values
@@ -484,7 +507,7 @@ public class ResultSetModel {
                     e.printStackTrace();
                 }
             } else {
-                row.values[rootIndex] = value;
+                row.promoteValues()[rootIndex] = value;
             }
             return true;
         }
@@ -715,7 +738,13 @@ public class ResultSetModel {
             }
         }
         if (reset) {
-            updateRowColors(true, curRows);
+            updateRowColors(true, curRows.getLoadedRows());
+        }
+    }
+
+    private void updateLoadedRowColors(@NotNull ResultSetRow row) {
+        if (!colorMapping.isEmpty()) {
+            updateRowColors(false, Collections.singletonList(row));
         }
     }
 
@@ -808,18 +837,84 @@ public class ResultSetModel {
         int rowCount = rows.size();
         int firstRowNum = curRows.size();
         List<ResultSetRow> newRows = new ArrayList<>(rowCount);
-        for (int i = 0; i < rowCount; i++) {
-            newRows.add(
-                new ResultSetRow(firstRowNum + i, rows.get(i)));
+        if (rows instanceof ResultSetSpilledRows) {
+            // Rows were spilled during fetch. Keep page references only, rows are created when their window is loaded
+            ResultSetSpilledRows spilledRows = (ResultSetSpilledRows) rows;
+            adoptSpillFile(spilledRows.getSpillFile());
+            int rowNumber = firstRowNum;
+            for (Object segment : spilledRows.getSegments()) {
+                if (segment instanceof ResultSetSpillFile.Page) {
+                    ResultSetSpillFile.Page page = (ResultSetSpillFile.Page) segment;
+                    curRows.addSpilled(page, rowNumber);
+                    rowNumber += page.getRowCount();
+                } else {
+                    for (Object[] values : (List<Object[]>) segment) {
+                        ResultSetRow row = new ResultSetRow(rowNumber++, values);
+                        curRows.add(row);
+                        newRows.add(row);
+                    }
+                }
+            }
+        } else {
+            ResultSetColumnarStorage storage = columnarStorage ? ResultSetColumnarStorage.create(rows) : null;
+            for (int i = 0; i < rowCount; i++) {
+                newRows.add(storage == null ?
+                    new ResultSetRow(firstRowNum + i, rows.get(i)) :
+                    new ResultSetRow(firstRowNum + i, storage, i));
+            }
+            curRows.addAll(newRows);
         }
-        curRows.addAll(newRows);
 
         updateRowColors(resetOldRows, newRows);
+        spillOldRows();
+    }
+
+    /**
+     * Moves oldest unchanged rows to spill file if number of rows kept in memory exceeds spill window.
+     * Rows are spilled by full pages. Pages with values which can't be spilled stay in memory.
+     * Spilled rows are replaced with page references in the rows list.
+     */
+    private void spillOldRows() {
+        if (spillWindowSize <= 0 || curRows.size() - curRows.getSpilledCount() < spillWindowSize + ResultSetSpillFile.PAGE_SIZE) {
+            return;
+        }
+        List<ResultSetRow> memoryRows = new ArrayList<>();
+        for (ResultSetRow row : curRows.getLoadedRows()) {
+            if (row.canSpill()) {
+                memoryRows.add(row);
+            }
+        }
+        int spillCount = memoryRows.size() - spillWindowSize;
+        if (spillCount < ResultSetSpillFile.PAGE_SIZE) {
+            return;
+        }
+        ResultSetSpillFile file = getSpillFile();
+        if (file == null) {
+            return;
+        }
+        List<Object[]> pageValues = new ArrayList<>(ResultSetSpillFile.PAGE_SIZE);
+        for (int start = 0; start + ResultSetSpillFile.PAGE_SIZE <= spillCount; start += ResultSetSpillFile.PAGE_SIZE) {
+            List<ResultSetRow> pageRows = memoryRows.subList(start, start + ResultSetSpillFile.PAGE_SIZE);
+            pageValues.clear();
+            for (ResultSetRow row : pageRows) {
+                pageValues.add(row.getValues());
+            }
+            ResultSetSpillFile.Page page = file.writePage(pageValues);
+            if (page != null) {
+                for (int i = 0; i < pageRows.size(); i++) {
+                    ResultSetRow row = pageRows.get(i);
+                    // Row object may still be referenced by UI. Let it read values from the page
+                    row.setStorage(page, i);
+                    curRows.spill(row, page, i);
+                }
+            }
+        }
     }
 
     void clearData() {
         // Refresh all rows
-        this.curRows = new ArrayList<>();
+        this.curRows = new ResultSetRowList(this::updateLoadedRowColors);
+        closeSpillFile();
         this.totalRowCount = null;
         this.singleSourceEntity = null;
 
@@ -830,6 +925,60 @@ public class ResultSetModel {
         return hasData;
     }
 
+    public boolean isColumnarStorage() {
+        return columnarStorage;
+    }
+
+    /**
+     * Enables columnar storage for rows appended after this call.
+     * It reduces memory usage for large read-only result sets. Edited rows are moved out of it.
+     */
+    void setColumnarStorage(boolean columnarStorage) {
+        this.columnarStorage = columnarStorage;
+    }
+
+    public int getSpillWindowSize() {
+        return spillWindowSize;
+    }
+
+    /**
+     * Sets maximum number of unchanged rows kept in memory. Older rows are moved to temporary file.
+     * Spilled rows are read-only, they are moved back to memory on edit.
+     */
+    void setSpillWindowSize(int spillWindowSize) {
+        this.spillWindowSize = Math.max(spillWindowSize, 0);
+    }
+
+    /**
+     * Returns spill file of the current result set. Creates new file on first call.
+     * Returns null if spilling is disabled.
+     */
+    @Nullable
+    synchronized ResultSetSpillFile getSpillFile() {
+        if (spillFile == null && spillWindowSize > 0) {
+            spillFile = ResultSetSpillFile.create();
+            if (spillFile == null) {
+                // Can't create temp file. Keep everything in memory
+                spillWindowSize = 0;
+            }
+        }
+        return spillFile;
+    }
+
+    private synchronized void adoptSpillFile(@NotNull ResultSetSpillFile file) {
+        if (spillFile != file) {
+            closeSpillFile();
+            spillFile = file;
+        }
+    }
+
+    private synchronized void closeSpillFile() {
+        if (spillFile != null) {
+            spillFile.close();
+            spillFile = null;
+        }
+    }
+
     public boolean isDirty() {
         return changesCount != 0;
     }
@@ -870,6 +1019,7 @@ public class ResultSetModel {
             return true;
         } else {
             // Mark row as deleted
+            curRows.pin(row);
             row.setState(ResultSetRow.STATE_REMOVED);
             changesCount++;
             return false;
@@ -897,7 +1047,7 @@ public class ResultSetModel {
     }
 
     private void shiftRows(@NotNull ResultSetRow relative, int delta) {
-        for (ResultSetRow row : curRows) {
+        for (ResultSetRow row : curRows.getLoadedRows()) {
             if (row.getVisualNumber() >= relative.getVisualNumber()) {
                 row.setVisualNumber(row.getVisualNumber() + delta);
             }
@@ -905,10 +1055,12 @@ public class ResultSetModel {
                 row.setRowNumber(row.getRowNumber() + delta);
             }
         }
+        curRows.shiftSpilledRowNumbers(relative.getRowNumber(), delta);
     }
 
     void releaseAllData() {
-        final List<ResultSetRow> oldRows = curRows;
+        // Spilled rows have no values to release
+        final List<ResultSetRow> oldRows = curRows.getLoadedRows();
         // Cleanup in separate job.
         // Sometimes model cleanup takes much time (e.g. freeing LOB values)
         // So let's do it in separate job to avoid UI locking
@@ -1043,22 +1195,33 @@ public class ResultSetModel {
         final boolean hasOrdering = dataFilter.hasOrdering();
 
         // First sort in original order to reset multi-column orderings
-        curRows.sort(Comparator.comparingInt(ResultSetRow::getRowNumber));
+        curRows.sortByRowNumber();
 
         if (hasOrdering) {
             // Sort locally
-            final List<DBDAttributeConstraint> orderConstraints = dataFilter.getOrderConstraints();
-            curRows.sort((row1, row2) -> {
+            final List<DBDAttributeBinding> orderBindings = new ArrayList<>();
+            final List<Boolean> orderDescending = new ArrayList<>();
+            for (DBDAttributeConstraint co : dataFilter.getOrderConstraints()) {
+                final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
+                if (binding != null) {
+                    orderBindings.add(binding);
+                    orderDescending.add(co.isOrderDescending());
+                }
+            }
+            // Read sort keys once per row. Stored and spilled rows decode values on each access
+            final List<SortEntry> entries = new ArrayList<>(curRows.size());
+            for (int rowIndex = 0; rowIndex < curRows.size(); rowIndex++) {
+                Object[] keys = new Object[orderBindings.size()];
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = getCellValue(orderBindings.get(i), rowIndex);
+                }
+                entries.add(new SortEntry(rowIndex, keys));
+            }
+            entries.sort((entry1, entry2) -> {
                 int result = 0;
-                for (DBDAttributeConstraint co : orderConstraints) {
-                    final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
-                    if (binding == null) {
-                        continue;
-                    }
-                    Object cell1 = getCellValue(binding, row1);
-                    Object cell2 = getCellValue(binding, row2);
-                    result = DBUtils.compareDataValues(cell1, cell2);
-                    if (co.isOrderDescending()) {
+                for (int i = 0; i < entry1.keys.length; i++) {
+                    result = DBUtils.compareDataValues(entry1.keys[i], entry2.keys[i]);
+                    if (orderDescending.get(i)) {
                         result = -result;
                     }
                     if (result != 0) {
@@ -1067,10 +1230,24 @@ public class ResultSetModel {
                 }
                 return result;
             });
+            int[] order = new int[entries.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = entries.get(i).rowIndex;
+            }
+            curRows.reorder(order);
         }
-        for (int i = 0; i < curRows.size(); i++) {
-            curRows.get(i).setVisualNumber(i);
+        curRows.updateVisualNumbers();
+    }
+
+    /**
+     * Reads cell value by row position. Values of spilled rows are read without row loading.
+     */
+    @Nullable
+    private Object getCellValue(@NotNull DBDAttributeBinding attribute, int rowIndex) {
+        if (curRows.isSpilled(rowIndex) && attribute.getLevel() == 0 && !attribute.isCustom()) {
+            return curRows.getSpilledValue(rowIndex, attribute.getOrdinalPosition());
         }
+        return getCellValue(attribute, curRows.get(rowIndex));
     }
 
     private void fillVisibleAttributes() {
@@ -1115,4 +1292,14 @@ public class ResultSetModel {
     public DBCTrace getTrace() {
         return trace;
     }
+
+    private static class SortEntry {
+        private final int rowIndex;
+        private final Object[] keys;
+
+        SortEntry(int rowIndex, Object[] keys) {
+            this.rowIndex = rowIndex;
+            this.keys = keys;
+        }
+    }
 }
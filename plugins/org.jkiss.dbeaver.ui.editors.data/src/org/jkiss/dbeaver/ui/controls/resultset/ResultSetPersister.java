@@ -242,7 +242,7 @@ class ResultSetPersister {
         deletedRows.clear();
         addedRows.clear();
         changedRows.clear();
-        for (ResultSetRow row : model.getAllRows()) {
+        for (ResultSetRow row : model.getLoadedRows()) {
             switch (row.getState()) {
                 case ResultSetRow.STATE_NORMAL:
                     if (row.isChanged()) {
@@ -520,9 +520,9 @@ class ResultSetPersister {
         // Update keys
         if (!stat.updatedCells.isEmpty()) {
             for (Map.Entry<Integer, Object> entry : stat.updatedCells.entrySet()) {
-                ResultSetRow row = stat.row;
-                DBUtils.releaseValue(row.values[entry.getKey()]);
-                row.values[entry.getKey()] = entry.getValue();
+                Object[] rowValues = stat.row.promoteValues();
+                DBUtils.releaseValue(rowValues[entry.getKey()]);
+                rowValues[entry.getKey()] = entry.getValue();
             }
         }
     }
@@ -1076,7 +1076,7 @@ class ResultSetPersister {
                     if (!viewer.getControl().isDisposed() && viewer.getModel().getAttributes() == curAttributes) {
                         for (int i = 0; i < rows.size(); i++) {
                             if (refreshValues[i] != null) {
-                                rows.get(i).values = refreshValues[i];
+                                rows.get(i).setValues(refreshValues[i]);
                             }
                         }
                         viewer.redrawData(false, true);
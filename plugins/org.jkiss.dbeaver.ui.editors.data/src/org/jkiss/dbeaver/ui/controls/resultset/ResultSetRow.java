@@ -52,9 +52,12 @@ public class ResultSetRow {
     private int rowNumber;
     // Row number in grid
     private int visualNumber;
-    // Column values
-    @NotNull
-    public Object[] values;
+    // Column values. Null if values are kept in columnar storage or spilled to disk
+    @Nullable
+    private Object[] values;
+    @Nullable
+    private ResultSetRowStorage storage;
+    private int storageIndex;
     @Nullable
     public Map<DBDAttributeBinding, Object> changes;
     // Row state
@@ -71,8 +74,83 @@ public class ResultSetRow {
         this.state = STATE_NORMAL;
     }
 
+    ResultSetRow(int rowNumber, @NotNull ResultSetRowStorage storage, int storageIndex) {
+        this.rowNumber = rowNumber;
+        this.visualNumber = rowNumber;
+        this.storage = storage;
+        this.storageIndex = storageIndex;
+        this.state = STATE_NORMAL;
+    }
+
+    /**
+     * Returns row values.
+     * For rows kept in columnar storage or spilled to disk returns a new array on each call, so it must not be modified.
+     * Use {@link ResultSetModel#updateCellValue} to change values.
+     */
     @NotNull
     public Object[] getValues() {
+        if (values == null) {
+            assert storage != null;
+            return storage.getRowValues(storageIndex);
+        }
+        return values;
+    }
+
+    @Nullable
+    Object getValue(int index) {
+        if (values == null) {
+            assert storage != null;
+            return storage.getValue(storageIndex, index);
+        }
+        return index < values.length ? values[index] : null;
+    }
+
+    void setValues(@NotNull Object[] values) {
+        this.values = values;
+        this.storage = null;
+    }
+
+    boolean isStored() {
+        return values == null;
+    }
+
+    /**
+     * Moves values to storage. Row must be unchanged.
+     */
+    void setStorage(@NotNull ResultSetRowStorage storage, int storageIndex) {
+        this.storage = storage;
+        this.storageIndex = storageIndex;
+        this.values = null;
+    }
+
+    int getStorageIndex() {
+        return storageIndex;
+    }
+
+    /**
+     * Checks whether row is unchanged and its values are read from the specified storage
+     */
+    boolean isStoredIn(@NotNull ResultSetRowStorage storage) {
+        return values == null && this.storage == storage && state == STATE_NORMAL && changes == null && collections == null;
+    }
+
+    /**
+     * Checks whether row values can be moved to disk storage.
+     * New, removed and edited rows are always kept in memory.
+     */
+    boolean canSpill() {
+        return values != null && state == STATE_NORMAL && changes == null && collections == null;
+    }
+
+    /**
+     * Moves values out of storage.
+     * Returns values array which can be modified.
+     */
+    @NotNull
+    Object[] promoteValues() {
+        if (values == null) {
+            setValues(getValues());
+        }
         return values;
     }
 
@@ -124,8 +202,11 @@ public class ResultSetRow {
     }
 
     void release() {
-        for (Object value : values) {
-            DBUtils.releaseValue(value);
+        if (values != null) {
+            // Stored rows do not keep values which need release
+            for (Object value : values) {
+                DBUtils.releaseValue(value);
+            }
         }
         if (changes != null) {
             for (Object oldValue : changes.values()) {
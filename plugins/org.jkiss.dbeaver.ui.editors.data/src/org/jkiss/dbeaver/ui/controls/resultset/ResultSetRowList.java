@@ -0,0 +1,398 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Rows of result set model.
+ *
+ * Rows spilled to disk have no row objects. Only spill file page and row index in this page are kept for them.
+ * Row object is created on access and stays in the list while its page window is loaded. When window is evicted
+ * unchanged rows of this window are replaced with page references again.
+ *
+ * Visual number of loaded rows must be equal to their position in the list (see {@link #updateVisualNumbers()}).
+ */
+class ResultSetRowList extends AbstractList<ResultSetRow> implements RandomAccess {
+
+    // Number of spill file pages which rows are kept loaded
+    private static final int MAX_LOADED_WINDOWS = 8;
+
+    private static final Object[] EMPTY_ELEMENTS = new Object[0];
+
+    @Nullable
+    private final Consumer<ResultSetRow> loadListener;
+    // ResultSetRow or ResultSetSpillFile.Page
+    private Object[] elements = EMPTY_ELEMENTS;
+    // Row index in page and row number of spilled rows. Allocated on first spill
+    @Nullable
+    private int[] pageIndexes;
+    @Nullable
+    private int[] rowNumbers;
+    private int size;
+    private int spilledCount;
+    // Loaded rows of spill file pages in access order
+    private final Map<ResultSetSpillFile.Page, List<ResultSetRow>> loadedWindows =
+        new LinkedHashMap<ResultSetSpillFile.Page, List<ResultSetRow>>(MAX_LOADED_WINDOWS, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ResultSetSpillFile.Page, List<ResultSetRow>> eldest) {
+                if (size() > MAX_LOADED_WINDOWS) {
+                    unloadWindow(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+
+    /**
+     * @param loadListener is called for each row loaded from spill file
+     */
+    ResultSetRowList(@Nullable Consumer<ResultSetRow> loadListener) {
+        this.loadListener = loadListener;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns row. Spilled row is loaded, so a new row object may be returned for the same row after its window
+     * was evicted.
+     */
+    @Override
+    public ResultSetRow get(int index) {
+        checkIndex(index);
+        Object element = elements[index];
+        if (element instanceof ResultSetRow) {
+            return (ResultSetRow) element;
+        }
+        return loadRow(index, (ResultSetSpillFile.Page) element);
+    }
+
+    /**
+     * Replaces row. Returns previous row or null if it wasn't loaded.
+     */
+    @Override
+    public ResultSetRow set(int index, @NotNull ResultSetRow row) {
+        checkIndex(index);
+        Object element = elements[index];
+        elements[index] = row;
+        if (element instanceof ResultSetRow) {
+            return (ResultSetRow) element;
+        }
+        spilledCount--;
+        return null;
+    }
+
+    @Override
+    public void add(int index, @NotNull ResultSetRow row) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Row " + index + " is out of range (" + size + ")");
+        }
+        ensureCapacity(size + 1);
+        int moved = size - index;
+        if (moved > 0) {
+            System.arraycopy(elements, index, elements, index + 1, moved);
+            if (pageIndexes != null) {
+                System.arraycopy(pageIndexes, index, pageIndexes, index + 1, moved);
+                System.arraycopy(rowNumbers, index, rowNumbers, index + 1, moved);
+            }
+        }
+        elements[index] = row;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public ResultSetRow remove(int index) {
+        ResultSetRow row = get(index);
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(elements, index + 1, elements, index, moved);
+            if (pageIndexes != null) {
+                System.arraycopy(pageIndexes, index + 1, pageIndexes, index, moved);
+                System.arraycopy(rowNumbers, index + 1, rowNumbers, index, moved);
+            }
+        }
+        elements[--size] = null;
+        modCount++;
+        return row;
+    }
+
+    @Override
+    public void clear() {
+        elements = EMPTY_ELEMENTS;
+        pageIndexes = null;
+        rowNumbers = null;
+        size = 0;
+        spilledCount = 0;
+        loadedWindows.clear();
+        modCount++;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (o instanceof ResultSetRow) {
+            ResultSetRow row = (ResultSetRow) o;
+            int index = row.getVisualNumber();
+            if (index >= 0 && index < size) {
+                Object element = elements[index];
+                if (element instanceof ResultSetRow ? row.equals(element) : getRowNumber(index) == row.getRowNumber()) {
+                    return index;
+                }
+            }
+            // Spilled rows are always at their visual position, so check loaded rows only
+            for (int i = 0; i < size; i++) {
+                if (elements[i] instanceof ResultSetRow && row.equals(elements[i])) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Appends all rows of spill file page
+     */
+    void addSpilled(@NotNull ResultSetSpillFile.Page page, int firstRowNumber) {
+        int rowCount = page.getRowCount();
+        ensureCapacity(size + rowCount);
+        allocateSpillData();
+        for (int i = 0; i < rowCount; i++) {
+            elements[size] = page;
+            pageIndexes[size] = i;
+            rowNumbers[size] = firstRowNumber + i;
+            size++;
+        }
+        spilledCount += rowCount;
+        modCount++;
+    }
+
+    /**
+     * Replaces row with its spill file page reference. Row values must be already written to this page.
+     * Does nothing if row isn't at its visual position.
+     */
+    void spill(@NotNull ResultSetRow row, @NotNull ResultSetSpillFile.Page page, int pageIndex) {
+        int index = row.getVisualNumber();
+        if (index < 0 || index >= size || elements[index] != row) {
+            return;
+        }
+        allocateSpillData();
+        elements[index] = page;
+        pageIndexes[index] = pageIndex;
+        rowNumbers[index] = row.getRowNumber();
+        spilledCount++;
+    }
+
+    /**
+     * Puts row object back to the list if its window was evicted while the row was still in use.
+     * Must be called before row modification.
+     */
+    void pin(@NotNull ResultSetRow row) {
+        int index = row.getVisualNumber();
+        if (index < 0 || index >= size) {
+            return;
+        }
+        Object element = elements[index];
+        if (element == row) {
+            return;
+        }
+        if (element instanceof ResultSetRow ? row.equals(element) : getRowNumber(index) == row.getRowNumber()) {
+            set(index, row);
+        }
+    }
+
+    boolean isSpilled(int index) {
+        checkIndex(index);
+        return !(elements[index] instanceof ResultSetRow);
+    }
+
+    int getSpilledCount() {
+        return spilledCount;
+    }
+
+    /**
+     * Reads value of spilled row without row loading
+     */
+    @Nullable
+    Object getSpilledValue(int index, int column) {
+        assert pageIndexes != null;
+        return ((ResultSetSpillFile.Page) elements[index]).getValue(pageIndexes[index], column);
+    }
+
+    int getRowNumber(int index) {
+        Object element = elements[index];
+        if (element instanceof ResultSetRow) {
+            return ((ResultSetRow) element).getRowNumber();
+        }
+        assert rowNumbers != null;
+        return rowNumbers[index];
+    }
+
+    /**
+     * Returns rows which have row objects. Spilled rows are never changed, so all changed rows are here.
+     */
+    @NotNull
+    List<ResultSetRow> getLoadedRows() {
+        if (spilledCount == 0) {
+            return new ArrayList<>(this);
+        }
+        List<ResultSetRow> rows = new ArrayList<>(size - spilledCount);
+        for (int i = 0; i < size; i++) {
+            if (elements[i] instanceof ResultSetRow) {
+                rows.add((ResultSetRow) elements[i]);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Shifts row numbers of spilled rows. Loaded rows must be shifted by caller.
+     */
+    void shiftSpilledRowNumbers(int fromRowNumber, int delta) {
+        if (spilledCount == 0) {
+            return;
+        }
+        assert rowNumbers != null;
+        for (int i = 0; i < size; i++) {
+            if (!(elements[i] instanceof ResultSetRow) && rowNumbers[i] >= fromRowNumber) {
+                rowNumbers[i] += delta;
+            }
+        }
+    }
+
+    /**
+     * Sorts rows in original (fetch) order
+     */
+    void sortByRowNumber() {
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = (long) getRowNumber(i) << 32 | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) keys[i];
+        }
+        reorder(order);
+    }
+
+    /**
+     * Moves rows to new positions.
+     * @param order old position of each row
+     */
+    void reorder(@NotNull int[] order) {
+        if (order.length != size) {
+            throw new IllegalArgumentException("Bad rows order length: " + order.length);
+        }
+        Object[] newElements = new Object[elements.length];
+        for (int i = 0; i < size; i++) {
+            newElements[i] = elements[order[i]];
+        }
+        elements = newElements;
+        if (pageIndexes != null) {
+            int[] newPageIndexes = new int[pageIndexes.length];
+            int[] newRowNumbers = new int[rowNumbers.length];
+            for (int i = 0; i < size; i++) {
+                newPageIndexes[i] = pageIndexes[order[i]];
+                newRowNumbers[i] = rowNumbers[order[i]];
+            }
+            pageIndexes = newPageIndexes;
+            rowNumbers = newRowNumbers;
+        }
+        modCount++;
+    }
+
+    /**
+     * Sets visual number of loaded rows to their positions
+     */
+    void updateVisualNumbers() {
+        for (int i = 0; i < size; i++) {
+            if (elements[i] instanceof ResultSetRow) {
+                ((ResultSetRow) elements[i]).setVisualNumber(i);
+            }
+        }
+    }
+
+    @NotNull
+    private ResultSetRow loadRow(int index, @NotNull ResultSetSpillFile.Page page) {
+        assert pageIndexes != null && rowNumbers != null;
+        ResultSetRow row = new ResultSetRow(rowNumbers[index], page, pageIndexes[index]);
+        row.setVisualNumber(index);
+        elements[index] = row;
+        spilledCount--;
+        List<ResultSetRow> window = loadedWindows.get(page);
+        if (window == null) {
+            window = new ArrayList<>();
+            loadedWindows.put(page, window);
+        }
+        window.add(row);
+        if (loadListener != null) {
+            loadListener.accept(row);
+        }
+        return row;
+    }
+
+    private void unloadWindow(@NotNull ResultSetSpillFile.Page page, @NotNull List<ResultSetRow> rows) {
+        assert pageIndexes != null && rowNumbers != null;
+        for (ResultSetRow row : rows) {
+            int index = row.getVisualNumber();
+            if (index >= 0 && index < size && elements[index] == row && row.isStoredIn(page)) {
+                elements[index] = page;
+                pageIndexes[index] = row.getStorageIndex();
+                rowNumbers[index] = row.getRowNumber();
+                spilledCount++;
+            }
+        }
+    }
+
+    private void allocateSpillData() {
+        if (pageIndexes == null) {
+            pageIndexes = new int[elements.length];
+            rowNumbers = new int[elements.length];
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= elements.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, Math.max(16, elements.length + (elements.length >> 1)));
+        elements = Arrays.copyOf(elements, newCapacity);
+        if (pageIndexes != null) {
+            pageIndexes = Arrays.copyOf(pageIndexes, newCapacity);
+            rowNumbers = Arrays.copyOf(rowNumbers, newCapacity);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Row " + index + " is out of range (" + size + ")");
+        }
+    }
+
+}
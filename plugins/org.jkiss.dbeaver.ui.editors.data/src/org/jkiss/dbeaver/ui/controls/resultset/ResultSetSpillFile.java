@@ -0,0 +1,448 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.util.*;
+
+/**
+ * Temporary file which keeps pages of fetched rows.
+ *
+ * Each page is written once and then memory-mapped on demand. Only a limited number of pages
+ * stays mapped, so result set size is limited by disk space rather than by heap size.
+ * Values are written with simple type tags. Rows with values which can't be written
+ * (LOBs, complex values, unknown Java types) are not spilled.
+ *
+ * Pages are read-only. Rows must be moved out of page (see {@link ResultSetRow#promoteValues()})
+ * before modification.
+ */
+class ResultSetSpillFile {
+
+    private static final Log log = Log.getLog(ResultSetSpillFile.class);
+
+    static final int PAGE_SIZE = 10000;
+
+    private static final int MAX_MAPPED_PAGES = 64;
+    private static final int MAX_PAGE_LENGTH = 256 * 1024 * 1024;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_SHORT = 4;
+    private static final byte TYPE_BYTE = 5;
+    private static final byte TYPE_DOUBLE = 6;
+    private static final byte TYPE_FLOAT = 7;
+    private static final byte TYPE_BOOLEAN = 8;
+    private static final byte TYPE_BIG_DECIMAL = 9;
+    private static final byte TYPE_BIG_INTEGER = 10;
+    private static final byte TYPE_TIMESTAMP = 11;
+    private static final byte TYPE_SQL_DATE = 12;
+    private static final byte TYPE_SQL_TIME = 13;
+    private static final byte TYPE_DATE = 14;
+    private static final byte TYPE_BINARY = 15;
+    private static final byte TYPE_LOCAL_DATE = 16;
+    private static final byte TYPE_LOCAL_TIME = 17;
+    private static final byte TYPE_LOCAL_DATE_TIME = 18;
+    private static final byte TYPE_OFFSET_DATE_TIME = 19;
+    private static final byte TYPE_UUID = 20;
+    private static final byte TYPE_CHARACTER = 21;
+
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private long fileLength;
+    private boolean closed;
+    // Mapped pages in access order
+    private final Map<Page, Boolean> mappedPages = new LinkedHashMap<Page, Boolean>(MAX_MAPPED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Page, Boolean> eldest) {
+            if (size() > MAX_MAPPED_PAGES) {
+                eldest.getKey().buffer = null;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private ResultSetSpillFile(@NotNull File file) throws IOException {
+        this.file = file;
+        this.randomAccessFile = new RandomAccessFile(file, "rw");
+        this.channel = randomAccessFile.getChannel();
+    }
+
+    /**
+     * Creates new spill file in workspace temp folder.
+     * Returns null if file can't be created.
+     */
+    @Nullable
+    static ResultSetSpillFile create() {
+        try {
+            File folder = DBWorkbench.getPlatform().getTempFolder(new VoidProgressMonitor(), "result-sets");
+            File file = File.createTempFile("rows", ".dat", folder);
+            file.deleteOnExit();
+            return new ResultSetSpillFile(file);
+        } catch (IOException e) {
+            log.warn("Can't create result set spill file", e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes rows page.
+     * Returns null if some value can't be written. In this case rows must stay in memory.
+     */
+    @Nullable
+    synchronized Page writePage(@NotNull List<Object[]> rows) {
+        if (closed || rows.isEmpty()) {
+            return null;
+        }
+        int columnCount = rows.get(0).length;
+        int[] rowOffsets = new int[rows.size()];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows.size() * rows.get(0).length * 8);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (int i = 0; i < rowOffsets.length; i++) {
+                rowOffsets[i] = out.size();
+                Object[] row = rows.get(i);
+                if (row.length != columnCount) {
+                    return null;
+                }
+                for (Object value : row) {
+                    if (!writeValue(out, value)) {
+                        return null;
+                    }
+                }
+                if (out.size() > MAX_PAGE_LENGTH) {
+                    return null;
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Error encoding rows page", e);
+            return null;
+        }
+        int length = bytes.size();
+        try {
+            ByteBuffer data = ByteBuffer.wrap(bytes.toByteArray(), 0, length);
+            long position = fileLength;
+            while (data.hasRemaining()) {
+                position += channel.write(data, position);
+            }
+        } catch (IOException e) {
+            log.warn("Error writing rows page to " + file.getAbsolutePath(), e);
+            return null;
+        }
+        Page page = new Page(fileLength, length, columnCount, rowOffsets);
+        fileLength += length;
+        return page;
+    }
+
+    /**
+     * Closes and deletes the file. Rows which were stored in this file become empty.
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Page page : mappedPages.keySet()) {
+            page.buffer = null;
+        }
+        mappedPages.clear();
+        try {
+            randomAccessFile.close();
+        } catch (IOException e) {
+            log.debug("Error closing spill file", e);
+        }
+        if (!file.delete()) {
+            // Mapped buffers may still lock the file (on Windows). It will be deleted on exit.
+            log.debug("Can't delete spill file " + file.getAbsolutePath());
+        }
+    }
+
+    @Nullable
+    private synchronized ByteBuffer mapPage(@NotNull Page page) {
+        if (closed) {
+            return null;
+        }
+        MappedByteBuffer buffer = page.buffer;
+        if (buffer == null) {
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, page.offset, page.length);
+            } catch (IOException e) {
+                log.warn("Error mapping rows page from " + file.getAbsolutePath(), e);
+                return null;
+            }
+            page.buffer = buffer;
+        }
+        mappedPages.put(page, Boolean.TRUE);
+        // Each reader has own position
+        return buffer.duplicate();
+    }
+
+    private static boolean writeValue(@NotNull DataOutputStream out, @Nullable Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Short) {
+            out.writeByte(TYPE_SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(TYPE_BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TYPE_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(TYPE_BIG_DECIMAL);
+            out.writeInt(((BigDecimal) value).scale());
+            writeBytes(out, ((BigDecimal) value).unscaledValue().toByteArray());
+        } else if (value instanceof BigInteger) {
+            out.writeByte(TYPE_BIG_INTEGER);
+            writeBytes(out, ((BigInteger) value).toByteArray());
+        } else if (value.getClass() == java.sql.Timestamp.class) {
+            out.writeByte(TYPE_TIMESTAMP);
+            out.writeLong(((java.sql.Timestamp) value).getTime());
+            out.writeInt(((java.sql.Timestamp) value).getNanos());
+        } else if (value.getClass() == java.sql.Date.class) {
+            out.writeByte(TYPE_SQL_DATE);
+            out.writeLong(((java.sql.Date) value).getTime());
+        } else if (value.getClass() == java.sql.Time.class) {
+            out.writeByte(TYPE_SQL_TIME);
+            out.writeLong(((java.sql.Time) value).getTime());
+        } else if (value.getClass() == Date.class) {
+            out.writeByte(TYPE_DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof byte[]) {
+            out.writeByte(TYPE_BINARY);
+            writeBytes(out, (byte[]) value);
+        } else if (value instanceof LocalDate) {
+            out.writeByte(TYPE_LOCAL_DATE);
+            out.writeLong(((LocalDate) value).toEpochDay());
+        } else if (value instanceof LocalTime) {
+            out.writeByte(TYPE_LOCAL_TIME);
+            out.writeLong(((LocalTime) value).toNanoOfDay());
+        } else if (value instanceof LocalDateTime) {
+            out.writeByte(TYPE_LOCAL_DATE_TIME);
+            out.writeLong(((LocalDateTime) value).toLocalDate().toEpochDay());
+            out.writeLong(((LocalDateTime) value).toLocalTime().toNanoOfDay());
+        } else if (value instanceof OffsetDateTime) {
+            OffsetDateTime dateTime = (OffsetDateTime) value;
+            out.writeByte(TYPE_OFFSET_DATE_TIME);
+            out.writeLong(dateTime.toLocalDate().toEpochDay());
+            out.writeLong(dateTime.toLocalTime().toNanoOfDay());
+            out.writeInt(dateTime.getOffset().getTotalSeconds());
+        } else if (value instanceof UUID) {
+            out.writeByte(TYPE_UUID);
+            out.writeLong(((UUID) value).getMostSignificantBits());
+            out.writeLong(((UUID) value).getLeastSignificantBits());
+        } else if (value instanceof Character) {
+            out.writeByte(TYPE_CHARACTER);
+            out.writeChar((Character) value);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static void writeBytes(@NotNull DataOutputStream out, @NotNull byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Nullable
+    private static Object readValue(@NotNull ByteBuffer buffer) {
+        byte type = buffer.get();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return new String(readBytes(buffer), StandardCharsets.UTF_8);
+            case TYPE_INTEGER:
+                return buffer.getInt();
+            case TYPE_LONG:
+                return buffer.getLong();
+            case TYPE_SHORT:
+                return buffer.getShort();
+            case TYPE_BYTE:
+                return buffer.get();
+            case TYPE_DOUBLE:
+                return buffer.getDouble();
+            case TYPE_FLOAT:
+                return buffer.getFloat();
+            case TYPE_BOOLEAN:
+                return buffer.get() != 0;
+            case TYPE_BIG_DECIMAL: {
+                int scale = buffer.getInt();
+                return new BigDecimal(new BigInteger(readBytes(buffer)), scale);
+            }
+            case TYPE_BIG_INTEGER:
+                return new BigInteger(readBytes(buffer));
+            case TYPE_TIMESTAMP: {
+                java.sql.Timestamp timestamp = new java.sql.Timestamp(buffer.getLong());
+                timestamp.setNanos(buffer.getInt());
+                return timestamp;
+            }
+            case TYPE_SQL_DATE:
+                return new java.sql.Date(buffer.getLong());
+            case TYPE_SQL_TIME:
+                return new java.sql.Time(buffer.getLong());
+            case TYPE_DATE:
+                return new Date(buffer.getLong());
+            case TYPE_BINARY:
+                return readBytes(buffer);
+            case TYPE_LOCAL_DATE:
+                return LocalDate.ofEpochDay(buffer.getLong());
+            case TYPE_LOCAL_TIME:
+                return LocalTime.ofNanoOfDay(buffer.getLong());
+            case TYPE_LOCAL_DATE_TIME:
+                return LocalDateTime.of(LocalDate.ofEpochDay(buffer.getLong()), LocalTime.ofNanoOfDay(buffer.getLong()));
+            case TYPE_OFFSET_DATE_TIME: {
+                LocalDate date = LocalDate.ofEpochDay(buffer.getLong());
+                LocalTime time = LocalTime.ofNanoOfDay(buffer.getLong());
+                return OffsetDateTime.of(date, time, ZoneOffset.ofTotalSeconds(buffer.getInt()));
+            }
+            case TYPE_UUID:
+                return new UUID(buffer.getLong(), buffer.getLong());
+            case TYPE_CHARACTER:
+                return buffer.getChar();
+            default:
+                throw new IllegalStateException("Bad value type in spill file: " + type);
+        }
+    }
+
+    private static void skipValue(@NotNull ByteBuffer buffer) {
+        byte type = buffer.get();
+        int skip;
+        switch (type) {
+            case TYPE_NULL: skip = 0; break;
+            case TYPE_BYTE:
+            case TYPE_BOOLEAN: skip = 1; break;
+            case TYPE_SHORT:
+            case TYPE_CHARACTER: skip = 2; break;
+            case TYPE_INTEGER:
+            case TYPE_FLOAT: skip = 4; break;
+            case TYPE_LONG:
+            case TYPE_DOUBLE:
+            case TYPE_SQL_DATE:
+            case TYPE_SQL_TIME:
+            case TYPE_DATE:
+            case TYPE_LOCAL_DATE:
+            case TYPE_LOCAL_TIME: skip = 8; break;
+            case TYPE_TIMESTAMP: skip = 12; break;
+            case TYPE_LOCAL_DATE_TIME:
+            case TYPE_UUID: skip = 16; break;
+            case TYPE_OFFSET_DATE_TIME: skip = 20; break;
+            case TYPE_BIG_DECIMAL: buffer.getInt(); skip = buffer.getInt(); break;
+            case TYPE_STRING:
+            case TYPE_BIG_INTEGER:
+            case TYPE_BINARY: skip = buffer.getInt(); break;
+            default:
+                throw new IllegalStateException("Bad value type in spill file: " + type);
+        }
+        buffer.position(buffer.position() + skip);
+    }
+
+    @NotNull
+    private static byte[] readBytes(@NotNull ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Page of rows in spill file
+     */
+    class Page implements ResultSetRowStorage {
+
+        private final long offset;
+        private final int length;
+        private final int columnCount;
+        private final int[] rowOffsets;
+        private volatile MappedByteBuffer buffer;
+
+        private Page(long offset, int length, int columnCount, int[] rowOffsets) {
+            this.offset = offset;
+            this.length = length;
+            this.columnCount = columnCount;
+            this.rowOffsets = rowOffsets;
+        }
+
+        int getRowCount() {
+            return rowOffsets.length;
+        }
+
+        @Nullable
+        @Override
+        public Object getValue(int row, int column) {
+            if (row < 0 || row >= rowOffsets.length || column < 0 || column >= columnCount) {
+                return null;
+            }
+            ByteBuffer data = mapPage(this);
+            if (data == null) {
+                return null;
+            }
+            data.position(rowOffsets[row]);
+            for (int i = 0; i < column; i++) {
+                skipValue(data);
+            }
+            return readValue(data);
+        }
+
+        @NotNull
+        @Override
+        public Object[] getRowValues(int row) {
+            Object[] values = new Object[columnCount];
+            ByteBuffer data = row < 0 || row >= rowOffsets.length ? null : mapPage(this);
+            if (data == null) {
+                return values;
+            }
+            data.position(rowOffsets[row]);
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readValue(data);
+            }
+            return values;
+        }
+    }
+
+}
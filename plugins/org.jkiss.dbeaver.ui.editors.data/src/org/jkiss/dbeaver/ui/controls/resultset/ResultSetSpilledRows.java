@@ -0,0 +1,103 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fetched rows, partially spilled to disk.
+ * Consists of spill file pages and rows which were kept in memory, in fetch order.
+ * Spilled rows are decoded on each access, so the list is read-only.
+ */
+class ResultSetSpilledRows extends AbstractList<Object[]> {
+
+    private final ResultSetSpillFile spillFile;
+    private final List<Object> segments = new ArrayList<>();
+    private final List<Integer> segmentStarts = new ArrayList<>();
+    private int size;
+
+    ResultSetSpilledRows(@NotNull ResultSetSpillFile spillFile) {
+        this.spillFile = spillFile;
+    }
+
+    @NotNull
+    ResultSetSpillFile getSpillFile() {
+        return spillFile;
+    }
+
+    void addPage(@NotNull ResultSetSpillFile.Page page) {
+        addSegment(page, page.getRowCount());
+    }
+
+    void addRows(@NotNull List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            addSegment(rows, rows.size());
+        }
+    }
+
+    private void addSegment(@NotNull Object segment, int rowCount) {
+        segments.add(segment);
+        segmentStarts.add(size);
+        size += rowCount;
+    }
+
+    /**
+     * Returns segments in fetch order. Each segment is either spill file page or list of rows kept in memory.
+     */
+    @NotNull
+    List<Object> getSegments() {
+        return segments;
+    }
+
+    @Override
+    public Object[] get(int index) {
+        int segmentNum = findSegment(index);
+        Object segment = segments.get(segmentNum);
+        int segmentIndex = index - segmentStarts.get(segmentNum);
+        if (segment instanceof ResultSetSpillFile.Page) {
+            return ((ResultSetSpillFile.Page) segment).getRowValues(segmentIndex);
+        }
+        return ((List<Object[]>) segment).get(segmentIndex);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int findSegment(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Row " + index + " is out of range (" + size + ")");
+        }
+        int low = 0, high = segmentStarts.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (segmentStarts.get(mid) <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+}
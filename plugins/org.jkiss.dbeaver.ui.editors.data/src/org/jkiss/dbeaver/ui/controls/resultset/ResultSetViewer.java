@@ -2129,6 +2129,7 @@ public class ResultSetViewer extends Viewer
             return;
         }
         this.curRow = null;
+        this.model.setColumnarStorage(getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE));
         this.model.setData(rows);
         this.curRow = (this.model.getRowCount() > 0 ? this.model.getRow(0) : null);
         if (focusRow > 0 && focusRow < model.getRowCount()) {
@@ -3929,7 +3930,7 @@ public class ResultSetViewer extends Viewer
 //        }
         boolean needPK = false;
         if (!skipKeySearch) {
-            for (ResultSetRow row : model.getAllRows()) {
+            for (ResultSetRow row : model.getLoadedRows()) {
                 if (row.getState() == ResultSetRow.STATE_REMOVED || (row.getState() == ResultSetRow.STATE_NORMAL && row.isChanged())) {
                     needPK = true;
                     break;
@@ -1691,6 +1691,13 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
             return null;
         }
 
+        @Nullable
+        @Override
+        public List<?> getFlatRowElements() {
+            // Result set rows have no children
+            return controller.isRecordMode() ? null : controller.getModel().getAllRows();
+        }
+
         @Override
         public int getSortOrder(@Nullable Object column)
         {
@@ -507,6 +507,10 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
         if (viewerConfiguration != null) {
             viewerConfiguration.saveFoldingState();
         }
+        if (parserContext != null) {
+            parserContext.dispose();
+            parserContext = null;
+        }
 
         super.dispose();
     }
@@ -605,6 +609,9 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
         SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
         ruleManager.loadRules(getDataSource(), SQLEditorBase.isBigScript(getEditorInput()));
         ruleScanner.refreshRules(getDataSource(), ruleManager);
+        if (parserContext != null) {
+            parserContext.dispose();
+        }
         parserContext = new SQLParserContext(SQLEditorBase.this, syntaxManager, ruleManager, document != null ? document : new Document());
 
         if (document instanceof IDocumentExtension3) {
@@ -38,12 +38,14 @@ import org.jkiss.dbeaver.model.data.DBDDataFilter;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.data.DBDDataReceiverInteractive;
 import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.impl.local.StatResultSet;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.*;
+import org.jkiss.dbeaver.model.sql.exec.SQLScriptBatch;
 import org.jkiss.dbeaver.model.sql.parser.SQLSemanticProcessor;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
@@ -59,6 +61,7 @@ import org.jkiss.dbeaver.ui.editors.sql.SQLPreferenceConstants;
 import org.jkiss.dbeaver.ui.editors.sql.internal.SQLEditorActivator;
 import org.jkiss.dbeaver.ui.editors.sql.internal.SQLEditorMessages;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
+import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
@@ -78,6 +81,15 @@ public class SQLQueryJob extends DataSourceJob
 
     public static final Object STATS_RESULTS = new Object();
 
+    private static final int MAX_DML_BATCH_SIZE = 1000;
+    private static final String[] BATCH_DML_KEYWORDS = {
+        SQLConstants.KEYWORD_INSERT,
+        SQLConstants.KEYWORD_UPDATE,
+        SQLConstants.KEYWORD_DELETE,
+        SQLConstants.KEYWORD_MERGE,
+        SQLConstants.KEYWORD_UPSERT
+    };
+
     private final DBSDataContainer dataContainer;
     private final List<SQLScriptElement> queries;
     private final SQLScriptContext scriptContext;
@@ -91,6 +103,7 @@ public class SQLQueryJob extends DataSourceJob
     private SQLScriptCommitType commitType;
     private SQLScriptErrorHandling errorHandling;
     private boolean fetchResultSets;
+    private boolean batchDML;
     private long rsOffset;
     private long rsMaxRows;
 
@@ -132,6 +145,7 @@ public class SQLQueryJob extends DataSourceJob
             this.commitType = SQLScriptCommitType.valueOf(preferenceStore.getString(SQLPreferenceConstants.SCRIPT_COMMIT_TYPE));
             this.errorHandling = SQLScriptErrorHandling.valueOf(preferenceStore.getString(SQLPreferenceConstants.SCRIPT_ERROR_HANDLING));
             this.fetchResultSets = queries.size() == 1 || preferenceStore.getBoolean(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS);
+            this.batchDML = queries.size() > 1 && preferenceStore.getBoolean(SQLPreferenceConstants.SCRIPT_BATCH_DML);
             this.rsMaxRows = preferenceStore.getInt(ModelPreferences.RESULT_SET_MAX_ROWS);
         }
     }
@@ -212,11 +226,30 @@ public class SQLQueryJob extends DataSourceJob
                 }
 
                 resultSetNumber = 0;
+                // Statements of failed batch are executed one by one up to this index
+                int serialQueryNum = 0;
                 for (int queryNum = 0; queryNum < queries.size(); ) {
                     // Execute query
                     SQLScriptElement query = queries.get(queryNum);
 
                     fetchResultSetNumber = resultSetNumber;
+                    if (queryNum >= serialQueryNum && isBatchExecutionEnabled(session, txnManager)) {
+                        int batchSize = getBatchSize(session, queryNum);
+                        if (batchSize > 1) {
+                            int executedCount = executeBatch((JDBCSession) session, txnManager, queries.subList(queryNum, queryNum + batchSize));
+                            monitor.worked(executedCount);
+                            queryNum += executedCount;
+                            if (executedCount == batchSize) {
+                                if (monitor.isCanceled()) {
+                                    break;
+                                }
+                                continue;
+                            }
+                            // Batch failed. Execute its remaining statements one by one to report the error
+                            serialQueryNum = queryNum + batchSize - executedCount;
+                            continue;
+                        }
+                    }
                     boolean runNext = executeSingleQuery(session, query, true);
                     if (!runNext) {
                         if (lastError == null) {
@@ -471,6 +504,110 @@ public class SQLQueryJob extends DataSourceJob
         return true;
     }
 
+    /**
+     * Batches are used only if changes made by the failed batch can be undone.
+     * Autocommit connection executes each batch in a separate transaction,
+     * manual commit connection sets a savepoint before the batch.
+     */
+    private boolean isBatchExecutionEnabled(@NotNull DBCSession session, @Nullable DBCTransactionManager txnManager) throws DBCException {
+        if (!batchDML || !(session instanceof JDBCSession) || txnManager == null || !txnManager.isSupportsTransactions()) {
+            return false;
+        }
+        if (dataFilter != null && dataFilter.hasFilters()) {
+            return false;
+        }
+        if (!skipConfirmation && getDataSourceContainer().getConnectionConfiguration().getConnectionType().isConfirmExecute()) {
+            return false;
+        }
+        if (resultsConsumer instanceof ISmartTransactionManager && ((ISmartTransactionManager) resultsConsumer).isSmartAutoCommit()) {
+            return false;
+        }
+        if (!connectionInvalidated && getDataSourceContainer().getPreferenceStore().getBoolean(SQLPreferenceConstants.STATEMENT_INVALIDATE_BEFORE_EXECUTE)) {
+            return false;
+        }
+        if (getDataSourceContainer().getPreferenceStore().getBoolean(ModelPreferences.QUERY_ROLLBACK_ON_ERROR)) {
+            // Failed batch would roll back the whole transaction, including statements executed before the batch
+            return false;
+        }
+        return txnManager.isAutoCommit() || txnManager.supportsSavepoints();
+    }
+
+    /**
+     * Returns number of consecutive queries (starting from queryNum) which may be executed in one batch.
+     * These are DML queries without parameters. They don't produce result sets.
+     */
+    private int getBatchSize(@NotNull DBCSession session, int queryNum) {
+        SQLDialect dialect = session.getDataSource().getSQLDialect();
+        int batchSize = 0;
+        for (int i = queryNum; i < queries.size() && batchSize < MAX_DML_BATCH_SIZE; i++, batchSize++) {
+            SQLScriptElement element = queries.get(i);
+            if (!(element instanceof SQLQuery) || !CommonUtils.isEmpty(((SQLQuery) element).getParameters())) {
+                break;
+            }
+            String firstKeyword = SQLUtils.getFirstKeyword(dialect, element.getText());
+            if (!ArrayUtils.containsIgnoreCase(BATCH_DML_KEYWORDS, firstKeyword)) {
+                break;
+            }
+        }
+        return batchSize;
+    }
+
+    /**
+     * Executes queries in one batch.
+     * Returns the number of queries (from the batch start) which were executed and kept. Queries after the first
+     * failed one are rolled back, so they may be executed one by one to report the error.
+     */
+    private int executeBatch(
+        @NotNull JDBCSession session,
+        @NotNull DBCTransactionManager txnManager,
+        @NotNull List<SQLScriptElement> batch) throws DBCException
+    {
+        session.getProgressMonitor().subTask("Execute batch of " + batch.size() + " queries");
+
+        List<String> batchQueries = new ArrayList<>(batch.size());
+        for (SQLScriptElement element : batch) {
+            batchQueries.add(element.getText());
+        }
+        SQLScriptBatch scriptBatch = new SQLScriptBatch(session, txnManager, batchQueries);
+        scriptBatch.setStatementTimeout(getDataSourceContainer().getPreferenceStore().getInt(SQLPreferenceConstants.STATEMENT_TIMEOUT));
+
+        closeStatement();
+        long startTime = System.currentTimeMillis();
+        int executedCount = scriptBatch.execute(statement -> curStatement = statement);
+        if (scriptBatch.isBatchDisabled()) {
+            batchDML = false;
+        }
+        if (executedCount == 0) {
+            return 0;
+        }
+
+        int[] updateCounts = scriptBatch.getUpdateCounts();
+        statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+        final DBPDataSource dataSource = session.getDataSource();
+        for (int i = 0; i < executedCount; i++) {
+            SQLQuery query = new SQLQuery(dataSource, batch.get(i).getText(), (SQLQuery) batch.get(i));
+            curResult = new SQLQueryResult(query);
+            SQLQueryResult.ExecuteResult executeResult = curResult.addExecuteResult(false);
+            if (updateCounts[i] >= 0) {
+                executeResult.setUpdateCount((long) updateCounts[i]);
+                statistics.addRowsUpdated(updateCounts[i]);
+            }
+            statistics.addStatementsCount();
+            statistics.setQueryText(query.getText());
+            if (listener != null) {
+                try {
+                    listener.onStartQuery(session, query);
+                } catch (Exception e) {
+                    log.error(e);
+                }
+                notifyQueryExecutionEnd(curResult);
+            }
+            lastGoodQuery = (SQLQuery) batch.get(i);
+        }
+        lastError = null;
+        return executedCount;
+    }
+
     public void notifyQueryExecutionEnd(SQLQueryResult curResult) {
         // Notify query end
         try {
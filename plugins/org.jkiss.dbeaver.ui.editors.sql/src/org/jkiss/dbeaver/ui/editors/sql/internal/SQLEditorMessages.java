@@ -217,6 +217,8 @@ public class SQLEditorMessages extends NLS {
     public static String pref_page_sql_completion_label_mark_occurrences_for_selections_tip;
 
     public static String pref_page_sql_editor_checkbox_fetch_resultsets;
+    public static String pref_page_sql_editor_checkbox_batch_dml;
+    public static String pref_page_sql_editor_checkbox_batch_dml_tip;
     public static String pref_page_sql_editor_text_statement_delimiter;
     public static String pref_page_sql_editor_checkbox_ignore_native_delimiter;
     public static String pref_page_sql_editor_checkbox_ignore_native_delimiter_tip;
@@ -0,0 +1,173 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDRowIdentifier;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCAttributeMetaData;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSEntityReferrer;
+import org.jkiss.dbeaver.model.struct.DBSTypedObject;
+
+import java.util.List;
+
+/**
+ * Plain attribute binding of a result set column.
+ * Exporters call binding methods for each value, so mocks would distort the measured time.
+ */
+class BenchmarkAttributeBinding extends DBDAttributeBinding {
+
+    private final int ordinalPosition;
+    @NotNull
+    private final String name;
+    @NotNull
+    private final DBSTypedObject type;
+
+    BenchmarkAttributeBinding(int ordinalPosition, @NotNull String name, @NotNull DBSTypedObject type, @NotNull DBDValueHandler valueHandler) {
+        super(valueHandler);
+        this.ordinalPosition = ordinalPosition;
+        this.name = name;
+        this.type = type;
+    }
+
+    @Nullable
+    @Override
+    public DBDAttributeBinding getParentObject() {
+        return null;
+    }
+
+    @Override
+    public int getOrdinalPosition() {
+        return ordinalPosition;
+    }
+
+    @NotNull
+    @Override
+    public String getLabel() {
+        return name;
+    }
+
+    @NotNull
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Nullable
+    @Override
+    public DBCAttributeMetaData getMetaAttribute() {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public DBSEntityAttribute getEntityAttribute() {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public DBDRowIdentifier getRowIdentifier() {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public String getRowIdentifierStatus() {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public List<DBSEntityReferrer> getReferrers() {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public Object extractNestedValue(@NotNull Object ownerValue) {
+        return null;
+    }
+
+    @Override
+    public boolean isRequired() {
+        return false;
+    }
+
+    @Override
+    public boolean isAutoGenerated() {
+        return false;
+    }
+
+    @Override
+    public String getTypeName() {
+        return type.getTypeName();
+    }
+
+    @Override
+    public String getFullTypeName() {
+        return type.getFullTypeName();
+    }
+
+    @Override
+    public int getTypeID() {
+        return type.getTypeID();
+    }
+
+    @Override
+    public DBPDataKind getDataKind() {
+        return type.getDataKind();
+    }
+
+    @Override
+    public Integer getScale() {
+        return type.getScale();
+    }
+
+    @Override
+    public Integer getPrecision() {
+        return type.getPrecision();
+    }
+
+    @Override
+    public long getMaxLength() {
+        return type.getMaxLength();
+    }
+
+    @Override
+    public long getTypeModifiers() {
+        return type.getTypeModifiers();
+    }
+
+    @Nullable
+    @Override
+    public DBSDataContainer getDataContainer() {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public DBPDataSource getDataSource() {
+        return null;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * Synthetic workloads. Data is generated with fixed seed, so all runs process the same input.
+ */
+class BenchmarkData {
+
+    private static final long SEED = 20210601L;
+
+    private static final String[] WORDS = {
+        "alpha", "beta", "gamma", "delta", "epsilon", "zeta", "eta", "theta",
+        "iota", "kappa", "lambda", "mu", "Hello, world", "line\nbreak", "quoted \"value\"", ""
+    };
+
+    static Random createRandom() {
+        return new Random(SEED);
+    }
+
+    /**
+     * Script with mixed statements: queries, DML, DDL, comments and string literals with delimiters
+     */
+    static String makeScript(int statementCount) {
+        Random random = createRandom();
+        StringBuilder script = new StringBuilder(statementCount * 80);
+        for (int i = 0; i < statementCount; i++) {
+            switch (i % 6) {
+                case 0:
+                    script.append("SELECT t.id, t.name, SUM(t.amount) FROM table").append(i)
+                        .append(" t WHERE t.id > ").append(random.nextInt(1000))
+                        .append(" GROUP BY t.id, t.name ORDER BY t.id;\n");
+                    break;
+                case 1:
+                    script.append("INSERT INTO table").append(i).append(" (id, name, amount) VALUES (")
+                        .append(i).append(", 'name; ").append(random.nextInt()).append("', ").append(random.nextDouble()).append(");\n");
+                    break;
+                case 2:
+                    script.append("-- update statement ").append(i).append("\n");
+                    script.append("UPDATE table").append(i).append(" SET name = 'x', amount = amount + 1 WHERE id = ").append(i).append(";\n");
+                    break;
+                case 3:
+                    script.append("/* multi-line\n comment; */\nDELETE FROM table").append(i).append(" WHERE name LIKE '%").append(random.nextInt(100)).append("%';\n");
+                    break;
+                case 4:
+                    script.append("CREATE TABLE table").append(i).append(" (\n  id INTEGER NOT NULL,\n  name VARCHAR(100),\n  amount NUMERIC(10,2),\n  PRIMARY KEY (id)\n);\n");
+                    break;
+                default:
+                    script.append("SELECT a.x, b.y FROM a JOIN b ON a.id = b.a_id LEFT OUTER JOIN c ON c.id = b.c_id WHERE a.x IN (SELECT x FROM d WHERE d.flag = 1);\n");
+                    break;
+            }
+            script.append('\n');
+        }
+        return script.toString();
+    }
+
+    /**
+     * Rows of (INTEGER, VARCHAR, NUMERIC, VARCHAR) values
+     */
+    static Object[][] makeRows(int rowCount) {
+        Random random = createRandom();
+        Object[][] rows = new Object[rowCount][];
+        for (int i = 0; i < rowCount; i++) {
+            rows[i] = new Object[] {
+                (long) i,
+                WORDS[random.nextInt(WORDS.length)],
+                BigDecimal.valueOf(random.nextInt(1000000), 2),
+                i % 10 == 0 ? null : WORDS[random.nextInt(WORDS.length)] + i
+            };
+        }
+        return rows;
+    }
+
+    /**
+     * Rows of numeric values: two BIGINT columns per one NUMERIC column
+     */
+    static Object[][] makeNumericRows(int rowCount, int columnCount) {
+        Random random = createRandom();
+        Object[][] rows = new Object[rowCount][];
+        for (int i = 0; i < rowCount; i++) {
+            Object[] row = new Object[columnCount];
+            for (int k = 0; k < columnCount; k++) {
+                row[k] = k % 3 == 2 ?
+                    BigDecimal.valueOf(random.nextInt(100000000), 4) :
+                    (Object) (long) random.nextInt();
+            }
+            rows[i] = row;
+        }
+        return rows;
+    }
+
+    /**
+     * CSV text with header which matches {@link #makeRows(int)} layout
+     */
+    static String makeCSV(int rowCount) {
+        StringBuilder csv = new StringBuilder(rowCount * 40);
+        csv.append("id,name,amount,comment\n");
+        for (Object[] row : makeRows(rowCount)) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                Object value = row[i];
+                if (value instanceof String) {
+                    csv.append('"').append(((String) value).replace("\"", "\"\"")).append('"');
+                } else if (value instanceof BigDecimal) {
+                    csv.append(((BigDecimal) value).toPlainString());
+                } else if (value != null) {
+                    csv.append(value);
+                }
+            }
+            csv.append('\n');
+        }
+        return csv.toString();
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.jkiss.utils.CommonUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Runs JMH benchmarks and writes results in JSON format.
+ *
+ * JMH needs a flat classpath (benchmark list and generated classes are loaded by the JMH class loader),
+ * so benchmarks are started by {@link #main(String[])} with all bundles on the classpath.
+ * Benchmarks don't use the platform (see {@link BenchmarkStubs}).
+ *
+ * {@link #runBenchmarks()} is started by tycho-surefire in the OSGi test runtime (-Pbenchmarks). It collects
+ * classpath of resolved bundles and starts the runner in a separate JVM.
+ *
+ * System properties:
+ * jmh.include - benchmark name regex (all benchmarks by default)
+ * jmh.result - result file (target/jmh-result.json by default)
+ * jmh.forks, jmh.warmupIterations, jmh.iterations - JMH run parameters
+ * jmh.jvmArgs - additional arguments of forked JVMs (space-separated)
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+    private static final String JMH_PROPERTY_PREFIX = "jmh.";
+
+    @Test
+    public void runBenchmarks() throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(JMH_PROPERTY_PREFIX)) {
+                command.add("-D" + name + "=" + System.getProperty(name));
+            }
+        }
+        command.add("-cp");
+        command.add(String.join(File.pathSeparator, collectBundleClasspath()));
+        command.add(BenchmarkRunner.class.getName());
+
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        Assert.assertEquals("Benchmark runner failed", 0, process.waitFor());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        File resultFile = new File(System.getProperty("jmh.result", DEFAULT_RESULT_FILE));
+        File resultFolder = resultFile.getAbsoluteFile().getParentFile();
+        if (resultFolder != null && !resultFolder.exists() && !resultFolder.mkdirs()) {
+            throw new RunnerException("Can't create result folder " + resultFolder.getAbsolutePath());
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .include(System.getProperty("jmh.include", BenchmarkRunner.class.getPackage().getName() + ".*Benchmark"))
+            .forks(Integer.getInteger("jmh.forks", 1))
+            .warmupIterations(Integer.getInteger("jmh.warmupIterations", 3))
+            .measurementIterations(Integer.getInteger("jmh.iterations", 5))
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile.getAbsolutePath())
+            .shouldFailOnError(true);
+        String jvmArgs = System.getProperty("jmh.jvmArgs");
+        if (!CommonUtils.isEmpty(jvmArgs)) {
+            options.jvmArgsAppend(jvmArgs.trim().split("\\s+"));
+        }
+        new Runner(options.build()).run();
+    }
+
+    /**
+     * Classpath entries of all bundles of the running framework.
+     * Reactor bundles are installed from project folders, their output folders are read from osgi.dev.
+     */
+    private static Collection<String> collectBundleClasspath() throws IOException {
+        Properties devProperties = loadDevProperties();
+        Set<String> classpath = new LinkedHashSet<>();
+        for (Bundle bundle : FrameworkUtil.getBundle(BenchmarkRunner.class).getBundleContext().getBundles()) {
+            File bundleFile = FileLocator.getBundleFile(bundle);
+            if (bundleFile.isDirectory()) {
+                String devEntries = devProperties.getProperty(bundle.getSymbolicName(), devProperties.getProperty("*"));
+                if (devEntries != null) {
+                    for (String entry : devEntries.split(",")) {
+                        File devFolder = new File(bundleFile, entry.trim());
+                        if (devFolder.exists()) {
+                            classpath.add(devFolder.getAbsolutePath());
+                        }
+                    }
+                }
+            }
+            String bundleClasspath = bundle.getHeaders().get(Constants.BUNDLE_CLASSPATH);
+            if (CommonUtils.isEmpty(bundleClasspath)) {
+                bundleClasspath = ".";
+            }
+            for (String entry : bundleClasspath.split(",")) {
+                entry = entry.split(";")[0].trim();
+                if (entry.equals(".") || entry.equals("/")) {
+                    classpath.add(bundleFile.getAbsolutePath());
+                } else {
+                    // Nested jars are extracted by FileLocator
+                    URL entryURL = bundle.getEntry(entry);
+                    if (entryURL != null) {
+                        classpath.add(new File(FileLocator.toFileURL(entryURL).getPath()).getAbsolutePath());
+                    }
+                }
+            }
+        }
+        return classpath;
+    }
+
+    private static Properties loadDevProperties() throws IOException {
+        Properties properties = new Properties();
+        String osgiDev = System.getProperty("osgi.dev");
+        if (CommonUtils.isEmpty(osgiDev)) {
+            return properties;
+        }
+        // Either URL of properties file or list of class folders for all bundles
+        URL devURL;
+        try {
+            devURL = new URL(osgiDev);
+        } catch (MalformedURLException e) {
+            properties.setProperty("*", osgiDev);
+            return properties;
+        }
+        try (InputStream is = devURL.openStream()) {
+            properties.load(is);
+        }
+        return properties;
+    }
+
+}
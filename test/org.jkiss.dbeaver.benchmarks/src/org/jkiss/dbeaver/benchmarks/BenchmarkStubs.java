@@ -0,0 +1,287 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.eclipse.core.runtime.ContributorFactorySimple;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IExtensionRegistry;
+import org.eclipse.core.runtime.RegistryFactory;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.ext.oracle.model.OracleSQLDialect;
+import org.jkiss.dbeaver.ext.oracle.sql.OracleDialectAdapterFactory;
+import org.jkiss.dbeaver.ext.postgresql.model.PostgreDialect;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.app.DBPPlatform;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDFormatSettings;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.SimpleTypedObject;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCNumberValueHandler;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCStringValueHandler;
+import org.jkiss.dbeaver.model.impl.preferences.SimplePreferenceStore;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.qm.QMController;
+import org.jkiss.dbeaver.model.qm.QMExecutionHandler;
+import org.jkiss.dbeaver.model.qm.QMUtils;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLConstants;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.text.parser.TPRule;
+import org.jkiss.dbeaver.model.text.parser.TPRuleProvider;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.sql.Types;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Stub objects shared by benchmarks.
+ * Mocks are stub-only: they don't record invocations, so they don't affect timings of per-value calls.
+ * Benchmarks run on a flat classpath without the platform, so dialects and preferences are created directly.
+ */
+class BenchmarkStubs {
+
+    static final String[] COLUMN_NAMES = {"id", "name", "amount", "comment"};
+
+    private static DBPPlatform platform;
+
+    /**
+     * Creates dialect by its registry id
+     */
+    static SQLDialect createDialect(String dialectId) {
+        switch (dialectId) {
+            case "postgresql":
+                return new PostgreDialect();
+            case "oracle":
+                return new OracleRulesDialect();
+            default:
+                throw new IllegalArgumentException("Unsupported benchmark dialect: " + dialectId);
+        }
+    }
+
+    /**
+     * Platform stub.
+     * There is no OSGi platform on a flat classpath, so the first call installs platform stub with in-memory
+     * preferences and query manager, and extension registry with plugin.xml contributions found on the classpath
+     * (they are used directly by SQL syntax manager, SQL rules, dialects and sessions).
+     */
+    static synchronized DBPPlatform getPlatform() {
+        if (platform == null) {
+            DBPPreferenceStore preferenceStore = createPreferenceStore();
+            QMController queryManager = stub(QMController.class);
+            Mockito.when(queryManager.getDefaultHandler()).thenReturn(stub(QMExecutionHandler.class));
+            DBPPlatform platformStub = stub(DBPPlatform.class);
+            Mockito.when(platformStub.getPreferenceStore()).thenReturn(preferenceStore);
+            Mockito.when(platformStub.getQueryManager()).thenReturn(queryManager);
+
+            setStaticField(ModelPreferences.class, "preferences", preferenceStore);
+            setStaticField(DBWorkbench.class, "platformInstance", platformStub);
+            QMUtils.initApplication(platformStub);
+            installExtensionRegistry();
+            platform = platformStub;
+        }
+        return platform;
+    }
+
+    static DBPPreferenceStore getPreferenceStore() {
+        return getPlatform().getPreferenceStore();
+    }
+
+    private static void installExtensionRegistry() {
+        Object registryToken = new Object();
+        IExtensionRegistry registry = RegistryFactory.createRegistry(null, registryToken, null);
+        try {
+            Enumeration<URL> pluginFiles = BenchmarkStubs.class.getClassLoader().getResources("plugin.xml");
+            while (pluginFiles.hasMoreElements()) {
+                URL pluginFile = pluginFiles.nextElement();
+                try (InputStream is = pluginFile.openStream()) {
+                    registry.addContribution(is, ContributorFactorySimple.createContributor(pluginFile.toString()),
+                        false, pluginFile.toString(), null, registryToken);
+                }
+            }
+            RegistryFactory.setDefaultRegistryProvider(() -> registry);
+        } catch (CoreException | IOException e) {
+            throw new IllegalStateException("Can't create extension registry", e);
+        }
+    }
+
+    private static void setStaticField(Class<?> ownerClass, String fieldName, Object value) {
+        try {
+            Field field = ownerClass.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(null, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Can't set " + ownerClass.getName() + "." + fieldName, e);
+        }
+    }
+
+    /**
+     * In-memory preference store with default SQL processing settings (see ModelPreferences)
+     */
+    private static DBPPreferenceStore createPreferenceStore() {
+        DBPPreferenceStore store = new BenchmarkPreferenceStore();
+        store.setDefault(ModelPreferences.SCRIPT_STATEMENT_DELIMITER, SQLConstants.DEFAULT_STATEMENT_DELIMITER);
+        store.setDefault(ModelPreferences.SCRIPT_IGNORE_NATIVE_DELIMITER, false);
+        store.setDefault(ModelPreferences.SCRIPT_STATEMENT_DELIMITER_BLANK, true);
+        store.setDefault(ModelPreferences.QUERY_REMOVE_TRAILING_DELIMITER, true);
+        store.setDefault(ModelPreferences.SQL_PARAMETERS_ENABLED, true);
+        store.setDefault(ModelPreferences.SQL_PARAMETERS_IN_DDL_ENABLED, false);
+        store.setDefault(ModelPreferences.SQL_ANONYMOUS_PARAMETERS_ENABLED, false);
+        store.setDefault(ModelPreferences.SQL_ANONYMOUS_PARAMETERS_MARK, String.valueOf(SQLConstants.DEFAULT_PARAMETER_MARK));
+        store.setDefault(ModelPreferences.SQL_NAMED_PARAMETERS_PREFIX, String.valueOf(SQLConstants.DEFAULT_PARAMETER_PREFIX));
+        store.setDefault(ModelPreferences.SQL_CONTROL_COMMAND_PREFIX, String.valueOf(SQLConstants.DEFAULT_CONTROL_COMMAND_PREFIX));
+        store.setDefault(ModelPreferences.SQL_VARIABLES_ENABLED, true);
+        store.setDefault(ModelPreferences.SQL_FORMAT_KEYWORD_CASE, "");
+        return store;
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+
+    static DBCSession createSession() {
+        DBCSession session = stub(DBCSession.class);
+        Mockito.when(session.getProgressMonitor()).thenReturn(new VoidProgressMonitor());
+        return session;
+    }
+
+    /**
+     * Execution context of a disconnected data source with the specified dialect
+     */
+    static DBCExecutionContext createExecutionContext(SQLDialect dialect, DBPPreferenceStore preferenceStore) {
+        DBPConnectionConfiguration connectionConfiguration = new DBPConnectionConfiguration();
+        // Data sources are objects themselves, SQL utils take dialect from the object's data source
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class, Mockito.withSettings().stubOnly().extraInterfaces(DBSObject.class));
+        Mockito.when(((DBSObject) dataSource).getDataSource()).thenReturn(dataSource);
+        DBPDataSourceContainer dataSourceContainer = stub(DBPDataSourceContainer.class);
+        DBCExecutionContext executionContext = stub(DBCExecutionContext.class);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
+        Mockito.when(dataSource.getContainer()).thenReturn(dataSourceContainer);
+        Mockito.when(dataSourceContainer.getConnectionConfiguration()).thenReturn(connectionConfiguration);
+        Mockito.when(dataSourceContainer.getActualConnectionConfiguration()).thenReturn(connectionConfiguration);
+        Mockito.when(dataSourceContainer.getPreferenceStore()).thenReturn(preferenceStore);
+        Mockito.when(executionContext.getDataSource()).thenReturn(dataSource);
+        return executionContext;
+    }
+
+    static DBDFormatSettings createFormatSettings() {
+        return stub(DBDFormatSettings.class);
+    }
+
+    /**
+     * Bindings for {@link BenchmarkData#makeRows(int)} layout
+     */
+    static DBDAttributeBinding[] createBindings() {
+        DBDFormatSettings formatSettings = createFormatSettings();
+        SimpleTypedObject intType = createType("INTEGER", Types.INTEGER, DBPDataKind.NUMERIC);
+        SimpleTypedObject numericType = createType("NUMERIC", Types.NUMERIC, DBPDataKind.NUMERIC);
+        SimpleTypedObject stringType = createType("VARCHAR", Types.VARCHAR, DBPDataKind.STRING);
+        return new DBDAttributeBinding[] {
+            new BenchmarkAttributeBinding(0, COLUMN_NAMES[0], intType, new JDBCNumberValueHandler(intType, formatSettings)),
+            new BenchmarkAttributeBinding(1, COLUMN_NAMES[1], stringType, JDBCStringValueHandler.INSTANCE),
+            new BenchmarkAttributeBinding(2, COLUMN_NAMES[2], numericType, new JDBCNumberValueHandler(numericType, formatSettings)),
+            new BenchmarkAttributeBinding(3, COLUMN_NAMES[3], stringType, JDBCStringValueHandler.INSTANCE),
+        };
+    }
+
+    /**
+     * Bindings for {@link BenchmarkData#makeNumericRows(int, int)} layout
+     */
+    static DBDAttributeBinding[] createNumericBindings(int columnCount) {
+        DBDFormatSettings formatSettings = createFormatSettings();
+        DBDAttributeBinding[] bindings = new DBDAttributeBinding[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            SimpleTypedObject type = i % 3 == 2 ?
+                createType("NUMERIC", Types.NUMERIC, DBPDataKind.NUMERIC) :
+                createType("BIGINT", Types.BIGINT, DBPDataKind.NUMERIC);
+            bindings[i] = new BenchmarkAttributeBinding(i, "c" + i, type, new JDBCNumberValueHandler(type, formatSettings));
+        }
+        return bindings;
+    }
+
+    static SimpleTypedObject createType(String typeName, int typeID, DBPDataKind dataKind) {
+        return new SimpleTypedObject(typeName) {
+            @Override
+            public int getTypeID() {
+                return typeID;
+            }
+
+            @Override
+            public DBPDataKind getDataKind() {
+                return dataKind;
+            }
+        };
+    }
+
+    /**
+     * Oracle rules are provided by adapter factory, there is no adapter manager without the platform
+     */
+    private static class OracleRulesDialect extends OracleSQLDialect implements TPRuleProvider {
+        private final TPRuleProvider rules = new OracleDialectAdapterFactory().getAdapter(this, TPRuleProvider.class);
+
+        @Override
+        public void extendRules(@Nullable DBPDataSourceContainer dataSource, @NotNull List<TPRule> rules, @NotNull RulePosition position) {
+            this.rules.extendRules(dataSource, rules, position);
+        }
+    }
+
+    /**
+     * Preference store without parent (platform) store
+     */
+    private static class BenchmarkPreferenceStore extends SimplePreferenceStore {
+        @Override
+        public String getString(String name) {
+            String value = getProperties().get(name);
+            return value != null ? value : getDefaultProperties().get(name);
+        }
+
+        @Override
+        public void save() {
+        }
+    }
+
+    /**
+     * Discards all data but counts written bytes (so output can't be optimized out)
+     */
+    static class CountingOutputStream extends OutputStream {
+        long bytesWritten;
+
+        @Override
+        public void write(int b) {
+            bytesWritten++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytesWritten += len;
+        }
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPNamedObject;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporter;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.exporter.DataExporterCSV;
+import org.jkiss.dbeaver.tools.transfer.stream.exporter.DataExporterJSON;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stream exporters: rows to text conversion and encoding
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataExporterBenchmark {
+
+    private static final int ROW_COUNT = 10000;
+    private static final int NUMERIC_COLUMN_COUNT = 50;
+
+    /**
+     * csv-baseline is the writer based CSV exporter (see {@link DataExporterCSVBaseline})
+     */
+    @Param({"csv", "csv-baseline", "json", "ndjson"})
+    public String format;
+
+    /**
+     * mixed - 4 columns (numbers and strings), numeric - {@link #NUMERIC_COLUMN_COUNT} numeric columns
+     */
+    @Param({"mixed", "numeric"})
+    public String table;
+
+    private Object[][] rows;
+    private DBDAttributeBinding[] bindings;
+    private DBCSession session;
+
+    @Setup
+    public void setup() {
+        if ("numeric".equals(table)) {
+            rows = BenchmarkData.makeNumericRows(ROW_COUNT, NUMERIC_COLUMN_COUNT);
+            bindings = BenchmarkStubs.createNumericBindings(NUMERIC_COLUMN_COUNT);
+        } else {
+            rows = BenchmarkData.makeRows(ROW_COUNT);
+            bindings = BenchmarkStubs.createBindings();
+        }
+        session = BenchmarkStubs.createSession();
+    }
+
+    /**
+     * Exports {@link #ROW_COUNT} rows. Returns number of written bytes.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public long exportRows() throws DBException, IOException {
+        BenchmarkStubs.CountingOutputStream outputStream = new BenchmarkStubs.CountingOutputStream();
+        ExporterSite site = new ExporterSite(outputStream);
+        IStreamDataExporter exporter;
+        switch (format) {
+            case "csv":
+                exporter = new DataExporterCSV();
+                break;
+            case "csv-baseline":
+                exporter = new DataExporterCSVBaseline();
+                break;
+            default:
+                exporter = new DataExporterJSON();
+                break;
+        }
+        exporter.init(site);
+        exporter.exportHeader(session);
+        for (Object[] row : rows) {
+            exporter.exportRow(session, null, row);
+        }
+        exporter.exportFooter(new VoidProgressMonitor());
+        exporter.dispose();
+        site.flush();
+        return outputStream.bytesWritten;
+    }
+
+    private class ExporterSite implements IStreamDataExporterSite {
+        private final OutputStream outputStream;
+        private final PrintWriter writer;
+        private final Map<String, Object> properties = new HashMap<>();
+
+        ExporterSite(OutputStream outputStream) {
+            this.outputStream = outputStream;
+            this.writer = new PrintWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            properties.put("delimiter", ",");
+            properties.put("rowDelimiter", "default");
+            properties.put("header", "top");
+            properties.put(DataExporterJSON.PROP_NDJSON, "ndjson".equals(format));
+        }
+
+        @Override
+        public DBPNamedObject getSource() {
+            return () -> "benchmark_table";
+        }
+
+        @Override
+        public DBDDisplayFormat getExportFormat() {
+            return DBDDisplayFormat.UI;
+        }
+
+        @Override
+        public Map<String, Object> getProperties() {
+            return properties;
+        }
+
+        @Override
+        public DBDAttributeBinding[] getAttributes() {
+            return bindings;
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            return writer;
+        }
+
+        @Override
+        public void flush() {
+            writer.flush();
+        }
+
+        @Override
+        public void writeBinaryData(@NotNull DBDContentStorage cs) {
+            // No binary columns
+        }
+
+        @NotNull
+        @Override
+        public String getOutputEncoding() {
+            return StandardCharsets.UTF_8.name();
+        }
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPImage;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferSettings;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataImporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamProducerSettings;
+import org.jkiss.dbeaver.tools.transfer.stream.importer.DataImporterCSV;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV importer: parsing and conversion of stream rows
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataImporterCSVBenchmark {
+
+    private static final int ROW_COUNT = 10000;
+
+    private byte[] csvData;
+    private DataImporterCSV importer;
+    private StreamEntityMapping entityMapping;
+    private DBRProgressMonitor monitor;
+
+    @Setup
+    public void setup() throws DBException, IOException {
+        // Import opens stream sessions, they are registered in query manager
+        BenchmarkStubs.getPlatform();
+        csvData = BenchmarkData.makeCSV(ROW_COUNT).getBytes(StandardCharsets.UTF_8);
+        monitor = new VoidProgressMonitor();
+        entityMapping = new StreamEntityMapping(new File("benchmark.csv"));
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("header", DataImporterCSV.HeaderPosition.top);
+        properties.put("delimiter", ",");
+        StreamProducerSettings settings = new StreamProducerSettings();
+        importer = new DataImporterCSV();
+        importer.init(new IStreamDataImporterSite() {
+            @Override
+            public StreamProducerSettings getSettings() {
+                return settings;
+            }
+
+            @Override
+            public StreamEntityMapping getSourceObject() {
+                return entityMapping;
+            }
+
+            @Override
+            public Map<String, Object> getProcessorProperties() {
+                return properties;
+            }
+        });
+        try (InputStream is = new ByteArrayInputStream(csvData)) {
+            entityMapping.getStreamColumns().addAll(importer.readColumnsInfo(entityMapping, is));
+        }
+    }
+
+    /**
+     * Imports {@link #ROW_COUNT} rows. Returns number of non-null values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public long importRows() throws DBException {
+        CountingConsumer consumer = new CountingConsumer();
+        importer.runImport(monitor, entityMapping.getDataSource(), new ByteArrayInputStream(csvData), consumer);
+        return consumer.valueCount;
+    }
+
+    /**
+     * Reads all row values, like database consumer does
+     */
+    private static class CountingConsumer implements IDataTransferConsumer<IDataTransferSettings, IDataTransferProcessor> {
+        private int columnCount;
+        private long valueCount;
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            columnCount = resultSet.getMeta().getAttributes().size();
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            for (int i = 0; i < columnCount; i++) {
+                if (resultSet.getAttributeValue(i) != null) {
+                    valueCount++;
+                }
+            }
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void initTransfer(DBSObject sourceObject, IDataTransferSettings settings, TransferParameters parameters, IDataTransferProcessor processor, Map<String, Object> processorProperties) {
+        }
+
+        @Override
+        public void startTransfer(DBRProgressMonitor monitor) {
+        }
+
+        @Override
+        public void finishTransfer(DBRProgressMonitor monitor, boolean last) {
+        }
+
+        @Override
+        public Object getTargetObject() {
+            return null;
+        }
+
+        @Override
+        public Object getTargetObjectContainer() {
+            return null;
+        }
+
+        @Override
+        public DBSObject getDatabaseObject() {
+            return null;
+        }
+
+        @Override
+        public String getObjectName() {
+            return "benchmark";
+        }
+
+        @Override
+        public DBPImage getObjectIcon() {
+            return null;
+        }
+
+        @Override
+        public String getObjectContainerName() {
+            return null;
+        }
+
+        @Override
+        public DBPImage getObjectContainerIcon() {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.cache.SimpleObjectCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Object cache lookups (by name and full list), single thread and concurrent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ObjectCacheBenchmark {
+
+    private static final int LOOKUP_COUNT = 1024;
+
+    @Param({"100", "10000"})
+    public int objectCount;
+
+    @Param({"true", "false"})
+    public boolean caseSensitive;
+
+    private SimpleObjectCache<DBSObject, BenchmarkObject> cache;
+    private String[] lookupNames;
+    private DBRProgressMonitor monitor;
+
+    @Setup
+    public void setup() {
+        monitor = new VoidProgressMonitor();
+        cache = new SimpleObjectCache<>();
+        cache.setCaseSensitive(caseSensitive);
+        for (int i = 0; i < objectCount; i++) {
+            cache.cacheObject(new BenchmarkObject("OBJECT_" + i));
+        }
+        cache.setFullCache(true);
+
+        Random random = BenchmarkData.createRandom();
+        lookupNames = new String[LOOKUP_COUNT];
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            // Every 8th name is missing in cache
+            lookupNames[i] = i % 8 == 0 ? "MISSING_" + i : "OBJECT_" + random.nextInt(objectCount);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUP_COUNT)
+    public int getObject() {
+        return lookupObjects();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUP_COUNT)
+    @Threads(4)
+    public int getObjectConcurrent() {
+        return lookupObjects();
+    }
+
+    @Benchmark
+    public List<BenchmarkObject> getAllObjects() {
+        return cache.getAllObjects(monitor, null);
+    }
+
+    private int lookupObjects() {
+        int found = 0;
+        for (String name : lookupNames) {
+            if (cache.getObject(monitor, null, name) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private static class BenchmarkObject implements DBSObject {
+        private final String name;
+
+        BenchmarkObject(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public DBSObject getParentObject() {
+            return null;
+        }
+
+        @Override
+        public DBPDataSource getDataSource() {
+            return null;
+        }
+
+        @Override
+        public boolean isPersisted() {
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.eclipse.jface.text.Document;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.parser.SQLParserContext;
+import org.jkiss.dbeaver.model.sql.parser.SQLRuleManager;
+import org.jkiss.dbeaver.model.sql.parser.SQLScriptParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Script parsing: splitting of the whole script into queries
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SQLScriptParserBenchmark {
+
+    @Param({"postgresql", "oracle"})
+    public String dialectName;
+
+    @Param({"1000", "10000"})
+    public int statementCount;
+
+    private String script;
+    private DBCExecutionContext executionContext;
+    private SQLSyntaxManager syntaxManager;
+    private SQLRuleManager ruleManager;
+
+    @Setup
+    public void setup() {
+        script = BenchmarkData.makeScript(statementCount);
+
+        SQLDialect dialect = BenchmarkStubs.createDialect(dialectName);
+        DBPPreferenceStore preferenceStore = BenchmarkStubs.getPreferenceStore();
+        executionContext = BenchmarkStubs.createExecutionContext(dialect, preferenceStore);
+
+        syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(dialect, preferenceStore);
+        ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules(executionContext.getDataSource(), false);
+    }
+
+    /**
+     * Full path: syntax and rules initialization plus parsing
+     */
+    @Benchmark
+    public List<SQLScriptElement> parseScript() {
+        return SQLScriptParser.parseScript(executionContext, script);
+    }
+
+    /**
+     * Parsing only, with prepared syntax and rule managers
+     */
+    @Benchmark
+    public List<SQLScriptElement> extractScriptQueries() {
+        Document document = new Document(script);
+        SQLParserContext context = new SQLParserContext(() -> executionContext, syntaxManager, ruleManager, document);
+        return SQLScriptParser.extractScriptQueries(context, 0, document.getLength(), true, false, true);
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.parser.SQLParserContext;
+import org.jkiss.dbeaver.model.sql.parser.SQLRuleManager;
+import org.jkiss.dbeaver.model.sql.parser.SQLScriptParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keystroke-to-reparse time: one character is typed (or erased) in the middle
+ * of a big script and then the whole script is split into queries again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SQLScriptReparseBenchmark {
+
+    @Param({"postgresql"})
+    public String dialectName;
+
+    @Param({"100000"})
+    public int statementCount;
+
+    private DBCExecutionContext executionContext;
+    private SQLSyntaxManager syntaxManager;
+    private SQLRuleManager ruleManager;
+    private Document document;
+    private SQLParserContext context;
+    private int editOffset;
+    private boolean inserted;
+
+    @Setup
+    public void setup() {
+        SQLDialect dialect = BenchmarkStubs.createDialect(dialectName);
+        DBPPreferenceStore preferenceStore = BenchmarkStubs.getPreferenceStore();
+        executionContext = BenchmarkStubs.createExecutionContext(dialect, preferenceStore);
+
+        syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(dialect, preferenceStore);
+        ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules(executionContext.getDataSource(), false);
+
+        String script = BenchmarkData.makeScript(statementCount);
+        document = new Document(script);
+        context = new SQLParserContext(() -> executionContext, syntaxManager, ruleManager, document);
+        // Type in the WHERE clause of some query in the middle of script
+        editOffset = script.indexOf(" WHERE ", script.length() / 2) + 1;
+        inserted = false;
+
+        // Initial parse (script open)
+        SQLScriptParser.extractScriptQueries(context, 0, document.getLength(), true, false, false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.dispose();
+    }
+
+    /**
+     * Reparse after edit with the same parser context (as in editor)
+     */
+    @Benchmark
+    public List<SQLScriptElement> reparseAfterEdit() throws BadLocationException {
+        typeCharacter();
+        return SQLScriptParser.extractScriptQueries(context, 0, document.getLength(), true, false, false);
+    }
+
+    /**
+     * Reparse after edit from scratch
+     */
+    @Benchmark
+    public List<SQLScriptElement> fullParseAfterEdit() throws BadLocationException {
+        typeCharacter();
+        SQLParserContext newContext = new SQLParserContext(() -> executionContext, syntaxManager, ruleManager, document);
+        try {
+            return SQLScriptParser.extractScriptQueries(newContext, 0, document.getLength(), true, false, false);
+        } finally {
+            newContext.dispose();
+        }
+    }
+
+    private void typeCharacter() throws BadLocationException {
+        // Alternate insert and delete so the script size stays the same
+        if (inserted) {
+            document.replace(editOffset, 1, "");
+        } else {
+            document.replace(editOffset, 0, "X");
+        }
+        inserted = !inserted;
+    }
+
+}
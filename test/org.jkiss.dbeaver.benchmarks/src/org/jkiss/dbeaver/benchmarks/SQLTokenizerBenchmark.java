@@ -0,0 +1,114 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.eclipse.jface.text.Document;
+import org.jkiss.dbeaver.model.DBPKeywordType;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.parser.SQLRuleManager;
+import org.jkiss.dbeaver.model.text.parser.TPRuleBasedScanner;
+import org.jkiss.utils.CharTrie;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Script tokenization with rule based scanner and keyword lookup (dialect map vs keyword trie)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SQLTokenizerBenchmark {
+
+    @Param({"postgresql", "oracle"})
+    public String dialectName;
+
+    @Param({"10000"})
+    public int statementCount;
+
+    private SQLDialect dialect;
+    private Document document;
+    private TPRuleBasedScanner scanner;
+    private CharTrie<DBPKeywordType> keywordTrie;
+    private String[] words;
+
+    @Setup
+    public void setup() {
+        dialect = BenchmarkStubs.createDialect(dialectName);
+        DBPPreferenceStore preferenceStore = BenchmarkStubs.getPreferenceStore();
+        DBCExecutionContext executionContext = BenchmarkStubs.createExecutionContext(dialect, preferenceStore);
+
+        SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(dialect, preferenceStore);
+        SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules(executionContext.getDataSource(), false);
+
+        String script = BenchmarkData.makeScript(statementCount);
+        document = new Document(script);
+        scanner = new TPRuleBasedScanner();
+        scanner.setRules(ruleManager.getAllRules());
+        keywordTrie = syntaxManager.getKeywordTrie();
+        words = script.split("[^A-Za-z0-9_]+");
+    }
+
+    /**
+     * All script tokens (as SQL parser reads them)
+     */
+    @Benchmark
+    public int scanTokens() {
+        scanner.setRange(document, 0, document.getLength());
+        int tokenCount = 0;
+        while (!scanner.nextToken().isEOF()) {
+            tokenCount++;
+        }
+        return tokenCount;
+    }
+
+    /**
+     * Keyword lookup in dialect (upper case conversion and map lookup)
+     */
+    @Benchmark
+    public int lookupDialectKeywords() {
+        int keywordCount = 0;
+        for (String word : words) {
+            if (dialect.getKeywordType(word) == DBPKeywordType.KEYWORD) {
+                keywordCount++;
+            }
+        }
+        return keywordCount;
+    }
+
+    /**
+     * Keyword lookup in keyword trie
+     */
+    @Benchmark
+    public int lookupKeywordTrie() {
+        int keywordCount = 0;
+        for (String word : words) {
+            if (keywordTrie.get(word) == DBPKeywordType.KEYWORD) {
+                keywordCount++;
+            }
+        }
+        return keywordCount;
+    }
+
+}
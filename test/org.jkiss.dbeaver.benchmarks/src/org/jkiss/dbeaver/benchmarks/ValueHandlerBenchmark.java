@@ -0,0 +1,133 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCNumberValueHandler;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCStringValueHandler;
+import org.jkiss.dbeaver.model.struct.DBSTypedObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDBC value handlers: values fetch from result set and display string conversion.
+ * Result set is a dynamic proxy over in-memory rows, so proxy dispatch is included in fetch time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ValueHandlerBenchmark {
+
+    private static final int ROW_COUNT = 10000;
+
+    private Object[][] rows;
+    private Object[] currentRow;
+    private boolean lastNull;
+    private DBCSession session;
+    private JDBCResultSet resultSet;
+    private DBSTypedObject[] types;
+    private DBDValueHandler[] valueHandlers;
+
+    @Setup
+    public void setup() {
+        rows = BenchmarkData.makeRows(ROW_COUNT);
+        session = BenchmarkStubs.createSession();
+        resultSet = createResultSet();
+        types = new DBSTypedObject[] {
+            BenchmarkStubs.createType("INTEGER", Types.INTEGER, DBPDataKind.NUMERIC),
+            BenchmarkStubs.createType("VARCHAR", Types.VARCHAR, DBPDataKind.STRING),
+            BenchmarkStubs.createType("DECIMAL", Types.DECIMAL, DBPDataKind.NUMERIC),
+            BenchmarkStubs.createType("VARCHAR", Types.VARCHAR, DBPDataKind.STRING),
+        };
+        valueHandlers = new DBDValueHandler[] {
+            new JDBCNumberValueHandler(types[0], BenchmarkStubs.createFormatSettings()),
+            JDBCStringValueHandler.INSTANCE,
+            new JDBCNumberValueHandler(types[2], BenchmarkStubs.createFormatSettings()),
+            JDBCStringValueHandler.INSTANCE,
+        };
+    }
+
+    /**
+     * Fetches {@link #ROW_COUNT} rows. Returns number of non-null values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public long fetchValues() throws DBCException {
+        long valueCount = 0;
+        for (Object[] row : rows) {
+            currentRow = row;
+            for (int i = 0; i < valueHandlers.length; i++) {
+                if (valueHandlers[i].fetchValueObject(session, resultSet, types[i], i) != null) {
+                    valueCount++;
+                }
+            }
+        }
+        return valueCount;
+    }
+
+    /**
+     * Converts {@link #ROW_COUNT} rows to strings. Returns total length of strings.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public long getDisplayStrings() {
+        long length = 0;
+        for (Object[] row : rows) {
+            for (int i = 0; i < valueHandlers.length; i++) {
+                length += valueHandlers[i].getValueDisplayString(types[i], row[i], DBDDisplayFormat.NATIVE).length();
+            }
+        }
+        return length;
+    }
+
+    private JDBCResultSet createResultSet() {
+        return (JDBCResultSet) Proxy.newProxyInstance(
+            JDBCResultSet.class.getClassLoader(),
+            new Class[] { JDBCResultSet.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getObject": {
+                        Object value = currentRow[(Integer) args[0] - 1];
+                        lastNull = value == null;
+                        return value;
+                    }
+                    case "getLong": {
+                        Object value = currentRow[(Integer) args[0] - 1];
+                        lastNull = value == null;
+                        return value == null ? 0L : ((Number) value).longValue();
+                    }
+                    case "wasNull":
+                        return lastNull;
+                    case "toString":
+                        return "Benchmark result set";
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+
+/**
+ * COPY text values are parsed back the way the server reads them: time as local time,
+ * timestamp as local date/time (offset is ignored) and timestamptz as an instant.
+ */
+public class PostgreCopyBatchTest {
+
+    @Test
+    public void timeWithFractionalSeconds() {
+        Time time = new Time(Time.valueOf("10:11:12").getTime() + 345);
+        String text = encode(time);
+        Assert.assertEquals("10:11:12.345", text);
+        Assert.assertEquals(LocalTime.of(10, 11, 12, 345_000_000), LocalTime.parse(text));
+
+        Assert.assertEquals(LocalTime.of(23, 59, 59, 1_000_000), LocalTime.parse(encode(new Time(Time.valueOf("23:59:59").getTime() + 1))));
+        Assert.assertEquals(LocalTime.of(0, 0), LocalTime.parse(encode(Time.valueOf("00:00:00"))));
+    }
+
+    @Test
+    public void timestampWithFractionalSeconds() {
+        for (String value : new String[] {
+            "2021-03-04 10:11:12.123456",
+            "2021-03-04 10:11:12.000001",
+            "2021-03-04 10:11:12.987654321",
+            "1969-12-31 23:59:59.5",
+        }) {
+            Timestamp timestamp = Timestamp.valueOf(value);
+            LocalDateTime parsed = OffsetDateTime.parse(encode(timestamp)).toLocalDateTime();
+            Assert.assertEquals(value, timestamp.toLocalDateTime(), parsed);
+        }
+    }
+
+    @Test
+    public void timestampTzWithFractionalSeconds() {
+        for (String value : new String[] {
+            "2021-03-04 10:11:12.123456",
+            "2021-07-04 00:00:00.000001",
+            "2021-10-31 02:30:00.25",
+        }) {
+            Timestamp timestamp = Timestamp.valueOf(value);
+            Timestamp parsed = Timestamp.from(OffsetDateTime.parse(encode(timestamp)).toInstant());
+            Assert.assertEquals(value, timestamp, parsed);
+            Assert.assertEquals(value, timestamp.getNanos(), parsed.getNanos());
+        }
+    }
+
+    private static String encode(Object value) {
+        StringBuilder buffer = new StringBuilder();
+        Assert.assertTrue(PostgreCopyBatch.appendValue(buffer, value));
+        return buffer.toString();
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.data.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseKeyRange;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class DatabaseKeyRangeTest {
+    @Test
+    public void testSplitIntegralRange() {
+        List<DatabaseKeyRange> ranges = DatabaseKeyRange.splitRange(BigDecimal.valueOf(1), BigDecimal.valueOf(100), 4, true);
+        Assert.assertEquals(4, ranges.size());
+        Assert.assertNull(ranges.get(0).getLowerBound());
+        Assert.assertNull(ranges.get(3).getUpperBound());
+        for (int i = 1; i < ranges.size(); i++) {
+            Assert.assertEquals(ranges.get(i - 1).getUpperBound(), ranges.get(i).getLowerBound());
+        }
+        Assert.assertEquals("ID < 26 OR ID IS NULL", ranges.get(0).makeCondition("ID"));
+        Assert.assertEquals("ID >= 26 AND ID < 51", ranges.get(1).makeCondition("ID"));
+        Assert.assertEquals("ID >= 76", ranges.get(3).makeCondition("ID"));
+    }
+
+    @Test
+    public void testSplitNarrowRange() {
+        // Not enough distinct values for all ranges
+        List<DatabaseKeyRange> ranges = DatabaseKeyRange.splitRange(BigDecimal.valueOf(10), BigDecimal.valueOf(12), 8, true);
+        Assert.assertEquals(3, ranges.size());
+        Assert.assertEquals(BigDecimal.valueOf(11), ranges.get(0).getUpperBound());
+        Assert.assertEquals(BigDecimal.valueOf(12), ranges.get(1).getUpperBound());
+
+        ranges = DatabaseKeyRange.splitRange(BigDecimal.valueOf(5), BigDecimal.valueOf(5), 4, true);
+        Assert.assertEquals(1, ranges.size());
+        Assert.assertEquals("1=1", ranges.get(0).makeCondition("ID"));
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.data.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DatabaseTransferUtilsTest {
+    @Test
+    public void testSingleKeysetCondition() {
+        Assert.assertEquals(
+            "ID>10",
+            DatabaseTransferUtils.makeKeysetCondition(new String[]{"ID"}, new String[]{"10"}));
+    }
+
+    @Test
+    public void testCompositeKeysetCondition() {
+        Assert.assertEquals(
+            "A>1 OR (A=1 AND B>'x') OR (A=1 AND B='x' AND C>3)",
+            DatabaseTransferUtils.makeKeysetCondition(new String[]{"A", "B", "C"}, new String[]{"1", "'x'", "3"}));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.headless.task;
+
+import org.jkiss.dbeaver.DBException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class HeadlessTaskGraphTest {
+
+    @Test
+    public void testExecutionOrder() throws DBException {
+        HeadlessTaskGraph graph = HeadlessTaskGraph.loadGraph(new StringReader(
+            "{ \"threads\": 3, \"tasks\": [" +
+                "{ \"id\": \"load\", \"dependsOn\": [ \"export1\", \"export2\" ] }," +
+                "{ \"id\": \"export1\" }," +
+                "{ \"id\": \"report\", \"dependsOn\": [ \"load\" ] }," +
+                "{ \"id\": \"export2\", \"dependsOn\": [ \"export1\" ] }" +
+            "] }"));
+        Assert.assertEquals(3, graph.getThreadCount());
+        Assert.assertEquals(Arrays.asList("export1", "export2", "load", "report"), graph.getExecutionOrder());
+        Assert.assertEquals(Arrays.asList("load", "export2"), graph.getDependents("export1"));
+        Assert.assertEquals(Collections.emptyList(), graph.getDependents("report"));
+    }
+
+    @Test
+    public void testIndependentTasksKeepOrder() throws DBException {
+        HeadlessTaskGraph graph = new HeadlessTaskGraph();
+        graph.addTask("c", Collections.emptyList());
+        graph.addTask("a", Collections.emptyList());
+        graph.addTask("b", Collections.emptyList());
+        List<String> order = graph.getExecutionOrder();
+        Assert.assertEquals(Arrays.asList("c", "a", "b"), order);
+    }
+
+    @Test(expected = DBException.class)
+    public void testCycle() throws DBException {
+        HeadlessTaskGraph graph = new HeadlessTaskGraph();
+        graph.addTask("a", Collections.singletonList("c"));
+        graph.addTask("b", Collections.singletonList("a"));
+        graph.addTask("c", Collections.singletonList("b"));
+        graph.getExecutionOrder();
+    }
+
+    @Test(expected = DBException.class)
+    public void testUnknownDependency() throws DBException {
+        HeadlessTaskGraph graph = new HeadlessTaskGraph();
+        graph.addTask("a", Collections.singletonList("missing"));
+        graph.getExecutionOrder();
+    }
+
+    @Test(expected = DBException.class)
+    public void testDuplicateTask() throws DBException {
+        HeadlessTaskGraph graph = new HeadlessTaskGraph();
+        graph.addTask("a", Collections.emptyList());
+        graph.addTask("a", Collections.emptyList());
+    }
+
+}
@@ -0,0 +1,294 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBPQualifiedObject;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSetMetaData;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCMetadataSnapshotProvider;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCFactoryDefault;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JDBCMetadataSnapshotTest {
+
+    private static final String QUERY = "SELECT * FROM pg_catalog.pg_class WHERE relnamespace=?";
+    private static final String[] LABELS = {"NAME", "OID", "SIZE", "PRECISION", "ENABLED", "CREATED"};
+    private static final Object[][] ROWS = {
+        {"table1", 16384, 8192L, new BigDecimal("10.25"), true, Timestamp.valueOf("2020-01-02 03:04:05.123456789")},
+        {"table2", 16390, null, null, false, null},
+    };
+
+    private final JDBCSession session = mock(JDBCSession.class);
+    private final JDBCDataSource dataSource = mock(JDBCDataSource.class);
+    private final JDBCMetadataSnapshotProvider provider = mock(JDBCMetadataSnapshotProvider.class);
+    private final DBSObject owner = mock(DBSObject.class, withSettings().extraInterfaces(DBPQualifiedObject.class));
+    private File file;
+    private JDBCMetadataSnapshot snapshot;
+
+    @Before
+    public void init() throws Exception {
+        file = File.createTempFile("dbeaver-test", ".dbsnap");
+        Assert.assertTrue(file.delete());
+        when(session.getDataSource()).thenReturn(dataSource);
+        when(dataSource.getJdbcFactory()).thenReturn(new JDBCFactoryDefault());
+        when(owner.isPersisted()).thenReturn(true);
+        when(((DBPQualifiedObject) owner).getFullyQualifiedName(any(DBPEvaluationContext.class))).thenReturn("public");
+        when(provider.getMetadataChangeToken(session, owner)).thenReturn("token1");
+        when(provider.isSnapshotCache(any(DBSObject.class), anyString())).thenReturn(true);
+    }
+
+    @After
+    public void cleanup() {
+        if (snapshot != null) {
+            snapshot.close();
+        }
+        if (file.exists()) {
+            Assert.assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void testRecordAndReplay() throws Exception {
+        List<byte[]> recorded = new ArrayList<>();
+        JDBCResultSet dbResult = JDBCSnapshotResultSet.record(session, mockStatement(), mockResultSet(ROWS), provider, recorded::add);
+        checkRows(dbResult);
+        Assert.assertEquals(1, recorded.size());
+
+        JDBCResultSet replayed = JDBCSnapshotResultSet.replay(session, mockStatement(), recorded.get(0));
+        Assert.assertEquals(LABELS.length, replayed.getMetaData().getColumnCount());
+        Assert.assertEquals("PRECISION", replayed.getMetaData().getColumnLabel(4));
+        checkRows(replayed);
+    }
+
+    @Test
+    public void testReplayConversions() throws Exception {
+        List<byte[]> recorded = new ArrayList<>();
+        readAll(JDBCSnapshotResultSet.record(session, mockStatement(), mockResultSet(ROWS), provider, recorded::add));
+        JDBCResultSet dbResult = JDBCSnapshotResultSet.replay(session, mockStatement(), recorded.get(0));
+
+        Assert.assertTrue(dbResult.next());
+        Assert.assertEquals("16384", dbResult.getString("oid"));
+        Assert.assertEquals(16384L, dbResult.getLong(2));
+        Assert.assertEquals(8192, dbResult.getInt("SIZE"));
+        Assert.assertEquals(new BigDecimal("10.3"), dbResult.getBigDecimal("PRECISION", 1));
+        Assert.assertEquals(1, dbResult.getInt("ENABLED"));
+        Assert.assertTrue(dbResult.next());
+        Assert.assertEquals(0L, dbResult.getLong("SIZE"));
+        Assert.assertTrue(dbResult.wasNull());
+        Assert.assertFalse(dbResult.getBoolean("ENABLED"));
+        Assert.assertFalse(dbResult.next());
+        try {
+            dbResult.getString("UNKNOWN");
+            Assert.fail("Unknown column must fail");
+        } catch (SQLException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testUnsupportedValueIsNotRecorded() throws Exception {
+        Object unsupported = new Object();
+        List<byte[]> recorded = new ArrayList<>();
+        JDBCResultSet dbResult = JDBCSnapshotResultSet.record(session, mockStatement(),
+            mockResultSet(new Object[][] {{"table1", 1, 1L, BigDecimal.ONE, true, unsupported}}), provider, recorded::add);
+        Assert.assertTrue(dbResult.next());
+        // Value is still available to the cache
+        Assert.assertSame(unsupported, dbResult.getObject("CREATED"));
+        Assert.assertFalse(dbResult.next());
+        Assert.assertTrue(recorded.isEmpty());
+    }
+
+    @Test
+    public void testNormalizedValueIsRecorded() throws Exception {
+        Object driverValue = new StringBuilder("vector");
+        when(provider.normalizeMetadataValue(driverValue)).thenReturn("vector");
+        List<byte[]> recorded = new ArrayList<>();
+        readAll(JDBCSnapshotResultSet.record(session, mockStatement(),
+            mockResultSet(new Object[][] {{"table1", 1, 1L, BigDecimal.ONE, true, driverValue}}), provider, recorded::add));
+        Assert.assertEquals(1, recorded.size());
+
+        JDBCResultSet dbResult = JDBCSnapshotResultSet.replay(session, mockStatement(), recorded.get(0));
+        Assert.assertTrue(dbResult.next());
+        Assert.assertEquals("vector", dbResult.getObject("CREATED"));
+    }
+
+    @Test
+    public void testSnapshotReplayAfterReopen() throws Exception {
+        JDBCStatement dbStat = mockStatement(ROWS);
+        openSnapshot();
+        checkRows(JDBCMetadataSnapshot.executeStatement(session, owner, "tables", dbStat));
+        verify(dbStat).executeStatement();
+        snapshot.close();
+        Assert.assertTrue(file.exists());
+
+        // Next session reads rows from the snapshot file
+        JDBCStatement cachedStat = mockStatement(ROWS);
+        openSnapshot();
+        checkRows(JDBCMetadataSnapshot.executeStatement(session, owner, "tables", cachedStat));
+        verify(cachedStat, never()).executeStatement();
+
+        // Entries of other caches and queries are not mixed
+        JDBCStatement otherStat = mockStatement(ROWS);
+        readAll(JDBCMetadataSnapshot.executeStatement(session, owner, "columns", otherStat));
+        verify(otherStat).executeStatement();
+    }
+
+    @Test
+    public void testTokenChangeInvalidatesSnapshot() throws Exception {
+        openSnapshot();
+        readAll(JDBCMetadataSnapshot.executeStatement(session, owner, "tables", mockStatement(ROWS)));
+        snapshot.close();
+
+        // DDL was executed
+        when(provider.getMetadataChangeToken(session, owner)).thenReturn("token2");
+        JDBCStatement dbStat = mockStatement(ROWS);
+        openSnapshot();
+        checkRows(JDBCMetadataSnapshot.executeStatement(session, owner, "tables", dbStat));
+        verify(dbStat).executeStatement();
+        snapshot.close();
+
+        // New rows were saved with the new token
+        JDBCStatement cachedStat = mockStatement(ROWS);
+        openSnapshot();
+        readAll(JDBCMetadataSnapshot.executeStatement(session, owner, "tables", cachedStat));
+        verify(cachedStat, never()).executeStatement();
+    }
+
+    @Test
+    public void testRefreshReadsTokenAgain() throws Exception {
+        openSnapshot();
+        readAll(JDBCMetadataSnapshot.executeStatement(session, owner, "tables", mockStatement(ROWS)));
+        // Cache refresh in the same session always executes the query
+        JDBCStatement dbStat = mockStatement(ROWS);
+        readAll(JDBCMetadataSnapshot.executeStatement(session, owner, "tables", dbStat));
+        verify(dbStat).executeStatement();
+        verify(provider, times(2)).getMetadataChangeToken(session, owner);
+    }
+
+    @Test
+    public void testExcludedCache() throws Exception {
+        when(provider.isSnapshotCache(owner, "indexes")).thenReturn(false);
+        openSnapshot();
+        readAll(JDBCMetadataSnapshot.executeStatement(session, owner, "indexes", mockStatement(ROWS)));
+        snapshot.close();
+        Assert.assertFalse(file.exists());
+
+        JDBCStatement dbStat = mockStatement(ROWS);
+        openSnapshot();
+        // Original result set is used
+        Assert.assertSame(dbStat.getResultSet(), JDBCMetadataSnapshot.executeStatement(session, owner, "indexes", dbStat));
+        verify(dbStat).executeStatement();
+        verify(provider, never()).getMetadataChangeToken(session, owner);
+    }
+
+    @Test
+    public void testOwnerWithoutToken() throws Exception {
+        when(provider.getMetadataChangeToken(session, owner)).thenReturn(null);
+        openSnapshot();
+        readAll(JDBCMetadataSnapshot.executeStatement(session, owner, "tables", mockStatement(ROWS)));
+        snapshot.close();
+        Assert.assertFalse(file.exists());
+    }
+
+    @Test
+    public void testTokenErrorDisablesSnapshot() throws Exception {
+        when(provider.getMetadataChangeToken(session, owner)).thenThrow(new SQLException("permission denied for pg_description"));
+        JDBCStatement dbStat = mockStatement(ROWS);
+        openSnapshot();
+        Assert.assertSame(dbStat.getResultSet(), JDBCMetadataSnapshot.executeStatement(session, owner, "tables", dbStat));
+        verify(dbStat).executeStatement();
+        snapshot.close();
+        Assert.assertFalse(file.exists());
+    }
+
+    private void openSnapshot() {
+        snapshot = new JDBCMetadataSnapshot(provider, file);
+        when(dataSource.getMetadataSnapshot()).thenReturn(snapshot);
+    }
+
+    private JDBCStatement mockStatement() {
+        JDBCStatement dbStat = mock(JDBCStatement.class);
+        when(dbStat.getQueryString()).thenReturn(QUERY);
+        return dbStat;
+    }
+
+    private JDBCStatement mockStatement(Object[][] rows) throws SQLException {
+        JDBCStatement dbStat = mockStatement();
+        JDBCResultSet dbResult = mockResultSet(rows);
+        when(dbStat.getResultSet()).thenReturn(dbResult);
+        return dbStat;
+    }
+
+    private static JDBCResultSet mockResultSet(Object[][] rows) throws SQLException {
+        JDBCResultSetMetaData metaData = mock(JDBCResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(LABELS.length);
+        for (int i = 0; i < LABELS.length; i++) {
+            when(metaData.getColumnLabel(i + 1)).thenReturn(LABELS[i]);
+        }
+        JDBCResultSet dbResult = mock(JDBCResultSet.class);
+        when(dbResult.getMetaData()).thenReturn(metaData);
+        int[] rowNum = {-1};
+        when(dbResult.next()).thenAnswer(invocation -> ++rowNum[0] < rows.length);
+        when(dbResult.getObject(anyInt())).thenAnswer(invocation ->
+            rows[rowNum[0]][(Integer) invocation.getArguments()[0] - 1]);
+        return dbResult;
+    }
+
+    private static void checkRows(ResultSet dbResult) throws SQLException {
+        Assert.assertNotNull(dbResult);
+        for (Object[] row : ROWS) {
+            Assert.assertTrue(dbResult.next());
+            Assert.assertEquals(row[0], dbResult.getString("NAME"));
+            Assert.assertEquals(row[1], dbResult.getInt("OID"));
+            Assert.assertEquals(row[2], dbResult.getObject("SIZE"));
+            Assert.assertEquals(row[3], dbResult.getBigDecimal("PRECISION"));
+            Assert.assertEquals(row[4], dbResult.getBoolean("ENABLED"));
+            Assert.assertEquals(row[5], dbResult.getTimestamp("CREATED"));
+        }
+        Assert.assertFalse(dbResult.next());
+        dbResult.close();
+    }
+
+    private static void readAll(ResultSet dbResult) throws SQLException {
+        while (dbResult.next()) {
+            dbResult.getObject(1);
+        }
+        dbResult.close();
+    }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.impl.struct.RelationalObjectType;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectReference;
+import org.jkiss.dbeaver.model.struct.DBSObjectType;
+import org.jkiss.dbeaver.model.struct.cache.SimpleObjectCache;
+import org.jkiss.dbeaver.model.struct.rdb.DBSProcedure;
+import org.jkiss.dbeaver.model.struct.rdb.DBSTable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class JDBCObjectNameIndexTest {
+
+    private JDBCObjectNameIndex index;
+    private TestSchema schema;
+
+    @Before
+    public void init() {
+        index = new JDBCObjectNameIndex();
+        schema = new TestSchema();
+        schema.tableCache.setCache(new ArrayList<>(Arrays.asList(
+            mockObject(DBSTable.class, "ORDERS"),
+            mockObject(DBSTable.class, "Order_Items"),
+            mockObject(DBSTable.class, "ORDERX"),
+            mockObject(DBSTable.class, "customers"),
+            mockObject(DBSTable.class, "CUSTOMER_ORDERS"))));
+        schema.procedureCache.setCache(new ArrayList<>(Arrays.asList(
+            mockObject(DBSProcedure.class, "ORDER_TOTAL"),
+            mockObject(DBSProcedure.class, "recalc"))));
+        schema.viewCache.setCache(new ArrayList<>());
+        index.addCache(schema, schema.tableCache);
+        index.addCache(schema, schema.procedureCache);
+        index.addCache(schema, schema.viewCache);
+    }
+
+    @Test
+    public void prefixSearch() {
+        Assert.assertEquals(Arrays.asList("ORDERS", "ORDERX", "Order_Items"), findTables("ORDER%", false));
+        Assert.assertEquals(Arrays.asList("ORDERS", "ORDERX"), findTables("ORDER%", true));
+        Assert.assertEquals(Arrays.asList("customers"), findTables("cust%", true));
+        Assert.assertEquals(Arrays.asList("CUSTOMER_ORDERS"), findTables("CUST%", true));
+        Assert.assertEquals(Arrays.asList(), findTables("Cust%", true));
+        Assert.assertEquals(Arrays.asList("ORDER_TOTAL"), findNames(RelationalObjectType.TYPE_PROCEDURE, "order%", false));
+    }
+
+    @Test
+    public void maskSearch() {
+        Assert.assertEquals(Arrays.asList("ORDERS", "ORDERX"), findTables("ORDER_", false));
+        Assert.assertEquals(Arrays.asList("CUSTOMER_ORDERS", "ORDERS"), findTables("%ORDERS", false));
+        Assert.assertEquals(Arrays.asList("CUSTOMER_ORDERS", "ORDERS"), findTables("%O%S", true));
+        Assert.assertEquals(Arrays.asList("CUSTOMER_ORDERS", "customers"), findTables("CUST%ERS", false));
+        Assert.assertEquals(Arrays.asList("CUSTOMER_ORDERS"), findTables("CUST%ERS", true));
+        Assert.assertEquals(Arrays.asList(), findTables("CUST%ERX", false));
+    }
+
+    @Test
+    public void exactSearch() {
+        Assert.assertEquals(Arrays.asList("customers"), findTables("CUSTOMERS", false));
+        Assert.assertEquals(Arrays.asList(), findTables("CUSTOMERS", true));
+        Assert.assertEquals(Arrays.asList("customers"), findTables("customers", true));
+    }
+
+    @Test
+    public void maxResults() {
+        List<DBSObjectReference> references = index.findObjects(schema, RelationalObjectType.TYPE_TABLE, "%", false, 2);
+        Assert.assertNotNull(references);
+        Assert.assertEquals(2, references.size());
+    }
+
+    @Test
+    public void nameMatcher() {
+        Assert.assertTrue(new JDBCObjectNameIndex.NameMatcher("ORDER%", true).matches("ORDERS"));
+        Assert.assertFalse(new JDBCObjectNameIndex.NameMatcher("ORDER%", true).matches("Orders"));
+        Assert.assertTrue(new JDBCObjectNameIndex.NameMatcher("ORD_R", false).matches("order"));
+        Assert.assertFalse(new JDBCObjectNameIndex.NameMatcher("ORD_R", false).matches("orders"));
+        Assert.assertTrue(new JDBCObjectNameIndex.NameMatcher("A%C", true).matches("ABBC"));
+        Assert.assertFalse(new JDBCObjectNameIndex.NameMatcher("A%C", true).matches("abbc"));
+        Assert.assertTrue(new JDBCObjectNameIndex.NameMatcher("Name", false).matches("NAME"));
+        Assert.assertFalse(new JDBCObjectNameIndex.NameMatcher("Name", true).matches("NAME"));
+    }
+
+    @Test
+    public void partiallyLoadedCaches() {
+        // Views are not loaded. Tables and views have the same type class so search must go to database
+        schema.viewCache.clearCache();
+        index.removeCache(schema.viewCache);
+        Assert.assertNull(index.findObjects(schema, RelationalObjectType.TYPE_TABLE, "ORDER%", false, 100));
+        // Procedures don't depend on views
+        Assert.assertNotNull(index.findObjects(schema, RelationalObjectType.TYPE_PROCEDURE, "ORDER%", false, 100));
+
+        // Cache was loaded but not registered yet
+        schema.viewCache.setCache(new ArrayList<>());
+        Assert.assertNull(index.findObjects(schema, RelationalObjectType.TYPE_TABLE, "ORDER%", false, 100));
+        index.addCache(schema, schema.viewCache);
+        Assert.assertNotNull(index.findObjects(schema, RelationalObjectType.TYPE_TABLE, "ORDER%", false, 100));
+    }
+
+    @Test
+    public void lazyCache() {
+        TestSchema lazySchema = new TestSchema();
+        lazySchema.tableCache.setCache(new ArrayList<>());
+        lazySchema.viewCache.setCache(new ArrayList<>());
+        lazySchema.procedureCache = null;
+        index.addCache(lazySchema, lazySchema.tableCache);
+        index.addCache(lazySchema, lazySchema.viewCache);
+        Assert.assertNotNull(index.findObjects(lazySchema, RelationalObjectType.TYPE_TABLE, "%", false, 100));
+        Assert.assertNull(index.findObjects(lazySchema, RelationalObjectType.TYPE_PROCEDURE, "%", false, 100));
+    }
+
+    @Test
+    public void objectClass() {
+        Assert.assertEquals(DBSTable.class, JDBCObjectNameIndex.getObjectClass(TableCache.class));
+        Assert.assertEquals(DBSProcedure.class, JDBCObjectNameIndex.getObjectClass(ProcedureCache.class));
+        Assert.assertEquals(DBSObject.class, JDBCObjectNameIndex.getObjectClass(SimpleObjectCache.class));
+    }
+
+    private List<String> findTables(String mask, boolean caseSensitive) {
+        return findNames(RelationalObjectType.TYPE_TABLE, mask, caseSensitive);
+    }
+
+    private List<String> findNames(DBSObjectType objectType, String mask, boolean caseSensitive) {
+        List<DBSObjectReference> references = index.findObjects(schema, objectType, mask, caseSensitive, 100);
+        Assert.assertNotNull(references);
+        List<String> names = new ArrayList<>();
+        for (DBSObjectReference reference : references) {
+            names.add(reference.getName());
+        }
+        names.sort(null);
+        return names;
+    }
+
+    private static <T extends DBSObject> T mockObject(Class<T> objectClass, String name) {
+        T object = mock(objectClass);
+        when(object.getName()).thenReturn(name);
+        return object;
+    }
+
+    private static class TableCache extends SimpleObjectCache<TestSchema, DBSTable> {
+    }
+
+    private static class ProcedureCache extends SimpleObjectCache<TestSchema, DBSProcedure> {
+    }
+
+    private static class TestSchema implements DBSObject {
+        private final TableCache tableCache = new TableCache();
+        private final TableCache viewCache = new TableCache();
+        private ProcedureCache procedureCache = new ProcedureCache();
+
+        @Override
+        public String getName() {
+            return "TEST";
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public DBSObject getParentObject() {
+            return null;
+        }
+
+        @Override
+        public DBPDataSource getDataSource() {
+            return null;
+        }
+
+        @Override
+        public boolean isPersisted() {
+            return true;
+        }
+    }
+
+}
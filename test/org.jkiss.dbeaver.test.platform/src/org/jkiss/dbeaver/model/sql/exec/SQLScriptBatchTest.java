@@ -0,0 +1,126 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.exec;
+
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSavepoint;
+import org.jkiss.dbeaver.model.exec.DBCStatementType;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SQLScriptBatchTest {
+
+    private static final List<String> QUERIES = Arrays.asList(
+        "INSERT INTO t VALUES (1)",
+        "INSERT INTO t VALUES (1)",
+        "INSERT INTO t VALUES (2)");
+
+    private final JDBCSession session = mock(JDBCSession.class);
+    private final JDBCStatement statement = mock(JDBCStatement.class);
+    private final DBCTransactionManager txnManager = mock(DBCTransactionManager.class);
+    private final DBCSavepoint savepoint = mock(DBCSavepoint.class);
+
+    @Before
+    public void init() throws Exception {
+        when(session.getProgressMonitor()).thenReturn(new VoidProgressMonitor());
+        when(session.prepareStatement(eq(DBCStatementType.SCRIPT), anyString(), anyBoolean(), anyBoolean(), anyBoolean())).thenReturn(statement);
+        when(txnManager.setSavepoint(any(), any())).thenReturn(savepoint);
+    }
+
+    @Test
+    public void testSuccess() throws Exception {
+        when(txnManager.isAutoCommit()).thenReturn(true);
+        when(statement.executeBatch()).thenReturn(new int[] {1, 1, 1});
+
+        SQLScriptBatch batch = new SQLScriptBatch(session, txnManager, QUERIES);
+        Assert.assertEquals(3, batch.execute(null));
+        Assert.assertFalse(batch.isBatchDisabled());
+        verify(txnManager).commit(session);
+        verify(txnManager, never()).rollback(any(), any());
+        verify(txnManager).setAutoCommit(any(), eq(true));
+    }
+
+    @Test
+    public void testDriverStopsAtFailedQuery() throws Exception {
+        when(txnManager.isAutoCommit()).thenReturn(true);
+        when(statement.executeBatch()).thenThrow(new BatchUpdateException("duplicate key", new int[] {1}));
+
+        SQLScriptBatch batch = new SQLScriptBatch(session, txnManager, QUERIES);
+        // The first query is kept, the script continues from the second one
+        Assert.assertEquals(1, batch.execute(null));
+        Assert.assertFalse(batch.isBatchDisabled());
+        verify(txnManager).commit(session);
+        verify(txnManager, never()).rollback(any(), any());
+    }
+
+    @Test
+    public void testDriverContinuesAfterFailedQuery() throws Exception {
+        // MySQL (continueBatchOnError) and SQL Server execute queries after the failed one
+        when(txnManager.isAutoCommit()).thenReturn(true);
+        when(statement.executeBatch()).thenThrow(
+            new BatchUpdateException("duplicate key", new int[] {1, Statement.EXECUTE_FAILED, 1}));
+
+        SQLScriptBatch batch = new SQLScriptBatch(session, txnManager, QUERIES);
+        // Nothing is kept: the third query must not be applied before the second one is reported
+        Assert.assertEquals(0, batch.execute(null));
+        Assert.assertTrue(batch.isBatchDisabled());
+        verify(txnManager, never()).commit(any());
+        verify(txnManager).rollback(session, null);
+        verify(txnManager).setAutoCommit(any(), eq(true));
+    }
+
+    @Test
+    public void testDriverContinuesAfterFailedQueryInTransaction() throws Exception {
+        when(txnManager.isAutoCommit()).thenReturn(false);
+        when(statement.executeBatch()).thenThrow(
+            new BatchUpdateException("duplicate key", new int[] {1, Statement.EXECUTE_FAILED, 1}));
+
+        SQLScriptBatch batch = new SQLScriptBatch(session, txnManager, QUERIES);
+        Assert.assertEquals(0, batch.execute(null));
+        verify(txnManager).rollback(session, savepoint);
+        verify(txnManager, never()).releaseSavepoint(any(), any());
+        verify(txnManager, never()).commit(any());
+    }
+
+    @Test
+    public void testAbortedTransaction() throws Exception {
+        // PostgreSQL aborts the whole transaction on error, so the executed queries can't be committed
+        when(txnManager.isAutoCommit()).thenReturn(true);
+        when(statement.executeBatch()).thenThrow(new BatchUpdateException("duplicate key", new int[] {1}));
+        doThrow(new DBCException("transaction is aborted")).when(txnManager).commit(session);
+
+        SQLScriptBatch batch = new SQLScriptBatch(session, txnManager, QUERIES);
+        Assert.assertEquals(0, batch.execute(null));
+        verify(txnManager).rollback(session, null);
+    }
+
+}
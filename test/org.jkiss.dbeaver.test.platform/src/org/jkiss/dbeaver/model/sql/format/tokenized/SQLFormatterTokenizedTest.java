@@ -55,6 +55,7 @@ public class SQLFormatterTokenizedTest {
         Mockito.when(syntaxManager.getStatementDelimiters()).thenReturn(delimiters);
         Mockito.when(syntaxManager.getDialect()).thenReturn(dialect);
         Mockito.when(syntaxManager.getCatalogSeparator()).thenReturn(".");
+        Mockito.when(syntaxManager.getKeywordTrie()).thenReturn(SQLSyntaxManager.createKeywordTrie(dialect));
         Mockito.when(configuration.getKeywordCase()).thenReturn(DBPIdentifierCase.UPPER);
 
         Mockito.when(configuration.getIndentString()).thenReturn("\t");
@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.model.sql.parser;
 
 import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
@@ -312,6 +313,42 @@ public class SQLScriptParserTest {
             });
     }
 
+    @Test
+    public void parseScriptIncrementally() throws Exception {
+        SQLDialect dialect = setDialect("postgresql");
+        SQLParserContext context = createParserContext(dialect,
+            "select 1;\nselect 2;\n\nselect 3 from dual;\n-- comment;\nselect 4;\nselect 5");
+        Document document = (Document) context.getDocument();
+        assertSameElements(dialect, context);
+        // Split statement
+        document.replace(document.get().indexOf(" from"), 0, ";");
+        assertSameElements(dialect, context);
+        // Merge statements
+        document.replace(document.get().indexOf("select 2;") + 8, 1, "");
+        assertSameElements(dialect, context);
+        // Edit statement without delimiter in the end of script
+        document.replace(document.getLength(), 0, " from t");
+        assertSameElements(dialect, context);
+        // Several edits
+        document.replace(0, 6, "SELECT");
+        document.replace(document.get().indexOf("-- comment"), 0, "update t set a = 1;\n");
+        assertSameElements(dialect, context);
+        context.dispose();
+    }
+
+    private void assertSameElements(SQLDialect dialect, SQLParserContext context) {
+        IDocument document = context.getDocument();
+        List<SQLScriptElement> elements = SQLScriptParser.extractScriptQueries(context, 0, document.getLength(), true, false, false);
+        SQLParserContext newContext = createParserContext(dialect, document.get());
+        List<SQLScriptElement> expected = SQLScriptParser.extractScriptQueries(newContext, 0, document.getLength(), true, false, false);
+        Assert.assertEquals(expected.size(), elements.size());
+        for (int index = 0; index < expected.size(); index++) {
+            Assert.assertEquals(expected.get(index).getText(), elements.get(index).getText());
+            Assert.assertEquals(expected.get(index).getOffset(), elements.get(index).getOffset());
+            Assert.assertEquals(expected.get(index).getLength(), elements.get(index).getLength());
+        }
+    }
+
     private void assertParse(String dialectName, String query, String[] expected) throws DBException {
         SQLParserContext context = createParserContext(setDialect(dialectName), query);
         List<SQLScriptElement> elements = SQLScriptParser.extractScriptQueries(context, 0, context.getDocument().getLength(), false, false, false);
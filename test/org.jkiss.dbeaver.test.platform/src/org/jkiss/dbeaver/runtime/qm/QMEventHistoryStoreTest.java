@@ -0,0 +1,303 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.qm.QMConstants;
+import org.jkiss.dbeaver.model.qm.QMEventCriteria;
+import org.jkiss.dbeaver.model.qm.QMEventCursor;
+import org.jkiss.dbeaver.model.qm.QMMetaEvent;
+import org.jkiss.dbeaver.model.qm.meta.*;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class QMEventHistoryStoreTest {
+
+    private static final long BASE_TIME = 1_600_000_000_000L;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final DBPPreferenceStore preferences = mock(DBPPreferenceStore.class);
+    private final DBRProgressMonitor monitor = new VoidProgressMonitor();
+    private final QMMSessionInfo session = new QMMSessionInfo(
+        BASE_TIME, 0, "postgres-1", "Local PostgreSQL", "postgres-jdbc", null, null, "Main", true);
+    private File historyFolder;
+    private QMEventHistoryStore store;
+
+    @Before
+    public void init() {
+        when(preferences.getBoolean(QMConstants.PROP_STORE_HISTORY)).thenReturn(true);
+        when(preferences.getString(QMConstants.PROP_LOG_DIRECTORY)).thenReturn(tempFolder.getRoot().getAbsolutePath());
+        historyFolder = new File(tempFolder.getRoot(), "qm-history");
+        store = new QMEventHistoryStore(preferences);
+    }
+
+    @After
+    public void cleanup() {
+        store.dispose();
+    }
+
+    @Test
+    public void testWriteReopenRead() throws Exception {
+        QMMStatementExecuteInfo select = new QMMStatementExecuteInfo(
+            BASE_TIME + 100, BASE_TIME + 350, new QMMStatementInfo(BASE_TIME + 100, BASE_TIME + 350, session, DBCExecutionPurpose.USER),
+            "SELECT * FROM orders", 42, 0, null, BASE_TIME + 200, BASE_TIME + 350, true);
+        QMMStatementExecuteInfo failed = new QMMStatementExecuteInfo(
+            BASE_TIME + 400, BASE_TIME + 410, new QMMStatementInfo(BASE_TIME + 400, BASE_TIME + 410, session, DBCExecutionPurpose.META),
+            "DELETE FROM \"заказы\"", 0, 1205, "Lock wait timeout", 0, 0, false);
+        QMMTransactionInfo transaction = new QMMTransactionInfo(BASE_TIME + 50, BASE_TIME + 500, session, true);
+        write(
+            new QMMetaEvent(session, QMMetaEvent.Action.BEGIN),
+            new QMMetaEvent(select, QMMetaEvent.Action.END),
+            new QMMetaEvent(failed, QMMetaEvent.Action.END),
+            new QMMetaEvent(transaction, QMMetaEvent.Action.END));
+        reopen();
+
+        List<QMMetaEvent> events = readAll(new QMEventCriteria());
+        Assert.assertEquals(4, events.size());
+
+        QMMTransactionInfo readTransaction = (QMMTransactionInfo) events.get(0).getObject();
+        Assert.assertEquals(QMMetaEvent.Action.END, events.get(0).getAction());
+        Assert.assertTrue(readTransaction.isCommitted());
+        Assert.assertEquals(BASE_TIME + 50, readTransaction.getOpenTime());
+        Assert.assertEquals(BASE_TIME + 500, readTransaction.getCloseTime());
+
+        QMMStatementExecuteInfo readFailed = (QMMStatementExecuteInfo) events.get(1).getObject();
+        Assert.assertEquals("DELETE FROM \"заказы\"", readFailed.getQueryString());
+        Assert.assertEquals(DBCExecutionPurpose.META, readFailed.getStatement().getPurpose());
+        Assert.assertEquals(1205, readFailed.getErrorCode());
+        Assert.assertEquals("Lock wait timeout", readFailed.getErrorMessage());
+        Assert.assertFalse(readFailed.isTransactional());
+
+        QMMStatementExecuteInfo readSelect = (QMMStatementExecuteInfo) events.get(2).getObject();
+        Assert.assertEquals("SELECT * FROM orders", readSelect.getQueryString());
+        Assert.assertEquals(DBCExecutionPurpose.USER, readSelect.getStatement().getPurpose());
+        Assert.assertEquals(42, readSelect.getFetchRowCount());
+        Assert.assertEquals(0, readSelect.getErrorCode());
+        Assert.assertNull(readSelect.getErrorMessage());
+        Assert.assertEquals(BASE_TIME + 100, readSelect.getOpenTime());
+        Assert.assertEquals(BASE_TIME + 350, readSelect.getCloseTime());
+        Assert.assertEquals(BASE_TIME + 200, readSelect.getFetchBeginTime());
+        Assert.assertEquals(BASE_TIME + 350, readSelect.getFetchEndTime());
+        Assert.assertTrue(readSelect.isTransactional());
+
+        QMMSessionInfo readSession = readSelect.getStatement().getSession();
+        Assert.assertEquals("postgres-1", readSession.getContainerId());
+        Assert.assertEquals("Local PostgreSQL", readSession.getContainerName());
+        Assert.assertEquals("postgres-jdbc", readSession.getDriverId());
+        Assert.assertEquals("Main", readSession.getContextName());
+        Assert.assertTrue(readSession.isTransactional());
+        Assert.assertEquals(BASE_TIME, readSession.getOpenTime());
+
+        Assert.assertTrue(events.get(3).getObject() instanceof QMMSessionInfo);
+        Assert.assertEquals(QMMetaEvent.Action.BEGIN, events.get(3).getAction());
+    }
+
+    @Test
+    public void testPagingAcrossSegments() throws Exception {
+        // Each reopen closes the active segment
+        for (int segment = 0; segment < 3; segment++) {
+            List<QMMetaEvent> events = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                events.add(makeQuery("q" + segment + "-" + i, BASE_TIME + segment * 1000 + i));
+            }
+            write(events.toArray(new QMMetaEvent[0]));
+            reopen();
+        }
+        Assert.assertEquals(3, getSegmentFiles().length);
+
+        List<String> expected = new ArrayList<>();
+        for (int segment = 2; segment >= 0; segment--) {
+            for (int i = 4; i >= 0; i--) {
+                expected.add("q" + segment + "-" + i);
+            }
+        }
+        // Pages of 4 events cross segment boundaries. Each page opens a new cursor and scrolls to its offset
+        List<String> paged = new ArrayList<>();
+        for (int offset = 0; offset < expected.size(); offset += 4) {
+            QMEventCursor cursor = store.getQueryHistoryCursor(monitor, new QMEventCriteria(), null);
+            Assert.assertEquals(15, cursor.getTotalSize());
+            cursor.scroll(offset, monitor);
+            for (int i = 0; i < 4 && cursor.hasNextEvent(monitor); i++) {
+                paged.add(getQueryString(cursor.nextEvent(monitor)));
+            }
+            cursor.close();
+        }
+        Assert.assertEquals(expected, paged);
+
+        QMEventCursor cursor = store.getQueryHistoryCursor(monitor, new QMEventCriteria(), null);
+        cursor.scroll(6, monitor);
+        Assert.assertEquals("q1-3", getQueryString(cursor.nextEvent(monitor)));
+        try {
+            cursor.scroll(2, monitor);
+            Assert.fail("Cursor scrolled backward");
+        } catch (DBException e) {
+            // expected
+        }
+        try {
+            cursor.scroll(16, monitor);
+            Assert.fail("Cursor scrolled out of range");
+        } catch (DBException e) {
+            // expected
+        }
+
+        // Search string filters events of all segments
+        QMEventCriteria criteria = new QMEventCriteria();
+        criteria.setSearchString("Q1-");
+        Assert.assertEquals(Arrays.asList("q1-4", "q1-3", "q1-2", "q1-1", "q1-0"), getQueryStrings(readAll(criteria)));
+    }
+
+    @Test
+    public void testSegmentIndexSkipsSegments() throws Exception {
+        write(makeQuery("first", BASE_TIME));
+        reopen();
+        QMMSessionInfo otherSession = new QMMSessionInfo(BASE_TIME, 0, "mysql-1", "MySQL", "mysql8", null, null, "Main", false);
+        write(new QMMetaEvent(
+            new QMMStatementExecuteInfo(
+                BASE_TIME + 10_000, BASE_TIME + 10_000, new QMMStatementInfo(BASE_TIME + 10_000, BASE_TIME + 10_000, otherSession, DBCExecutionPurpose.USER),
+                "second", 0, 0, null, 0, 0, false),
+            QMMetaEvent.Action.END));
+        reopen();
+
+        QMEventCriteria criteria = new QMEventCriteria();
+        criteria.setContainerId("mysql-1");
+        QMEventCursor cursor = store.getQueryHistoryCursor(monitor, criteria, null);
+        Assert.assertEquals(1, cursor.getTotalSize());
+        Assert.assertEquals(Collections.singletonList("second"), getQueryStrings(readAll(criteria)));
+
+        criteria = new QMEventCriteria();
+        criteria.setEndTime(BASE_TIME + 5_000);
+        Assert.assertEquals(1, store.getQueryHistoryCursor(monitor, criteria, null).getTotalSize());
+        Assert.assertEquals(Collections.singletonList("first"), getQueryStrings(readAll(criteria)));
+    }
+
+    @Test
+    public void testTruncatedTailSegment() throws Exception {
+        write(makeQuery("q0", BASE_TIME), makeQuery("q1", BASE_TIME + 1));
+        reopen();
+        write(makeQuery("q2", BASE_TIME + 2), makeQuery("q3", BASE_TIME + 3));
+        store.dispose();
+
+        // Abnormal termination in the middle of the last record
+        File tailSegment = getSegmentFiles()[1];
+        try (RandomAccessFile file = new RandomAccessFile(tailSegment, "rw")) {
+            file.setLength(file.length() - 5);
+        }
+        store = new QMEventHistoryStore(preferences);
+        Assert.assertTrue(store.isEnabled());
+        Assert.assertEquals(Arrays.asList("q2", "q1", "q0"), getQueryStrings(readAll(new QMEventCriteria())));
+
+        // New events go to a new segment
+        write(makeQuery("q4", BASE_TIME + 4));
+        reopen();
+        Assert.assertEquals(3, getSegmentFiles().length);
+        Assert.assertEquals(Arrays.asList("q4", "q2", "q1", "q0"), getQueryStrings(readAll(new QMEventCriteria())));
+    }
+
+    @Test
+    public void testCorruptTailSegment() throws Exception {
+        write(makeQuery("q0", BASE_TIME), makeQuery("q1", BASE_TIME + 1));
+        reopen();
+        write(makeQuery("q2", BASE_TIME + 2));
+        store.dispose();
+
+        File[] segmentFiles = getSegmentFiles();
+        // Record with garbage content
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(segmentFiles[1], true))) {
+            out.writeInt(12);
+            out.write(new byte[] {2, 1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1});
+        }
+        // Negative record length
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(segmentFiles[0], true))) {
+            out.writeInt(-1);
+            out.writeInt(0x7FFFFFF0);
+        }
+        store = new QMEventHistoryStore(preferences);
+        Assert.assertTrue(store.isEnabled());
+        Assert.assertEquals(Arrays.asList("q2", "q1", "q0"), getQueryStrings(readAll(new QMEventCriteria())));
+
+        write(makeQuery("q3", BASE_TIME + 3));
+        Assert.assertEquals(Arrays.asList("q3", "q2", "q1", "q0"), getQueryStrings(readAll(new QMEventCriteria())));
+    }
+
+    private QMMetaEvent makeQuery(String query, long time) {
+        QMMStatementInfo statement = new QMMStatementInfo(time, time + 5, session, DBCExecutionPurpose.USER);
+        return new QMMetaEvent(
+            new QMMStatementExecuteInfo(time, time + 5, statement, query, 1, 0, null, time + 1, time + 5, true),
+            QMMetaEvent.Action.END);
+    }
+
+    /**
+     * Writes events in the specified order (oldest first)
+     */
+    private void write(QMMetaEvent... events) {
+        List<QMMetaEvent> freshFirst = new ArrayList<>(Arrays.asList(events));
+        Collections.reverse(freshFirst);
+        store.metaInfoChanged(monitor, freshFirst);
+    }
+
+    private void reopen() {
+        store.dispose();
+        store = new QMEventHistoryStore(preferences);
+    }
+
+    private List<QMMetaEvent> readAll(QMEventCriteria criteria) throws DBException {
+        List<QMMetaEvent> events = new ArrayList<>();
+        QMEventCursor cursor = store.getQueryHistoryCursor(monitor, criteria, null);
+        while (cursor.hasNextEvent(monitor)) {
+            events.add(cursor.nextEvent(monitor));
+        }
+        cursor.close();
+        return events;
+    }
+
+    private File[] getSegmentFiles() {
+        File[] files = historyFolder.listFiles((dir, name) -> name.endsWith(".qmh"));
+        Assert.assertNotNull(files);
+        Arrays.sort(files);
+        return files;
+    }
+
+    private static String getQueryString(QMMetaEvent event) {
+        return ((QMMStatementExecuteInfo) event.getObject()).getQueryString();
+    }
+
+    private static List<String> getQueryStrings(List<QMMetaEvent> events) {
+        List<String> queries = new ArrayList<>();
+        for (QMMetaEvent event : events) {
+            queries.add(getQueryString(event));
+        }
+        return queries;
+    }
+
+}
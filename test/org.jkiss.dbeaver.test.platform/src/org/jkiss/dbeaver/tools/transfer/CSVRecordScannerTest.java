@@ -0,0 +1,66 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.importer.CSVRecordScanner;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class CSVRecordScannerTest {
+
+    @Test
+    public void findRecordEnd() {
+        byte[] data = bytes("a,b\nc,d\ne");
+        Assert.assertEquals(8, new CSVRecordScanner('"', '\\').scan(data, 0, data.length));
+        Assert.assertEquals(-1, new CSVRecordScanner('"', '\\').scan(data, 0, 3));
+    }
+
+    @Test
+    public void skipQuotedLineFeeds() {
+        byte[] data = bytes("1,\"a\nb\"\n2,\"c\n");
+        CSVRecordScanner scanner = new CSVRecordScanner('"', '\\');
+        Assert.assertEquals(8, scanner.scan(data, 0, data.length));
+        Assert.assertTrue(scanner.isInQuotes());
+
+        // Doubled quotes
+        data = bytes("\"a\"\"\nb\"\n");
+        Assert.assertEquals(data.length, new CSVRecordScanner('"', '\\').scan(data, 0, data.length));
+    }
+
+    @Test
+    public void escapedQuotes() {
+        byte[] data = bytes("\"a\\\"\n\"\nb");
+        CSVRecordScanner scanner = new CSVRecordScanner('"', '\\');
+        Assert.assertEquals(7, scanner.scan(data, 0, data.length));
+        Assert.assertFalse(scanner.isInQuotes());
+    }
+
+    @Test
+    public void keepStateBetweenBlocks() {
+        byte[] data = bytes("\"a\\\"\n\"\nb");
+        CSVRecordScanner scanner = new CSVRecordScanner('"', '\\');
+        // Split right after escape char
+        Assert.assertEquals(-1, scanner.scan(data, 0, 3));
+        Assert.assertEquals(7, scanner.scan(data, 3, data.length - 3));
+    }
+
+    private static byte[] bytes(String str) {
+        return str.getBytes(StandardCharsets.UTF_8);
+    }
+}
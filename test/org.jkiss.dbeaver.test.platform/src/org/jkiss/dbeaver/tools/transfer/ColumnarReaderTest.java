@@ -0,0 +1,315 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowFileReader;
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.LZ4FrameDecoder;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ColumnarReaderTest {
+
+    @Test
+    public void rleDecode() throws Exception {
+        int[] values = new int[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 50 ? 3 : i % 5;
+        }
+        ParquetBuffer buffer = new ParquetBuffer();
+        ParquetRLE.encode(values, 0, values.length, 3, buffer);
+        int[] decoded = new int[values.length];
+        ParquetRLE.decode(buffer.getData(), 0, buffer.size(), 3, decoded, decoded.length);
+        Assert.assertArrayEquals(values, decoded);
+    }
+
+    @Test
+    public void parquetRoundTrip() throws Exception {
+        checkParquet(ParquetConstants.CODEC_UNCOMPRESSED, 0);
+        checkParquet(ParquetConstants.CODEC_SNAPPY, 1);
+        checkParquet(ParquetConstants.CODEC_GZIP, 5000);
+    }
+
+    @Test
+    public void lz4Block() throws Exception {
+        // Literals "abcd", match of 8 bytes at offset 4, last literal "e"
+        byte[] block = {0x44, 'a', 'b', 'c', 'd', 4, 0, 0x10, 'e'};
+        byte[] output = new byte[13];
+        LZ4FrameDecoder.decodeBlock(block, 0, block.length, output, 0);
+        Assert.assertEquals("abcdabcdabcde", new String(output, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void parquetDeltaEncodingsV2() throws Exception {
+        // parquet-mr, PARQUET_2_0 writer without dictionary: DELTA_BINARY_PACKED, DELTA_BYTE_ARRAY and RLE in V2 data pages, Snappy
+        Object[][] columns = readParquetFixture("delta-v2.parquet", 6, 1000);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(deltaId(i), columns[0][i]);
+            Assert.assertEquals(deltaBig(i), columns[1][i]);
+            Assert.assertEquals(deltaName(i), columns[2][i]);
+            Assert.assertEquals(BigDecimal.valueOf(deltaAmount(i), 2), columns[3][i]);
+            Assert.assertEquals(toInstant(deltaTimestamp(i)), ((Timestamp) columns[4][i]).toInstant());
+            Assert.assertEquals(deltaFlag(i), columns[5][i]);
+        }
+    }
+
+    @Test
+    public void parquetDictionaryV2() throws Exception {
+        // parquet-mr, PARQUET_2_0 writer with dictionary: RLE_DICTIONARY in V2 data pages, GZIP
+        Object[][] columns = readParquetFixture("dictionary-v2.parquet", 3, 1000);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(dictionaryColor(i), columns[0][i]);
+            Assert.assertEquals(dictionaryCode(i), columns[1][i]);
+            Assert.assertEquals(dictionaryWeight(i), columns[2][i]);
+        }
+    }
+
+    @Test
+    public void parquetByteStreamSplit() throws Exception {
+        // parquet-mr, PARQUET_1_0 writer with byte stream split encoding of floating point columns
+        Object[][] columns = readParquetFixture("byte-stream-split.parquet", 2, 300);
+        for (int i = 0; i < 300; i++) {
+            Assert.assertEquals(splitFloat(i), columns[0][i]);
+            Assert.assertEquals(splitDouble(i), columns[1][i]);
+        }
+    }
+
+    @Test
+    public void arrowFileFormat() throws Exception {
+        checkArrowFixture("types.arrow");
+    }
+
+    @Test
+    public void arrowStreamFormat() throws Exception {
+        checkArrowFixture("types.arrows");
+    }
+
+    @Test
+    public void arrowCompressedLZ4() throws Exception {
+        checkArrowFixture("types-lz4.arrow");
+    }
+
+    private static void checkParquet(int codec, int rowCount) throws Exception {
+        List<ParquetColumn> columns = new ArrayList<>();
+        columns.add(new ParquetColumn("id", ParquetConstants.TYPE_INT64));
+        columns.add(new ParquetColumn("name", ParquetConstants.TYPE_BYTE_ARRAY).setLogicalType(ParquetConstants.LOGICAL_STRING));
+        columns.add(new ParquetColumn("flag", ParquetConstants.TYPE_BOOLEAN));
+        columns.add(new ParquetColumn("amount", ParquetConstants.TYPE_INT32).setDecimal(9, 2));
+
+        File file = File.createTempFile("dbeaver-test", ".parquet");
+        try {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+                ParquetFileWriter writer = new ParquetFileWriter(out, columns, codec, true, 1024, "test");
+                writer.start();
+                for (int i = 0; i < rowCount; i++) {
+                    writer.getColumnWriter(0).addLong(i * 3L);
+                    if (i % 7 == 0) {
+                        writer.getColumnWriter(1).addNull();
+                    } else {
+                        writer.getColumnWriter(1).addBinary(("name" + i % 10).getBytes(StandardCharsets.UTF_8));
+                    }
+                    writer.getColumnWriter(2).addBoolean(i % 3 == 0);
+                    writer.getColumnWriter(3).addInt(i - 100);
+                    if ((i + 1) % 2000 == 0) {
+                        writer.flushRowGroup();
+                    }
+                }
+                writer.finish();
+            }
+
+            try (ParquetFileReader reader = new ParquetFileReader(file)) {
+                Assert.assertEquals(4, reader.getColumns().size());
+                Assert.assertEquals(rowCount, reader.getRowCount());
+                int row = 0;
+                for (int rowGroup = 0; rowGroup < reader.getRowGroupCount(); rowGroup++) {
+                    // Read columns out of order: each column chunk is read independently
+                    Object[] amounts = reader.readColumn(rowGroup, 3);
+                    Object[] names = reader.readColumn(rowGroup, 1);
+                    Object[] flags = reader.readColumn(rowGroup, 2);
+                    Object[] ids = reader.readColumn(rowGroup, 0);
+                    Assert.assertEquals(reader.getRowGroupRowCount(rowGroup), ids.length);
+                    for (int i = 0; i < ids.length; i++, row++) {
+                        Assert.assertEquals((long) row * 3, ids[i]);
+                        Assert.assertEquals(row % 7 == 0 ? null : "name" + row % 10, names[i]);
+                        Assert.assertEquals(row % 3 == 0, flags[i]);
+                        Assert.assertEquals(BigDecimal.valueOf(row - 100, 2), amounts[i]);
+                    }
+                }
+                Assert.assertEquals(rowCount, row);
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Reads all columns of the fixture, row groups are concatenated
+     */
+    private static Object[][] readParquetFixture(String name, int columnCount, int rowCount) throws Exception {
+        File file = copyFixture(name);
+        try (ParquetFileReader reader = new ParquetFileReader(file)) {
+            Assert.assertEquals(columnCount, reader.getColumns().size());
+            Assert.assertEquals(rowCount, reader.getRowCount());
+            Object[][] columns = new Object[columnCount][rowCount];
+            int row = 0;
+            for (int rowGroup = 0; rowGroup < reader.getRowGroupCount(); rowGroup++) {
+                int groupRows = (int) reader.getRowGroupRowCount(rowGroup);
+                for (int i = 0; i < columnCount; i++) {
+                    System.arraycopy(reader.readColumn(rowGroup, i), 0, columns[i], row, groupRows);
+                }
+                row += groupRows;
+            }
+            Assert.assertEquals(rowCount, row);
+            return columns;
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void checkArrowFixture(String name) throws Exception {
+        File file = copyFixture(name);
+        try (ArrowFileReader reader = new ArrowFileReader(file)) {
+            Assert.assertEquals(ARROW_COLUMNS.length, reader.getColumns().size());
+            for (int i = 0; i < ARROW_COLUMNS.length; i++) {
+                Assert.assertEquals(ARROW_COLUMNS[i], reader.getColumns().get(i).getName());
+            }
+            for (Object[][] batch : ARROW_BATCHES) {
+                Assert.assertTrue(reader.nextBatch());
+                Assert.assertEquals(batch.length, reader.getBatchRowCount());
+                for (int column = 0; column < ARROW_COLUMNS.length; column++) {
+                    Object[] values = reader.readColumn(column);
+                    Assert.assertEquals(batch.length, values.length);
+                    for (int row = 0; row < batch.length; row++) {
+                        Object value = values[row];
+                        if (value instanceof Timestamp) {
+                            value = ((Timestamp) value).toInstant();
+                        } else if (value instanceof java.sql.Date) {
+                            value = ((java.sql.Date) value).toLocalDate();
+                        }
+                        Assert.assertEquals(ARROW_COLUMNS[column] + "[" + row + "]", batch[row][column], value);
+                    }
+                }
+            }
+            Assert.assertFalse(reader.nextBatch());
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static File copyFixture(String name) throws Exception {
+        File file = File.createTempFile("dbeaver-test", name.substring(name.indexOf('.')));
+        try (InputStream in = ColumnarReaderTest.class.getResourceAsStream("columnar/" + name)) {
+            Assert.assertNotNull("Fixture " + name + " not found", in);
+            Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return file;
+    }
+
+    private static Instant toInstant(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1000);
+    }
+
+    // Fixture data. Fixtures in columnar/ were written from the same data by parquet-mr 1.12.3 and Arrow Java 9.0.0
+
+    static Integer deltaId(int i) {
+        return i % 7 == 3 ? null : i == 1 ? Integer.MIN_VALUE : i == 2 ? Integer.MAX_VALUE : i * i - 5000;
+    }
+
+    static Long deltaBig(int i) {
+        return i % 13 == 6 ? null : i == 5 ? Long.MIN_VALUE : i == 8 ? Long.MAX_VALUE : (i % 2 == 0 ? 1 : -1) * i * 1_000_000_007L;
+    }
+
+    static String deltaName(int i) {
+        // Shared prefixes of different length
+        return i % 11 == 5 ? null : i == 10 ? "\u041f\u0440\u0438\u0432\u0435\u0442" : "customer-" + i / 10 + "-" + "xxx".substring(0, i % 4);
+    }
+
+    static long deltaAmount(int i) {
+        return i * 12345L - 77;
+    }
+
+    static long deltaTimestamp(int i) {
+        return 1_600_000_000_000_000L + i * 1_000_003L;
+    }
+
+    static Boolean deltaFlag(int i) {
+        return i % 5 == 4 ? null : i % 3 == 0;
+    }
+
+    static String dictionaryColor(int i) {
+        String[] colors = {"red", "green", "blue", null, "\u0447\u0435\u0440\u043d\u044b\u0439"};
+        return colors[i * 7 % colors.length];
+    }
+
+    static int dictionaryCode(int i) {
+        return i % 10 * 100;
+    }
+
+    static Double dictionaryWeight(int i) {
+        return i % 9 == 0 ? null : i % 6 * 0.5;
+    }
+
+    static Float splitFloat(int i) {
+        return i % 9 == 0 ? null : i == 3 ? Float.NaN : i == 4 ? Float.POSITIVE_INFINITY : i == 5 ? -0.0f : i * 0.25f - 10;
+    }
+
+    static double splitDouble(int i) {
+        return i == 7 ? Double.NEGATIVE_INFINITY : StrictMath.sin(i) * 1e6;
+    }
+
+    static final String[] ARROW_COLUMNS = {"id", "name", "color", "level", "amount", "day", "ts", "big", "flag", "ratio"};
+    // Dictionaries of "color" (Int8 indexes) and "level" (Int16 indexes) columns
+    static final String[] ARROW_COLORS = {"red", "green", "blue"};
+    static final int[] ARROW_LEVELS = {10, 20, 30};
+    // Record batches. The second batch is empty
+    static final Object[][][] ARROW_BATCHES = {
+        {
+            {1, "alpha", "red", 10, new BigDecimal("12.34"), LocalDate.of(2021, 6, 1),
+                Instant.parse("2021-06-01T12:00:00.123456Z"), Long.MAX_VALUE, true, 0.5},
+            {null, "\u03b2eta", "blue", 30, new BigDecimal("-0.05"), LocalDate.of(1969, 12, 31),
+                null, Long.MIN_VALUE, false, Double.NaN},
+            {3, null, null, null, null, null,
+                Instant.parse("1959-12-31T23:00:00Z"), 0L, null, null},
+            {Integer.MIN_VALUE, "", "red", 20, new BigDecimal("99999999.99"), LocalDate.of(1900, 1, 1),
+                Instant.EPOCH, null, true, Double.NEGATIVE_INFINITY},
+        },
+        {},
+        {
+            {7, "gamma", "green", 10, new BigDecimal("0.00"), LocalDate.of(2000, 2, 29),
+                null, 1L, null, 1.0},
+            {8, null, "green", 10, new BigDecimal("1.50"), null,
+                Instant.parse("2000-01-01T00:00:00Z"), 2L, false, 2.0},
+            {null, "delta", "blue", null, null, LocalDate.of(2021, 1, 1),
+                Instant.parse("2021-01-01T00:00:00.000001Z"), 3L, true, null},
+        },
+    };
+}
@@ -0,0 +1,98 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.ParallelGZIPOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+public class ParallelGZIPOutputStreamTest {
+
+    @Test
+    public void roundTrip() throws Exception {
+        Random random = new Random(1);
+        byte[] data = new byte[300000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 1000 < 100 ? random.nextInt(256) : 'a' + i % 20);
+        }
+        for (int threads : new int[] {1, 4}) {
+            Assert.assertArrayEquals(data, gunzip(gzip(data, threads, 8192)));
+            Assert.assertArrayEquals(data, gunzip(gzip(data, threads, 1024 * 1024)));
+        }
+    }
+
+    @Test
+    public void emptyInput() throws Exception {
+        byte[] compressed = gzip(new byte[0], 4, 8192);
+        Assert.assertTrue(compressed.length > 0);
+        Assert.assertArrayEquals(new byte[0], gunzip(compressed));
+    }
+
+    @Test
+    public void writeErrorOnFinish() throws Exception {
+        OutputStream failingOut = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Disk full");
+            }
+        };
+        ParallelGZIPOutputStream gzip = new ParallelGZIPOutputStream(failingOut, 4, 8192);
+        // Data is buffered, nothing is written yet
+        gzip.write(new byte[100]);
+        try {
+            gzip.finish();
+            Assert.fail("Write error must be thrown on finish");
+        } catch (IOException e) {
+            Assert.assertEquals("Disk full", e.getMessage());
+        }
+    }
+
+    private static byte[] gzip(byte[] data, int threads, int blockSize) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ParallelGZIPOutputStream gzip = new ParallelGZIPOutputStream(out, threads, blockSize)) {
+            // Mix single byte and chunked writes with flushes
+            if (data.length > 0) {
+                gzip.write(data[0]);
+            }
+            for (int pos = 1; pos < data.length; pos += 777) {
+                gzip.write(data, pos, Math.min(777, data.length - pos));
+                gzip.flush();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) > 0) {
+                out.write(buffer, 0, count);
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetBuffer;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetRLE;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.SnappyCodec;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+public class ParquetEncodingTest {
+
+    @Test
+    public void rleRuns() {
+        // 10 ones: RLE run
+        int[] values = new int[10];
+        Arrays.fill(values, 1);
+        ParquetBuffer buffer = new ParquetBuffer();
+        ParquetRLE.encode(values, 0, values.length, 1, buffer);
+        Assert.assertArrayEquals(new byte[] {20, 1}, buffer.toByteArray());
+    }
+
+    @Test
+    public void bitPackedGroups() {
+        // 0..7 with bit width 3: one bit-packed group (example from the Parquet specification)
+        int[] values = {0, 1, 2, 3, 4, 5, 6, 7};
+        ParquetBuffer buffer = new ParquetBuffer();
+        ParquetRLE.encode(values, 0, values.length, 3, buffer);
+        Assert.assertArrayEquals(new byte[] {3, (byte) 0x88, (byte) 0xC6, (byte) 0xFA}, buffer.toByteArray());
+
+        // Last group is padded
+        buffer.reset();
+        ParquetRLE.encode(new int[] {1, 0, 1}, 0, 3, 1, buffer);
+        Assert.assertArrayEquals(new byte[] {3, 5}, buffer.toByteArray());
+    }
+
+    @Test
+    public void snappyRoundTrip() throws Exception {
+        byte[] text = "Hello, hello, hello, hello! Parquet pages are compressed with Snappy. Snappy, Snappy, Snappy."
+            .getBytes(StandardCharsets.UTF_8);
+        checkSnappy(text);
+        checkSnappy(new byte[0]);
+
+        // Large input with repeated and random parts, spans several fragments
+        Random random = new Random(1);
+        byte[] data = new byte[300000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 3000 < 1000 ? random.nextInt(256) : i % 100);
+        }
+        int compressedSize = checkSnappy(data);
+        Assert.assertTrue(compressedSize < data.length / 2);
+    }
+
+    private static int checkSnappy(byte[] data) throws Exception {
+        ParquetBuffer buffer = new ParquetBuffer();
+        new SnappyCodec().compress(data, 0, data.length, buffer);
+        Assert.assertArrayEquals(data, SnappyCodec.uncompress(buffer.getData(), 0, buffer.size()));
+        return buffer.size();
+    }
+}
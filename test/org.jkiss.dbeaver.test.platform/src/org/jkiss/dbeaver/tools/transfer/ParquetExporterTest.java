@@ -0,0 +1,323 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.exporter.DataExporterParquet;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares files written by the Parquet exporter with golden dumps made by the parquet-mr reader
+ * (see parquet/*.txt resources). The same dump format is rendered here from our own reader.
+ */
+public class ParquetExporterTest {
+
+    @Test
+    public void nulls() throws Exception {
+        checkGolden("nulls", exportParquet(nullsColumns(), nullsRows(), "snappy", true));
+    }
+
+    @Test
+    public void nullsPlain() throws Exception {
+        checkGolden("nulls", exportParquet(nullsColumns(), nullsRows(), "gzip", false));
+    }
+
+    @Test
+    public void emptyResult() throws Exception {
+        checkGolden("empty", exportParquet(nullsColumns(), Collections.emptyList(), "snappy", true));
+    }
+
+    @Test
+    public void emptyRowGroups() throws Exception {
+        checkGolden("row-groups", writeRowGroups());
+    }
+
+    @Test
+    public void decimals() throws Exception {
+        checkGolden("decimals", exportParquet(decimalsColumns(), decimalsRows(), "none", true));
+    }
+
+    @Test
+    public void timeZones() throws Exception {
+        checkGolden("time-zones", exportParquet(timeZonesColumns(), timeZonesRows(), "snappy", true));
+    }
+
+    static List<DBDAttributeBinding> nullsColumns() {
+        return Arrays.asList(
+            makeAttribute("id", DBPDataKind.NUMERIC, Types.INTEGER, "INTEGER", null, null),
+            makeAttribute("name", DBPDataKind.STRING, Types.VARCHAR, "VARCHAR", null, null),
+            makeAttribute("amount", DBPDataKind.NUMERIC, Types.DECIMAL, "DECIMAL", 9, 2),
+            makeAttribute("flag", DBPDataKind.BOOLEAN, Types.BOOLEAN, "BOOLEAN", null, null),
+            makeAttribute("ratio", DBPDataKind.NUMERIC, Types.DOUBLE, "DOUBLE", null, null),
+            makeAttribute("nothing", DBPDataKind.STRING, Types.VARCHAR, "VARCHAR", null, null));
+    }
+
+    static List<Object[]> nullsRows() {
+        return Arrays.asList(
+            new Object[] {1, "first", new BigDecimal("10.50"), true, 0.5, null},
+            new Object[] {null, null, null, null, null, null},
+            new Object[] {3, "third", null, false, null, null},
+            new Object[] {null, "first", new BigDecimal("-0.01"), null, -2.25, null},
+            new Object[] {5, null, new BigDecimal("10.50"), true, null, null});
+    }
+
+    static List<DBDAttributeBinding> decimalsColumns() {
+        return Arrays.asList(
+            makeAttribute("small", DBPDataKind.NUMERIC, Types.DECIMAL, "DECIMAL", 5, 2),
+            makeAttribute("medium", DBPDataKind.NUMERIC, Types.NUMERIC, "NUMERIC", 18, 4),
+            makeAttribute("large", DBPDataKind.NUMERIC, Types.DECIMAL, "DECIMAL", 38, 10),
+            makeAttribute("unsigned", DBPDataKind.NUMERIC, Types.BIGINT, "BIGINT UNSIGNED", null, null),
+            makeAttribute("unconstrained", DBPDataKind.NUMERIC, Types.NUMERIC, "NUMERIC", 0, 0));
+    }
+
+    static List<Object[]> decimalsRows() {
+        return Arrays.asList(
+            new Object[] {new BigDecimal("123.45"), new BigDecimal("12345678901234.5678"),
+                new BigDecimal("1234567890123456789012345678.0123456789"), new BigInteger("18446744073709551615"), "1e-30"},
+            new Object[] {new BigDecimal("-999.99"), new BigDecimal("-99999999999999.9999"),
+                new BigDecimal("-9999999999999999999999999999.9999999999"), 0L, "-12345678901234567890.123456789"},
+            // HALF_UP rounding to the column scale
+            new Object[] {new BigDecimal("0.005"), 1.00005, new BigDecimal("0.00000000005"), 42, "0"},
+            new Object[] {null, 0, BigDecimal.ZERO, null, null});
+    }
+
+    static List<DBDAttributeBinding> timeZonesColumns() {
+        return Arrays.asList(
+            makeAttribute("t", DBPDataKind.DATETIME, Types.TIME_WITH_TIMEZONE, "TIMETZ", null, null),
+            makeAttribute("ts", DBPDataKind.DATETIME, Types.TIMESTAMP_WITH_TIMEZONE, "TIMESTAMPTZ", null, null),
+            makeAttribute("d", DBPDataKind.DATETIME, Types.DATE, "DATE", null, null));
+    }
+
+    static List<Object[]> timeZonesRows() {
+        return Arrays.asList(
+            // 12:00 UTC in three offsets
+            new Object[] {OffsetTime.of(15, 0, 0, 0, ZoneOffset.ofHours(3)),
+                OffsetDateTime.of(2021, 6, 1, 15, 0, 0, 0, ZoneOffset.ofHours(3)), LocalDate.of(2021, 6, 1)},
+            new Object[] {OffsetTime.of(7, 0, 0, 0, ZoneOffset.ofHours(-5)),
+                OffsetDateTime.of(2021, 6, 1, 7, 0, 0, 0, ZoneOffset.ofHours(-5)), LocalDate.of(1969, 12, 31)},
+            new Object[] {OffsetTime.of(12, 0, 0, 123_000_000, ZoneOffset.UTC),
+                OffsetDateTime.of(2021, 6, 1, 12, 0, 0, 123_456_000, ZoneOffset.UTC), null},
+            // Wraps over midnight: 01:30 UTC
+            new Object[] {"23:30:00-02:00", OffsetDateTime.of(1960, 1, 1, 0, 0, 0, 0, ZoneOffset.ofHours(1)), LocalDate.of(1900, 1, 1)},
+            new Object[] {null, null, null});
+    }
+
+    /**
+     * Row groups of 3, 3 and 1 rows. Redundant flushes must not produce empty row groups
+     */
+    static byte[] writeRowGroups() throws IOException {
+        List<ParquetColumn> columns = new ArrayList<>();
+        columns.add(new ParquetColumn("id", ParquetConstants.TYPE_INT64));
+        columns.add(new ParquetColumn("name", ParquetConstants.TYPE_BYTE_ARRAY)
+            .setLogicalType(ParquetConstants.LOGICAL_STRING)
+            .setConvertedType(ParquetConstants.CONVERTED_UTF8));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ParquetFileWriter writer = new ParquetFileWriter(out, columns, ParquetConstants.CODEC_SNAPPY, true, 1024, "test");
+        writer.start();
+        writer.flushRowGroup();
+        for (int i = 0; i < 7; i++) {
+            writer.getColumnWriter(0).addLong(i);
+            if (i == 4) {
+                writer.getColumnWriter(1).addNull();
+            } else {
+                writer.getColumnWriter(1).addBinary(("row " + i).getBytes(StandardCharsets.UTF_8));
+            }
+            if (i % 3 == 2) {
+                writer.flushRowGroup();
+                writer.flushRowGroup();
+            }
+        }
+        writer.finish();
+        return out.toByteArray();
+    }
+
+    static byte[] exportParquet(List<DBDAttributeBinding> attributes, List<Object[]> rows, String compression, boolean dictionary) throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("compression", compression);
+        properties.put("dictionary", dictionary);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IStreamDataExporterSite site = mock(IStreamDataExporterSite.class);
+        when(site.getProperties()).thenReturn(properties);
+        DBDAttributeBinding[] bindings = attributes.toArray(new DBDAttributeBinding[0]);
+        for (int i = 0; i < bindings.length; i++) {
+            when(bindings[i].getOrdinalPosition()).thenReturn(i);
+        }
+        when(site.getAttributes()).thenReturn(bindings);
+        when(site.getOutputStream()).thenReturn(out);
+        when(site.getExportFormat()).thenReturn(DBDDisplayFormat.NATIVE);
+
+        DataExporterParquet exporter = new DataExporterParquet();
+        exporter.init(site);
+        exporter.exportHeader(null);
+        for (Object[] row : rows) {
+            exporter.exportRow(null, null, row);
+        }
+        exporter.exportFooter(null);
+        exporter.dispose();
+        return out.toByteArray();
+    }
+
+    private static DBDAttributeBinding makeAttribute(String name, DBPDataKind dataKind, int typeID, String typeName, Integer precision, Integer scale) {
+        DBDAttributeBinding attribute = mock(DBDAttributeBinding.class);
+        when(attribute.getName()).thenReturn(name);
+        when(attribute.getLabel()).thenReturn(name);
+        when(attribute.getDataKind()).thenReturn(dataKind);
+        when(attribute.getTypeID()).thenReturn(typeID);
+        when(attribute.getTypeName()).thenReturn(typeName);
+        when(attribute.getPrecision()).thenReturn(precision);
+        when(attribute.getScale()).thenReturn(scale);
+        return attribute;
+    }
+
+    private static void checkGolden(String name, byte[] data) throws Exception {
+        String expected;
+        try (InputStream in = ParquetExporterTest.class.getResourceAsStream("parquet/" + name + ".txt")) {
+            Assert.assertNotNull("Golden file " + name + " not found", in);
+            expected = new String(readAll(in), StandardCharsets.UTF_8);
+        }
+        File file = File.createTempFile("dbeaver-test", ".parquet");
+        try {
+            try (OutputStream out = new FileOutputStream(file)) {
+                out.write(data);
+            }
+            Assert.assertEquals(expected, dumpParquet(file));
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Renders schema (in parquet-mr syntax), row groups and values of the file.
+     * Decimals are rendered as plain numbers, dates and times in ISO format (timestamps adjusted to UTC as instants)
+     */
+    static String dumpParquet(File file) throws IOException {
+        StringBuilder dump = new StringBuilder();
+        try (ParquetFileReader reader = new ParquetFileReader(file)) {
+            List<ParquetColumn> columns = reader.getColumns();
+            dump.append("message schema {\n");
+            for (ParquetColumn column : columns) {
+                dump.append("  ").append(column.isOptional() ? "optional " : "required ").append(getPhysicalTypeName(column))
+                    .append(' ').append(column.getName());
+                String logicalType = getLogicalTypeName(column);
+                if (logicalType != null) {
+                    dump.append(" (").append(logicalType).append(')');
+                }
+                dump.append(";\n");
+            }
+            dump.append("}\n");
+            dump.append("rows: ").append(reader.getRowCount()).append('\n');
+            for (int group = 0; group < reader.getRowGroupCount(); group++) {
+                int rowCount = (int) reader.getRowGroupRowCount(group);
+                dump.append("row group ").append(group).append(": ").append(rowCount).append(" rows\n");
+                Object[][] values = new Object[columns.size()][];
+                for (int i = 0; i < columns.size(); i++) {
+                    values[i] = reader.readColumn(group, i);
+                }
+                for (int row = 0; row < rowCount; row++) {
+                    for (int i = 0; i < columns.size(); i++) {
+                        dump.append(i == 0 ? "" : " | ").append(formatValue(columns.get(i), values[i][row]));
+                    }
+                    dump.append('\n');
+                }
+            }
+        }
+        return dump.toString();
+    }
+
+    private static String getPhysicalTypeName(ParquetColumn column) {
+        switch (column.getType()) {
+            case ParquetConstants.TYPE_BOOLEAN: return "boolean";
+            case ParquetConstants.TYPE_INT32: return "int32";
+            case ParquetConstants.TYPE_INT64: return "int64";
+            case ParquetConstants.TYPE_INT96: return "int96";
+            case ParquetConstants.TYPE_FLOAT: return "float";
+            case ParquetConstants.TYPE_DOUBLE: return "double";
+            case ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY: return "fixed_len_byte_array(" + column.getTypeLength() + ")";
+            default: return "binary";
+        }
+    }
+
+    private static String getLogicalTypeName(ParquetColumn column) {
+        switch (column.getLogicalType()) {
+            case ParquetConstants.LOGICAL_STRING: return "STRING";
+            case ParquetConstants.LOGICAL_DECIMAL: return "DECIMAL(" + column.getPrecision() + "," + column.getScale() + ")";
+            case ParquetConstants.LOGICAL_DATE: return "DATE";
+            case ParquetConstants.LOGICAL_TIME:
+            case ParquetConstants.LOGICAL_TIMESTAMP:
+                return (column.getLogicalType() == ParquetConstants.LOGICAL_TIME ? "TIME(" : "TIMESTAMP(") +
+                    (column.getTimeUnit() == ParquetConstants.TIME_UNIT_MILLIS ? "MILLIS" :
+                        column.getTimeUnit() == ParquetConstants.TIME_UNIT_MICROS ? "MICROS" : "NANOS") +
+                    "," + column.isAdjustedToUTC() + ")";
+            case ParquetConstants.LOGICAL_INTEGER: return "INTEGER(" + column.getBitWidth() + "," + column.isSigned() + ")";
+            default: return null;
+        }
+    }
+
+    private static String formatValue(ParquetColumn column, Object value) {
+        if (value == null) {
+            return "null";
+        } else if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        } else if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().toString();
+        } else if (value instanceof Time) {
+            Time time = (Time) value;
+            return time.toLocalTime().plusNanos(Math.floorMod(time.getTime(), 1000L) * 1_000_000L).toString();
+        } else if (value instanceof Timestamp) {
+            Timestamp timestamp = (Timestamp) value;
+            return column.isAdjustedToUTC() ? timestamp.toInstant().toString() : timestamp.toLocalDateTime().toString();
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            StringBuilder hex = new StringBuilder("0x");
+            for (byte b : bytes) {
+                hex.append(String.format("%02X", b & 0xFF));
+            }
+            return hex.toString();
+        }
+        return String.valueOf(value);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[4096];
+        for (int count; (count = in.read(chunk)) > 0; ) {
+            buffer.write(chunk, 0, count);
+        }
+        return buffer.toByteArray();
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CharTrieTest {
+
+    @Test
+    public void testLookup() {
+        CharTrie<String> trie = new CharTrie<>();
+        trie.put("SELECT", "keyword");
+        trie.put("sel", "prefix");
+        trie.put("from", "keyword");
+        trie.put("From", "replaced");
+        Assert.assertEquals(3, trie.size());
+
+        Assert.assertEquals("keyword", trie.get("select"));
+        Assert.assertEquals("keyword", trie.get("SeLeCt"));
+        Assert.assertEquals("prefix", trie.get("SEL"));
+        Assert.assertEquals("replaced", trie.get("FROM"));
+        Assert.assertNull(trie.get("sele"));
+        Assert.assertNull(trie.get("selects"));
+        Assert.assertNull(trie.get(""));
+        Assert.assertFalse(trie.containsKey("where"));
+
+        char[] chars = "x FROM y".toCharArray();
+        Assert.assertEquals("replaced", trie.get(chars, 2, 4));
+        Assert.assertNull(trie.get(chars, 2, 3));
+
+        trie.clear();
+        Assert.assertTrue(trie.isEmpty());
+        Assert.assertNull(trie.get("select"));
+    }
+
+}